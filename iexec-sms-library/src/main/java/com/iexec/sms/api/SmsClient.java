@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,9 @@ import com.iexec.commons.poco.chain.WorkerpoolAuthorization;
 import com.iexec.commons.poco.tee.TeeFramework;
 import com.iexec.sms.api.config.TeeServicesProperties;
 import com.iexec.sms.metric.SmsMetrics;
+import com.iexec.sms.secret.SecretImportItem;
+import com.iexec.sms.secret.SecretImportResult;
+import com.iexec.sms.secret.SecretReference;
 import feign.Headers;
 import feign.Param;
 import feign.RequestLine;
@@ -49,6 +52,9 @@ public interface SmsClient {
             String secretValue
     );
 
+    @RequestLine("POST /apps/secrets/batch")
+    List<SecretImportResult> addAppDeveloperAppComputeSecrets(List<SecretImportItem> secrets);
+
     @RequestLine("HEAD /apps/{appAddress}/secrets")
     ApiResponseBody<String, List<String>> isAppDeveloperAppComputeSecretPresent(
             @Param("appAddress") String appAddress
@@ -63,6 +69,9 @@ public interface SmsClient {
             String secretValue
     );
 
+    @RequestLine("POST /requesters/secrets/batch")
+    List<SecretImportResult> addRequesterAppComputeSecrets(List<SecretImportItem> secrets);
+
     @RequestLine("HEAD /requesters/{requesterAddress}/secrets/{secretKey}")
     ApiResponseBody<String, List<String>> isRequesterAppComputeSecretPresent(
             @Param("requesterAddress") String requesterAddress,
@@ -84,6 +93,9 @@ public interface SmsClient {
             String secretValue
     );
 
+    @RequestLine("POST /secrets/web2/batch")
+    List<SecretImportResult> setWeb2Secrets(List<SecretImportItem> secrets);
+
     @RequestLine("PUT /secrets/web2?ownerAddress={ownerAddress}&secretName={secretName}")
     @Headers("Authorization: {authorization}")
     String updateWeb2Secret(
@@ -105,6 +117,18 @@ public interface SmsClient {
             @Param("secretAddress") String secretAddress,
             String secretValue
     );
+
+    @RequestLine("POST /secrets/web3/batch")
+    List<SecretImportResult> setWeb3Secrets(List<SecretImportItem> secrets);
+
+    /**
+     * Checks the existence of many secrets of any type with a single call.
+     *
+     * @param secrets References of the secrets to look for
+     * @return For each reference at the same index, whether the secret exists.
+     */
+    @RequestLine("POST /secrets/exists")
+    List<Boolean> areSecretsPresent(List<SecretReference> secrets);
     // endregion
 
     // region TEE
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Signed secret submitted to a batch import endpoint.
+ * <p>
+ * The meaning of {@code address} and {@code key} depends on the endpoint:
+ * <ul>
+ * <li>web3 secrets: {@code address} is the secret address, {@code key} is ignored.
+ * <li>web2 secrets: {@code address} is the owner address, {@code key} is the secret name.
+ * <li>application developer secrets: {@code address} is the application address, {@code key} is ignored.
+ * <li>requester secrets: {@code address} is the requester address, {@code key} is the secret key.
+ * </ul>
+ * The {@code authorization} is the same signature as the one expected by the single secret endpoint.
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class SecretImportItem {
+    private String authorization;
+    private String address;
+    private String key;
+    private String value;
+}
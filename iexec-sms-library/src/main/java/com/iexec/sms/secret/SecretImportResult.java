@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single secret of a batch import.
+ * <p>
+ * The {@code status} is the HTTP status code the single secret endpoint would have returned for this secret.
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class SecretImportResult {
+    private String address;
+    private String key;
+    private int status;
+}
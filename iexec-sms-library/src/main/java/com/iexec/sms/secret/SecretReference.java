@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Identifies a secret without its value.
+ * <p>
+ * The meaning of {@code address} and {@code key} depends on the {@code type}:
+ * <ul>
+ * <li>{@link SecretType#WEB2}: {@code address} is the owner address, {@code key} is the secret name.
+ * <li>{@link SecretType#WEB3}: {@code address} is the secret address, {@code key} is ignored.
+ * <li>{@link SecretType#APP_DEVELOPER}: {@code address} is the application address, {@code key} is ignored.
+ * <li>{@link SecretType#REQUESTER}: {@code address} is the requester address, {@code key} is the secret key.
+ * </ul>
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class SecretReference {
+    private SecretType type;
+    private String address;
+    private String key;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+/**
+ * Kinds of secrets stored by the SMS.
+ */
+public enum SecretType {
+    /**
+     * Secret identified by an owner address and a secret name.
+     */
+    WEB2,
+    /**
+     * Secret identified by an on-chain address.
+     */
+    WEB3,
+    /**
+     * Application developer secret identified by an application address.
+     */
+    APP_DEVELOPER,
+    /**
+     * Requester secret identified by a requester address and a secret key.
+     */
+    REQUESTER
+}
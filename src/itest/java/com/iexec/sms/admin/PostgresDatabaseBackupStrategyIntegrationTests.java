@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.admin;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Backs up and restores a PostgreSQL database migrated with the versioned migrations of the SMS.
+ */
+@Testcontainers
+class PostgresDatabaseBackupStrategyIntegrationTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @TempDir
+    private Path tempDir;
+    private PostgresDatabaseBackupStrategy strategy;
+
+    @BeforeEach
+    void init() {
+        final Flyway flyway = Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration/postgresql")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+        strategy = new PostgresDatabaseBackupStrategy(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private void execute(final String sql) throws SQLException {
+        try (Connection connection = openConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private List<String> query(final String sql) throws SQLException {
+        final List<String> rows = new ArrayList<>();
+        try (Connection connection = openConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                final List<String> values = new ArrayList<>();
+                for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
+                    values.add(resultSet.getString(i));
+                }
+                rows.add(String.join("|", values));
+            }
+        }
+        return rows;
+    }
+
+    private Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private void insertRows() throws SQLException {
+        execute("INSERT INTO \"data_key\" (\"version\", \"creation_date\", \"wrapped_key\") "
+                + "VALUES (1, '2026-01-01T00:00:00Z', 'wrappedKey1'), (2, NULL, 'wrapped,key \"2\"')");
+        execute("INSERT INTO \"tee_task_challenge\" "
+                + "(\"task_id\", \"final_deadline\", \"address\", \"is_encrypted\", \"private_key\") "
+                + "VALUES ('0xtask', '2026-01-02T00:00:00Z', '0xaddress', TRUE, 'encryptedKey')");
+    }
+
+    @Test
+    void shouldRestoreBackup() throws SQLException, IOException {
+        insertRows();
+        final List<String> dataKeys = query("SELECT * FROM \"data_key\" ORDER BY \"version\"");
+        final List<String> challenges = query("SELECT * FROM \"tee_task_challenge\"");
+        final Path backupFile = tempDir.resolve("backup.zip");
+        strategy.dump(backupFile);
+
+        execute("DELETE FROM \"data_key\" WHERE \"version\" = 1");
+        execute("INSERT INTO \"data_key\" (\"version\", \"wrapped_key\") VALUES (3, 'wrappedKey3')");
+        execute("DELETE FROM \"tee_task_challenge\"");
+        strategy.restore(backupFile);
+
+        assertThat(query("SELECT * FROM \"data_key\" ORDER BY \"version\"")).isEqualTo(dataKeys);
+        assertThat(query("SELECT * FROM \"tee_task_challenge\"")).isEqualTo(challenges);
+    }
+
+    @Test
+    void shouldNotRestoreBackupOfAnotherSchemaVersion() throws SQLException, IOException {
+        insertRows();
+        final Path backupFile = tempDir.resolve("backup.zip");
+        strategy.dump(backupFile);
+        execute("UPDATE \"flyway_schema_history\" SET \"version\" = '999' WHERE \"installed_rank\" = "
+                + "(SELECT MAX(\"installed_rank\") FROM \"flyway_schema_history\")");
+        execute("DELETE FROM \"data_key\" WHERE \"version\" = 1");
+
+        assertThatThrownBy(() -> strategy.restore(backupFile))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("schema version");
+        assertThat(query("SELECT \"version\" FROM \"data_key\"")).containsExactly("2");
+    }
+}
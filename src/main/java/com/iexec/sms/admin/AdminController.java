@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
 @Slf4j
 @RestController
@@ -54,8 +55,9 @@ public class AdminController {
 
     /**
      * We want to perform one operation at a time. This ReentrantLock is used to set up the lock mechanism.
+     * It is shared with scheduled admin operations.
      */
-    private final ReentrantLock rLock = new ReentrantLock(true);
+    private final ReentrantLock rLock;
 
     private final AdminService adminService;
     private final String adminStorageLocation;
@@ -63,6 +65,7 @@ public class AdminController {
     public AdminController(AdminService adminService, @Value("${admin.storage-location}") String adminStorageLocation) {
         this.adminService = adminService;
         this.adminStorageLocation = adminStorageLocation;
+        this.rLock = adminService.getOperationLock();
     }
 
     /**
@@ -173,6 +176,78 @@ public class AdminController {
         return performOperation(sourceStorageID, sourceFileName, destinationStorageID, destinationFileName, BackupAction.COPY);
     }
 
+    /**
+     * Endpoint to create a new data key.
+     * <p>
+     * Secrets encrypted afterwards use the new data key, existing secrets remain readable with previous data keys.
+     *
+     * @return A response entity indicating the status of the rotation.
+     * <ul>
+     * <li>HTTP 200 (OK) - If a new data key is active.
+     * <li>HTTP 429 (Too Many Requests) - If another operation is already in progress.
+     * <li>HTTP 500 (Internal Server Error) - If envelope encryption is disabled or an unexpected error occurs.
+     * </ul>
+     */
+    @PostMapping("/encryption/rotate-data-key")
+    ResponseEntity<Void> rotateDataKey() {
+        return performExclusiveOperation(adminService::rotateDataKey, "Key rotation");
+    }
+
+    /**
+     * Endpoint to replace the AES master key.
+     * <p>
+     * Only data keys are re-wrapped with the new AES key, encrypted secrets are left untouched.
+     * A new backup should be created afterwards.
+     *
+     * @return A response entity indicating the status of the rotation.
+     * <ul>
+     * <li>HTTP 200 (OK) - If the AES key has been rotated.
+     * <li>HTTP 429 (Too Many Requests) - If another operation is already in progress.
+     * <li>HTTP 500 (Internal Server Error) - If envelope encryption is disabled or an unexpected error occurs.
+     * </ul>
+     */
+    @PostMapping("/encryption/rotate-aes-key")
+    ResponseEntity<Void> rotateAesKey() {
+        return performExclusiveOperation(adminService::rotateAesKey, "Key rotation");
+    }
+
+    /**
+     * Endpoint to compact the database file.
+     * <p>
+     * Free space left by deleted rows is released while the SMS keeps serving requests,
+     * within the configured max compaction duration. Only embedded H2 databases are compacted.
+     *
+     * @return A response entity indicating the status of the compaction.
+     * <ul>
+     * <li>HTTP 200 (OK) - If the database file has been compacted.
+     * <li>HTTP 429 (Too Many Requests) - If another operation is already in progress.
+     * <li>HTTP 500 (Internal Server Error) - If the database is not an embedded H2 database or an unexpected error occurs.
+     * </ul>
+     */
+    @PostMapping("/storage/compact")
+    ResponseEntity<Void> compactStorage() {
+        return performExclusiveOperation(adminService::compactStorage, "Storage compaction");
+    }
+
+    private ResponseEntity<Void> performExclusiveOperation(BooleanSupplier operation, String operationName) {
+        try {
+            if (!tryToAcquireLock()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+            }
+            return operation.getAsBoolean()
+                    ? ResponseEntity.ok().build()
+                    : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (Exception e) {
+            log.error("{} failed", operationName, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } finally {
+            tryToReleaseLock();
+        }
+    }
+
     /**
      * Common method for database backup operations.
      *
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,17 +17,13 @@
 package com.iexec.sms.admin;
 
 import com.iexec.sms.encryption.EncryptionService;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.h2.tools.RunScript;
-import org.h2.tools.Script;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -36,6 +32,11 @@ import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -45,29 +46,34 @@ public class AdminService {
     private final DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
     public static final String AES_KEY_FILENAME_EXTENSION = ".key";
     private static final String AES_KEY_LOG_DESCRIPTION = "AES Key";
-    private final String datasourceUrl;
-    private final String datasourceUsername;
-    private final String datasourcePassword;
+    private final DatabaseBackupStrategy databaseBackupStrategy;
     private final String adminStorageLocation;
     private final EncryptionService encryptionService;
 
-    @Getter
-    private boolean smsOnline;
+    private final List<Consumer<Boolean>> onlineStateListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> databaseRestoredListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Admin operations run one at a time, whether requested through the admin API or scheduled.
+     */
+    private final ReentrantLock operationLock = new ReentrantLock(true);
+
+    private volatile BooleanSupplier storageCompaction;
+    private volatile boolean smsOnline;
+    private volatile boolean clusterMaintenance;
 
     public AdminService(EncryptionService encryptionService,
                         @Value("${spring.datasource.url}") String datasourceUrl,
                         @Value("${spring.datasource.username}") String datasourceUsername,
                         @Value("${spring.datasource.password}") String datasourcePassword,
                         @Value("${admin.storage-location}") String adminStorageLocation) {
-        this.datasourceUrl = datasourceUrl;
-        this.datasourceUsername = datasourceUsername;
-        this.datasourcePassword = datasourcePassword;
+        this.databaseBackupStrategy = DatabaseBackupStrategy.forDatasource(
+                datasourceUrl, datasourceUsername, datasourcePassword);
         this.adminStorageLocation = adminStorageLocation;
         this.encryptionService = encryptionService;
     }
 
     /**
-     * Creates a backup of the H2 database and associated AES key at the specified location.
+     * Creates a backup of the database and associated AES key at the specified location.
      *
      * @param storageLocation The location where the backup file will be saved, must be an existing directory.
      * @param backupFileName  The name of the backup file.
@@ -113,7 +119,7 @@ public class AdminService {
         try {
             log.info("Starting the backup process [fullBackupFileName:{}]", fullBackupFileName);
             final long start = System.currentTimeMillis();
-            Script.process(datasourceUrl, datasourceUsername, datasourcePassword, fullBackupFileName, "DROP", "");
+            databaseBackupStrategy.dump(Path.of(fullBackupFileName));
             final long stop = System.currentTimeMillis();
             final long size = new File(fullBackupFileName).length();
             log.info("New backup created [fullBackupFileName:{}, timestamp:{}, duration:{} ms, size:{}]",
@@ -121,6 +127,9 @@ public class AdminService {
         } catch (SQLException e) {
             log.error("SQL error occurred during backup", e);
             return false;
+        } catch (IOException e) {
+            log.error("Backup file could not be written", e);
+            return false;
         }
         return true;
     }
@@ -153,12 +162,15 @@ public class AdminService {
 
             final long startRestoration = System.currentTimeMillis();
             log.info("Starting the full restore process [backupFileLocation:{},backupAesKeyFileLocationPath:{}]", backupFileLocation, backupAesKeyFileLocationPath);
-            restoreAesKey(backupAesKeyFileLocationPath);
+            // Database is restored first, wrapped data keys must be available when the AES key is reloaded
             restoreDatabase(backupDatabaseFileLocation);
+            restoreAesKey(backupAesKeyFileLocationPath);
+            // Listeners run once the AES key of the backup is loaded, a failing listener cannot skip it
+            final boolean listenersSucceeded = notifyDatabaseRestored();
             final long stopRestoration = System.currentTimeMillis();
             log.info("Ending the full restore process [backupFileLocation:{},backupAesKeyFileLocationPath:{},timestamp:{}, duration:{} ms]", backupFileLocation, backupAesKeyFileLocationPath, dateFormat.format(new Date(startRestoration)), stopRestoration - startRestoration);
 
-            return true;
+            return listenersSucceeded;
         } catch (IOException e) {
             log.error("Invalid backup file operation", e);
         } catch (SQLException e) {
@@ -195,20 +207,38 @@ public class AdminService {
      *
      * @param backupDatabaseFileLocation The location of database backup
      * @throws SQLException If an error occurred during sql script execution
+     * @throws IOException  If the backup file could not be read
      */
-    private void restoreDatabase(Path backupDatabaseFileLocation) throws SQLException {
+    private void restoreDatabase(Path backupDatabaseFileLocation) throws SQLException, IOException {
         final long databaseBackupFileSize = backupDatabaseFileLocation.toFile().length();
         final long startDatabaseRestoration = System.currentTimeMillis();
         log.info("Starting the restore process for the database");
-        RunScript.execute(datasourceUrl, datasourceUsername, datasourcePassword,
-                backupDatabaseFileLocation.toString(), Charset.defaultCharset(), true);
+        databaseBackupStrategy.restore(backupDatabaseFileLocation);
         final long stopDatabaseRestoration = System.currentTimeMillis();
         log.info("Database has been restored [backupFileLocation:{}, timestamp:{}, duration:{} ms, size:{}]",
                 backupDatabaseFileLocation, dateFormat.format(new Date(startDatabaseRestoration)), stopDatabaseRestoration - startDatabaseRestoration, databaseBackupFileSize);
     }
 
     /**
-     * Delete a backup of the H2 database from a location
+     * Notifies each database restored listener, a failing listener does not prevent the next ones from running.
+     *
+     * @return {@code true} if all listeners succeeded, {@code false} otherwise
+     */
+    private boolean notifyDatabaseRestored() {
+        boolean succeeded = true;
+        for (final Runnable listener : databaseRestoredListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.error("Failed to process restored database", e);
+                succeeded = false;
+            }
+        }
+        return succeeded;
+    }
+
+    /**
+     * Delete a backup of the database from a location
      *
      * @param storageLocation The location of the backup file.
      * @param backupFileName  The name of the backup file.
@@ -376,6 +406,42 @@ public class AdminService {
         return true;
     }
 
+    /**
+     * Creates a new data key, used for all subsequent encryptions.
+     *
+     * @return {@code true} if a new data key is active, {@code false} otherwise.
+     */
+    boolean rotateDataKey() {
+        return encryptionService.rotateDataKey().isPresent();
+    }
+
+    /**
+     * Replaces the AES master key, only data keys are re-wrapped.
+     * <p>
+     * The SMS is put offline during the rotation to avoid unwrapping data keys with a stale master key.
+     *
+     * @return {@code true} if the AES key was rotated, {@code false} otherwise.
+     */
+    boolean rotateAesKey() {
+        try {
+            putSmsOffline();
+            return encryptionService.rotateAesKey();
+        } finally {
+            putSmsOnline();
+        }
+    }
+
+    /**
+     * Compacts the database file while the SMS keeps serving requests.
+     *
+     * @return {@code true} if the database has been compacted, {@code false} if compaction is not supported
+     * by the database or failed.
+     */
+    boolean compactStorage() {
+        final BooleanSupplier compaction = storageCompaction;
+        return compaction != null && compaction.getAsBoolean();
+    }
+
     /**
      * Put SMS offline, especially in the case of a restoration
      * where you don't want new insertion requests to arrive
@@ -383,6 +449,7 @@ public class AdminService {
     void putSmsOffline() {
         log.info("SMS is now offline");
         smsOnline = false;
+        onlineStateListeners.forEach(listener -> listener.accept(false));
     }
 
     /**
@@ -391,6 +458,62 @@ public class AdminService {
     void putSmsOnline() {
         log.info("SMS is now online");
         smsOnline = true;
+        onlineStateListeners.forEach(listener -> listener.accept(true));
+    }
+
+    /**
+     * An SMS is online if it is not under maintenance and if no other SMS of its cluster is under maintenance.
+     *
+     * @return {@code true} if requests can be served, {@code false} otherwise.
+     */
+    public boolean isSmsOnline() {
+        return smsOnline && !clusterMaintenance;
+    }
+
+    /**
+     * Registers a listener notified each time this SMS is put online or offline by an admin operation.
+     *
+     * @param listener Receives {@code true} when the SMS is put online, {@code false} when it is put offline
+     */
+    public void addOnlineStateListener(final Consumer<Boolean> listener) {
+        onlineStateListeners.add(listener);
+    }
+
+    /**
+     * Registers a listener notified each time the database and the AES key have been restored from a backup,
+     * before the SMS is put online again. The restore is reported as failed if a listener throws.
+     *
+     * @param listener Upgrades the restored database if it has been created by a previous version
+     */
+    public void addDatabaseRestoredListener(final Runnable listener) {
+        databaseRestoredListeners.add(listener);
+    }
+
+    ReentrantLock getOperationLock() {
+        return operationLock;
+    }
+
+    /**
+     * Registers the compaction of the database file, run by the compaction admin operation.
+     *
+     * @param compaction Compacts the database file, returns whether it has been compacted
+     */
+    public void setStorageCompaction(final BooleanSupplier compaction) {
+        this.storageCompaction = compaction;
+    }
+
+    /**
+     * Applies the maintenance state of another SMS sharing the same database.
+     * <p>
+     * Listeners are not notified, the state is only published by the SMS running the admin operation.
+     *
+     * @param underMaintenance Whether an admin operation is in progress on another SMS
+     */
+    public void setClusterMaintenance(final boolean underMaintenance) {
+        if (clusterMaintenance != underMaintenance) {
+            log.info("Cluster maintenance state changed [underMaintenance:{}]", underMaintenance);
+        }
+        clusterMaintenance = underMaintenance;
     }
 
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "admin.bulkhead")
+public class BulkheadConfiguration {
+    /**
+     * Whether concurrent requests are limited per workload.
+     */
+    boolean enabled;
+    /**
+     * Compartment of session generation requests.
+     */
+    @NotNull(message = "Sessions compartment must not be null")
+    @Valid
+    Compartment sessions;
+    /**
+     * Compartment of enclave challenge generation requests.
+     */
+    @NotNull(message = "Challenges compartment must not be null")
+    @Valid
+    Compartment challenges;
+    /**
+     * Compartment of secret creation and update requests.
+     */
+    @NotNull(message = "Secret writes compartment must not be null")
+    @Valid
+    Compartment secretWrites;
+    /**
+     * Compartment of secret existence checks and TEE properties requests.
+     */
+    @NotNull(message = "Secret reads compartment must not be null")
+    @Valid
+    Compartment secretReads;
+    /**
+     * Compartment of admin requests.
+     */
+    @NotNull(message = "Admin compartment must not be null")
+    @Valid
+    Compartment admin;
+
+    /**
+     * Returns the max number of server threads held by limited requests, processed or waiting.
+     */
+    public int getMaxHeldThreads() {
+        return Stream.of(sessions, challenges, secretWrites, secretReads, admin)
+                .mapToInt(compartment -> compartment.maxConcurrent() + compartment.maxQueued())
+                .sum();
+    }
+
+    /**
+     * Concurrency limits of a workload.
+     *
+     * @param maxConcurrent Max number of requests processed concurrently
+     * @param maxQueued     Max number of requests waiting for a processing slot, further requests are rejected
+     * @param maxWait       Max duration a request waits for a processing slot before being rejected
+     */
+    public record Compartment(
+            @Positive(message = "Max concurrent must be greater than 0") int maxConcurrent,
+            @PositiveOrZero(message = "Max queued must be positive or zero") int maxQueued,
+            @NotNull(message = "Max wait must not be null") Duration maxWait
+    ) {
+    }
+}
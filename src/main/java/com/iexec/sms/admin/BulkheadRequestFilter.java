@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.GenericFilterBean;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This filter isolates workloads from each other by limiting the number of requests processed concurrently
+ * for each workload.
+ * <p>
+ * Each workload has its own compartment, made of a fair semaphore and a bounded number of waiting requests.
+ * A request is rejected with a 503 status code when the queue of its compartment is full,
+ * or when it could not enter its compartment in time.
+ * As secret management requests cannot occupy more than the sum of their compartments,
+ * the remaining server threads stay available for session generation.
+ * Waiting requests hold a server thread, all compartments must fit in the server thread pool.
+ * <p>
+ * Replication requests of followers are not limited: snapshots and change polling can last longer than
+ * admin operations and followers must not be rejected because another follower is catching up.
+ */
+@Slf4j
+public class BulkheadRequestFilter extends GenericFilterBean {
+
+    public static final String BULKHEAD_ERROR = "The server is busy, please retry later";
+    static final String METRIC_ACTIVE = "iexec.sms.bulkhead.active";
+    static final String METRIC_QUEUED = "iexec.sms.bulkhead.queued";
+    static final String METRIC_REJECTED = "iexec.sms.bulkhead.rejected";
+    static final String METRIC_WAIT = "iexec.sms.bulkhead.wait";
+    static final String METRIC_LABEL_WORKLOAD = "workload";
+    private static final String SESSIONS_PATH = "/tee/sessions";
+    private static final String CHALLENGES_PATH = "/tee/challenges/";
+    private static final String ADMIN_PATH = "/admin/";
+    private static final String REPLICATION_PATH = "/admin/replication/";
+    private static final String SECRETS_EXISTS_PATH = "/secrets/exists";
+
+    enum Workload {
+        SESSIONS,
+        CHALLENGES,
+        SECRET_WRITES,
+        SECRET_READS,
+        ADMIN
+    }
+
+    private final Map<Workload, Compartment> compartments = new EnumMap<>(Workload.class);
+
+    public BulkheadRequestFilter(final BulkheadConfiguration configuration) {
+        compartments.put(Workload.SESSIONS, new Compartment(Workload.SESSIONS, configuration.getSessions()));
+        compartments.put(Workload.CHALLENGES, new Compartment(Workload.CHALLENGES, configuration.getChallenges()));
+        compartments.put(Workload.SECRET_WRITES, new Compartment(Workload.SECRET_WRITES, configuration.getSecretWrites()));
+        compartments.put(Workload.SECRET_READS, new Compartment(Workload.SECRET_READS, configuration.getSecretReads()));
+        compartments.put(Workload.ADMIN, new Compartment(Workload.ADMIN, configuration.getAdmin()));
+        log.info("Bulkheads enabled [sessions:{}, challenges:{}, secretWrites:{}, secretReads:{}, admin:{}]",
+                configuration.getSessions(), configuration.getChallenges(), configuration.getSecretWrites(),
+                configuration.getSecretReads(), configuration.getAdmin());
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        final Workload workload = classify((HttpServletRequest) request);
+        if (workload == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final Compartment compartment = compartments.get(workload);
+        final boolean entered;
+        try {
+            entered = compartment.enter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(compartment, response);
+            return;
+        }
+        if (!entered) {
+            reject(compartment, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            compartment.leave();
+        }
+    }
+
+    /**
+     * Returns the workload of a request, {@literal null} if the request is not limited.
+     */
+    static Workload classify(final HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith(REPLICATION_PATH)) {
+            return null;
+        }
+        if (path.startsWith(ADMIN_PATH)) {
+            return Workload.ADMIN;
+        }
+        final String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || path.equals(SECRETS_EXISTS_PATH)) {
+            return Workload.SECRET_READS;
+        }
+        if (path.equals(SESSIONS_PATH)) {
+            return Workload.SESSIONS;
+        }
+        if (path.startsWith(CHALLENGES_PATH)) {
+            return Workload.CHALLENGES;
+        }
+        return Workload.SECRET_WRITES;
+    }
+
+    private static void reject(final Compartment compartment, final ServletResponse response) throws IOException {
+        compartment.rejected.increment();
+        log.warn("Request rejected, compartment is full [workload:{}, active:{}, queued:{}]",
+                compartment.workload, compartment.getActive(), compartment.queued.get());
+        final HttpServletResponse resp = (HttpServletResponse) response;
+        resp.reset();
+        resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setContentLength(BULKHEAD_ERROR.length());
+        response.getWriter().write(BULKHEAD_ERROR);
+    }
+
+    int getActive(final Workload workload) {
+        return compartments.get(workload).getActive();
+    }
+
+    private static class Compartment {
+        private final Workload workload;
+        private final int maxConcurrent;
+        private final int maxQueued;
+        private final long maxWaitNanos;
+        private final Semaphore permits;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Counter rejected;
+        private final Timer wait;
+
+        private Compartment(final Workload workload, final BulkheadConfiguration.Compartment configuration) {
+            this.workload = workload;
+            this.maxConcurrent = configuration.maxConcurrent();
+            this.maxQueued = configuration.maxQueued();
+            this.maxWaitNanos = configuration.maxWait().toNanos();
+            this.permits = new Semaphore(maxConcurrent, true);
+            final String tag = workload.name().toLowerCase(Locale.ROOT);
+            Gauge.builder(METRIC_ACTIVE, this, Compartment::getActive)
+                    .tag(METRIC_LABEL_WORKLOAD, tag)
+                    .register(Metrics.globalRegistry);
+            Gauge.builder(METRIC_QUEUED, queued, AtomicInteger::get)
+                    .tag(METRIC_LABEL_WORKLOAD, tag)
+                    .register(Metrics.globalRegistry);
+            this.rejected = Counter.builder(METRIC_REJECTED)
+                    .tag(METRIC_LABEL_WORKLOAD, tag)
+                    .register(Metrics.globalRegistry);
+            this.wait = Timer.builder(METRIC_WAIT)
+                    .tag(METRIC_LABEL_WORKLOAD, tag)
+                    .register(Metrics.globalRegistry);
+        }
+
+        /**
+         * Enters the compartment, waiting for a processing slot if the queue is not full.
+         *
+         * @return {@code true} if the request can be processed, {@code false} if it must be rejected
+         */
+        private boolean enter() throws InterruptedException {
+            // a timed acquisition honors fairness, unlike tryAcquire()
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                wait.record(0, TimeUnit.NANOSECONDS);
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return false;
+            }
+            final long start = System.nanoTime();
+            try {
+                final boolean acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+                wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return acquired;
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        private void leave() {
+            permits.release();
+        }
+
+        private int getActive() {
+            return maxConcurrent - permits.availablePermits();
+        }
+    }
+}
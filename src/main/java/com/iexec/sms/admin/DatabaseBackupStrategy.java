@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * Dumps and restores the whole database content to and from a single backup file.
+ * <p>
+ * The backup format depends on the database engine, a backup can only be restored on the engine which created it.
+ */
+public interface DatabaseBackupStrategy {
+
+    /**
+     * Writes a consistent snapshot of the database to a backup file.
+     *
+     * @param backupFile File to create or replace
+     * @throws SQLException If the database could not be read
+     * @throws IOException  If the backup file could not be written
+     */
+    void dump(Path backupFile) throws SQLException, IOException;
+
+    /**
+     * Replaces the database content with the content of a backup file.
+     *
+     * @param backupFile Backup created by {@link #dump(Path)}
+     * @throws SQLException If the database could not be written
+     * @throws IOException  If the backup file could not be read
+     */
+    void restore(Path backupFile) throws SQLException, IOException;
+
+    /**
+     * Selects the backup strategy supporting the database of a datasource.
+     *
+     * @param datasourceUrl      JDBC URL of the database
+     * @param datasourceUsername User connecting to the database
+     * @param datasourcePassword Password of the user
+     * @return A PostgreSQL backup strategy for a PostgreSQL URL, an H2 backup strategy otherwise
+     */
+    static DatabaseBackupStrategy forDatasource(final String datasourceUrl,
+                                                final String datasourceUsername,
+                                                final String datasourcePassword) {
+        if (datasourceUrl != null && datasourceUrl.startsWith(PostgresDatabaseBackupStrategy.URL_PREFIX)) {
+            return new PostgresDatabaseBackupStrategy(datasourceUrl, datasourceUsername, datasourcePassword);
+        }
+        return new H2DatabaseBackupStrategy(datasourceUrl, datasourceUsername, datasourcePassword);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import org.h2.tools.RunScript;
+import org.h2.tools.Script;
+
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * Backs up an H2 database as an SQL script.
+ */
+class H2DatabaseBackupStrategy implements DatabaseBackupStrategy {
+
+    private final String datasourceUrl;
+    private final String datasourceUsername;
+    private final String datasourcePassword;
+
+    H2DatabaseBackupStrategy(final String datasourceUrl,
+                             final String datasourceUsername,
+                             final String datasourcePassword) {
+        this.datasourceUrl = datasourceUrl;
+        this.datasourceUsername = datasourceUsername;
+        this.datasourcePassword = datasourcePassword;
+    }
+
+    @Override
+    public void dump(final Path backupFile) throws SQLException {
+        Script.process(datasourceUrl, datasourceUsername, datasourcePassword, backupFile.toString(), "DROP", "");
+    }
+
+    @Override
+    public void restore(final Path backupFile) throws SQLException {
+        RunScript.execute(datasourceUrl, datasourceUsername, datasourcePassword,
+                backupFile.toString(), Charset.defaultCharset(), true);
+    }
+}
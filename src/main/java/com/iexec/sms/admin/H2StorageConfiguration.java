@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.admin;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "admin.h2-storage")
+public class H2StorageConfiguration {
+    /**
+     * Max memory used by the MVStore page cache of the embedded database.
+     */
+    @NotNull(message = "Cache size must not be null")
+    DataSize cacheSize;
+    /**
+     * Max delay between a commit and the write of its changes to the database file.
+     */
+    @NotNull(message = "Write delay must not be null")
+    Duration writeDelay;
+    /**
+     * Online compaction of the database file.
+     */
+    @NotNull(message = "Compaction must not be null")
+    @Valid
+    Compaction compaction;
+
+    @Value
+    public static class Compaction {
+        /**
+         * Cron expression of scheduled compactions, {@code -} disables them.
+         */
+        @NotBlank(message = "Cron must not be blank")
+        String cron;
+        /**
+         * Max duration of a compaction, chunks left to rewrite are compacted by the next one.
+         */
+        @NotNull(message = "Max duration must not be null")
+        Duration maxDuration;
+    }
+}
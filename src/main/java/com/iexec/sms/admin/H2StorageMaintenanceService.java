@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.admin;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.engine.Session;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tunes and compacts the MVStore file of an embedded H2 database.
+ * <p>
+ * Deleted rows leave free space in the database file, which is only reused or released by compaction.
+ * Compactions run while the SMS keeps serving requests, each one being limited in time. Nothing is done
+ * for other databases, or when the H2 database is reached through a TCP server.
+ */
+@Slf4j
+@Service
+public class H2StorageMaintenanceService {
+    static final String METRIC_FILE_SIZE = "iexec.sms.h2.storage.file.size";
+    static final String METRIC_FILL_RATE = "iexec.sms.h2.storage.fill.rate";
+    static final String METRIC_CACHE_HIT_RATIO = "iexec.sms.h2.storage.cache.hit.ratio";
+    static final String METRIC_LAST_COMPACTION_DURATION = "iexec.sms.h2.storage.compaction.last.duration";
+
+    private static final String SELECT_SETTING_SQL =
+            "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final H2StorageConfiguration configuration;
+    private final AdminService adminService;
+    private boolean embeddedDatabase;
+    private volatile long lastCompactionDuration = -1;
+
+    public H2StorageMaintenanceService(final JdbcTemplate jdbcTemplate,
+                                       final H2StorageConfiguration configuration,
+                                       final AdminService adminService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.configuration = configuration;
+        this.adminService = adminService;
+        adminService.setStorageCompaction(this::compact);
+    }
+
+    @PostConstruct
+    void init() {
+        embeddedDatabase = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.isWrapperFor(JdbcConnection.class)
+                        && connection.unwrap(JdbcConnection.class).getSession() instanceof SessionLocal));
+        if (!embeddedDatabase) {
+            log.info("H2 storage maintenance disabled, database is not an embedded H2 database");
+            return;
+        }
+        jdbcTemplate.execute("SET CACHE_SIZE " + configuration.getCacheSize().toKilobytes());
+        jdbcTemplate.execute("SET WRITE_DELAY " + configuration.getWriteDelay().toMillis());
+        Gauge.builder(METRIC_FILE_SIZE, this, service -> service.readSetting("info.FILE_SIZE"))
+                .baseUnit("bytes")
+                .register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_FILL_RATE, this, service -> service.readSetting("info.FILL_RATE"))
+                .baseUnit("percent")
+                .register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_CACHE_HIT_RATIO, this, service -> service.readSetting("info.CACHE_HIT_RATIO"))
+                .baseUnit("percent")
+                .register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_LAST_COMPACTION_DURATION, this, H2StorageMaintenanceService::getLastCompactionDuration)
+                .baseUnit("milliseconds")
+                .register(Metrics.globalRegistry);
+        log.info("H2 storage maintenance enabled [cacheSize:{}, writeDelay:{}, compactionCron:{}, compactionMaxDuration:{}]",
+                configuration.getCacheSize(), configuration.getWriteDelay(),
+                configuration.getCompaction().getCron(), configuration.getCompaction().getMaxDuration());
+    }
+
+    /**
+     * Reads a numeric entry of the {@code INFORMATION_SCHEMA.SETTINGS} table.
+     *
+     * @return The value of the entry, {@link Double#NaN} if it is missing or cannot be read
+     */
+    double readSetting(final String name) {
+        try {
+            final List<String> values = jdbcTemplate.queryForList(SELECT_SETTING_SQL, String.class, name);
+            return values.isEmpty() ? Double.NaN : Double.parseDouble(values.get(0));
+        } catch (DataAccessException | NumberFormatException e) {
+            log.warn("Failed to read H2 storage setting [name:{}, exception:{}]", name, e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * @return Duration of the last compaction in milliseconds, {@link Double#NaN} if no compaction ran yet
+     */
+    double getLastCompactionDuration() {
+        return lastCompactionDuration < 0 ? Double.NaN : lastCompactionDuration;
+    }
+
+    /**
+     * Compacts the database file unless the SMS is offline or another admin operation is in progress,
+     * so that a compaction never overlaps a backup or a restore.
+     */
+    @Scheduled(cron = "${admin.h2-storage.compaction.cron}")
+    void scheduledCompaction() {
+        if (!adminService.isSmsOnline()) {
+            log.info("Scheduled H2 storage compaction skipped, SMS is offline");
+            return;
+        }
+        final ReentrantLock operationLock = adminService.getOperationLock();
+        if (!operationLock.tryLock()) {
+            log.info("Scheduled H2 storage compaction skipped, another admin operation is in progress");
+            return;
+        }
+        try {
+            compact();
+        } finally {
+            operationLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites chunks of the database file holding free space and truncates the file, within the configured
+     * max duration.
+     *
+     * @return {@code true} if the compaction ran or the database is in memory, {@code false} otherwise
+     */
+    synchronized boolean compact() {
+        if (!embeddedDatabase) {
+            log.warn("H2 storage compaction skipped, database is not an embedded H2 database");
+            return false;
+        }
+        final double fileSizeBefore = readSetting("info.FILE_SIZE");
+        final long start = System.nanoTime();
+        try {
+            final int maxCompactTime = Math.toIntExact(configuration.getCompaction().getMaxDuration().toMillis());
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                final Session session = connection.unwrap(JdbcConnection.class).getSession();
+                if (session instanceof SessionLocal sessionLocal && sessionLocal.getDatabase().isPersistent()) {
+                    sessionLocal.getDatabase().getStore().getMvStore().compactFile(maxCompactTime);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("H2 storage compaction failed", e);
+            return false;
+        }
+        lastCompactionDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("H2 storage compacted [duration:{} ms, fileSizeBefore:{}, fileSizeAfter:{}]",
+                lastCompactionDuration, fileSizeBefore, readSetting("info.FILE_SIZE"));
+        return true;
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Backs up a PostgreSQL database as a ZIP archive holding a manifest followed by one CSV entry per table.
+ * <p>
+ * Tables are exported with {@code COPY}, no {@code pg_dump} binary is required next to the SMS.
+ * The schema itself is not part of the backup, it is created by versioned migrations.
+ * The manifest records the migration version of the schema and the exported columns of each table,
+ * a backup is only restored on a schema of the same version and columns are imported by name.
+ * Cluster events only make sense to running instances and are not backed up either.
+ */
+@Slf4j
+class PostgresDatabaseBackupStrategy implements DatabaseBackupStrategy {
+    static final String URL_PREFIX = "jdbc:postgresql:";
+    static final String MIGRATION_HISTORY_TABLE = "flyway_schema_history";
+    static final String CLUSTER_EVENT_TABLE = "cluster_event";
+    static final String MANIFEST_ENTRY = "manifest.properties";
+    static final String SCHEMA_VERSION_PROPERTY = "schema.version";
+    static final String COLUMNS_PROPERTY_PREFIX = "columns.";
+    private static final String ENTRY_EXTENSION = ".csv";
+    private static final String COLUMN_SEPARATOR = ",";
+    private static final String SCHEMA_VERSION_QUERY = "SELECT \"version\" FROM \"" + MIGRATION_HISTORY_TABLE + "\" "
+            + "WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\" DESC LIMIT 1";
+    private static final String COLUMNS_QUERY = "SELECT column_name FROM information_schema.columns "
+            + "WHERE table_schema = current_schema() AND table_name = ? ORDER BY ordinal_position";
+    private static final String TABLES_QUERY = "SELECT table_name FROM information_schema.tables "
+            + "WHERE table_schema = current_schema() AND table_type = 'BASE TABLE' AND table_name NOT IN (?, ?)";
+    private static final String FOREIGN_KEYS_QUERY = "SELECT tc.table_name, ccu.table_name "
+            + "FROM information_schema.table_constraints tc "
+            + "JOIN information_schema.constraint_column_usage ccu "
+            + "ON tc.constraint_schema = ccu.constraint_schema AND tc.constraint_name = ccu.constraint_name "
+            + "WHERE tc.constraint_type = 'FOREIGN KEY' AND tc.table_schema = current_schema()";
+
+    private final String datasourceUrl;
+    private final String datasourceUsername;
+    private final String datasourcePassword;
+
+    PostgresDatabaseBackupStrategy(final String datasourceUrl,
+                                   final String datasourceUsername,
+                                   final String datasourcePassword) {
+        this.datasourceUrl = datasourceUrl;
+        this.datasourceUsername = datasourceUsername;
+        this.datasourcePassword = datasourcePassword;
+    }
+
+    /**
+     * Exports all tables within a single read-only transaction, so that the archive is a consistent snapshot.
+     * <p>
+     * Referenced tables are exported before referencing tables, entries are restored in archive order.
+     */
+    @Override
+    public void dump(final Path backupFile) throws SQLException, IOException {
+        try (Connection connection = openConnection();
+             OutputStream outputStream = Files.newOutputStream(backupFile);
+             ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+            final List<String> tables = getTablesInDependencyOrder(connection);
+            final Map<String, List<String>> columns = new HashMap<>();
+            final Properties manifest = new Properties();
+            manifest.setProperty(SCHEMA_VERSION_PROPERTY, getSchemaVersion(connection));
+            for (final String table : tables) {
+                columns.put(table, getColumns(connection, table));
+                manifest.setProperty(COLUMNS_PROPERTY_PREFIX + table, String.join(COLUMN_SEPARATOR, columns.get(table)));
+            }
+            zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            manifest.store(zip, null);
+            zip.closeEntry();
+
+            final CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            for (final String table : tables) {
+                zip.putNextEntry(new ZipEntry(table + ENTRY_EXTENSION));
+                final long rows = copyManager.copyOut(
+                        "COPY " + quote(table) + " " + quoteColumns(columns.get(table)) + " TO STDOUT WITH (FORMAT csv)", zip);
+                zip.closeEntry();
+                log.debug("Table exported [table:{}, rows:{}]", table, rows);
+            }
+            connection.commit();
+        }
+    }
+
+    /**
+     * Empties all tables and imports archive entries within a single transaction.
+     * <p>
+     * The database is left untouched if the backup was created on another schema version
+     * or if any entry cannot be imported.
+     */
+    @Override
+    public void restore(final Path backupFile) throws SQLException, IOException {
+        try (Connection connection = openConnection();
+             InputStream inputStream = Files.newInputStream(backupFile);
+             ZipInputStream zip = new ZipInputStream(inputStream)) {
+            connection.setAutoCommit(false);
+            try {
+                final Properties manifest = readManifest(zip);
+                final String backupVersion = manifest.getProperty(SCHEMA_VERSION_PROPERTY);
+                final String schemaVersion = getSchemaVersion(connection);
+                if (!schemaVersion.equals(backupVersion)) {
+                    throw new IOException("Backup schema version does not match database schema version [backupVersion:"
+                            + backupVersion + ", schemaVersion:" + schemaVersion + "]");
+                }
+                final List<String> tables = getTablesInDependencyOrder(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(tables.stream()
+                            .map(PostgresDatabaseBackupStrategy::quote)
+                            .collect(Collectors.joining(", ", "TRUNCATE TABLE ", "")));
+                }
+                final CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    final String table = getTableName(entry);
+                    // Entry names are only used as identifiers once matched against existing tables
+                    if (!tables.contains(table)) {
+                        throw new IOException("Backup file contains an unknown table [entry:" + entry.getName() + "]");
+                    }
+                    final List<String> columns = getBackupColumns(manifest, table, getColumns(connection, table));
+                    final long rows = copyManager.copyIn(
+                            "COPY " + quote(table) + " " + quoteColumns(columns) + " FROM STDIN WITH (FORMAT csv)", zip);
+                    log.debug("Table imported [table:{}, rows:{}]", table, rows);
+                }
+                connection.commit();
+            } catch (SQLException | IOException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(datasourceUrl, datasourceUsername, datasourcePassword);
+    }
+
+    private static String getSchemaVersion(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(SCHEMA_VERSION_QUERY)) {
+            if (!resultSet.next()) {
+                throw new SQLException("No migration has been applied to the database");
+            }
+            return resultSet.getString(1);
+        }
+    }
+
+    private static List<String> getColumns(final Connection connection, final String table) throws SQLException {
+        final List<String> columns = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(COLUMNS_QUERY)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    columns.add(resultSet.getString(1));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static Properties readManifest(final ZipInputStream zip) throws IOException {
+        final ZipEntry entry = zip.getNextEntry();
+        if (entry == null || !MANIFEST_ENTRY.equals(entry.getName())) {
+            throw new IOException("Backup file does not start with a manifest, it cannot be restored on this schema");
+        }
+        final Properties manifest = new Properties();
+        manifest.load(zip);
+        return manifest;
+    }
+
+    /**
+     * Returns columns of a table entry as listed in the manifest.
+     * <p>
+     * Column names are only used as identifiers once matched against existing columns.
+     */
+    static List<String> getBackupColumns(final Properties manifest,
+                                         final String table,
+                                         final List<String> existingColumns) throws IOException {
+        final String columns = manifest.getProperty(COLUMNS_PROPERTY_PREFIX + table);
+        if (columns == null || columns.isEmpty()) {
+            throw new IOException("Backup manifest does not list columns of table [table:" + table + "]");
+        }
+        final List<String> backupColumns = List.of(columns.split(COLUMN_SEPARATOR));
+        if (!existingColumns.containsAll(backupColumns)) {
+            throw new IOException("Backup file contains unknown columns [table:" + table
+                    + ", columns:" + backupColumns + ", existingColumns:" + existingColumns + "]");
+        }
+        return backupColumns;
+    }
+
+    private List<String> getTablesInDependencyOrder(final Connection connection) throws SQLException {
+        final Set<String> tables = new TreeSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(TABLES_QUERY)) {
+            statement.setString(1, MIGRATION_HISTORY_TABLE);
+            statement.setString(2, CLUSTER_EVENT_TABLE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tables.add(resultSet.getString(1));
+                }
+            }
+        }
+        final Map<String, Set<String>> references = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(FOREIGN_KEYS_QUERY)) {
+            while (resultSet.next()) {
+                references.computeIfAbsent(resultSet.getString(1), table -> new HashSet<>())
+                        .add(resultSet.getString(2));
+            }
+        }
+        return sortByDependencies(tables, references);
+    }
+
+    /**
+     * Orders tables so that a table always comes after the tables it references.
+     * <p>
+     * Tables involved in a reference cycle keep their natural order at the end of the list.
+     *
+     * @param tables     Tables to sort
+     * @param references Referenced tables, keyed by referencing table
+     * @return Sorted tables
+     */
+    static List<String> sortByDependencies(final Collection<String> tables,
+                                           final Map<String, Set<String>> references) {
+        final Set<String> remaining = new TreeSet<>(tables);
+        final List<String> sorted = new ArrayList<>(tables.size());
+        boolean progress = true;
+        while (!remaining.isEmpty() && progress) {
+            progress = false;
+            for (final Iterator<String> iterator = remaining.iterator(); iterator.hasNext(); ) {
+                final String table = iterator.next();
+                final boolean ready = references.getOrDefault(table, Set.of()).stream()
+                        .noneMatch(referenced -> !referenced.equals(table) && remaining.contains(referenced));
+                if (ready) {
+                    sorted.add(table);
+                    iterator.remove();
+                    progress = true;
+                }
+            }
+        }
+        sorted.addAll(remaining);
+        return sorted;
+    }
+
+    private static String getTableName(final ZipEntry entry) throws IOException {
+        final String name = entry.getName();
+        if (!name.endsWith(ENTRY_EXTENSION)) {
+            throw new IOException("Backup file contains an unexpected entry [entry:" + name + "]");
+        }
+        return name.substring(0, name.length() - ENTRY_EXTENSION.length());
+    }
+
+    private static String quoteColumns(final List<String> columns) {
+        return columns.stream()
+                .map(PostgresDatabaseBackupStrategy::quote)
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    private static String quote(final String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
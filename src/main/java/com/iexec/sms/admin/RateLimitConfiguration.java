@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "admin.rate-limit")
+public class RateLimitConfiguration {
+    /**
+     * Whether requests on {@code /tee}, {@code /secrets}, {@code /apps} and {@code /requesters} endpoints are rate limited.
+     */
+    boolean enabled;
+    /**
+     * Budget of each caller for session generation and enclave challenge requests.
+     */
+    @NotNull(message = "Sessions budget must not be null")
+    @Valid
+    Budget sessions;
+    /**
+     * Budget of each caller for {@code GET} and {@code HEAD} requests.
+     */
+    @NotNull(message = "Lookups budget must not be null")
+    @Valid
+    Budget lookups;
+    /**
+     * Budget of each caller for other requests, mostly secret writes.
+     */
+    @NotNull(message = "Writes budget must not be null")
+    @Valid
+    Budget writes;
+
+    /**
+     * Token bucket settings.
+     *
+     * @param capacity         Max number of requests accepted in a burst
+     * @param permitsPerSecond Number of requests per second accepted once the burst is consumed
+     */
+    public record Budget(
+            @Positive(message = "Capacity must be greater than 0") long capacity,
+            @Positive(message = "Permits per second must be greater than 0") double permitsPerSecond
+    ) {
+    }
+}
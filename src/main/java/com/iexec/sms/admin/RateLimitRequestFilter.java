@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.GenericFilterBean;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * This filter rejects requests exceeding the budget of their caller with a 429 status code.
+ * <p>
+ * Requests are split in traffic classes, each caller having a token bucket per traffic class:
+ * <ul>
+ * <li>{@code GET} and {@code HEAD} requests are cheap lookups.
+ * <li>Session generation and enclave challenge requests are expensive.
+ * <li>Other requests are mostly secret writes.
+ * </ul>
+ * A caller is identified by its client IP address.
+ * Request bodies are not authenticated when this filter runs, a wallet read from a body could be forged
+ * to exhaust the budget of another caller or to escape any limit.
+ * Behind a reverse proxy, all callers share the address of the proxy unless forwarded headers are trusted
+ * with {@code server.forward-headers-strategy}.
+ * <p>
+ * Limiter state is kept in concurrent maps of lock-free token buckets.
+ * Full buckets are periodically dropped as they behave exactly as new ones.
+ */
+@Slf4j
+public class RateLimitRequestFilter extends GenericFilterBean {
+
+    public static final String RATE_LIMIT_ERROR = "Too many requests, please retry later";
+    static final String METRIC_REJECTED = "iexec.sms.requests.rate.limited";
+    static final String METRIC_LABEL_TRAFFIC_CLASS = "traffic_class";
+    private static final String SESSIONS_PATH = "/tee/sessions";
+    private static final String CHALLENGES_PATH = "/tee/challenges/";
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    enum TrafficClass {
+        SESSIONS,
+        LOOKUPS,
+        WRITES
+    }
+
+    private final Map<TrafficClass, RateLimitConfiguration.Budget> budgets = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, ConcurrentHashMap<String, TokenBucket>> buckets = new EnumMap<>(TrafficClass.class);
+    private final LongSupplier nanoTime;
+    private final AtomicLong nextSweepNanos;
+
+    public RateLimitRequestFilter(final RateLimitConfiguration configuration) {
+        this(configuration, System::nanoTime);
+    }
+
+    RateLimitRequestFilter(final RateLimitConfiguration configuration, final LongSupplier nanoTime) {
+        budgets.put(TrafficClass.SESSIONS, configuration.getSessions());
+        budgets.put(TrafficClass.LOOKUPS, configuration.getLookups());
+        budgets.put(TrafficClass.WRITES, configuration.getWrites());
+        for (final TrafficClass trafficClass : TrafficClass.values()) {
+            buckets.put(trafficClass, new ConcurrentHashMap<>());
+        }
+        this.nanoTime = nanoTime;
+        this.nextSweepNanos = new AtomicLong(nanoTime.getAsLong() + SWEEP_INTERVAL_NANOS);
+        log.info("Rate limiting enabled [sessions:{}, lookups:{}, writes:{}]",
+                configuration.getSessions(), configuration.getLookups(), configuration.getWrites());
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        final HttpServletRequest req = (HttpServletRequest) request;
+        final TrafficClass trafficClass = classify(req);
+        final String callerKey = req.getRemoteAddr();
+
+        final long now = nanoTime.getAsLong();
+        sweepIdleBuckets(now);
+        final TokenBucket bucket = getBucket(trafficClass, callerKey, now);
+        final long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            chain.doFilter(req, response);
+            return;
+        }
+
+        Metrics.counter(METRIC_REJECTED, METRIC_LABEL_TRAFFIC_CLASS, trafficClass.name().toLowerCase(Locale.ROOT))
+                .increment();
+        log.debug("Request rate limited [trafficClass:{}, caller:{}, uri:{}]", trafficClass, callerKey, req.getRequestURI());
+        final HttpServletResponse resp = (HttpServletResponse) response;
+        resp.reset();
+        resp.setStatus(HttpServletResponse.SC_TOO_MANY_REQUESTS);
+        resp.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, divideRoundingUp(waitNanos, TimeUnit.SECONDS.toNanos(1)))));
+        response.setContentLength(RATE_LIMIT_ERROR.length());
+        response.getWriter().write(RATE_LIMIT_ERROR);
+    }
+
+    static TrafficClass classify(final HttpServletRequest request) {
+        final String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return TrafficClass.LOOKUPS;
+        }
+        final String path = getPath(request);
+        if (path.equals(SESSIONS_PATH) || path.startsWith(CHALLENGES_PATH)) {
+            return TrafficClass.SESSIONS;
+        }
+        return TrafficClass.WRITES;
+    }
+
+    private static String getPath(final HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private TokenBucket getBucket(final TrafficClass trafficClass, final String callerKey, final long now) {
+        final ConcurrentHashMap<String, TokenBucket> classBuckets = buckets.get(trafficClass);
+        final TokenBucket bucket = classBuckets.get(callerKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        return classBuckets.computeIfAbsent(callerKey, key -> new TokenBucket(budgets.get(trafficClass), now));
+    }
+
+    private void sweepIdleBuckets(final long now) {
+        final long nextSweep = nextSweepNanos.get();
+        if (now - nextSweep < 0 || !nextSweepNanos.compareAndSet(nextSweep, now + SWEEP_INTERVAL_NANOS)) {
+            return;
+        }
+        buckets.values().forEach(classBuckets -> classBuckets.values().removeIf(bucket -> bucket.isIdle(now)));
+    }
+
+    int getBucketCount(final TrafficClass trafficClass) {
+        return buckets.get(trafficClass).size();
+    }
+
+    private static long divideRoundingUp(final long dividend, final long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm.
+ * <p>
+ * The whole state is the theoretical arrival time of the next request, updated with a compare-and-set.
+ * A request is accepted as long as this time does not exceed the current time by more than the bucket capacity.
+ */
+class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    TokenBucket(final RateLimitConfiguration.Budget budget, final long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / budget.permitsPerSecond()));
+        this.burstToleranceNanos = Math.multiplyExact(budget.capacity(), emissionIntervalNanos);
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token from the bucket.
+     *
+     * @param nowNanos Current time in nanoseconds
+     * @return 0 if a token has been taken, the duration in nanoseconds before a token is available otherwise
+     */
+    long tryAcquire(final long nowNanos) {
+        while (true) {
+            final long tat = theoreticalArrivalTime.get();
+            final long nextTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            final long excessNanos = nextTat - nowNanos - burstToleranceNanos;
+            if (excessNanos > 0) {
+                return excessNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, nextTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket is idle when it is full, it then behaves exactly as a new bucket and can be dropped.
+     */
+    boolean isIdle(final long nowNanos) {
+        return theoreticalArrivalTime.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.cluster;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "cluster")
+public class ClusterConfiguration {
+    /**
+     * Whether this SMS shares its database with other SMS instances.
+     */
+    boolean enabled;
+    /**
+     * Identifier of this SMS in the cluster, a random identifier is generated when empty.
+     */
+    String nodeId;
+    /**
+     * Interval between two consecutive reads of events published by other SMS instances.
+     */
+    @NotNull(message = "Poll interval must not be null")
+    Duration pollInterval;
+    /**
+     * Age of the oldest events read on each poll, covers clock drifts and late transaction commits.
+     */
+    @NotNull(message = "Event lookback must not be null")
+    Duration eventLookback;
+    /**
+     * Duration after which events are deleted.
+     */
+    @NotNull(message = "Event retention must not be null")
+    Duration eventRetention;
+    /**
+     * Duration after which maintenance started on another SMS is considered abandoned.
+     */
+    @NotNull(message = "Maintenance timeout must not be null")
+    Duration maintenanceTimeout;
+}
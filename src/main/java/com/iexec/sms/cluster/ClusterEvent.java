@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.cluster;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Event published by an SMS and applied by all other SMS instances sharing the same database.
+ * <p>
+ * The type is stored as a string to allow new event types without altering the table.
+ */
+@Entity
+@Getter
+@NoArgsConstructor //for hibernate
+@AllArgsConstructor
+public class ClusterEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String type;
+
+    private String payload;
+
+    private String origin;
+
+    private Instant creationDate;
+
+    public ClusterEvent(final ClusterEventType type, final String payload, final String origin, final Instant creationDate) {
+        this(null, type.name(), payload, origin, creationDate);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.cluster;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ClusterEventRepository extends JpaRepository<ClusterEvent, Long> {
+    List<ClusterEvent> findByCreationDateAfterAndOriginNotOrderByIdAsc(Instant creationDate, String origin);
+
+    List<ClusterEvent> findByTypeAndCreationDateAfterAndOriginNotOrderByIdAsc(String type, Instant creationDate, String origin);
+
+    @Transactional
+    long deleteByCreationDateBefore(Instant creationDate);
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.cluster;
+
+public enum ClusterEventType {
+    /**
+     * A secret was stored, payload is the name of the secret existence cache.
+     */
+    SECRET_STORED,
+    /**
+     * An admin operation started or ended, payload is {@code offline} or {@code online}.
+     */
+    MAINTENANCE
+}
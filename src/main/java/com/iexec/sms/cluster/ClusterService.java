@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.cluster;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.encryption.EncryptionService;
+import com.iexec.sms.secret.CacheSecretService;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps several SMS instances sharing the same database consistent.
+ * <p>
+ * Each SMS publishes events in the database and periodically applies events published by other instances:
+ * <ul>
+ *     <li>stored secrets evict cached absences of secrets, so that other instances stop answering "not found"
+ *     <li>admin operations put all instances offline until the operation ends,
+ *     the AES key and data keys are then reloaded and cached secret existences are cleared
+ *     as the operation may have restored a backup or rotated keys
+ * </ul>
+ * All instances must share the same AES key file.
+ * Events are read again until they are older than the lookback duration, so that events committed late
+ * or published by an instance with a drifting clock are not missed.
+ */
+@Slf4j
+@Service
+@ConditionalOnExpression("'${cluster.enabled}'=='true'")
+public class ClusterService {
+    static final String OFFLINE = "offline";
+    static final String ONLINE = "online";
+
+    private final ClusterConfiguration clusterConfiguration;
+    private final ClusterEventRepository clusterEventRepository;
+    private final AdminService adminService;
+    private final EncryptionService encryptionService;
+    private final Map<String, CacheSecretService<?>> cacheSecretServices;
+    @Getter
+    private final String nodeId;
+    private final Set<String> pendingInvalidations = ConcurrentHashMap.newKeySet();
+    private final Set<Long> appliedEvents = new HashSet<>();
+    private final Map<String, Instant> maintenanceStartByNode = new HashMap<>();
+
+    public ClusterService(final ClusterConfiguration clusterConfiguration,
+                          final ClusterEventRepository clusterEventRepository,
+                          final AdminService adminService,
+                          final EncryptionService encryptionService,
+                          final Map<String, CacheSecretService<?>> cacheSecretServices) {
+        this.clusterConfiguration = clusterConfiguration;
+        this.clusterEventRepository = clusterEventRepository;
+        this.adminService = adminService;
+        this.encryptionService = encryptionService;
+        this.cacheSecretServices = cacheSecretServices;
+        this.nodeId = StringUtils.isBlank(clusterConfiguration.getNodeId())
+                ? UUID.randomUUID().toString() : clusterConfiguration.getNodeId();
+    }
+
+    @PostConstruct
+    void init() {
+        cacheSecretServices.forEach((name, cacheSecretService) ->
+                cacheSecretService.addSecretStoredListener(key -> pendingInvalidations.add(name)));
+        adminService.addOnlineStateListener(online -> publish(ClusterEventType.MAINTENANCE, online ? ONLINE : OFFLINE));
+        // Admin operations may be in progress on other instances when this one starts
+        final Map<String, ClusterEvent> latestMaintenanceByNode = new HashMap<>();
+        clusterEventRepository.findByTypeAndCreationDateAfterAndOriginNotOrderByIdAsc(ClusterEventType.MAINTENANCE.name(),
+                        Instant.now().minus(clusterConfiguration.getMaintenanceTimeout()), nodeId)
+                .forEach(event -> latestMaintenanceByNode.put(event.getOrigin(), event));
+        latestMaintenanceByNode.values().stream()
+                .filter(event -> OFFLINE.equals(event.getPayload()))
+                .forEach(this::applyMaintenance);
+        log.info("Joined SMS cluster [nodeId:{}, caches:{}]", nodeId, cacheSecretServices.keySet());
+    }
+
+    /**
+     * Publishes pending cache invalidations, then applies events published by other instances.
+     * <p>
+     * Invalidations are published once per poll and per cache, whatever the number of stored secrets.
+     */
+    @Scheduled(fixedDelayString = "${cluster.poll-interval}")
+    synchronized void poll() {
+        for (final String name : List.copyOf(pendingInvalidations)) {
+            pendingInvalidations.remove(name);
+            publish(ClusterEventType.SECRET_STORED, name);
+        }
+        final Instant now = Instant.now();
+        final List<ClusterEvent> events = clusterEventRepository.findByCreationDateAfterAndOriginNotOrderByIdAsc(
+                now.minus(clusterConfiguration.getEventLookback()), nodeId);
+        final Set<Long> eventsInLookback = new HashSet<>();
+        final Set<String> invalidatedCaches = new HashSet<>();
+        for (final ClusterEvent event : events) {
+            eventsInLookback.add(event.getId());
+            if (!appliedEvents.add(event.getId())) {
+                continue;
+            }
+            final Optional<ClusterEventType> type = getType(event);
+            if (type.isEmpty()) {
+                log.warn("Unknown cluster event [id:{}, type:{}, origin:{}]", event.getId(), event.getType(), event.getOrigin());
+            } else if (type.get() == ClusterEventType.SECRET_STORED) {
+                invalidatedCaches.add(event.getPayload());
+            } else if (type.get() == ClusterEventType.MAINTENANCE) {
+                applyMaintenance(event);
+                if (ONLINE.equals(event.getPayload())) {
+                    reloadSharedState(event.getOrigin());
+                }
+            }
+        }
+        appliedEvents.retainAll(eventsInLookback);
+        for (final String name : invalidatedCaches) {
+            final CacheSecretService<?> cacheSecretService = cacheSecretServices.get(name);
+            if (cacheSecretService != null) {
+                cacheSecretService.evictMissingSecrets();
+            }
+        }
+        expireAbandonedMaintenances(now);
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.event-retention}")
+    void purgeEvents() {
+        final long deleted = clusterEventRepository.deleteByCreationDateBefore(
+                Instant.now().minus(clusterConfiguration.getEventRetention()));
+        log.debug("Purged cluster events [deleted:{}]", deleted);
+    }
+
+    void publish(final ClusterEventType type, final String payload) {
+        try {
+            clusterEventRepository.save(new ClusterEvent(type, payload, nodeId, Instant.now()));
+        } catch (DataAccessException e) {
+            // Other instances catch up on their own: cached absences expire and maintenances time out
+            log.warn("Failed to publish cluster event [type:{}, payload:{}]", type, payload, e);
+        }
+    }
+
+    private synchronized void applyMaintenance(final ClusterEvent event) {
+        if (OFFLINE.equals(event.getPayload())) {
+            if (isAbandoned(event.getCreationDate(), Instant.now())) {
+                log.warn("Ignoring abandoned maintenance [origin:{}, start:{}]", event.getOrigin(), event.getCreationDate());
+                return;
+            }
+            maintenanceStartByNode.put(event.getOrigin(), event.getCreationDate());
+        } else {
+            maintenanceStartByNode.remove(event.getOrigin());
+        }
+        adminService.setClusterMaintenance(!maintenanceStartByNode.isEmpty());
+    }
+
+    /**
+     * Reloads keys and clears caches which may be stale after an admin operation of another instance.
+     * <p>
+     * Cached existences of secrets are all cleared, a restored backup may not contain secrets stored before.
+     */
+    private void reloadSharedState(final String origin) {
+        log.info("Reloading keys and clearing caches after maintenance of another instance [origin:{}]", origin);
+        try {
+            encryptionService.reloadAESKey();
+        } catch (RuntimeException | ExceptionInInitializerError e) {
+            log.error("Failed to reload AES key after maintenance of another instance [origin:{}]", origin, e);
+        }
+        cacheSecretServices.values().forEach(CacheSecretService::clear);
+    }
+
+    private void expireAbandonedMaintenances(final Instant now) {
+        final boolean expired = maintenanceStartByNode.entrySet().removeIf(entry -> {
+            if (isAbandoned(entry.getValue(), now)) {
+                log.warn("Maintenance timed out [origin:{}, start:{}]", entry.getKey(), entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        if (expired) {
+            adminService.setClusterMaintenance(!maintenanceStartByNode.isEmpty());
+        }
+    }
+
+    private boolean isAbandoned(final Instant maintenanceStart, final Instant now) {
+        return maintenanceStart.plus(clusterConfiguration.getMaintenanceTimeout()).isBefore(now);
+    }
+
+    private static Optional<ClusterEventType> getType(final ClusterEvent event) {
+        return Arrays.stream(ClusterEventType.values())
+                .filter(type -> type.name().equals(event.getType()))
+                .findFirst();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ public class ApiKeyFilterConfig {
 
         registrationBean.setFilter(apiKeyRequestFilter);
         registrationBean.addUrlPatterns("/admin/*");
+        registrationBean.setOrder(FilterOrders.API_KEY);
         return registrationBean;
     }
 }
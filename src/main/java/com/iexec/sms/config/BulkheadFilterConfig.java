@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.config;
+
+import com.iexec.sms.admin.BulkheadConfiguration;
+import com.iexec.sms.admin.BulkheadRequestFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class to enable bulkhead filter.
+ * The filter will be activated only if the configuration is enabled.
+ * It applies to the endpoints of the OutOfService filter and to the /admin endpoints.
+ * It runs after the ApiKey and OutOfService filters, so that rejected requests never take a processing slot.
+ * Startup fails if requests processed or waiting in the compartments could hold all server threads.
+ */
+@Configuration
+@ConditionalOnExpression("'${admin.bulkhead.enabled}'=='true'")
+public class BulkheadFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<BulkheadRequestFilter> bulkheadFilterRegistrationBean(
+            BulkheadConfiguration bulkheadConfiguration,
+            @Value("${server.tomcat.threads.max:200}") int maxThreads) {
+        if (bulkheadConfiguration.getMaxHeldThreads() >= maxThreads) {
+            throw new IllegalStateException(String.format(
+                    "Bulkhead compartments may hold %d threads, it must be lower than server.tomcat.threads.max [%d]",
+                    bulkheadConfiguration.getMaxHeldThreads(), maxThreads));
+        }
+        FilterRegistrationBean<BulkheadRequestFilter> registrationBean = new FilterRegistrationBean<>();
+        BulkheadRequestFilter bulkheadRequestFilter = new BulkheadRequestFilter(bulkheadConfiguration);
+
+        registrationBean.setFilter(bulkheadRequestFilter);
+        registrationBean.addUrlPatterns("/tee/*", "/secrets/*", "/apps/*", "/requesters/*", "/admin/*");
+        registrationBean.setOrder(FilterOrders.BULKHEAD);
+        return registrationBean;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.config;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Orders of the servlet filters registered by the SMS, filters with a lower order run first.
+ * <p>
+ * Requests over budget are rejected by the rate limiting filter before any other work.
+ * Admin requests are then authenticated and requests received while the SMS is out of service are rejected,
+ * so that neither take a processing slot of the bulkhead filter.
+ * Writes are forwarded to the primary last, so that followers protect their primary with their own limits.
+ */
+final class FilterOrders {
+    static final int RATE_LIMIT = Ordered.LOWEST_PRECEDENCE - 4;
+    static final int API_KEY = Ordered.LOWEST_PRECEDENCE - 3;
+    static final int OUT_OF_SERVICE = Ordered.LOWEST_PRECEDENCE - 2;
+    static final int BULKHEAD = Ordered.LOWEST_PRECEDENCE - 1;
+    static final int WRITE_FORWARDING = Ordered.LOWEST_PRECEDENCE;
+
+    private FilterOrders() {
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2024-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2024-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,6 +40,7 @@ public class OufOfServiceFilterConfig {
 
         registrationBean.setFilter(outOfServiceRequestFilter);
         registrationBean.addUrlPatterns("/tee/*", "/secrets/*", "/apps/*", "/requesters/*");
+        registrationBean.setOrder(FilterOrders.OUT_OF_SERVICE);
         return registrationBean;
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.config;
+
+import com.iexec.sms.admin.RateLimitConfiguration;
+import com.iexec.sms.admin.RateLimitRequestFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class to enable rate limiting filter.
+ * The filter will be activated only if the configuration is enabled.
+ * It applies to the same endpoints as the OutOfService filter.
+ * It runs before the other filters of those endpoints, so that requests over budget are rejected
+ * before any other work and never wait for a processing slot of the bulkhead filter.
+ * While the SMS is out of service, a request within budget still consumes a token before being rejected
+ * by the OutOfService filter.
+ * The ApiKey filter is not concerned as it only applies to the /admin endpoints.
+ */
+@Configuration
+@ConditionalOnExpression("'${admin.rate-limit.enabled}'=='true'")
+public class RateLimitFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitRequestFilter> rateLimitFilterRegistrationBean(RateLimitConfiguration rateLimitConfiguration) {
+        FilterRegistrationBean<RateLimitRequestFilter> registrationBean = new FilterRegistrationBean<>();
+        RateLimitRequestFilter rateLimitRequestFilter = new RateLimitRequestFilter(rateLimitConfiguration);
+
+        registrationBean.setFilter(rateLimitRequestFilter);
+        registrationBean.addUrlPatterns("/tee/*", "/secrets/*", "/apps/*", "/requesters/*");
+        registrationBean.setOrder(FilterOrders.RATE_LIMIT);
+        return registrationBean;
+    }
+}
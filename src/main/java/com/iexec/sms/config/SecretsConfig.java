@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,17 +19,18 @@ package com.iexec.sms.config;
 import com.iexec.sms.metric.MetricsService;
 import com.iexec.sms.secret.CacheSecretService;
 import com.iexec.sms.secret.MeasuredSecretService;
+import com.iexec.sms.secret.SecretAddressMigration;
 import com.iexec.sms.secret.compute.TeeTaskComputeSecretHeader;
 import com.iexec.sms.secret.compute.TeeTaskComputeSecretRepository;
 import com.iexec.sms.secret.web2.Web2SecretHeader;
 import com.iexec.sms.secret.web2.Web2SecretRepository;
 import com.iexec.sms.secret.web3.Web3SecretHeader;
 import com.iexec.sms.secret.web3.Web3SecretRepository;
-import com.iexec.sms.tee.challenge.EthereumCredentialsRepository;
 import com.iexec.sms.tee.challenge.TeeChallengeRepository;
 import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -67,10 +68,19 @@ public class SecretsConfig {
         }
     }
 
+    /**
+     * Converts secret addresses of an embedded database before the persistence unit maps them as bytes.
+     */
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor secretAddressMigrationDependsOnPostProcessor() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SecretAddressMigration.class);
+    }
+
     @Bean
     MeasuredSecretService web2MeasuredSecretService(CacheSecretService<Web2SecretHeader> web2CacheSecretService,
                                                     Web2SecretRepository web2SecretRepository,
-                                                    @Value("${metrics.storage.refresh-interval}") int storedSecretsCountPeriod) {
+                                                    @Value("${metrics.storage.refresh-interval}") int cachedSecretsCountPeriod,
+                                                    @Value("${metrics.storage.reconciliation-interval}") int storedSecretsReconciliationPeriod) {
         return metricsService.registerNewMeasuredSecretService(
                 new MeasuredSecretService(
                         "web2",
@@ -78,7 +88,8 @@ public class SecretsConfig {
                         web2SecretRepository::count,
                         web2CacheSecretService::count,
                         storageMetricsExecutorService,
-                        storedSecretsCountPeriod
+                        cachedSecretsCountPeriod,
+                        storedSecretsReconciliationPeriod
                 )
         );
     }
@@ -86,7 +97,8 @@ public class SecretsConfig {
     @Bean
     MeasuredSecretService web3MeasuredSecretService(CacheSecretService<Web3SecretHeader> web3CacheSecretService,
                                                     Web3SecretRepository web3SecretRepository,
-                                                    @Value("${metrics.storage.refresh-interval}") int storedSecretsCountPeriod) {
+                                                    @Value("${metrics.storage.refresh-interval}") int cachedSecretsCountPeriod,
+                                                    @Value("${metrics.storage.reconciliation-interval}") int storedSecretsReconciliationPeriod) {
         return metricsService.registerNewMeasuredSecretService(
                 new MeasuredSecretService(
                         "web3",
@@ -94,7 +106,8 @@ public class SecretsConfig {
                         web3SecretRepository::count,
                         web3CacheSecretService::count,
                         storageMetricsExecutorService,
-                        storedSecretsCountPeriod
+                        cachedSecretsCountPeriod,
+                        storedSecretsReconciliationPeriod
                 )
         );
     }
@@ -102,7 +115,8 @@ public class SecretsConfig {
     @Bean
     MeasuredSecretService computeMeasuredSecretService(CacheSecretService<TeeTaskComputeSecretHeader> teeTaskComputeCacheSecretService,
                                                        TeeTaskComputeSecretRepository teeTaskComputeSecretRepository,
-                                                       @Value("${metrics.storage.refresh-interval}") int storedSecretsCountPeriod) {
+                                                       @Value("${metrics.storage.refresh-interval}") int cachedSecretsCountPeriod,
+                                                       @Value("${metrics.storage.reconciliation-interval}") int storedSecretsReconciliationPeriod) {
         return metricsService.registerNewMeasuredSecretService(
                 new MeasuredSecretService(
                         "compute",
@@ -110,14 +124,16 @@ public class SecretsConfig {
                         teeTaskComputeSecretRepository::count,
                         teeTaskComputeCacheSecretService::count,
                         storageMetricsExecutorService,
-                        storedSecretsCountPeriod
+                        cachedSecretsCountPeriod,
+                        storedSecretsReconciliationPeriod
                 )
         );
     }
 
     @Bean
     MeasuredSecretService teeChallengeMeasuredSecretService(TeeChallengeRepository teeChallengeRepository,
-                                                            @Value("${metrics.storage.refresh-interval}") int storedSecretsCountPeriod) {
+                                                            @Value("${metrics.storage.refresh-interval}") int cachedSecretsCountPeriod,
+                                                            @Value("${metrics.storage.reconciliation-interval}") int storedSecretsReconciliationPeriod) {
         return metricsService.registerNewMeasuredSecretService(
                 new MeasuredSecretService(
                         "TEE challenges",
@@ -125,22 +141,26 @@ public class SecretsConfig {
                         teeChallengeRepository::count,
                         () -> 0L,
                         storageMetricsExecutorService,
-                        storedSecretsCountPeriod
+                        cachedSecretsCountPeriod,
+                        storedSecretsReconciliationPeriod
                 )
         );
     }
 
     @Bean
-    MeasuredSecretService ethereumCredentialsMeasuredSecretService(EthereumCredentialsRepository ethereumCredentialsRepository,
-                                                                   @Value("${metrics.storage.refresh-interval}") int storedSecretsCountPeriod) {
+    MeasuredSecretService ethereumCredentialsMeasuredSecretService(TeeChallengeRepository teeChallengeRepository,
+                                                                   @Value("${metrics.storage.refresh-interval}") int cachedSecretsCountPeriod,
+                                                                   @Value("${metrics.storage.reconciliation-interval}") int storedSecretsReconciliationPeriod) {
         return metricsService.registerNewMeasuredSecretService(
                 new MeasuredSecretService(
                         "Ethereum Credentials",
                         "iexec.sms.secrets.ethereum_credentials.",
-                        ethereumCredentialsRepository::count,
+                        // credentials are stored in the row of their challenge
+                        teeChallengeRepository::count,
                         () -> 0L,
                         storageMetricsExecutorService,
-                        storedSecretsCountPeriod
+                        cachedSecretsCountPeriod,
+                        storedSecretsReconciliationPeriod
                 )
         );
     }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.config;
+
+import com.iexec.sms.http.FeignClientFactory;
+import com.iexec.sms.replication.ReplicationConfiguration;
+import com.iexec.sms.replication.WriteForwardingRequestFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnExpression("'${replication.mode}'.equalsIgnoreCase('follower')")
+public class WriteForwardingFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<WriteForwardingRequestFilter> writeForwardingFilterRegistrationBean(
+            ReplicationConfiguration replicationConfiguration, FeignClientFactory feignClientFactory) {
+        FilterRegistrationBean<WriteForwardingRequestFilter> registrationBean = new FilterRegistrationBean<>();
+        WriteForwardingRequestFilter writeForwardingRequestFilter = new WriteForwardingRequestFilter(
+                replicationConfiguration.getPrimaryUrl(), feignClientFactory.getHttpClient());
+
+        registrationBean.setFilter(writeForwardingRequestFilter);
+        registrationBean.addUrlPatterns("/secrets/*", "/apps/*", "/requesters/*");
+        registrationBean.setOrder(FilterOrders.WRITE_FORWARDING);
+        return registrationBean;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.encryption;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Versioned data key used to encrypt secrets.
+ * <p>
+ * The data key is never persisted in clear, it is stored wrapped (encrypted) with the AES master key.
+ * Rotating the master key only requires to re-wrap those rows.
+ */
+@Entity
+@Getter
+@NoArgsConstructor //for hibernate
+@AllArgsConstructor
+public class DataKey {
+
+    @Id
+    private int version;
+
+    @Column(nullable = false, length = 512)
+    private String wrappedKey;
+
+    private Instant creationDate;
+
+    DataKey withWrappedKey(final String newWrappedKey) {
+        return new DataKey(version, newWrappedKey, creationDate);
+    }
+}
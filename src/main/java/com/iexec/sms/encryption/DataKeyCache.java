@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.encryption;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of unwrapped data keys.
+ * <p>
+ * Keys are copied when entering and leaving the cache, every array owned by the cache is zeroed
+ * when it is evicted, replaced or cleared so that no plaintext key material lingers on the heap.
+ * Callers are expected to zero the copies they receive once they are done with them.
+ */
+public class DataKeyCache {
+
+    private final int maxSize;
+    private final Map<Integer, byte[]> keys;
+
+    public DataKeyCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Data key cache size must be strictly positive");
+        }
+        this.maxSize = maxSize;
+        this.keys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, byte[]> eldest) {
+                if (size() > DataKeyCache.this.maxSize) {
+                    zero(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the cached data key for a version.
+     *
+     * @param version Data key version
+     * @return A copy of the key to be zeroed by the caller, or an empty {@code Optional} if not cached.
+     */
+    public synchronized Optional<byte[]> get(final int version) {
+        final byte[] key = keys.get(version);
+        return key != null ? Optional.of(key.clone()) : Optional.empty();
+    }
+
+    public synchronized void put(final int version, final byte[] key) {
+        zero(keys.put(version, key.clone()));
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    public synchronized void clear() {
+        keys.values().forEach(DataKeyCache::zero);
+        keys.clear();
+    }
+
+    static void zero(final byte[] key) {
+        if (key != null) {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2024-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -14,9 +14,13 @@
  * limitations under the License.
  */
 
-package com.iexec.sms.tee.challenge;
+
+package com.iexec.sms.encryption;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface EthereumCredentialsRepository extends JpaRepository<EthereumCredentials, String> {
+import java.util.Optional;
+
+public interface DataKeyRepository extends JpaRepository<DataKey, Integer> {
+    Optional<DataKey> findTopByOrderByVersionDesc();
 }
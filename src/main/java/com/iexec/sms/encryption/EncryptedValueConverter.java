@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.encryption;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Stores values produced by {@link EncryptionService#encrypt(String)} as raw bytes instead of Base64 text.
+ * <p>
+ * The first byte gives the format of the remaining bytes:
+ * <ul>
+ * <li>{@link #FORMAT_MASTER_KEY}: ciphertext encrypted with the AES master key
+ * <li>{@link #FORMAT_DATA_KEY}: data key version on 4 bytes followed by the envelope encrypted ciphertext
+ * <li>{@link #FORMAT_TEXT}: UTF-8 bytes of a value which is not a ciphertext
+ * </ul>
+ * The conversion is lossless, a value read from the database is equal to the value which has been written.
+ * <p>
+ * Secret entities map these bytes directly, {@link EncryptionService#decrypt(byte[])} decrypts them without
+ * converting them back to Base64 text.
+ */
+@Converter
+public class EncryptedValueConverter implements AttributeConverter<String, byte[]> {
+    static final byte FORMAT_MASTER_KEY = 0;
+    static final byte FORMAT_DATA_KEY = 1;
+    static final byte FORMAT_TEXT = 2;
+
+    @Override
+    public byte[] convertToDatabaseColumn(final String attribute) {
+        return toBinary(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(final byte[] dbData) {
+        return fromBinary(dbData);
+    }
+
+    /**
+     * Converts an encrypted value to its binary representation.
+     *
+     * @param value Value returned by {@link EncryptionService#encrypt(String)}
+     * @return Bytes to store, {@literal null} if value is {@literal null}
+     */
+    public static byte[] toBinary(final String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.startsWith(EncryptionService.ENVELOPE_PREFIX)) {
+            final int separatorIndex = value.indexOf(EncryptionService.ENVELOPE_SEPARATOR,
+                    EncryptionService.ENVELOPE_PREFIX.length());
+            final byte[] ciphertext = separatorIndex < 0 ? null : decodeBase64(value.substring(separatorIndex + 1));
+            final Integer version = separatorIndex < 0 ? null
+                    : parseVersion(value.substring(EncryptionService.ENVELOPE_PREFIX.length(), separatorIndex));
+            if (ciphertext != null && version != null) {
+                return ByteBuffer.allocate(1 + Integer.BYTES + ciphertext.length)
+                        .put(FORMAT_DATA_KEY)
+                        .putInt(version)
+                        .put(ciphertext)
+                        .array();
+            }
+        } else {
+            final byte[] ciphertext = decodeBase64(value);
+            if (ciphertext != null) {
+                return withFormat(FORMAT_MASTER_KEY, ciphertext);
+            }
+        }
+        return withFormat(FORMAT_TEXT, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Converts a binary representation back to the encrypted value.
+     *
+     * @param bytes Bytes returned by {@link #toBinary(String)}
+     * @return The encrypted value, {@literal null} if bytes are {@literal null}
+     * @throws IllegalArgumentException if bytes do not start with a known format
+     */
+    public static String fromBinary(final byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Missing encrypted value format");
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        return switch (bytes[0]) {
+            case FORMAT_MASTER_KEY -> encodeBase64(buffer);
+            case FORMAT_DATA_KEY -> EncryptionService.ENVELOPE_PREFIX + buffer.getInt()
+                    + EncryptionService.ENVELOPE_SEPARATOR + encodeBase64(buffer);
+            case FORMAT_TEXT -> StandardCharsets.UTF_8.decode(buffer).toString();
+            default -> throw new IllegalArgumentException("Unknown encrypted value format " + bytes[0]);
+        };
+    }
+
+    private static byte[] withFormat(final byte format, final byte[] content) {
+        final byte[] bytes = new byte[content.length + 1];
+        bytes[0] = format;
+        System.arraycopy(content, 0, bytes, 1, content.length);
+        return bytes;
+    }
+
+    /**
+     * Decodes canonical Base64 only, so that encoding the result again returns the same text.
+     */
+    private static byte[] decodeBase64(final String text) {
+        try {
+            final byte[] decoded = Base64.getDecoder().decode(text);
+            return Base64.getEncoder().encodeToString(decoded).equals(text) ? decoded : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String encodeBase64(final ByteBuffer buffer) {
+        return Base64.getEncoder().encodeToString(Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.limit()));
+    }
+
+    /**
+     * Parses a canonical decimal version, so that formatting the result again returns the same text.
+     */
+    private static Integer parseVersion(final String text) {
+        try {
+            final int version = Integer.parseInt(text);
+            return Integer.toString(version).equals(text) ? version : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
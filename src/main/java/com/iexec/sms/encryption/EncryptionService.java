@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,10 +24,27 @@ import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.web3j.crypto.Hash;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 import static com.iexec.common.utils.FileHelper.createFileWithContent;
 
@@ -36,19 +53,69 @@ import static com.iexec.common.utils.FileHelper.createFileWithContent;
 public class EncryptionService {
 
     private static final String DEFAULT_MESSAGE = "Hello message to test AES key integrity";
-    private byte[] aesKey;
+    /**
+     * Envelope encrypted values are formatted as {@code $v<version>$<ciphertext>}.
+     * The ciphertext is Base64 encoded and can never start with this prefix.
+     */
+    static final String ENVELOPE_PREFIX = "$v";
+    static final String ENVELOPE_SEPARATOR = "$";
+    /**
+     * Data key wrapping the AES master key which encrypted values before envelope encryption was enabled.
+     * Legacy values without envelope prefix are decrypted with this version once it exists.
+     */
+    static final int LEGACY_DATA_KEY_VERSION = 0;
+    /**
+     * Suffixes of the AES key files written during a rotation, next to the current AES key file.
+     */
+    static final String NEW_AES_KEY_SUFFIX = ".new";
+    static final String PREVIOUS_AES_KEY_SUFFIX = ".previous";
+    /**
+     * Cipher of {@link CipherHelper}, whose ciphertexts are the IV followed by the encrypted data.
+     */
+    private static final String AES_TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    private static final int AES_IV_SIZE = 16;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private volatile byte[] aesKey;
 
     @Getter
     private final String aesKeyPath;
+    @Getter
+    private final boolean envelopeEnabled;
+    private final DataKeyRepository dataKeyRepository;
+    private final DataKeyCache dataKeyCache;
+    private volatile Integer activeDataKeyVersion;
 
     public EncryptionService(EncryptionConfiguration configuration) {
+        this(configuration, new EnvelopeEncryptionConfiguration(false, 1), null);
+    }
+
+    @Autowired
+    public EncryptionService(EncryptionConfiguration configuration,
+                             EnvelopeEncryptionConfiguration envelopeConfiguration,
+                             DataKeyRepository dataKeyRepository) {
         this.aesKeyPath = configuration.getAesKeyPath();
         this.aesKey = getOrCreateAesKey(configuration.getAesKeyPath());
+        this.envelopeEnabled = envelopeConfiguration.isEnabled();
+        if (envelopeEnabled && dataKeyRepository == null) {
+            throw new ExceptionInInitializerError("Envelope encryption requires a data key repository");
+        }
+        this.dataKeyRepository = dataKeyRepository;
+        this.dataKeyCache = envelopeEnabled ? new DataKeyCache(envelopeConfiguration.getDataKeyCacheSize()) : null;
     }
 
     @PostConstruct
     protected void checkAlgoAndPermissions() {
-        if (!decrypt(encrypt(DEFAULT_MESSAGE)).equals(DEFAULT_MESSAGE)) {
+        if (envelopeEnabled) {
+            recoverInterruptedAesKeyRotation();
+            initLegacyDataKey();
+        } else if (dataKeyRepository != null && dataKeyRepository.count() > 0) {
+            // values encrypted with data keys could not be decrypted anymore
+            throw new ExceptionInInitializerError("Envelope encryption cannot be disabled once data keys exist");
+        }
+        if (!decrypt(encrypt(DEFAULT_MESSAGE)).equals(DEFAULT_MESSAGE)
+                || !decrypt(EncryptedValueConverter.toBinary(encrypt(DEFAULT_MESSAGE))).equals(DEFAULT_MESSAGE)
+                || !decrypt(encryptToBinary(DEFAULT_MESSAGE)).equals(DEFAULT_MESSAGE)) {
             throw new ExceptionInInitializerError("AES key is corrupted");
         }
         if (!checkOrFixReadOnlyPermissions(aesKeyPath)) {
@@ -63,9 +130,23 @@ public class EncryptionService {
     public void reloadAESKey() {
         log.info("Reload AES Key [aesKeyPath={}]", this.aesKeyPath);
         this.aesKey = getOrCreateAesKey(this.aesKeyPath);
+        if (envelopeEnabled) {
+            // Data keys may have been restored along the AES key, they have to be unwrapped again
+            dataKeyCache.clear();
+            activeDataKeyVersion = null;
+        }
         checkAlgoAndPermissions();
     }
 
+    /**
+     * Returns the hash of the current AES key, which identifies the key without revealing it.
+     *
+     * @return Hexadecimal SHA-3 hash of the AES key
+     */
+    public String getAesKeyHash() {
+        return BytesUtils.bytesToString(Hash.sha3(aesKey));
+    }
+
     private byte[] getOrCreateAesKey(String aesKeyPath) {
         if (aesKeyPath == null || aesKeyPath.isEmpty()) {
             throw new ExceptionInInitializerError("Failed to get aesKeyPath");
@@ -98,6 +179,9 @@ public class EncryptionService {
 
     public String encrypt(String data) {
         if (StringUtils.isNotBlank(data)) {
+            if (envelopeEnabled) {
+                return encryptWithDataKey(data);
+            }
             final byte[] encryptedData = CipherHelper.aesEncrypt(data.getBytes(), aesKey);
             if (encryptedData != null) {
                 return new String(encryptedData);
@@ -108,6 +192,9 @@ public class EncryptionService {
 
     public String decrypt(String encryptedData) {
         if (StringUtils.isNotBlank(encryptedData)) {
+            if (envelopeEnabled) {
+                return decryptWithDataKey(encryptedData);
+            }
             final byte[] decryptedData = CipherHelper.aesDecrypt(encryptedData.getBytes(), aesKey);
             if (decryptedData != null) {
                 return new String(decryptedData);
@@ -116,6 +203,394 @@ public class EncryptionService {
         return "";
     }
 
+    // region binary values
+    /**
+     * Encrypts data to the binary representation stored in database, described by {@link EncryptedValueConverter}.
+     * <p>
+     * Unlike {@link #encrypt(String)}, the ciphertext is not Base64 encoded.
+     *
+     * @param data Data to encrypt
+     * @return The binary encrypted value, the binary representation of an empty value if data could not be encrypted
+     */
+    public byte[] encryptToBinary(String data) {
+        if (StringUtils.isNotBlank(data)) {
+            if (!envelopeEnabled) {
+                final byte[] ciphertext = aesEncrypt(data.getBytes(), aesKey);
+                if (ciphertext != null) {
+                    return ByteBuffer.allocate(1 + ciphertext.length)
+                            .put(EncryptedValueConverter.FORMAT_MASTER_KEY)
+                            .put(ciphertext)
+                            .array();
+                }
+            } else {
+                final int version = getActiveDataKeyVersion();
+                final byte[] dataKey = getDataKey(version).orElse(null);
+                final byte[] ciphertext = dataKey != null ? aesEncrypt(data.getBytes(), dataKey) : null;
+                if (dataKey != null) {
+                    DataKeyCache.zero(dataKey);
+                }
+                if (ciphertext != null) {
+                    return ByteBuffer.allocate(1 + Integer.BYTES + ciphertext.length)
+                            .put(EncryptedValueConverter.FORMAT_DATA_KEY)
+                            .putInt(version)
+                            .put(ciphertext)
+                            .array();
+                }
+            }
+        }
+        return new byte[]{EncryptedValueConverter.FORMAT_MASTER_KEY};
+    }
+
+    /**
+     * Decrypts a binary encrypted value read from database, without Base64 decoding its ciphertext.
+     *
+     * @param binaryValue Value returned by {@link #encryptToBinary(String)} or {@link EncryptedValueConverter#toBinary(String)}
+     * @return The decrypted value, an empty value if it could not be decrypted
+     */
+    public String decrypt(byte[] binaryValue) {
+        if (binaryValue == null || binaryValue.length <= 1) {
+            return "";
+        }
+        return switch (binaryValue[0]) {
+            case EncryptedValueConverter.FORMAT_MASTER_KEY -> envelopeEnabled
+                    ? decryptWithDataKey(LEGACY_DATA_KEY_VERSION, binaryValue, 1)
+                    : toDecryptedString(aesDecrypt(binaryValue, 1, aesKey));
+            case EncryptedValueConverter.FORMAT_DATA_KEY -> {
+                if (!envelopeEnabled || binaryValue.length < 1 + Integer.BYTES) {
+                    log.error("Malformed envelope encrypted value");
+                    yield "";
+                }
+                yield decryptWithDataKey(ByteBuffer.wrap(binaryValue, 1, Integer.BYTES).getInt(),
+                        binaryValue, 1 + Integer.BYTES);
+            }
+            case EncryptedValueConverter.FORMAT_TEXT ->
+                    decrypt(new String(binaryValue, 1, binaryValue.length - 1, StandardCharsets.UTF_8));
+            default -> {
+                log.error("Unknown encrypted value format [format:{}]", binaryValue[0]);
+                yield "";
+            }
+        };
+    }
+
+    private String decryptWithDataKey(int version, byte[] binaryValue, int offset) {
+        final byte[] dataKey = getDataKey(version).orElse(null);
+        if (dataKey == null) {
+            return "";
+        }
+        try {
+            return toDecryptedString(aesDecrypt(binaryValue, offset, dataKey));
+        } finally {
+            DataKeyCache.zero(dataKey);
+        }
+    }
+
+    private static String toDecryptedString(byte[] decryptedData) {
+        return decryptedData != null ? new String(decryptedData) : "";
+    }
+
+    private static byte[] aesEncrypt(byte[] data, byte[] key) {
+        try {
+            final byte[] iv = new byte[AES_IV_SIZE];
+            SECURE_RANDOM.nextBytes(iv);
+            final Cipher cipher = Cipher.getInstance(AES_TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
+            final byte[] encryptedData = cipher.doFinal(data);
+            final byte[] ciphertext = Arrays.copyOf(iv, AES_IV_SIZE + encryptedData.length);
+            System.arraycopy(encryptedData, 0, ciphertext, AES_IV_SIZE, encryptedData.length);
+            return ciphertext;
+        } catch (GeneralSecurityException e) {
+            log.error("Failed to encrypt data", e);
+            return null;
+        }
+    }
+
+    private static byte[] aesDecrypt(byte[] encryptedData, int offset, byte[] key) {
+        if (encryptedData.length - offset <= AES_IV_SIZE) {
+            log.error("Encrypted value is too short");
+            return null;
+        }
+        try {
+            final Cipher cipher = Cipher.getInstance(AES_TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"),
+                    new IvParameterSpec(encryptedData, offset, AES_IV_SIZE));
+            return cipher.doFinal(encryptedData, offset + AES_IV_SIZE, encryptedData.length - offset - AES_IV_SIZE);
+        } catch (GeneralSecurityException e) {
+            log.error("Failed to decrypt data", e);
+            return null;
+        }
+    }
+    // endregion
+
+    // region envelope encryption
+    private String encryptWithDataKey(String data) {
+        final int version = getActiveDataKeyVersion();
+        final byte[] dataKey = getDataKey(version).orElse(null);
+        if (dataKey == null) {
+            return "";
+        }
+        try {
+            final byte[] encryptedData = CipherHelper.aesEncrypt(data.getBytes(), dataKey);
+            if (encryptedData != null) {
+                return ENVELOPE_PREFIX + version + ENVELOPE_SEPARATOR + new String(encryptedData);
+            }
+            return "";
+        } finally {
+            DataKeyCache.zero(dataKey);
+        }
+    }
+
+    private String decryptWithDataKey(String encryptedData) {
+        int version = LEGACY_DATA_KEY_VERSION;
+        String ciphertext = encryptedData;
+        if (encryptedData.startsWith(ENVELOPE_PREFIX)) {
+            final int separatorIndex = encryptedData.indexOf(ENVELOPE_SEPARATOR, ENVELOPE_PREFIX.length());
+            try {
+                version = Integer.parseInt(encryptedData.substring(ENVELOPE_PREFIX.length(), separatorIndex));
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                log.error("Malformed envelope encrypted value");
+                return "";
+            }
+            ciphertext = encryptedData.substring(separatorIndex + 1);
+        }
+        final byte[] dataKey = getDataKey(version).orElse(null);
+        if (dataKey == null) {
+            return "";
+        }
+        try {
+            final byte[] decryptedData = CipherHelper.aesDecrypt(ciphertext.getBytes(), dataKey);
+            return decryptedData != null ? new String(decryptedData) : "";
+        } finally {
+            DataKeyCache.zero(dataKey);
+        }
+    }
+
+    /**
+     * Registers the AES master key as the legacy data key, values encrypted before envelope encryption
+     * was enabled remain readable after the master key has been rotated.
+     */
+    private synchronized void initLegacyDataKey() {
+        if (!dataKeyRepository.existsById(LEGACY_DATA_KEY_VERSION)) {
+            dataKeyRepository.save(new DataKey(LEGACY_DATA_KEY_VERSION, wrap(aesKey, aesKey), Instant.now()));
+            log.info("Legacy data key registered [version:{}]", LEGACY_DATA_KEY_VERSION);
+        }
+    }
+
+    private int getActiveDataKeyVersion() {
+        final Integer version = activeDataKeyVersion;
+        if (version != null) {
+            return version;
+        }
+        synchronized (this) {
+            if (activeDataKeyVersion == null) {
+                activeDataKeyVersion = dataKeyRepository.findTopByOrderByVersionDesc()
+                        .map(DataKey::getVersion)
+                        .filter(latestVersion -> latestVersion != LEGACY_DATA_KEY_VERSION)
+                        .orElseGet(() -> createDataKey(LEGACY_DATA_KEY_VERSION + 1));
+            }
+            return activeDataKeyVersion;
+        }
+    }
+
+    /**
+     * Returns an unwrapped data key, from the cache or else from the database.
+     *
+     * @param version Version of the data key
+     * @return A copy of the data key which has to be zeroed after use, an empty {@code Optional} if it could not be found.
+     */
+    private Optional<byte[]> getDataKey(int version) {
+        final Optional<byte[]> cachedDataKey = dataKeyCache.get(version);
+        if (cachedDataKey.isPresent()) {
+            return cachedDataKey;
+        }
+        final DataKey dataKey = dataKeyRepository.findById(version).orElse(null);
+        if (dataKey == null) {
+            log.error("Unknown data key [version:{}]", version);
+            return Optional.empty();
+        }
+        final byte[] unwrappedKey = unwrap(dataKey.getWrappedKey(), aesKey);
+        if (unwrappedKey == null) {
+            log.error("Failed to unwrap data key [version:{}]", version);
+            return Optional.empty();
+        }
+        dataKeyCache.put(version, unwrappedKey);
+        return Optional.of(unwrappedKey);
+    }
+
+    private int createDataKey(int version) {
+        final byte[] newDataKey = CipherHelper.generateAesKey();
+        if (newDataKey == null) {
+            throw new IllegalStateException("Failed to generate data key");
+        }
+        dataKeyRepository.save(new DataKey(version, wrap(newDataKey, aesKey), Instant.now()));
+        dataKeyCache.put(version, newDataKey);
+        DataKeyCache.zero(newDataKey);
+        log.info("Data key created [version:{}]", version);
+        return version;
+    }
+
+    /**
+     * Creates a new data key which will be used for all subsequent encryptions.
+     * Values encrypted with previous data keys remain readable.
+     *
+     * @return The version of the new active data key, an empty {@code Optional} if envelope encryption is disabled.
+     */
+    public synchronized Optional<Integer> rotateDataKey() {
+        if (!envelopeEnabled) {
+            log.error("Data key rotation requires envelope encryption");
+            return Optional.empty();
+        }
+        final int latestVersion = dataKeyRepository.findTopByOrderByVersionDesc()
+                .map(DataKey::getVersion)
+                .orElse(LEGACY_DATA_KEY_VERSION);
+        activeDataKeyVersion = createDataKey(latestVersion + 1);
+        return Optional.of(activeDataKeyVersion);
+    }
+
+    /**
+     * Replaces the AES master key with a newly generated one.
+     * <p>
+     * Only data keys are re-wrapped with the new master key, encrypted values are left untouched.
+     * The new key replaces the current key file before data keys are updated in database, the previous key
+     * being kept next to it until data keys are saved. A rotation interrupted in between is completed or
+     * rolled back on startup.
+     *
+     * @return {@code true} if the master key has been rotated, {@code false} otherwise.
+     */
+    public synchronized boolean rotateAesKey() {
+        if (!envelopeEnabled) {
+            log.error("AES key rotation requires envelope encryption");
+            return false;
+        }
+        initLegacyDataKey();
+        final byte[] newAesKey = CipherHelper.generateAesKey();
+        if (newAesKey == null) {
+            log.error("Failed to generate AES key");
+            return false;
+        }
+        final List<DataKey> previousDataKeys = dataKeyRepository.findAll();
+        final List<DataKey> rewrappedDataKeys = new ArrayList<>(previousDataKeys.size());
+        for (final DataKey dataKey : previousDataKeys) {
+            final byte[] unwrappedKey = unwrap(dataKey.getWrappedKey(), aesKey);
+            if (unwrappedKey == null) {
+                log.error("Failed to unwrap data key, aborting AES key rotation [version:{}]", dataKey.getVersion());
+                return false;
+            }
+            rewrappedDataKeys.add(dataKey.withWrappedKey(wrap(unwrappedKey, newAesKey)));
+            DataKeyCache.zero(unwrappedKey);
+        }
+
+        final Path aesKeyFile = Path.of(aesKeyPath);
+        final Path newAesKeyFile = Path.of(aesKeyPath + NEW_AES_KEY_SUFFIX);
+        final Path previousAesKeyFile = Path.of(aesKeyPath + PREVIOUS_AES_KEY_SUFFIX);
+        try {
+            Files.write(newAesKeyFile, newAesKey);
+            Files.copy(aesKeyFile, previousAesKeyFile, StandardCopyOption.REPLACE_EXISTING);
+            setWritePermissions();
+            Files.move(newAesKeyFile, aesKeyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to replace AES key [aesKeyPath:{}]", aesKeyPath, e);
+            deleteIfExists(newAesKeyFile);
+            deleteIfExists(previousAesKeyFile);
+            checkOrFixReadOnlyPermissions(aesKeyPath);
+            return false;
+        }
+        try {
+            dataKeyRepository.saveAll(rewrappedDataKeys);
+        } catch (RuntimeException e) {
+            log.error("Failed to save re-wrapped data keys, restoring previous AES key [aesKeyPath:{}]", aesKeyPath, e);
+            try {
+                Files.move(previousAesKeyFile, aesKeyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ioException) {
+                // restored on startup, data keys are still wrapped with the previous key
+                log.error("Failed to restore previous AES key [path:{}]", previousAesKeyFile, ioException);
+            }
+            checkOrFixReadOnlyPermissions(aesKeyPath);
+            return false;
+        }
+        deleteIfExists(previousAesKeyFile);
+        this.aesKey = newAesKey;
+        dataKeyCache.clear();
+        checkOrFixReadOnlyPermissions(aesKeyPath);
+        log.info("AES key rotated [dataKeys:{}, aesKeyHash:{}]",
+                rewrappedDataKeys.size(), BytesUtils.bytesToString(Hash.sha3(newAesKey)));
+        return true;
+    }
+
+    /**
+     * Completes or rolls back an AES key rotation interrupted between the replacement of the key file
+     * and the update of data keys in database.
+     * <p>
+     * The previous key is restored if data keys can only be unwrapped with it, it is deleted otherwise.
+     */
+    private synchronized void recoverInterruptedAesKeyRotation() {
+        final Path previousAesKeyFile = Path.of(aesKeyPath + PREVIOUS_AES_KEY_SUFFIX);
+        // a new key which has not replaced the current key file never wrapped data keys
+        deleteIfExists(Path.of(aesKeyPath + NEW_AES_KEY_SUFFIX));
+        if (!Files.exists(previousAesKeyFile)) {
+            return;
+        }
+        try {
+            final byte[] previousAesKey = Files.readAllBytes(previousAesKeyFile);
+            if (!unwrapsDataKeys(aesKey) && unwrapsDataKeys(previousAesKey)) {
+                log.warn("Interrupted AES key rotation, restoring previous AES key [aesKeyPath:{}]", aesKeyPath);
+                setWritePermissions();
+                Files.move(previousAesKeyFile, Path.of(aesKeyPath), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                this.aesKey = previousAesKey;
+                log.info("AES key loaded [aesKeyPath:{}, aesKeyHash:{}]",
+                        aesKeyPath, BytesUtils.bytesToString(Hash.sha3(previousAesKey)));
+            } else {
+                log.info("Deleting previous AES key of a completed rotation [path:{}]", previousAesKeyFile);
+                Files.delete(previousAesKeyFile);
+            }
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError("Failed to recover interrupted AES key rotation: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks that all data keys are wrapped with a master key.
+     * Data keys and master keys have the same length, a wrong master key cannot unwrap a key of this length.
+     */
+    private boolean unwrapsDataKeys(byte[] masterKey) {
+        for (final DataKey dataKey : dataKeyRepository.findAll()) {
+            final byte[] unwrappedKey = unwrap(dataKey.getWrappedKey(), masterKey);
+            if (unwrappedKey == null) {
+                return false;
+            }
+            final boolean unwrapped = unwrappedKey.length == masterKey.length;
+            DataKeyCache.zero(unwrappedKey);
+            if (!unwrapped) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void deleteIfExists(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete AES key file [path:{}]", path, e);
+        }
+    }
+
+    int getCachedDataKeysCount() {
+        return dataKeyCache != null ? dataKeyCache.size() : 0;
+    }
+
+    private static String wrap(byte[] dataKey, byte[] masterKey) {
+        final byte[] wrappedKey = CipherHelper.aesEncrypt(dataKey, masterKey);
+        if (wrappedKey == null) {
+            throw new IllegalStateException("Failed to wrap data key");
+        }
+        return new String(wrappedKey);
+    }
+
+    private static byte[] unwrap(String wrappedKey, byte[] masterKey) {
+        return CipherHelper.aesDecrypt(wrappedKey.getBytes(), masterKey);
+    }
+    // endregion
+
     boolean checkOrFixReadOnlyPermissions(String aesKeyPath) {
         final File file = new File(aesKeyPath);
         if (file.canWrite()) {
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.encryption;
+
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Envelope encryption settings.
+ * <p>
+ * When enabled, secrets are encrypted with versioned data keys, themselves wrapped with the AES master key.
+ * Values encrypted before envelope encryption was enabled remain readable.
+ */
+@Value
+@ConfigurationProperties(prefix = "encryption.envelope")
+public class EnvelopeEncryptionConfiguration {
+    boolean enabled;
+    int dataKeyCacheSize;
+}
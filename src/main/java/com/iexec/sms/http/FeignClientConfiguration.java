@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.http;
+
+import feign.Logger;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "http.client")
+public class FeignClientConfiguration {
+    /**
+     * Max duration to establish a connection.
+     */
+    @NotNull(message = "Connect timeout must not be null")
+    Duration connectTimeout;
+    /**
+     * Max duration to wait for a response once a request has been sent.
+     */
+    @NotNull(message = "Read timeout must not be null")
+    Duration readTimeout;
+    /**
+     * Max duration to wait for a free connection of the pool.
+     */
+    @NotNull(message = "Connection request timeout must not be null")
+    Duration connectionRequestTimeout;
+    /**
+     * Max number of pooled connections of each client, all connections of a client target the same host.
+     */
+    @Positive(message = "Max connections must be greater than 0")
+    int maxConnections;
+    /**
+     * Log level of Feign clients, {@code FULL} logs request and response bodies.
+     */
+    @NotNull(message = "Log level must not be null")
+    Logger.Level logLevel;
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.http;
+
+import com.iexec.common.utils.FeignBuilder;
+import feign.Request;
+import feign.codec.Encoder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLContext;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates Feign clients sending requests through pooled HTTP clients.
+ * <p>
+ * Clients without specific SSL configuration share a single connection pool,
+ * clients with their own {@link SSLContext} share a pool dedicated to this context.
+ * Connect and read timeouts of the {@link FeignClientConfiguration} are applied as Feign request options.
+ */
+@Slf4j
+@Component
+public class FeignClientFactory {
+    private final FeignClientConfiguration configuration;
+    private final Request.Options options;
+    private final PooledFeignClient sharedClient;
+    private final Map<SSLContext, PooledFeignClient> dedicatedClients = new ConcurrentHashMap<>();
+
+    public FeignClientFactory(final FeignClientConfiguration configuration) {
+        this.configuration = configuration;
+        this.options = new Request.Options(
+                configuration.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                configuration.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS, true);
+        this.sharedClient = new PooledFeignClient(configuration, null);
+        log.info("Feign clients configuration [connectTimeout:{}, readTimeout:{}, connectionRequestTimeout:{}, maxConnections:{}, logLevel:{}]",
+                configuration.getConnectTimeout(), configuration.getReadTimeout(),
+                configuration.getConnectionRequestTimeout(), configuration.getMaxConnections(),
+                configuration.getLogLevel());
+    }
+
+    public <T> T create(final Class<T> apiType, final String url) {
+        return FeignBuilder.createBuilder(configuration.getLogLevel())
+                .options(options)
+                .client(sharedClient)
+                .target(apiType, url);
+    }
+
+    public <T> T createWithBasicAuth(final Class<T> apiType, final String url,
+                                     final String login, final String password) {
+        return FeignBuilder.createBuilderWithBasicAuth(configuration.getLogLevel(), login, password)
+                .options(options)
+                .client(sharedClient)
+                .target(apiType, url);
+    }
+
+    /**
+     * Creates a client with basic authentication encoding request bodies with the given encoder.
+     */
+    public <T> T createWithBasicAuth(final Class<T> apiType, final String url,
+                                     final String login, final String password, final Encoder encoder) {
+        return FeignBuilder.createBuilderWithBasicAuth(configuration.getLogLevel(), login, password)
+                .options(options)
+                .client(sharedClient)
+                .encoder(encoder)
+                .target(apiType, url);
+    }
+
+    /**
+     * Creates a client using a connection pool dedicated to the given SSL context.
+     * Hostnames are not verified on TLS connections of this pool.
+     */
+    public <T> T createWithSslContext(final Class<T> apiType, final String url, final SSLContext sslContext) {
+        return FeignBuilder.createBuilder(configuration.getLogLevel())
+                .options(options)
+                .client(getDedicatedClient(sslContext))
+                .target(apiType, url);
+    }
+
+    /**
+     * Creates a client using a connection pool dedicated to the given SSL context
+     * and encoding request bodies with the given encoder.
+     */
+    public <T> T createWithSslContext(final Class<T> apiType, final String url, final SSLContext sslContext,
+                                      final Encoder encoder) {
+        return FeignBuilder.createBuilder(configuration.getLogLevel())
+                .options(options)
+                .client(getDedicatedClient(sslContext))
+                .encoder(encoder)
+                .target(apiType, url);
+    }
+
+    /**
+     * Returns the pooled HTTP client shared by clients without specific SSL configuration,
+     * for requests whose bodies are streamed rather than encoded by Feign.
+     */
+    public CloseableHttpClient getHttpClient() {
+        return sharedClient.getHttpClient();
+    }
+
+    private PooledFeignClient getDedicatedClient(final SSLContext sslContext) {
+        if (sslContext == null) {
+            return sharedClient;
+        }
+        return dedicatedClients.computeIfAbsent(sslContext, context -> new PooledFeignClient(configuration, context));
+    }
+
+    @PreDestroy
+    void close() {
+        sharedClient.close();
+        dedicatedClients.values().forEach(PooledFeignClient::close);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.http;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.client5.http.ssl.HostnameVerificationPolicy;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ssl.SSLBufferMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+
+/**
+ * Feign {@link Client} sending requests through a long-lived pooled HTTP client.
+ * <p>
+ * Connections are kept alive between calls and response bodies are streamed.
+ * Connect and read timeouts are the ones of the Feign request options,
+ * waiting for a pooled connection is bounded by the connection request timeout of the {@link FeignClientConfiguration}.
+ */
+public class PooledFeignClient implements Client, AutoCloseable {
+    private static final TimeValue IDLE_CONNECTION_TIMEOUT = TimeValue.ofMinutes(1);
+
+    private final CloseableHttpClient httpClient;
+    private final ApacheHttp5Client delegate;
+
+    /**
+     * Creates a pooled client.
+     *
+     * @param configuration Timeouts and pool size of the client
+     * @param sslContext    SSL context of TLS connections, hostnames are not verified when provided.
+     *                      The default SSL context is used when {@literal null}
+     */
+    public PooledFeignClient(final FeignClientConfiguration configuration, final SSLContext sslContext) {
+        final PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder =
+                PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(configuration.getMaxConnections())
+                        .setMaxConnPerRoute(configuration.getMaxConnections())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(configuration.getConnectTimeout().toMillis()))
+                                .build());
+        if (sslContext != null) {
+            connectionManagerBuilder.setTlsSocketStrategy(
+                    new DefaultClientTlsStrategy(sslContext, null, null, SSLBufferMode.STATIC,
+                            HostnameVerificationPolicy.CLIENT, NoopHostnameVerifier.INSTANCE));
+        }
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManagerBuilder.build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(
+                                configuration.getConnectionRequestTimeout().toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(configuration.getReadTimeout().toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_CONNECTION_TIMEOUT)
+                .build();
+        this.delegate = new ApacheHttp5Client(httpClient);
+    }
+
+    /**
+     * Returns the underlying HTTP client, for requests streaming their bodies, which Feign buffers.
+     * The client is closed along this {@link PooledFeignClient}.
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        return delegate.execute(request, options);
+    }
+
+    @Override
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import feign.Headers;
+import feign.Param;
+import feign.RequestLine;
+
+/**
+ * Replication endpoints of a primary, read by followers.
+ */
+@Headers("X-API-KEY: {apiKey}")
+public interface PrimaryClient {
+    @RequestLine("GET /admin/replication/changes?epoch={epoch}&after={after}&limit={limit}")
+    ReplicationBatch getChanges(@Param("apiKey") String apiKey,
+                                @Param("epoch") String epoch,
+                                @Param("after") long after,
+                                @Param("limit") int limit);
+
+    @RequestLine("GET /admin/replication/snapshot/{table}?page={page}&size={size}")
+    ReplicationBatch getSnapshot(@Param("apiKey") String apiKey,
+                                 @Param("table") ReplicationBatch.Table table,
+                                 @Param("page") int page,
+                                 @Param("size") int size);
+
+    @RequestLine("POST /admin/replication/challenges/{taskId}")
+    ReplicationBatch.ChallengeRow getOrCreateChallenge(@Param("apiKey") String apiKey,
+                                                       @Param("taskId") String taskId);
+}
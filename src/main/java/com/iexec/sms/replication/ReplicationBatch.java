@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import com.iexec.sms.secret.compute.OnChainObjectType;
+import com.iexec.sms.secret.compute.SecretOwnerRole;
+
+import java.util.List;
+
+/**
+ * Rows sent by a primary to its followers, secret values and private keys are encrypted.
+ * <p>
+ * Rows hold the current state of mutated entries, so that applying a batch twice or out of order is harmless.
+ * Dates are ISO-8601 strings.
+ *
+ * @param epoch          Identifier of the mutation stream, it changes when the primary restarts or restores a backup
+ * @param aesKeyHash     Hash of the AES key of the primary, rows may only be applied by a follower using the same key
+ * @param headSequence   Sequence of the latest mutation of the primary
+ * @param lastSequence   Sequence of the latest mutation included in the batch
+ * @param resyncRequired Whether the follower must copy the whole primary before reading mutations
+ */
+public record ReplicationBatch(String epoch,
+                               String aesKeyHash,
+                               long headSequence,
+                               long lastSequence,
+                               boolean resyncRequired,
+                               List<Web2SecretRow> web2Secrets,
+                               List<Web3SecretRow> web3Secrets,
+                               List<ComputeSecretRow> computeSecrets,
+                               List<ChallengeRow> challenges,
+                               List<DataKeyRow> dataKeys) {
+
+    public enum Table {
+        WEB2_SECRETS, WEB3_SECRETS, COMPUTE_SECRETS, CHALLENGES
+    }
+
+    public record Web2SecretRow(String ownerAddress, String address, String value) {
+    }
+
+    public record Web3SecretRow(String address, String value) {
+    }
+
+    public record ComputeSecretRow(OnChainObjectType onChainObjectType,
+                                   String onChainObjectAddress,
+                                   SecretOwnerRole secretOwnerRole,
+                                   String fixedSecretOwner,
+                                   String key,
+                                   String value) {
+    }
+
+    public record ChallengeRow(String taskId,
+                               String finalDeadline,
+                               String address,
+                               String privateKey,
+                               boolean encrypted) {
+    }
+
+    public record DataKeyRow(int version, String wrappedKey, String creationDate) {
+    }
+
+    public boolean containsNoRows() {
+        return web2Secrets.isEmpty() && web3Secrets.isEmpty() && computeSecrets.isEmpty() && challenges.isEmpty();
+    }
+}
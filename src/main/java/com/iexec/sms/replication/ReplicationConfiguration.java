@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "replication")
+public class ReplicationConfiguration {
+    public enum Mode {
+        /**
+         * Standalone SMS.
+         */
+        NONE,
+        /**
+         * SMS streaming its mutations to followers.
+         */
+        PRIMARY,
+        /**
+         * SMS serving reads from a local copy of its primary and forwarding writes to it.
+         */
+        FOLLOWER
+    }
+
+    /**
+     * Role of this SMS in replication.
+     */
+    @NotNull(message = "Mode must not be null")
+    Mode mode;
+    /**
+     * URL of the primary, required on followers.
+     */
+    String primaryUrl;
+    /**
+     * Admin API key of the primary, required on followers.
+     */
+    String primaryApiKey;
+    /**
+     * Interval between two consecutive reads of the mutation stream of the primary.
+     */
+    @NotNull(message = "Poll interval must not be null")
+    Duration pollInterval;
+    /**
+     * Max number of mutations or snapshot rows returned by a single request to the primary.
+     */
+    @Positive(message = "Batch size must be greater than 0")
+    int batchSize;
+    /**
+     * Number of latest mutations kept in memory by the primary, followers further behind copy the whole primary.
+     */
+    @Positive(message = "Log size must be greater than 0")
+    int logSize;
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import com.iexec.sms.tee.challenge.TeeChallengeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Endpoints read by followers, protected by the admin API key.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/replication")
+@ConditionalOnExpression("'${replication.mode}'.equalsIgnoreCase('primary')")
+public class ReplicationController {
+    private final ReplicationLog replicationLog;
+    private final TeeChallengeService teeChallengeService;
+
+    public ReplicationController(final ReplicationLog replicationLog,
+                                 final TeeChallengeService teeChallengeService) {
+        this.replicationLog = replicationLog;
+        this.teeChallengeService = teeChallengeService;
+    }
+
+    /**
+     * Returns rows mutated after a given sequence of a mutation stream.
+     *
+     * @param epoch Mutation stream read by the follower, may be empty on first read
+     * @param after Sequence of the latest mutation applied by the follower
+     * @param limit Max number of mutations to return
+     * @return HTTP 200 (OK) with the batch, which may require a resync
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ReplicationBatch> getChanges(@RequestParam(defaultValue = "") String epoch,
+                                                       @RequestParam long after,
+                                                       @RequestParam int limit) {
+        return ResponseEntity.ok(replicationLog.getChanges(epoch, after, limit));
+    }
+
+    /**
+     * Returns a page of a table.
+     *
+     * @param table Table to read
+     * @param page  Index of the page, starting at 0
+     * @param size  Max number of rows of the page
+     * @return HTTP 200 (OK) with the rows of the page
+     */
+    @GetMapping("/snapshot/{table}")
+    public ResponseEntity<ReplicationBatch> getSnapshot(@PathVariable ReplicationBatch.Table table,
+                                                        @RequestParam int page,
+                                                        @RequestParam int size) {
+        return ResponseEntity.ok(replicationLog.getSnapshot(table, page, size));
+    }
+
+    /**
+     * Returns the challenge of a task, creating it if needed, on behalf of a follower.
+     *
+     * @param taskId ID of the task
+     * @return HTTP 200 (OK) with the challenge and its encrypted private key,
+     * HTTP 404 (Not Found) if the challenge could not be created
+     */
+    @PostMapping("/challenges/{taskId}")
+    public ResponseEntity<ReplicationBatch.ChallengeRow> getOrCreateChallenge(@PathVariable String taskId) {
+        return teeChallengeService.getOrCreate(taskId, false)
+                .map(ReplicationLog::toRow)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import com.iexec.sms.encryption.DataKey;
+import com.iexec.sms.encryption.DataKeyRepository;
+import com.iexec.sms.encryption.EncryptionService;
+import com.iexec.sms.http.FeignClientFactory;
+import com.iexec.sms.replication.ReplicationBatch.*;
+import com.iexec.sms.secret.CacheSecretService;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecret;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretHeader;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretRepository;
+import com.iexec.sms.secret.web2.Web2Secret;
+import com.iexec.sms.secret.web2.Web2SecretHeader;
+import com.iexec.sms.secret.web2.Web2SecretRepository;
+import com.iexec.sms.secret.web3.Web3Secret;
+import com.iexec.sms.secret.web3.Web3SecretHeader;
+import com.iexec.sms.secret.web3.Web3SecretRepository;
+import com.iexec.sms.tee.challenge.TeeChallenge;
+import com.iexec.sms.tee.challenge.TeeChallengeRepository;
+import com.iexec.sms.tee.challenge.TeeChallengeService;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a local copy of a primary SMS by reading its mutation stream.
+ * <p>
+ * The follower copies the whole primary on first read, after a restart of the primary
+ * or when mutations it misses are no longer kept by the primary.
+ * Challenges missing locally are created on the primary, so that all instances share a single challenge per task.
+ * <p>
+ * Followers must use the AES key file of their primary. Rows are not applied while the AES key of the follower
+ * differs from the one of the primary, the AES key file is reloaded until both keys match.
+ */
+@Slf4j
+@Service
+@ConditionalOnExpression("'${replication.mode}'.equalsIgnoreCase('follower')")
+public class ReplicationFollower {
+    static final String METRIC_LAG_SEQUENCES = "iexec.sms.replication.lag.sequences";
+    static final String METRIC_LAG_SECONDS = "iexec.sms.replication.lag.seconds";
+    static final String METRIC_RESYNCS = "iexec.sms.replication.resyncs";
+    static final String METRIC_AES_KEY_MISMATCHES = "iexec.sms.replication.aes.key.mismatches";
+
+    private final ReplicationConfiguration replicationConfiguration;
+    private final PrimaryClient primaryClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Web2SecretRepository web2SecretRepository;
+    private final Web3SecretRepository web3SecretRepository;
+    private final TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
+    private final TeeChallengeRepository teeChallengeRepository;
+    private final DataKeyRepository dataKeyRepository;
+    private final CacheSecretService<Web2SecretHeader> web2CacheSecretService;
+    private final CacheSecretService<Web3SecretHeader> web3CacheSecretService;
+    private final CacheSecretService<TeeTaskComputeSecretHeader> teeTaskComputeCacheSecretService;
+    private final TeeChallengeService teeChallengeService;
+    private final EncryptionService encryptionService;
+    private final Counter resyncCounter;
+    private final Counter aesKeyMismatchCounter;
+
+    private String epoch = "";
+    private volatile long appliedSequence;
+    private volatile long headSequence;
+    private volatile Instant lastCaughtUp = Instant.now();
+
+    @Autowired
+    public ReplicationFollower(final ReplicationConfiguration replicationConfiguration,
+                               final FeignClientFactory feignClientFactory,
+                               final JdbcTemplate jdbcTemplate,
+                               final PlatformTransactionManager transactionManager,
+                               final Web2SecretRepository web2SecretRepository,
+                               final Web3SecretRepository web3SecretRepository,
+                               final TeeTaskComputeSecretRepository teeTaskComputeSecretRepository,
+                               final TeeChallengeRepository teeChallengeRepository,
+                               final DataKeyRepository dataKeyRepository,
+                               final CacheSecretService<Web2SecretHeader> web2CacheSecretService,
+                               final CacheSecretService<Web3SecretHeader> web3CacheSecretService,
+                               final CacheSecretService<TeeTaskComputeSecretHeader> teeTaskComputeCacheSecretService,
+                               final TeeChallengeService teeChallengeService,
+                               final EncryptionService encryptionService) {
+        this(replicationConfiguration,
+                feignClientFactory.create(PrimaryClient.class, replicationConfiguration.getPrimaryUrl()),
+                jdbcTemplate, transactionManager, web2SecretRepository, web3SecretRepository,
+                teeTaskComputeSecretRepository, teeChallengeRepository, dataKeyRepository,
+                web2CacheSecretService, web3CacheSecretService, teeTaskComputeCacheSecretService, teeChallengeService,
+                encryptionService);
+    }
+
+    ReplicationFollower(final ReplicationConfiguration replicationConfiguration,
+                        final PrimaryClient primaryClient,
+                        final JdbcTemplate jdbcTemplate,
+                        final PlatformTransactionManager transactionManager,
+                        final Web2SecretRepository web2SecretRepository,
+                        final Web3SecretRepository web3SecretRepository,
+                        final TeeTaskComputeSecretRepository teeTaskComputeSecretRepository,
+                        final TeeChallengeRepository teeChallengeRepository,
+                        final DataKeyRepository dataKeyRepository,
+                        final CacheSecretService<Web2SecretHeader> web2CacheSecretService,
+                        final CacheSecretService<Web3SecretHeader> web3CacheSecretService,
+                        final CacheSecretService<TeeTaskComputeSecretHeader> teeTaskComputeCacheSecretService,
+                        final TeeChallengeService teeChallengeService,
+                        final EncryptionService encryptionService) {
+        this.replicationConfiguration = replicationConfiguration;
+        this.primaryClient = primaryClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.web2SecretRepository = web2SecretRepository;
+        this.web3SecretRepository = web3SecretRepository;
+        this.teeTaskComputeSecretRepository = teeTaskComputeSecretRepository;
+        this.teeChallengeRepository = teeChallengeRepository;
+        this.dataKeyRepository = dataKeyRepository;
+        this.web2CacheSecretService = web2CacheSecretService;
+        this.web3CacheSecretService = web3CacheSecretService;
+        this.teeTaskComputeCacheSecretService = teeTaskComputeCacheSecretService;
+        this.teeChallengeService = teeChallengeService;
+        this.encryptionService = encryptionService;
+        Gauge.builder(METRIC_LAG_SEQUENCES, () -> Math.max(0, headSequence - appliedSequence))
+                .register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_LAG_SECONDS, this::getLagSeconds)
+                .register(Metrics.globalRegistry);
+        this.resyncCounter = Metrics.counter(METRIC_RESYNCS);
+        this.aesKeyMismatchCounter = Metrics.counter(METRIC_AES_KEY_MISMATCHES);
+    }
+
+    @PostConstruct
+    void init() {
+        teeChallengeService.setRemoteChallengeProvider(this::fetchChallenge);
+        log.info("Following primary [url:{}, pollInterval:{}, batchSize:{}]",
+                replicationConfiguration.getPrimaryUrl(), replicationConfiguration.getPollInterval(),
+                replicationConfiguration.getBatchSize());
+    }
+
+    long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    double getLagSeconds() {
+        return headSequence > appliedSequence
+                ? (Instant.now().toEpochMilli() - lastCaughtUp.toEpochMilli()) / 1000.0
+                : 0;
+    }
+
+    /**
+     * Applies mutations of the primary until the follower has caught up with it.
+     * Mutations occurring while the whole primary is copied are read again once the copy is over.
+     * Polling stops without applying rows when the AES key of the primary differs from the one of the follower.
+     */
+    @Scheduled(fixedDelayString = "${replication.poll-interval}")
+    public synchronized void poll() {
+        try {
+            ReplicationBatch batch;
+            do {
+                batch = primaryClient.getChanges(replicationConfiguration.getPrimaryApiKey(),
+                        epoch, appliedSequence, replicationConfiguration.getBatchSize());
+                headSequence = batch.headSequence();
+                if (!hasAesKeyOfPrimary(batch)) {
+                    return;
+                }
+                if (batch.resyncRequired()) {
+                    if (!resync(batch)) {
+                        return;
+                    }
+                } else {
+                    apply(batch);
+                    appliedSequence = batch.lastSequence();
+                }
+            } while (batch.resyncRequired() || appliedSequence < headSequence);
+            lastCaughtUp = Instant.now();
+        } catch (FeignException e) {
+            log.warn("Failed to read mutations of primary [epoch:{}, appliedSequence:{}, status:{}]",
+                    epoch, appliedSequence, e.status());
+        }
+    }
+
+    /**
+     * Checks the AES key of the primary against the one of the follower,
+     * the AES key file of the follower is reloaded if keys differ.
+     *
+     * @param batch Batch read from the primary
+     * @return {@code true} if rows of the batch can be applied, {@code false} otherwise
+     */
+    boolean hasAesKeyOfPrimary(final ReplicationBatch batch) {
+        if (Objects.equals(batch.aesKeyHash(), encryptionService.getAesKeyHash())) {
+            return true;
+        }
+        log.warn("AES key differs from the one of primary, reloading AES key file [primaryAesKeyHash:{}, aesKeyHash:{}]",
+                batch.aesKeyHash(), encryptionService.getAesKeyHash());
+        try {
+            encryptionService.reloadAESKey();
+        } catch (RuntimeException | ExceptionInInitializerError e) {
+            log.error("Failed to reload AES key file", e);
+        }
+        if (Objects.equals(batch.aesKeyHash(), encryptionService.getAesKeyHash())) {
+            log.info("AES key of primary loaded [aesKeyHash:{}]", batch.aesKeyHash());
+            return true;
+        }
+        aesKeyMismatchCounter.increment();
+        log.error("Rows of primary not applied, AES key file must hold the AES key of primary "
+                        + "[primaryAesKeyHash:{}, aesKeyHash:{}, appliedSequence:{}]",
+                batch.aesKeyHash(), encryptionService.getAesKeyHash(), appliedSequence);
+        return false;
+    }
+
+    /**
+     * Copies all rows of the primary and moves to the head of its stream at the beginning of the copy.
+     * The copy is interrupted if the AES key of the primary changes meanwhile, it starts over on next poll.
+     *
+     * @return {@code true} if the whole primary has been copied, {@code false} otherwise
+     */
+    private boolean resync(final ReplicationBatch batch) {
+        log.info("Copying whole primary [previousEpoch:{}, epoch:{}, headSequence:{}]",
+                epoch, batch.epoch(), batch.headSequence());
+        resyncCounter.increment();
+        for (final Table table : Table.values()) {
+            int page = 0;
+            ReplicationBatch snapshot;
+            do {
+                snapshot = primaryClient.getSnapshot(replicationConfiguration.getPrimaryApiKey(),
+                        table, page++, replicationConfiguration.getBatchSize());
+                if (!hasAesKeyOfPrimary(snapshot)) {
+                    return false;
+                }
+                apply(snapshot);
+            } while (!snapshot.containsNoRows());
+        }
+        epoch = batch.epoch();
+        appliedSequence = batch.headSequence();
+        log.info("Copied whole primary [epoch:{}, headSequence:{}]", epoch, appliedSequence);
+        return true;
+    }
+
+    void apply(final ReplicationBatch batch) {
+        final List<Web2Secret> web2Secrets = batch.web2Secrets().stream()
+                .map(row -> new Web2Secret(row.ownerAddress(), row.address(), row.value()))
+                .toList();
+        final List<Web3Secret> web3Secrets = batch.web3Secrets().stream()
+                .map(row -> new Web3Secret(row.address(), row.value()))
+                .toList();
+        final List<TeeTaskComputeSecret> computeSecrets = batch.computeSecrets().stream()
+                .map(row -> TeeTaskComputeSecret.builder()
+                        .onChainObjectType(row.onChainObjectType())
+                        .onChainObjectAddress(row.onChainObjectAddress())
+                        .secretOwnerRole(row.secretOwnerRole())
+                        .fixedSecretOwner(row.fixedSecretOwner())
+                        .key(row.key())
+                        .value(row.value())
+                        .build())
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            applyDataKeys(batch.dataKeys());
+            web2SecretRepository.saveAll(web2Secrets);
+            web3SecretRepository.saveAll(web3Secrets);
+            teeTaskComputeSecretRepository.saveAll(computeSecrets);
+            batch.challenges().forEach(this::applyChallenge);
+        });
+        // caches are updated once rows are committed
+        web2Secrets.forEach(secret -> web2CacheSecretService.secretStored(secret.getHeader()));
+        web3Secrets.forEach(secret -> web3CacheSecretService.secretStored(secret.getHeader()));
+        computeSecrets.forEach(secret -> teeTaskComputeCacheSecretService.secretStored(secret.getHeader()));
+    }
+
+    private void applyDataKeys(final List<DataKeyRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        final Map<Integer, String> localWrappedKeys = dataKeyRepository.findAll().stream()
+                .collect(Collectors.toMap(DataKey::getVersion, DataKey::getWrappedKey));
+        dataKeyRepository.saveAll(rows.stream()
+                .filter(row -> !Objects.equals(localWrappedKeys.get(row.version()), row.wrappedKey()))
+                .map(row -> new DataKey(row.version(), row.wrappedKey(), toInstant(row.creationDate())))
+                .toList());
+    }
+
+    /**
+     * Challenges are written with plain SQL, a challenge is only inserted if missing.
+     */
+    private void applyChallenge(final ChallengeRow row) {
+        final Object finalDeadline = Optional.ofNullable(toInstant(row.finalDeadline()))
+                // PostgreSQL driver does not bind Instant values
+                .map(instant -> instant.atOffset(ZoneOffset.UTC))
+                .orElse(null);
+        final int updated = jdbcTemplate.update(
+                "UPDATE \"tee_task_challenge\" SET \"final_deadline\" = ? WHERE \"task_id\" = ?",
+                finalDeadline, row.taskId());
+        if (updated > 0) {
+            return;
+        }
+        jdbcTemplate.update(
+                "INSERT INTO \"tee_task_challenge\" (\"task_id\", \"final_deadline\", \"address\", \"is_encrypted\", \"private_key\") "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                row.taskId(), finalDeadline, row.address(), row.encrypted(), row.privateKey());
+    }
+
+    /**
+     * Creates a challenge on the primary and stores it locally.
+     *
+     * @param taskId ID of the task
+     * @return The challenge with an encrypted private key, or an empty {@link Optional} on failure
+     */
+    Optional<TeeChallenge> fetchChallenge(final String taskId) {
+        try {
+            final ChallengeRow row = primaryClient.getOrCreateChallenge(replicationConfiguration.getPrimaryApiKey(), taskId);
+            transactionTemplate.executeWithoutResult(status -> applyChallenge(row));
+            return teeChallengeRepository.findById(row.taskId());
+        } catch (FeignException e) {
+            log.error("Failed to get challenge from primary [taskId:{}, status:{}]", taskId, e.status());
+            return Optional.empty();
+        }
+    }
+
+    private static Instant toInstant(final String value) {
+        return value != null ? Instant.parse(value) : null;
+    }
+}
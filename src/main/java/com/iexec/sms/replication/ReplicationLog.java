@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.encryption.DataKey;
+import com.iexec.sms.encryption.DataKeyRepository;
+import com.iexec.sms.encryption.EncryptionService;
+import com.iexec.sms.replication.ReplicationBatch.*;
+import com.iexec.sms.secret.CacheSecretService;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecret;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretHeader;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretRepository;
+import com.iexec.sms.secret.web2.Web2Secret;
+import com.iexec.sms.secret.web2.Web2SecretHeader;
+import com.iexec.sms.secret.web2.Web2SecretRepository;
+import com.iexec.sms.secret.web3.Web3Secret;
+import com.iexec.sms.secret.web3.Web3SecretHeader;
+import com.iexec.sms.secret.web3.Web3SecretRepository;
+import com.iexec.sms.tee.challenge.TeeChallenge;
+import com.iexec.sms.tee.challenge.TeeChallengeRepository;
+import com.iexec.sms.tee.challenge.TeeChallengeService;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Ordered stream of mutations of a primary SMS.
+ * <p>
+ * Only the table and the key of each mutation are kept in memory, rows are read when followers request them.
+ * Followers thus always receive the latest state of a row, even if mutations of a single row are reordered.
+ * The stream is lost on restart, followers then copy the whole primary before reading the new stream.
+ * A new stream is also started when a backup is restored.
+ * <p>
+ * Each batch carries the hash of the AES key of the primary, followers only apply rows when they use the same key.
+ * After an AES key rotation or a restore on the primary, followers reload their AES key file
+ * and stop replicating until it holds the key of the primary.
+ */
+@Slf4j
+@Service
+@ConditionalOnExpression("'${replication.mode}'.equalsIgnoreCase('primary')")
+public class ReplicationLog {
+    private record Mutation(long sequence, Table table, Object key) {
+    }
+
+    @Getter
+    private volatile String epoch = UUID.randomUUID().toString();
+    private final int logSize;
+    private final Deque<Mutation> mutations = new ArrayDeque<>();
+    private long headSequence;
+
+    private final Web2SecretRepository web2SecretRepository;
+    private final Web3SecretRepository web3SecretRepository;
+    private final TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
+    private final TeeChallengeRepository teeChallengeRepository;
+    private final DataKeyRepository dataKeyRepository;
+    private final CacheSecretService<Web2SecretHeader> web2CacheSecretService;
+    private final CacheSecretService<Web3SecretHeader> web3CacheSecretService;
+    private final CacheSecretService<TeeTaskComputeSecretHeader> teeTaskComputeCacheSecretService;
+    private final TeeChallengeService teeChallengeService;
+    private final EncryptionService encryptionService;
+
+    public ReplicationLog(final ReplicationConfiguration replicationConfiguration,
+                          final Web2SecretRepository web2SecretRepository,
+                          final Web3SecretRepository web3SecretRepository,
+                          final TeeTaskComputeSecretRepository teeTaskComputeSecretRepository,
+                          final TeeChallengeRepository teeChallengeRepository,
+                          final DataKeyRepository dataKeyRepository,
+                          final CacheSecretService<Web2SecretHeader> web2CacheSecretService,
+                          final CacheSecretService<Web3SecretHeader> web3CacheSecretService,
+                          final CacheSecretService<TeeTaskComputeSecretHeader> teeTaskComputeCacheSecretService,
+                          final TeeChallengeService teeChallengeService,
+                          final EncryptionService encryptionService,
+                          final AdminService adminService) {
+        this.logSize = replicationConfiguration.getLogSize();
+        this.web2SecretRepository = web2SecretRepository;
+        this.web3SecretRepository = web3SecretRepository;
+        this.teeTaskComputeSecretRepository = teeTaskComputeSecretRepository;
+        this.teeChallengeRepository = teeChallengeRepository;
+        this.dataKeyRepository = dataKeyRepository;
+        this.web2CacheSecretService = web2CacheSecretService;
+        this.web3CacheSecretService = web3CacheSecretService;
+        this.teeTaskComputeCacheSecretService = teeTaskComputeCacheSecretService;
+        this.teeChallengeService = teeChallengeService;
+        this.encryptionService = encryptionService;
+        // restored rows are not part of the stream, followers have to copy the whole primary again
+        adminService.addDatabaseRestoredListener(this::restart);
+    }
+
+    @PostConstruct
+    void init() {
+        web2CacheSecretService.addSecretStoredListener(header -> append(Table.WEB2_SECRETS, header));
+        web3CacheSecretService.addSecretStoredListener(header -> append(Table.WEB3_SECRETS, header));
+        teeTaskComputeCacheSecretService.addSecretStoredListener(header -> append(Table.COMPUTE_SECRETS, header));
+        teeChallengeService.addChallengeCreatedListener(challenge -> append(Table.CHALLENGES, challenge.getTaskId()));
+        log.info("Replication stream started [epoch:{}, logSize:{}]", epoch, logSize);
+    }
+
+    synchronized void restart() {
+        final String previousEpoch = epoch;
+        epoch = UUID.randomUUID().toString();
+        mutations.clear();
+        log.info("Replication stream restarted [previousEpoch:{}, epoch:{}]", previousEpoch, epoch);
+    }
+
+    synchronized void append(final Table table, final Object key) {
+        headSequence++;
+        mutations.addLast(new Mutation(headSequence, table, key));
+        if (mutations.size() > logSize) {
+            mutations.removeFirst();
+        }
+    }
+
+    /**
+     * Returns rows mutated after a given sequence, in mutation order, with all data keys.
+     * <p>
+     * A resync is required if the follower read another stream or if the mutations it misses were dropped.
+     *
+     * @param followerEpoch Stream read by the follower
+     * @param after         Sequence of the latest mutation applied by the follower
+     * @param limit         Max number of mutations to return
+     * @return Rows of mutations, or an empty batch requiring a resync
+     */
+    public ReplicationBatch getChanges(final String followerEpoch, final long after, final int limit) {
+        final String aesKeyHash = encryptionService.getAesKeyHash();
+        final String currentEpoch;
+        final long head;
+        final List<Mutation> selected;
+        synchronized (this) {
+            currentEpoch = epoch;
+            head = headSequence;
+            final long oldest = mutations.isEmpty() ? head + 1 : mutations.getFirst().sequence();
+            if (!currentEpoch.equals(followerEpoch) || after > head || after < oldest - 1) {
+                return new ReplicationBatch(currentEpoch, aesKeyHash, head, head, true,
+                        List.of(), List.of(), List.of(), List.of(), List.of());
+            }
+            selected = mutations.stream()
+                    .filter(mutation -> mutation.sequence() > after)
+                    .limit(limit)
+                    .toList();
+        }
+        final long last = selected.isEmpty() ? after : selected.get(selected.size() - 1).sequence();
+        final Map<Table, Set<Object>> keys = new EnumMap<>(Table.class);
+        for (final Mutation mutation : selected) {
+            keys.computeIfAbsent(mutation.table(), table -> new LinkedHashSet<>()).add(mutation.key());
+        }
+        return new ReplicationBatch(currentEpoch, aesKeyHash, head, last, false,
+                web2SecretRepository.findAllById(getKeys(keys, Table.WEB2_SECRETS, Web2SecretHeader.class)).stream()
+                        .map(ReplicationLog::toRow).toList(),
+                web3SecretRepository.findAllById(getKeys(keys, Table.WEB3_SECRETS, Web3SecretHeader.class)).stream()
+                        .map(ReplicationLog::toRow).toList(),
+                teeTaskComputeSecretRepository.findAllById(getKeys(keys, Table.COMPUTE_SECRETS, TeeTaskComputeSecretHeader.class)).stream()
+                        .map(ReplicationLog::toRow).toList(),
+                // challenges deleted since their creation are skipped
+                teeChallengeRepository.findAllById(getKeys(keys, Table.CHALLENGES, String.class)).stream()
+                        .map(ReplicationLog::toRow).toList(),
+                dataKeyRepository.findAll().stream().map(ReplicationLog::toRow).toList());
+    }
+
+    /**
+     * Returns a page of a whole table, used by followers to copy the primary.
+     *
+     * @param table Table to read
+     * @param page  Index of the page, starting at 0
+     * @param size  Max number of rows of the page
+     * @return Rows of the page, the page is empty past the last row
+     */
+    public ReplicationBatch getSnapshot(final Table table, final int page, final int size) {
+        final String aesKeyHash = encryptionService.getAesKeyHash();
+        final String currentEpoch;
+        final long head;
+        synchronized (this) {
+            currentEpoch = epoch;
+            head = headSequence;
+        }
+        final List<Web2SecretRow> web2Secrets = table != Table.WEB2_SECRETS ? List.of()
+                : web2SecretRepository.findAll(PageRequest.of(page, size,
+                        Sort.by("header.ownerAddress", "header.address"))).stream().map(ReplicationLog::toRow).toList();
+        final List<Web3SecretRow> web3Secrets = table != Table.WEB3_SECRETS ? List.of()
+                : web3SecretRepository.findAll(PageRequest.of(page, size,
+                        Sort.by("header.address"))).stream().map(ReplicationLog::toRow).toList();
+        final List<ComputeSecretRow> computeSecrets = table != Table.COMPUTE_SECRETS ? List.of()
+                : teeTaskComputeSecretRepository.findAll(PageRequest.of(page, size,
+                        Sort.by("header.onChainObjectType", "header.onChainObjectAddress", "header.secretOwnerRole",
+                                "header.fixedSecretOwner", "header.key"))).stream().map(ReplicationLog::toRow).toList();
+        final List<ChallengeRow> challenges = table != Table.CHALLENGES ? List.of()
+                : teeChallengeRepository.findAll(PageRequest.of(page, size,
+                        Sort.by("taskId"))).stream().map(ReplicationLog::toRow).toList();
+        return new ReplicationBatch(currentEpoch, aesKeyHash, head, 0, false, web2Secrets, web3Secrets, computeSecrets, challenges, List.of());
+    }
+
+    private static <K> List<K> getKeys(final Map<Table, Set<Object>> keys, final Table table, final Class<K> keyType) {
+        return keys.getOrDefault(table, Set.of()).stream().map(keyType::cast).toList();
+    }
+
+    static Web2SecretRow toRow(final Web2Secret secret) {
+        return new Web2SecretRow(secret.getHeader().getOwnerAddress(), secret.getHeader().getAddress(), secret.getValue());
+    }
+
+    static Web3SecretRow toRow(final Web3Secret secret) {
+        return new Web3SecretRow(secret.getHeader().getAddress(), secret.getValue());
+    }
+
+    static ComputeSecretRow toRow(final TeeTaskComputeSecret secret) {
+        final TeeTaskComputeSecretHeader header = secret.getHeader();
+        return new ComputeSecretRow(header.getOnChainObjectType(), header.getOnChainObjectAddress(),
+                header.getSecretOwnerRole(), header.getFixedSecretOwner(), header.getKey(), secret.getValue());
+    }
+
+    static ChallengeRow toRow(final TeeChallenge challenge) {
+        return new ChallengeRow(challenge.getTaskId(), toString(challenge.getFinalDeadline()),
+                challenge.getCredentials().getAddress(), challenge.getCredentials().getPrivateKey(),
+                challenge.getCredentials().isEncrypted());
+    }
+
+    static DataKeyRow toRow(final DataKey dataKey) {
+        return new DataKeyRow(dataKey.getVersion(), dataKey.getWrappedKey(), toString(dataKey.getCreationDate()));
+    }
+
+    private static String toString(final Instant instant) {
+        return instant != null ? instant.toString() : null;
+    }
+}
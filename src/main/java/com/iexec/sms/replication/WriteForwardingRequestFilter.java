@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.springframework.web.filter.GenericFilterBean;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Forwards secret writes received by a follower to its primary and returns the response of the primary.
+ * <p>
+ * Reads are served by the follower. Challenges are not forwarded, they are created on the primary
+ * by the follower itself when missing locally.
+ * <p>
+ * Requests are sent through the pooled HTTP client of the Feign clients, request and response bodies are streamed.
+ */
+@Slf4j
+public class WriteForwardingRequestFilter extends GenericFilterBean {
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String SECRETS_EXISTENCE_PATH = "/secrets/exists";
+    /**
+     * Hop-by-hop headers and headers set by the HTTP client itself.
+     */
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+
+    private final String primaryUrl;
+    private final CloseableHttpClient httpClient;
+
+    public WriteForwardingRequestFilter(final String primaryUrl, final CloseableHttpClient httpClient) {
+        this.primaryUrl = primaryUrl.endsWith("/") ? primaryUrl.substring(0, primaryUrl.length() - 1) : primaryUrl;
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        final HttpServletRequest req = (HttpServletRequest) request;
+        final String path = req.getRequestURI().substring(req.getContextPath().length());
+        if (READ_METHODS.contains(req.getMethod()) || SECRETS_EXISTENCE_PATH.equals(path)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final HttpServletResponse resp = (HttpServletResponse) response;
+        final String query = req.getQueryString() != null ? "?" + req.getQueryString() : "";
+        final ClassicRequestBuilder forwardedRequest = ClassicRequestBuilder.create(req.getMethod())
+                .setUri(primaryUrl + path + query);
+        for (final String name : Collections.list(req.getHeaderNames())) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                Collections.list(req.getHeaders(name)).forEach(value -> forwardedRequest.addHeader(name, value));
+            }
+        }
+        // a length of -1 is sent chunked
+        if (req.getContentLengthLong() > 0 || req.getHeader(HttpHeaders.TRANSFER_ENCODING) != null) {
+            forwardedRequest.setEntity(new InputStreamEntity(req.getInputStream(), req.getContentLengthLong(), null));
+        }
+        try {
+            httpClient.execute(forwardedRequest.build(), forwardedResponse -> {
+                resp.setStatus(forwardedResponse.getCode());
+                final Header contentType = forwardedResponse.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+                if (contentType != null) {
+                    resp.setContentType(contentType.getValue());
+                }
+                final HttpEntity entity = forwardedResponse.getEntity();
+                if (entity != null) {
+                    if (entity.getContentLength() >= 0) {
+                        resp.setContentLengthLong(entity.getContentLength());
+                    }
+                    entity.writeTo(resp.getOutputStream());
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            log.error("Failed to forward write to primary [method:{}, path:{}]", req.getMethod(), path, e);
+            if (!resp.isCommitted()) {
+                resp.sendError(HttpServletResponse.SC_BAD_GATEWAY);
+            }
+        }
+    }
+}
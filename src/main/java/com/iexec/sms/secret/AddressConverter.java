@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Stores lower case Ethereum addresses of secret headers as 20 bytes instead of 42 characters.
+ * <p>
+ * Header columns also hold values which are not addresses, as Web2 secret names or empty strings.
+ * Those are stored as their UTF-8 bytes behind a format byte, and are never 20 bytes long:
+ * <ul>
+ * <li>{@link #FORMAT_TEXT} followed by the UTF-8 bytes
+ * <li>{@link #FORMAT_PADDED_TEXT} followed by the UTF-8 bytes and a padding byte, when 19 bytes long
+ * </ul>
+ * The conversion is lossless, a value read from the database is equal to the value which has been written.
+ */
+@Converter
+public class AddressConverter implements AttributeConverter<String, byte[]> {
+    /**
+     * Max size of converted values, headers were stored in columns of 255 characters.
+     */
+    public static final int COLUMN_LENGTH = 1024;
+    static final int ADDRESS_LENGTH = 20;
+    static final byte FORMAT_TEXT = 0;
+    static final byte FORMAT_PADDED_TEXT = 1;
+
+    private static final Pattern ADDRESS_PATTERN = Pattern.compile("0x[0-9a-f]{40}");
+    private static final HexFormat HEX_FORMAT = HexFormat.of();
+
+    @Override
+    public byte[] convertToDatabaseColumn(final String attribute) {
+        return toBinary(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(final byte[] dbData) {
+        return fromBinary(dbData);
+    }
+
+    /**
+     * Converts a header value to its binary representation.
+     *
+     * @param value Lower case address or any other text
+     * @return Bytes to store, {@literal null} if value is {@literal null}
+     */
+    public static byte[] toBinary(final String value) {
+        if (value == null) {
+            return null;
+        }
+        if (ADDRESS_PATTERN.matcher(value).matches()) {
+            return HEX_FORMAT.parseHex(value, 2, value.length());
+        }
+        final byte[] text = value.getBytes(StandardCharsets.UTF_8);
+        final boolean padded = text.length + 1 == ADDRESS_LENGTH;
+        final byte[] bytes = new byte[text.length + (padded ? 2 : 1)];
+        bytes[0] = padded ? FORMAT_PADDED_TEXT : FORMAT_TEXT;
+        System.arraycopy(text, 0, bytes, 1, text.length);
+        return bytes;
+    }
+
+    /**
+     * Converts a binary representation back to the header value.
+     *
+     * @param bytes Bytes returned by {@link #toBinary(String)}
+     * @return The header value, {@literal null} if bytes are {@literal null}
+     * @throws IllegalArgumentException if bytes do not start with a known format
+     */
+    public static String fromBinary(final byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length == ADDRESS_LENGTH) {
+            return "0x" + HEX_FORMAT.formatHex(bytes);
+        }
+        if (bytes.length > 0 && bytes[0] == FORMAT_TEXT) {
+            return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+        }
+        if (bytes.length == ADDRESS_LENGTH + 1 && bytes[0] == FORMAT_PADDED_TEXT) {
+            return new String(bytes, 1, ADDRESS_LENGTH - 1, StandardCharsets.UTF_8);
+        }
+        throw new IllegalArgumentException("Unknown address format");
+    }
+}
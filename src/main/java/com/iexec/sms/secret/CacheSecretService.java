@@ -1,5 +1,5 @@
 /*
- * Copyright 2024-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2024-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,11 @@ import lombok.extern.slf4j.Slf4j;
 import net.jodah.expiringmap.ExpirationPolicy;
 import net.jodah.expiringmap.ExpiringMap;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Slf4j
 public class CacheSecretService<K> {
@@ -28,6 +32,7 @@ public class CacheSecretService<K> {
             .expiration(1, TimeUnit.MINUTES)
             .expirationPolicy(ExpirationPolicy.CREATED)
             .build();
+    private final List<Consumer<K>> secretStoredListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Count how many entries are currently in the cache
@@ -60,6 +65,36 @@ public class CacheSecretService<K> {
         }
     }
 
+    /**
+     * Caches the existence of a secret which has just been added or updated and notifies listeners.
+     *
+     * @param key The key to use for cache
+     */
+    public void secretStored(K key) {
+        putSecretExistenceInCache(key, true);
+        secretStoredListeners.forEach(listener -> listener.accept(key));
+    }
+
+    /**
+     * Registers a listener notified with the key of each added or updated secret.
+     *
+     * @param listener The listener to notify
+     */
+    public void addSecretStoredListener(Consumer<K> listener) {
+        secretStoredListeners.add(listener);
+    }
+
+    /**
+     * Removes entries caching the absence of a secret.
+     * <p>
+     * Entries caching the existence of a secret are kept, secrets are never deleted.
+     */
+    public void evictMissingSecrets() {
+        for (final K key : new ArrayList<>(secretExistenceCache.keySet())) {
+            secretExistenceCache.remove(key, Boolean.FALSE);
+        }
+    }
+
     /**
      * Look in the cache to see if the secret exists.
      *
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package com.iexec.sms.secret;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
@@ -34,8 +35,12 @@ import java.util.function.Supplier;
  * E.g., initial count, number of secrets added since start and currently stored secrets
  * for `web2Secrets` are metrics that can be retrieved there.
  * <p>
- * Stored secrets count is a scheduled operation, so it can reflect a previous state.
- * That's required to avoid any kind of DDoS.
+ * Stored secrets count is maintained on each insertion and deletion reported to this service.
+ * A full count of the table is only run in background, once at startup and then at a low frequency
+ * to correct any drift. The count is taken as the number of stored secrets when it started,
+ * secrets added or removed during the count are applied on top of it.
+ * A change committed during the count may be counted twice, the next reconciliation corrects it.
+ * The stored secrets count is {@literal -1} until the first count succeeds and after a failed count.
  */
 @Slf4j
 public class MeasuredSecretService {
@@ -49,10 +54,20 @@ public class MeasuredSecretService {
     private final String metricsPrefix;
     private final Supplier<Long> storedSecretsCountGetter;
     private final ScheduledExecutorService storageMetricsExecutorService;
-    private final int storedSecretsCountPeriod;
+    private final int cachedSecretsCountPeriod;
+    private final int storedSecretsReconciliationPeriod;
 
-    private Counter initialSecretsCounter;
-    private AtomicLong storedSecretsCount;
+    private final Counter initialSecretsCounter;
+    private boolean initialSecretsCounted = false;
+    /**
+     * Number of secrets added minus number of secrets removed since start.
+     */
+    private final AtomicLong storedSecretsDelta = new AtomicLong(0);
+    /**
+     * Stored secrets count minus {@link #storedSecretsDelta}, as computed by the last successful reconciliation,
+     * {@literal null} while the stored secrets count is unknown.
+     */
+    private volatile Long storedSecretsOffset;
     private final Counter addedSecretsSinceStartCounter;
     private final AtomicLong cachedSecretsCount;
     private final LongSupplier cachedSecretsCountGetter;
@@ -62,28 +77,35 @@ public class MeasuredSecretService {
                                  Supplier<Long> storedSecretsCountGetter,
                                  LongSupplier cachedSecretsCountGetter,
                                  ScheduledExecutorService storageMetricsExecutorService,
-                                 int storedSecretsCountPeriod) {
+                                 int cachedSecretsCountPeriod,
+                                 int storedSecretsReconciliationPeriod) {
         this.secretsType = secretsType;
         this.metricsPrefix = metricsPrefix;
         this.storedSecretsCountGetter = storedSecretsCountGetter;
         this.storageMetricsExecutorService = storageMetricsExecutorService;
-        this.storedSecretsCountPeriod = storedSecretsCountPeriod;
+        this.cachedSecretsCountPeriod = cachedSecretsCountPeriod;
+        this.storedSecretsReconciliationPeriod = storedSecretsReconciliationPeriod;
         this.cachedSecretsCountGetter = cachedSecretsCountGetter;
+        this.initialSecretsCounter = Metrics.counter(metricsPrefix + INITIAL_SECRETS_COUNT_POSTFIX);
         this.addedSecretsSinceStartCounter = Metrics.counter(metricsPrefix + ADDED_SECRETS_SINCE_START_COUNT_POSTFIX);
         this.cachedSecretsCount = Metrics.gauge(metricsPrefix + CACHED_SECRETS_COUNT_POSTFIX, new AtomicLong(0));
     }
 
     @PostConstruct
     void init() {
-        final long initialSecretsCount = storedSecretsCountGetter.get();
-        this.initialSecretsCounter = Metrics.counter(metricsPrefix + INITIAL_SECRETS_COUNT_POSTFIX);
-        this.initialSecretsCounter.increment(initialSecretsCount);
-        this.storedSecretsCount = Metrics.gauge(metricsPrefix + STORED_SECRETS_COUNT_POSTFIX, new AtomicLong(initialSecretsCount));
+        Gauge.builder(metricsPrefix + STORED_SECRETS_COUNT_POSTFIX, this, MeasuredSecretService::getStoredSecretsCount)
+                .register(Metrics.globalRegistry);
 
+        storageMetricsExecutorService.scheduleWithFixedDelay(
+                this::reconcileStoredSecretsCount,
+                0,
+                storedSecretsReconciliationPeriod,
+                TimeUnit.SECONDS
+        );
         storageMetricsExecutorService.scheduleAtFixedRate(
-                this::countStoredSecrets,
-                storedSecretsCountPeriod,
-                storedSecretsCountPeriod,
+                this::countCachedSecrets,
+                cachedSecretsCountPeriod,
+                cachedSecretsCountPeriod,
                 TimeUnit.SECONDS
         );
     }
@@ -98,7 +120,8 @@ public class MeasuredSecretService {
     }
 
     public long getStoredSecretsCount() {
-        return storedSecretsCount.get();
+        final Long offset = storedSecretsOffset;
+        return offset != null ? offset + storedSecretsDelta.get() : -1;
     }
 
     public long getCachedSecretsCount() {
@@ -108,22 +131,53 @@ public class MeasuredSecretService {
 
     /**
      * Indicate to this service a new secret has been added to the DB,
-     * so it can update its counter.
+     * so it can update its counters.
      */
     public void newlyAddedSecret() {
         addedSecretsSinceStartCounter.increment();
+        storedSecretsDelta.incrementAndGet();
     }
 
-    private void countStoredSecrets() {
+    /**
+     * Indicate to this service secrets have been removed from the DB,
+     * so it can update its stored secrets count.
+     *
+     * @param count Number of removed secrets
+     */
+    public void removedSecrets(long count) {
+        storedSecretsDelta.addAndGet(-count);
+    }
+
+    void reconcileStoredSecretsCount() {
+        try {
+            final long deltaBeforeCount = storedSecretsDelta.get();
+            final long count = storedSecretsCountGetter.get();
+            if (!initialSecretsCounted) {
+                initialSecretsCounter.increment(count);
+                initialSecretsCounted = true;
+            }
+            final Long previousOffset = storedSecretsOffset;
+            if (previousOffset != null && previousOffset + deltaBeforeCount != count) {
+                log.warn("Stored secrets count has drifted [type:{}, count:{}, drift:{}]",
+                        secretsType, count, count - (previousOffset + deltaBeforeCount));
+            }
+            log.debug("Counting secrets [type:{}, count:{}, changedDuringCount:{}]",
+                    secretsType, count, storedSecretsDelta.get() - deltaBeforeCount);
+            // changes made during the count are applied through the delta
+            storedSecretsOffset = count - deltaBeforeCount;
+        } catch (RuntimeException e) {
+            log.error("Secrets count has failed [type:{}]", secretsType, e);
+            storedSecretsOffset = null;
+        }
+    }
+
+    private void countCachedSecrets() {
         try {
-            final Long count = storedSecretsCountGetter.get();
             final long cacheCount = cachedSecretsCountGetter.getAsLong();
-            log.debug("Counting secrets [type:{}, count:{}, cache:{}]", secretsType, count, cacheCount);
-            storedSecretsCount.set(count);
+            log.debug("Counting cached secrets [type:{}, cache:{}]", secretsType, cacheCount);
             cachedSecretsCount.set(cacheCount);
         } catch (RuntimeException e) {
-            log.error("Secrets count has failed [type:{}]", secretsType, e);
-            storedSecretsCount.set(-1);
+            log.error("Cached secrets count has failed [type:{}]", secretsType, e);
             cachedSecretsCount.set(-1);
         }
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package com.iexec.sms.secret;
 
+import com.iexec.sms.encryption.EncryptedValueConverter;
 import jakarta.persistence.Column;
 import jakarta.persistence.MappedSuperclass;
 import lombok.AccessLevel;
@@ -28,8 +29,19 @@ import java.util.Objects;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public abstract class Secret {
-    @Column(length = SecretUtils.SECRET_MAX_SIZE * 2)
-    private String value;
+    /**
+     * Encrypted value in the binary representation of {@link EncryptedValueConverter}, rather than as Base64 text.
+     */
+    @Getter(AccessLevel.NONE)
+    @Column(name = "encrypted_value", length = SecretUtils.SECRET_MAX_SIZE * 3 / 2)
+    private byte[] value;
+
+    /**
+     * Base64 encrypted value of a secret stored before binary storage, until moved by {@link SecretValueMigrationService}.
+     */
+    @Getter(AccessLevel.NONE)
+    @Column(name = "value", length = SecretUtils.SECRET_MAX_SIZE * 2)
+    private String legacyValue;
 
     /**
      * Create the secret without possible leading or trailing
@@ -42,7 +54,19 @@ public abstract class Secret {
      */
     protected Secret(String value) {
         Objects.requireNonNull(value, "Secret value must not be null");
-        this.value = value.trim();
+        this.value = EncryptedValueConverter.toBinary(value.trim());
+    }
+
+    public String getValue() {
+        return value != null ? EncryptedValueConverter.fromBinary(value) : legacyValue;
+    }
+
+    /**
+     * Returns the encrypted value in its binary representation, which is decrypted without Base64 decoding.
+     * The returned array must not be modified.
+     */
+    public byte[] getBinaryValue() {
+        return value != null ? value : EncryptedValueConverter.toBinary(legacyValue);
     }
 }
 
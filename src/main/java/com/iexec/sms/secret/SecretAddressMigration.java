@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Converts addresses of secret headers stored as text before binary storage, see {@link AddressConverter}.
+ * <p>
+ * Primary key columns of a mapped entity cannot change type while it is in use, addresses are converted before
+ * the persistence unit starts. Rows are converted by chunks into new binary columns which then replace the text
+ * columns in the primary key. Each step can be run again, an interrupted conversion resumes on next startup.
+ * <p>
+ * Embedded databases are converted by this component. External databases are converted by the versioned migration
+ * calling {@link #migrate(Connection, int)}.
+ */
+@Slf4j
+@Component
+public class SecretAddressMigration {
+    public static final int BATCH_SIZE = 1000;
+    static final String BINARY_COLUMN_SUFFIX = "_bin";
+
+    private static final List<KeyTable> TABLES = List.of(
+            new KeyTable("web2secret", List.of("address", "owner_address"), List.of("address", "owner_address")),
+            new KeyTable("web3secret", List.of("address"), List.of("address")),
+            new KeyTable("tee_task_compute_secret",
+                    List.of("fixed_secret_owner", "key", "on_chain_object_address", "on_chain_object_type", "secret_owner_role"),
+                    List.of("fixed_secret_owner", "on_chain_object_address")));
+
+    private final DataSource dataSource;
+
+    /**
+     * @param name           Table name
+     * @param keyColumns     Primary key columns
+     * @param addressColumns Primary key columns holding addresses
+     */
+    private record KeyTable(String name, List<String> keyColumns, List<String> addressColumns) {
+    }
+
+    public SecretAddressMigration(final DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    void migrateEmbeddedDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if ("H2".equals(connection.getMetaData().getDatabaseProductName())) {
+                migrate(connection, BATCH_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Converts text addresses of all secret tables, tables already converted or not created yet are left unchanged.
+     *
+     * @param connection Connection to the database, each chunk is committed when auto-commit is enabled
+     * @param batchSize  Max number of rows converted by a chunk
+     * @throws SQLException if a table could not be converted
+     */
+    public static void migrate(final Connection connection, final int batchSize) throws SQLException {
+        for (final KeyTable table : TABLES) {
+            migrate(connection, table, batchSize);
+        }
+    }
+
+    private static void migrate(final Connection connection, final KeyTable table, final int batchSize)
+            throws SQLException {
+        final Map<String, Boolean> binaryColumns = getBinaryColumns(connection, table.name());
+        final List<String> textColumns = table.addressColumns().stream()
+                .filter(column -> Boolean.FALSE.equals(binaryColumns.get(column)))
+                .toList();
+        final boolean converted = textColumns.isEmpty()
+                && table.addressColumns().stream().noneMatch(column -> binaryColumns.containsKey(column + BINARY_COLUMN_SUFFIX));
+        if (binaryColumns.isEmpty() || converted) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        log.info("Converting secret addresses to bytes [table:{}]", table.name());
+        final boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        long rows = 0;
+        try (Statement statement = connection.createStatement()) {
+            if (!textColumns.isEmpty()) {
+                for (final String column : textColumns) {
+                    statement.execute("ALTER TABLE " + quote(table.name()) + " ADD COLUMN IF NOT EXISTS "
+                            + quote(column + BINARY_COLUMN_SUFFIX) + " "
+                            + (postgres ? "bytea" : "VARBINARY(" + AddressConverter.COLUMN_LENGTH + ")"));
+                }
+                // key columns are only dropped once binary columns are filled
+                if (binaryColumns.keySet().containsAll(table.keyColumns())) {
+                    rows = fillBinaryColumns(connection, table, textColumns, batchSize);
+                }
+                dropPrimaryKey(connection, statement, table.name());
+                for (final String column : textColumns) {
+                    statement.execute("ALTER TABLE " + quote(table.name()) + " DROP COLUMN " + quote(column));
+                }
+            }
+            final Map<String, Boolean> columns = getBinaryColumns(connection, table.name());
+            for (final String column : table.addressColumns()) {
+                if (!columns.containsKey(column)) {
+                    statement.execute(postgres
+                            ? "ALTER TABLE " + quote(table.name()) + " RENAME COLUMN "
+                            + quote(column + BINARY_COLUMN_SUFFIX) + " TO " + quote(column)
+                            : "ALTER TABLE " + quote(table.name()) + " ALTER COLUMN "
+                            + quote(column + BINARY_COLUMN_SUFFIX) + " RENAME TO " + quote(column));
+                }
+                statement.execute("ALTER TABLE " + quote(table.name()) + " ALTER COLUMN " + quote(column) + " SET NOT NULL");
+            }
+            if (getPrimaryKeyName(connection, table.name()) == null) {
+                statement.execute("ALTER TABLE " + quote(table.name()) + " ADD PRIMARY KEY ("
+                        + table.keyColumns().stream().map(SecretAddressMigration::quote).collect(Collectors.joining(", "))
+                        + ")");
+            }
+        }
+        log.info("Converted secret addresses to bytes [table:{}, rows:{}, duration:{} ms]",
+                table.name(), rows, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Copies converted addresses of rows whose binary columns are not filled yet.
+     *
+     * @return Number of converted rows
+     */
+    private static long fillBinaryColumns(final Connection connection,
+                                          final KeyTable table,
+                                          final List<String> textColumns,
+                                          final int batchSize) throws SQLException {
+        final String selectSql = "SELECT " + table.keyColumns().stream().map(SecretAddressMigration::quote)
+                .collect(Collectors.joining(", "))
+                + " FROM " + quote(table.name())
+                + " WHERE " + quote(textColumns.get(0) + BINARY_COLUMN_SUFFIX) + " IS NULL FETCH FIRST ? ROWS ONLY";
+        final String updateSql = "UPDATE " + quote(table.name()) + " SET "
+                + textColumns.stream().map(column -> quote(column + BINARY_COLUMN_SUFFIX) + " = ?")
+                .collect(Collectors.joining(", "))
+                + " WHERE " + table.keyColumns().stream().map(column -> quote(column) + " = ?")
+                .collect(Collectors.joining(" AND "));
+        long rows = 0;
+        try (PreparedStatement select = connection.prepareStatement(selectSql);
+             PreparedStatement update = connection.prepareStatement(updateSql)) {
+            select.setInt(1, batchSize);
+            int chunkRows;
+            do {
+                chunkRows = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        int index = 1;
+                        for (final String column : textColumns) {
+                            update.setBytes(index++, AddressConverter.toBinary(rs.getString(column)));
+                        }
+                        for (int i = 1; i <= table.keyColumns().size(); i++) {
+                            update.setObject(index++, rs.getObject(i));
+                        }
+                        update.addBatch();
+                        chunkRows++;
+                    }
+                }
+                if (chunkRows > 0) {
+                    update.executeBatch();
+                    rows += chunkRows;
+                    log.info("Converted secret addresses chunk [table:{}, rows:{}]", table.name(), rows);
+                }
+            } while (chunkRows == batchSize);
+        }
+        return rows;
+    }
+
+    private static void dropPrimaryKey(final Connection connection,
+                                       final Statement statement,
+                                       final String table) throws SQLException {
+        final String primaryKeyName = getPrimaryKeyName(connection, table);
+        if (primaryKeyName != null) {
+            statement.execute("ALTER TABLE " + quote(table) + " DROP CONSTRAINT " + quote(primaryKeyName));
+        }
+    }
+
+    private static String getPrimaryKeyName(final Connection connection, final String table) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getPrimaryKeys(null, connection.getSchema(), table)) {
+            return rs.next() ? rs.getString("PK_NAME") : null;
+        }
+    }
+
+    /**
+     * @return For each column of the table, whether it holds binary data
+     */
+    private static Map<String, Boolean> getBinaryColumns(final Connection connection, final String table)
+            throws SQLException {
+        final Map<String, Boolean> columns = new HashMap<>();
+        try (ResultSet rs = connection.getMetaData().getColumns(null, connection.getSchema(), table, null)) {
+            while (rs.next()) {
+                if (table.equals(rs.getString("TABLE_NAME"))) {
+                    final int type = rs.getInt("DATA_TYPE");
+                    columns.put(rs.getString("COLUMN_NAME"),
+                            type == Types.BINARY || type == Types.VARBINARY || type == Types.LONGVARBINARY);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String quote(final String identifier) {
+        return "\"" + identifier + "\"";
+    }
+}
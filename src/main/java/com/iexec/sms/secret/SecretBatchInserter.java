@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SecretBatchInserter {
+
+    /**
+     * Inserts secrets with a single JDBC batch executed in one transaction.
+     * <p>
+     * If the batch fails, for instance because one of the secrets already exists, the transaction is rolled back
+     * and secrets are inserted one by one to report an outcome for each of them.
+     *
+     * @param jdbcTemplate        Template used to execute statements
+     * @param transactionTemplate Template wrapping the batch in a transaction
+     * @param sql                 INSERT statement of a single secret
+     * @param secrets             Secrets to insert, values should already be encrypted
+     * @param setter              Binds a secret to the INSERT statement parameters
+     * @param <S>                 Type of secrets
+     * @return For each secret at the same index, {@code true} if it has been inserted, {@code false} otherwise.
+     */
+    public static <S> List<Boolean> insert(final JdbcTemplate jdbcTemplate,
+                                           final TransactionTemplate transactionTemplate,
+                                           final String sql,
+                                           final List<S> secrets,
+                                           final ParameterizedPreparedStatementSetter<S> setter) {
+        if (secrets.isEmpty()) {
+            return List.of();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> jdbcTemplate.batchUpdate(sql, secrets, secrets.size(), setter));
+            return Collections.nCopies(secrets.size(), true);
+        } catch (DataAccessException e) {
+            log.debug("Batch insert failed, inserting secrets one by one [size:{}, cause:{}]",
+                    secrets.size(), e.getMostSpecificCause().getMessage());
+        }
+        final List<Boolean> results = new ArrayList<>(secrets.size());
+        for (final S secret : secrets) {
+            results.add(insertOne(jdbcTemplate, sql, secret, setter));
+        }
+        return results;
+    }
+
+    /**
+     * Notifies caches and metrics of secrets added by a batch.
+     *
+     * @param secrets               Secrets of the batch
+     * @param results               For each secret at the same index, whether it has been added
+     * @param headerGetter          Returns the header of a secret
+     * @param cacheSecretService    Cache of secrets existence
+     * @param measuredSecretService Metrics of stored secrets
+     * @param <S>                   Type of secrets
+     * @param <H>                   Type of secret headers
+     * @return The number of added secrets
+     */
+    public static <S, H> long recordAddedSecrets(final List<S> secrets,
+                                                 final List<Boolean> results,
+                                                 final Function<S, H> headerGetter,
+                                                 final CacheSecretService<H> cacheSecretService,
+                                                 final MeasuredSecretService measuredSecretService) {
+        long added = 0;
+        for (int i = 0; i < secrets.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                cacheSecretService.secretStored(headerGetter.apply(secrets.get(i)));
+                measuredSecretService.newlyAddedSecret();
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private static <S> boolean insertOne(final JdbcTemplate jdbcTemplate,
+                                         final String sql,
+                                         final S secret,
+                                         final ParameterizedPreparedStatementSetter<S> setter) {
+        try {
+            return jdbcTemplate.update(sql, ps -> setter.setValues(ps, secret)) == 1;
+        } catch (DuplicateKeyException e) {
+            log.debug(e.getMostSpecificCause().getMessage());
+        } catch (DataAccessException e) {
+            log.error(e.getMostSpecificCause().getMessage());
+        }
+        return false;
+    }
+}
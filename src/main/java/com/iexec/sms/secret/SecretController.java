@@ -18,14 +18,20 @@ package com.iexec.sms.secret;
 
 import com.iexec.sms.authorization.AuthorizationService;
 import com.iexec.sms.secret.web2.NotAnExistingSecretException;
+import com.iexec.sms.secret.web2.Web2Secret;
 import com.iexec.sms.secret.web2.Web2SecretService;
+import com.iexec.sms.secret.web3.Web3Secret;
 import com.iexec.sms.secret.web3.Web3SecretService;
+import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 @Slf4j
 @CrossOrigin
@@ -36,13 +42,46 @@ public class SecretController {
     private final AuthorizationService authorizationService;
     private final Web3SecretService web3SecretService;
     private final Web2SecretService web2SecretService;
+    private final SecretImportService secretImportService;
+    private final SecretExistenceService secretExistenceService;
+    private final SecretImportHandler<Web3Secret> web3ImportHandler;
+    private final SecretImportHandler<Web2Secret> web2ImportHandler;
 
     public SecretController(AuthorizationService authorizationService,
                             Web2SecretService web2SecretService,
-                            Web3SecretService web3SecretService) {
+                            Web3SecretService web3SecretService,
+                            SecretImportService secretImportService,
+                            SecretExistenceService secretExistenceService) {
         this.web2SecretService = web2SecretService;
         this.authorizationService = authorizationService;
         this.web3SecretService = web3SecretService;
+        this.secretImportService = secretImportService;
+        this.secretExistenceService = secretExistenceService;
+        this.web3ImportHandler = SecretImportHandler.<Web3Secret>builder()
+                .validation(SecretController::validateSecretSize)
+                .authorization(item -> authorizationService.isSignedByOwner(
+                        authorizationService.getChallengeForSetWeb3Secret(item.getAddress(), item.getValue()),
+                        item.getAuthorization(), item.getAddress()))
+                .secretFactory((item, encryptedValue) -> new Web3Secret(item.getAddress(), encryptedValue))
+                .batchInsert(web3SecretService::addEncryptedSecrets)
+                .build();
+        this.web2ImportHandler = SecretImportHandler.<Web2Secret>builder()
+                .validation(item -> StringUtils.isBlank(item.getKey())
+                        ? Optional.of(HttpStatus.BAD_REQUEST)
+                        : validateSecretSize(item))
+                // a missing key cannot be part of a signed challenge
+                .authorization(item -> item.getKey() != null && authorizationService.isSignedByHimself(
+                        authorizationService.getChallengeForSetWeb2Secret(item.getAddress(), item.getKey(), item.getValue()),
+                        item.getAuthorization(), item.getAddress()))
+                .secretFactory((item, encryptedValue) -> new Web2Secret(item.getAddress(), item.getKey(), encryptedValue))
+                .batchInsert(web2SecretService::addEncryptedSecrets)
+                .build();
+    }
+
+    private static Optional<HttpStatus> validateSecretSize(SecretImportItem item) {
+        return SecretUtils.isSecretSizeValid(item.getValue())
+                ? Optional.empty()
+                : Optional.of(HttpStatus.PAYLOAD_TOO_LARGE);
     }
 
     // Web3
@@ -76,6 +115,23 @@ public class SecretController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Adds many web3 secrets at once.
+     * <p>
+     * Each item is checked as it would be by {@link #addWeb3Secret(String, String, String)},
+     * valid secrets are stored in a single transaction.
+     *
+     * @param secrets Signed secrets, {@code address} is the secret address.
+     * @return The outcome of each secret, or HTTP 413 if there are too many secrets.
+     */
+    @PostMapping("/web3/batch")
+    public ResponseEntity<List<SecretImportResult>> addWeb3Secrets(@RequestBody List<SecretImportItem> secrets) {
+        if (secrets.size() > secretImportService.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(secretImportService.importSecrets(secrets, web3ImportHandler));
+    }
+
     // Web2
 
     @RequestMapping(path = "/web2", method = RequestMethod.HEAD)
@@ -109,6 +165,23 @@ public class SecretController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Adds many web2 secrets at once.
+     * <p>
+     * Each item is checked as it would be by {@link #addWeb2Secret(String, String, String, String)},
+     * valid secrets are stored in a single transaction.
+     *
+     * @param secrets Signed secrets, {@code address} is the owner address and {@code key} the secret name.
+     * @return The outcome of each secret, or HTTP 413 if there are too many secrets.
+     */
+    @PostMapping("/web2/batch")
+    public ResponseEntity<List<SecretImportResult>> addWeb2Secrets(@RequestBody List<SecretImportItem> secrets) {
+        if (secrets.size() > secretImportService.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(secretImportService.importSecrets(secrets, web2ImportHandler));
+    }
+
     @PutMapping("/web2")
     public ResponseEntity<String> updateWeb2Secret(@RequestHeader String authorization,
                                                    @RequestParam String ownerAddress,
@@ -133,5 +206,26 @@ public class SecretController {
         }
     }
 
-}
+    // Existence
+
+    /**
+     * Checks whether many secrets exist at once.
+     *
+     * @param secrets References of secrets, possibly of different types.
+     * @return For each reference at the same index, whether the secret exists.
+     * HTTP 400 if a reference is invalid, HTTP 413 if there are too many references.
+     */
+    @PostMapping("/exists")
+    public ResponseEntity<List<Boolean>> areSecretsPresent(@RequestBody List<SecretReference> secrets) {
+        if (secrets.size() > secretExistenceService.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        try {
+            return ResponseEntity.ok(secretExistenceService.areSecretsPresent(secrets));
+        } catch (IllegalArgumentException | ValidationException e) {
+            log.error("Invalid secret reference [error:{}]", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
+}
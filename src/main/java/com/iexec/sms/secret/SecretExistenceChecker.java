@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SecretExistenceChecker {
+
+    /**
+     * Max number of secrets looked up by a single query, to keep statements and their parameters bounded.
+     */
+    static final int MAX_SECRETS_PER_QUERY = 500;
+
+    /**
+     * Checks the existence of many secrets of a given type.
+     * <p>
+     * Existence is first looked up in the cache, remaining secrets are then resolved with a single
+     * {@code IN} query on the primary key columns and their existence is cached.
+     * Secret values are never read.
+     *
+     * @param jdbcTemplate Template used to execute the query
+     * @param cache        Existence cache of this type of secrets
+     * @param table        Table name
+     * @param keyColumns   Primary key columns, in the same order as the values returned by {@code keyExtractor}
+     * @param headers      Headers of the secrets to look for
+     * @param keyExtractor Returns primary key column values of a header, enums as ordinals and addresses as bytes
+     * @param <H>          Type of secret headers
+     * @return For each header at the same index, whether the secret exists.
+     */
+    public static <H> List<Boolean> areSecretsPresent(final JdbcTemplate jdbcTemplate,
+                                                      final CacheSecretService<H> cache,
+                                                      final String table,
+                                                      final List<String> keyColumns,
+                                                      final List<H> headers,
+                                                      final Function<H, List<Object>> keyExtractor) {
+        final Map<H, Boolean> presence = new HashMap<>();
+        final List<H> misses = new ArrayList<>();
+        for (final H header : new LinkedHashSet<>(headers)) {
+            final Boolean found = cache.lookSecretExistenceInCache(header);
+            if (found != null) {
+                presence.put(header, found);
+            } else {
+                misses.add(header);
+            }
+        }
+
+        for (int from = 0; from < misses.size(); from += MAX_SECRETS_PER_QUERY) {
+            final List<H> chunk = misses.subList(from, Math.min(from + MAX_SECRETS_PER_QUERY, misses.size()));
+            final Set<List<Object>> existingKeys = new HashSet<>(jdbcTemplate.query(
+                    buildQuery(table, keyColumns, chunk.size()),
+                    (rs, rowNum) -> readKey(rs, keyColumns.size()),
+                    chunk.stream().flatMap(header -> keyExtractor.apply(header).stream()).toArray()));
+            for (final H header : chunk) {
+                final boolean isPresentInDB = existingKeys.contains(toComparableKey(keyExtractor.apply(header)));
+                cache.putSecretExistenceInCache(header, isPresentInDB);
+                presence.put(header, isPresentInDB);
+            }
+        }
+
+        return headers.stream()
+                .map(presence::get)
+                .toList();
+    }
+
+    static String buildQuery(final String table, final List<String> keyColumns, final int count) {
+        final String columns = keyColumns.stream()
+                .map(column -> "\"" + column + "\"")
+                .collect(Collectors.joining(", "));
+        final String row = keyColumns.size() == 1
+                ? "?"
+                : keyColumns.stream().map(column -> "?").collect(Collectors.joining(", ", "(", ")"));
+        final String target = keyColumns.size() == 1 ? columns : "(" + columns + ")";
+        return "SELECT " + columns + " FROM \"" + table + "\" WHERE " + target + " IN ("
+                + String.join(", ", Collections.nCopies(count, row)) + ")";
+    }
+
+    private static List<Object> readKey(final ResultSet rs, final int columnCount) throws SQLException {
+        final List<Object> key = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            key.add(rs.getObject(i));
+        }
+        return toComparableKey(key);
+    }
+
+    private static List<Object> toComparableKey(final List<Object> key) {
+        return key.stream()
+                .map(value -> {
+                    // Ordinal columns may be mapped to any integer type
+                    if (value instanceof Number number) {
+                        return Integer.valueOf(number.intValue());
+                    }
+                    // Arrays are not compared by content
+                    if (value instanceof byte[] bytes) {
+                        return ByteBuffer.wrap(bytes);
+                    }
+                    return value;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import com.iexec.sms.api.SmsClient;
+import com.iexec.sms.secret.compute.OnChainObjectType;
+import com.iexec.sms.secret.compute.SecretOwnerRole;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretHeader;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretService;
+import com.iexec.sms.secret.web2.Web2SecretHeader;
+import com.iexec.sms.secret.web2.Web2SecretService;
+import com.iexec.sms.secret.web3.Web3SecretService;
+import lombok.Getter;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resolves the existence of secrets of any type with one query per secret type.
+ */
+@Service
+public class SecretExistenceService {
+
+    private final Web2SecretService web2SecretService;
+    private final Web3SecretService web3SecretService;
+    private final TeeTaskComputeSecretService teeTaskComputeSecretService;
+    @Getter
+    private final int maxBatchSize;
+
+    public SecretExistenceService(Web2SecretService web2SecretService,
+                                  Web3SecretService web3SecretService,
+                                  TeeTaskComputeSecretService teeTaskComputeSecretService,
+                                  SecretExistenceConfiguration secretExistenceConfiguration) {
+        this.web2SecretService = web2SecretService;
+        this.web3SecretService = web3SecretService;
+        this.teeTaskComputeSecretService = teeTaskComputeSecretService;
+        this.maxBatchSize = secretExistenceConfiguration.getMaxBatchSize();
+    }
+
+    /**
+     * Checks whether secrets exist.
+     *
+     * @param references References of secrets, possibly of different types.
+     * @return For each reference at the same index, whether the secret exists.
+     * @throws IllegalArgumentException if there are more than {@code maxBatchSize} references,
+     *                                  or if a reference is incomplete or invalid.
+     */
+    public List<Boolean> areSecretsPresent(List<SecretReference> references) {
+        if (references.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Too many secret references [size:" + references.size()
+                    + ", maxBatchSize:" + maxBatchSize + "]");
+        }
+        final Map<SecretType, List<Integer>> indexesByType = new EnumMap<>(SecretType.class);
+        for (int i = 0; i < references.size(); i++) {
+            final SecretReference reference = references.get(i);
+            if (reference == null || reference.getType() == null || reference.getAddress() == null) {
+                throw new IllegalArgumentException("Secret reference requires a type and an address [index:" + i + "]");
+            }
+            if ((reference.getType() == SecretType.WEB2 || reference.getType() == SecretType.REQUESTER)
+                    && reference.getKey() == null) {
+                throw new IllegalArgumentException("Secret reference requires a key [index:" + i + "]");
+            }
+            // the single requester secret endpoint rejects such keys as well
+            if (reference.getType() == SecretType.REQUESTER
+                    && !TeeTaskComputeSecretHeader.SECRET_KEY_PATTERN.matcher(reference.getKey()).matches()) {
+                throw new IllegalArgumentException("Secret reference key has an invalid format [index:" + i + "]");
+            }
+            indexesByType.computeIfAbsent(reference.getType(), type -> new ArrayList<>()).add(i);
+        }
+
+        final Boolean[] presence = new Boolean[references.size()];
+        indexesByType.forEach((type, indexes) -> {
+            final List<SecretReference> typedReferences = indexes.stream().map(references::get).toList();
+            final List<Boolean> typedPresence = switch (type) {
+                case WEB2 -> web2SecretService.areSecretsPresent(typedReferences.stream()
+                        .map(reference -> new Web2SecretHeader(reference.getAddress(), reference.getKey()))
+                        .toList());
+                case WEB3 -> web3SecretService.areSecretsPresent(typedReferences.stream()
+                        .map(SecretReference::getAddress)
+                        .toList());
+                case APP_DEVELOPER -> teeTaskComputeSecretService.areSecretsPresent(typedReferences.stream()
+                        .map(reference -> new TeeTaskComputeSecretHeader(OnChainObjectType.APPLICATION,
+                                reference.getAddress(), SecretOwnerRole.APPLICATION_DEVELOPER, "",
+                                SmsClient.APP_DEVELOPER_SECRET_INDEX))
+                        .toList());
+                case REQUESTER -> teeTaskComputeSecretService.areSecretsPresent(typedReferences.stream()
+                        .map(reference -> new TeeTaskComputeSecretHeader(OnChainObjectType.APPLICATION,
+                                "", SecretOwnerRole.REQUESTER, reference.getAddress(), reference.getKey()))
+                        .toList());
+            };
+            for (int i = 0; i < indexes.size(); i++) {
+                presence[indexes.get(i)] = Objects.requireNonNullElse(typedPresence.get(i), false);
+            }
+        });
+        return List.of(presence);
+    }
+}
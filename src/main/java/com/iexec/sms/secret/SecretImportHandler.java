@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import lombok.Builder;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Describes how secrets of a given type are checked, built and stored during a batch import.
+ *
+ * @param <S> Type of stored secrets
+ */
+@Builder
+public class SecretImportHandler<S> {
+    /**
+     * Returns the status rejecting an item once its signature is checked, empty if the item is valid.
+     */
+    private final Function<SecretImportItem, Optional<HttpStatus>> validation;
+    /**
+     * Checks the signature of an item, as done by the single secret endpoint.
+     */
+    private final Predicate<SecretImportItem> authorization;
+    /**
+     * Builds the secret to store from an item and its encrypted value.
+     */
+    private final BiFunction<SecretImportItem, String, S> secretFactory;
+    /**
+     * Stores secrets in a single batch, returns for each secret whether it has been added.
+     */
+    private final Function<List<S>, List<Boolean>> batchInsert;
+
+    Optional<HttpStatus> validate(SecretImportItem item) {
+        return validation.apply(item);
+    }
+
+    boolean isAuthorized(SecretImportItem item) {
+        return authorization.test(item);
+    }
+
+    S toSecret(SecretImportItem item, String encryptedValue) {
+        return secretFactory.apply(item, encryptedValue);
+    }
+
+    List<Boolean> insert(List<S> secrets) {
+        return batchInsert.apply(secrets);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import com.iexec.sms.encryption.EncryptionService;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports many signed secrets at once.
+ * <p>
+ * Signatures are verified and values are encrypted in parallel on a dedicated pool,
+ * valid secrets are then stored with a single JDBC batch.
+ */
+@Slf4j
+@Service
+public class SecretImportService {
+
+    private final EncryptionService encryptionService;
+    private final ExecutorService executorService;
+    @Getter
+    private final int maxBatchSize;
+
+    @Autowired
+    public SecretImportService(EncryptionService encryptionService,
+                               SecretImportConfiguration secretImportConfiguration) {
+        this(encryptionService,
+                secretImportConfiguration.getMaxBatchSize(),
+                newBoundedThreadPool(secretImportConfiguration.getThreads(), secretImportConfiguration.getMaxBatchSize()));
+    }
+
+    /**
+     * Creates a pool queuing at most a full batch, request threads preparing items themselves beyond it.
+     */
+    private static ExecutorService newBoundedThreadPool(int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    SecretImportService(EncryptionService encryptionService,
+                        int maxBatchSize,
+                        ExecutorService executorService) {
+        this.encryptionService = encryptionService;
+        this.maxBatchSize = maxBatchSize;
+        this.executorService = executorService;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Checks, encrypts and stores secrets.
+     *
+     * @param items   Signed secrets
+     * @param handler Rules applying to the type of imported secrets
+     * @param <S>     Type of stored secrets
+     * @return For each item at the same index, the HTTP status the single secret endpoint would have returned.
+     */
+    public <S> List<SecretImportResult> importSecrets(List<SecretImportItem> items, SecretImportHandler<S> handler) {
+        final List<CompletableFuture<PreparedSecret<S>>> preparations = items.stream()
+                .map(item -> CompletableFuture.supplyAsync(() -> prepare(item, handler), executorService))
+                .toList();
+
+        final int[] statuses = new int[items.size()];
+        final List<S> secrets = new ArrayList<>();
+        final List<Integer> secretIndexes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            final PreparedSecret<S> prepared = preparations.get(i).join();
+            if (prepared.secret() != null) {
+                secrets.add(prepared.secret());
+                secretIndexes.add(i);
+            } else {
+                statuses[i] = prepared.status().value();
+            }
+        }
+
+        try {
+            final List<Boolean> inserted = handler.insert(secrets);
+            for (int i = 0; i < secrets.size(); i++) {
+                statuses[secretIndexes.get(i)] = Boolean.TRUE.equals(inserted.get(i))
+                        ? HttpStatus.NO_CONTENT.value()
+                        : HttpStatus.CONFLICT.value();
+            }
+        } catch (Exception e) {
+            log.error("Failed to store secrets batch [size:{}]", secrets.size(), e);
+            secretIndexes.forEach(index -> statuses[index] = HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+
+        final List<SecretImportResult> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            final SecretImportItem item = items.get(i);
+            results.add(SecretImportResult.builder()
+                    .address(item != null ? item.getAddress() : null)
+                    .key(item != null ? item.getKey() : null)
+                    .status(statuses[i])
+                    .build());
+        }
+        log.info("Secrets batch imported [size:{}, candidates:{}]", items.size(), secrets.size());
+        return results;
+    }
+
+    private <S> PreparedSecret<S> prepare(SecretImportItem item, SecretImportHandler<S> handler) {
+        try {
+            if (item == null || StringUtils.isAnyBlank(item.getAuthorization(), item.getAddress(), item.getValue())) {
+                return PreparedSecret.rejected(HttpStatus.BAD_REQUEST);
+            }
+            // Signature first as done by single secret endpoints, unauthenticated callers do not learn validation rules
+            if (!handler.isAuthorized(item)) {
+                log.error("Unauthorized to import secret [address:{}, key:{}]", item.getAddress(), item.getKey());
+                return PreparedSecret.rejected(HttpStatus.UNAUTHORIZED);
+            }
+            final Optional<HttpStatus> rejection = handler.validate(item);
+            if (rejection.isPresent()) {
+                return PreparedSecret.rejected(rejection.get());
+            }
+            final String encryptedValue = encryptionService.encrypt(item.getValue());
+            if (encryptedValue.isEmpty()) {
+                return PreparedSecret.rejected(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            return new PreparedSecret<>(null, handler.toSecret(item, encryptedValue));
+        } catch (Exception e) {
+            log.error("Failed to prepare secret import [address:{}]", item.getAddress(), e);
+            return PreparedSecret.rejected(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private record PreparedSecret<S>(HttpStatus status, S secret) {
+        static <S> PreparedSecret<S> rejected(HttpStatus status) {
+            return new PreparedSecret<>(status, null);
+        }
+    }
+}
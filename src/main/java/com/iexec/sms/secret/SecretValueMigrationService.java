@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.encryption.EncryptedValueConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves Base64 encrypted values stored before binary storage to the binary {@code encrypted_value} column.
+ * <p>
+ * Rows are moved by chunks while the SMS keeps serving requests, a secret being read from its legacy
+ * {@code value} column until moved. A row updated after having been read by a chunk is left unchanged.
+ * The migration stops once no legacy value remains and starts again when a backup is restored.
+ */
+@Slf4j
+@Service
+@DependsOn("entityManagerFactory")
+public class SecretValueMigrationService {
+    static final String METRIC_MIGRATED = "iexec.sms.secrets.value.migrated";
+
+    private static final List<LegacyTable> TABLES = List.of(
+            new LegacyTable("web2secret", List.of("owner_address", "address")),
+            new LegacyTable("web3secret", List.of("address")),
+            new LegacyTable("tee_task_compute_secret", List.of("on_chain_object_type", "on_chain_object_address",
+                    "secret_owner_role", "fixed_secret_owner", "key")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecretValueMigrationConfiguration configuration;
+    private volatile boolean completed;
+
+    private record LegacyTable(String name, List<String> keyColumns) {
+        String selectSql() {
+            return "SELECT " + keyColumns.stream().map(column -> "\"" + column + "\"").collect(Collectors.joining(", "))
+                    + ", \"value\" FROM \"" + name + "\" WHERE \"value\" IS NOT NULL FETCH FIRST ? ROWS ONLY";
+        }
+
+        String updateSql() {
+            return "UPDATE \"" + name + "\" SET \"encrypted_value\" = ?, \"value\" = NULL WHERE "
+                    + keyColumns.stream().map(column -> "\"" + column + "\" = ?").collect(Collectors.joining(" AND "))
+                    + " AND \"value\" = ?";
+        }
+    }
+
+    public SecretValueMigrationService(final JdbcTemplate jdbcTemplate,
+                                       final SecretValueMigrationConfiguration configuration,
+                                       final AdminService adminService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.configuration = configuration;
+        // a restored backup may have been created before binary storage and may contain legacy values
+        adminService.addDatabaseRestoredListener(() -> {
+            prepareEmbeddedDatabase();
+            completed = false;
+        });
+    }
+
+    @PostConstruct
+    void init() {
+        prepareEmbeddedDatabase();
+    }
+
+    /**
+     * Adds binary columns and allows inserting secrets without legacy value in an embedded database
+     * created before binary storage. Addresses of a restored database are also converted to bytes,
+     * they are converted by {@link SecretAddressMigration} on startup.
+     * <p>
+     * Columns of an external database are altered by versioned migrations.
+     */
+    private void prepareEmbeddedDatabase() {
+        final String databaseProductName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(databaseProductName)) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            SecretAddressMigration.migrate(connection, SecretAddressMigration.BATCH_SIZE);
+            return null;
+        });
+        for (final LegacyTable table : TABLES) {
+            jdbcTemplate.execute("ALTER TABLE \"" + table.name() + "\" ADD COLUMN IF NOT EXISTS \"encrypted_value\" VARBINARY("
+                    + SecretUtils.SECRET_MAX_SIZE * 3 / 2 + ")");
+        }
+        jdbcTemplate.execute("ALTER TABLE \"tee_task_compute_secret\" ALTER COLUMN \"value\" DROP NOT NULL");
+    }
+
+    /**
+     * Moves a chunk of legacy values of each table to binary storage.
+     */
+    @Scheduled(fixedDelayString = "${secrets.value-migration.interval}")
+    void migrateChunk() {
+        if (completed) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        int remainingTables = 0;
+        for (final LegacyTable table : TABLES) {
+            try {
+                if (migrateChunk(table) > 0) {
+                    remainingTables++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to move secret values to binary storage [table:{}]", table.name(), e);
+                remainingTables++;
+            }
+        }
+        if (remainingTables == 0) {
+            completed = true;
+            log.info("All secret values are stored as bytes [duration:{} ms]", System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * @return Number of legacy values read, whether moved or concurrently updated
+     */
+    private int migrateChunk(final LegacyTable table) {
+        final int columns = table.keyColumns().size();
+        final List<Object[]> updates = jdbcTemplate.query(table.selectSql(),
+                (ResultSet rs, int rowNum) -> toUpdateArguments(rs, columns),
+                configuration.getBatchSize());
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        final int[] results = jdbcTemplate.batchUpdate(table.updateSql(), updates);
+        int migrated = 0;
+        for (final int result : results) {
+            // some drivers do not report counts of batched statements
+            if (result > 0 || result == Statement.SUCCESS_NO_INFO) {
+                migrated++;
+            }
+        }
+        Counter.builder(METRIC_MIGRATED)
+                .tags("table", table.name())
+                .register(Metrics.globalRegistry)
+                .increment(migrated);
+        log.info("Moved secret values to binary storage [table:{}, migrated:{}, read:{}]",
+                table.name(), migrated, updates.size());
+        return updates.size();
+    }
+
+    private static Object[] toUpdateArguments(final ResultSet rs, final int keyColumns) throws SQLException {
+        final String legacyValue = rs.getString(keyColumns + 1);
+        final List<Object> arguments = new ArrayList<>(keyColumns + 2);
+        arguments.add(EncryptedValueConverter.toBinary(legacyValue));
+        for (int i = 1; i <= keyColumns; i++) {
+            arguments.add(rs.getObject(i));
+        }
+        arguments.add(legacyValue);
+        return arguments.toArray();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Combines concurrent inserts of secrets into batches, so that concurrent uploads share a single transaction.
+ * <p>
+ * A secret waits at most for the linger duration that concurrent secrets join its batch, the batch being inserted
+ * as soon as it is full. Batches are inserted one at a time by a single thread, each caller then gets the outcome
+ * of its own secret.
+ *
+ * @param <S> Type of secrets
+ */
+@Slf4j
+public class SecretWriteCombiner<S> implements AutoCloseable {
+    static final String METRIC_BATCH_SIZE = "iexec.sms.secrets.write.batch.size";
+    static final String METRIC_BATCH_FILL = "iexec.sms.secrets.write.batch.fill";
+    private static final long CLOSE_CHECK_INTERVAL_MILLIS = 100;
+
+    private final long lingerNanos;
+    private final int batchSize;
+    private final Function<List<S>, List<Boolean>> batchWriter;
+    private final BlockingQueue<PendingWrite<S>> pendingWrites = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSizeSummary;
+    private final DistributionSummary batchFillSummary;
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    private record PendingWrite<S>(S secret, CompletableFuture<Boolean> result) {
+    }
+
+    /**
+     * @param table       Name of the table, used to name the flushing thread and to tag metrics
+     * @param linger      Max duration a secret waits for concurrent secrets before being inserted
+     * @param batchSize   Max number of secrets inserted by a batch
+     * @param batchWriter Inserts a batch of secrets, returns for each secret at the same index whether it was added
+     */
+    public SecretWriteCombiner(final String table,
+                               final Duration linger,
+                               final int batchSize,
+                               final Function<List<S>, List<Boolean>> batchWriter) {
+        this.lingerNanos = linger.toNanos();
+        this.batchSize = batchSize;
+        this.batchWriter = batchWriter;
+        this.batchSizeSummary = DistributionSummary.builder(METRIC_BATCH_SIZE)
+                .baseUnit("secrets")
+                .tags("table", table)
+                .register(Metrics.globalRegistry);
+        this.batchFillSummary = DistributionSummary.builder(METRIC_BATCH_FILL)
+                .description("Ratio of the max batch size used by batches")
+                .tags("table", table)
+                .register(Metrics.globalRegistry);
+        this.flusher = Thread.ofPlatform()
+                .name("secret-write-combiner-" + table)
+                .daemon()
+                .start(this::flushLoop);
+    }
+
+    /**
+     * Inserts a secret with concurrent ones, waiting for the insertion of its batch.
+     *
+     * @param secret Secret whose value has been encrypted
+     * @return {@code true} if the secret has been added, {@code false} if it already exists or could not be stored
+     * @throws IllegalStateException if the combiner is closed or the batch insertion failed
+     */
+    public boolean write(final S secret) {
+        final PendingWrite<S> pendingWrite = new PendingWrite<>(secret, new CompletableFuture<>());
+        pendingWrites.add(pendingWrite);
+        // the flusher drains remaining secrets once closed, a secret it has not seen must not wait forever
+        if (closed && pendingWrites.remove(pendingWrite)) {
+            throw new IllegalStateException("Secret write combiner is closed");
+        }
+        try {
+            return pendingWrite.result().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch insertion failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch insertion", e);
+        }
+    }
+
+    /**
+     * Inserts pending secrets and stops the flushing thread.
+     * <p>
+     * The thread is not interrupted, interrupting a thread while it accesses the database may close database files.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        flusher.join();
+    }
+
+    private void flushLoop() {
+        final List<PendingWrite<S>> batch = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+        while (!closed || !pendingWrites.isEmpty()) {
+            try {
+                final PendingWrite<S> first = pendingWrites.poll(CLOSE_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                final long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    final PendingWrite<S> next = pendingWrites.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // the interruption is restored once pending secrets are inserted, polling would fail otherwise
+                interrupted = true;
+                log.warn("Secret write combiner interrupted, inserting pending secrets [pending:{}]",
+                        batch.size() + pendingWrites.size());
+                closed = true;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(final List<PendingWrite<S>> batch) {
+        batchSizeSummary.record(batch.size());
+        batchFillSummary.record((double) batch.size() / batchSize);
+        try {
+            final List<Boolean> results = batchWriter.apply(batch.stream().map(PendingWrite::secret).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(Boolean.TRUE.equals(results.get(i)));
+            }
+        } catch (RuntimeException e) {
+            log.error("Batch insertion failed [size:{}, exception:{}]", batch.size(), e.getMessage());
+            batch.forEach(pendingWrite -> pendingWrite.result().completeExceptionally(e));
+        }
+    }
+}
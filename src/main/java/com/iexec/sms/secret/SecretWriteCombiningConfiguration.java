@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "secrets.write-combining")
+public class SecretWriteCombiningConfiguration {
+    /**
+     * Whether concurrent inserts of secrets are combined into batches sharing a single transaction.
+     */
+    boolean enabled;
+    /**
+     * Max duration a secret waits for concurrent secrets before being inserted.
+     */
+    @NotNull(message = "Linger must not be null")
+    Duration linger;
+    /**
+     * Max number of secrets inserted by a batch.
+     */
+    @Positive(message = "Batch size must be positive")
+    int batchSize;
+}
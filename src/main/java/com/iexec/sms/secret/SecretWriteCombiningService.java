@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import com.iexec.sms.secret.compute.TeeTaskComputeSecret;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretService;
+import com.iexec.sms.secret.web2.Web2Secret;
+import com.iexec.sms.secret.web2.Web2SecretService;
+import com.iexec.sms.secret.web3.Web3Secret;
+import com.iexec.sms.secret.web3.Web3SecretService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Combines concurrent inserts of each type of secret into batches, so that concurrent uploads share a commit.
+ */
+@Slf4j
+@Service
+@ConditionalOnExpression("'${secrets.write-combining.enabled}'=='true'")
+public class SecretWriteCombiningService {
+    private final SecretWriteCombiningConfiguration configuration;
+    private final Web2SecretService web2SecretService;
+    private final Web3SecretService web3SecretService;
+    private final TeeTaskComputeSecretService teeTaskComputeSecretService;
+    private List<SecretWriteCombiner<?>> combiners = List.of();
+
+    public SecretWriteCombiningService(final SecretWriteCombiningConfiguration configuration,
+                                       final Web2SecretService web2SecretService,
+                                       final Web3SecretService web3SecretService,
+                                       final TeeTaskComputeSecretService teeTaskComputeSecretService) {
+        this.configuration = configuration;
+        this.web2SecretService = web2SecretService;
+        this.web3SecretService = web3SecretService;
+        this.teeTaskComputeSecretService = teeTaskComputeSecretService;
+    }
+
+    @PostConstruct
+    void init() {
+        final SecretWriteCombiner<Web2Secret> web2Combiner = new SecretWriteCombiner<>("web2",
+                configuration.getLinger(), configuration.getBatchSize(), web2SecretService::addEncryptedSecrets);
+        final SecretWriteCombiner<Web3Secret> web3Combiner = new SecretWriteCombiner<>("web3",
+                configuration.getLinger(), configuration.getBatchSize(), web3SecretService::addEncryptedSecrets);
+        final SecretWriteCombiner<TeeTaskComputeSecret> computeCombiner = new SecretWriteCombiner<>("compute",
+                configuration.getLinger(), configuration.getBatchSize(), teeTaskComputeSecretService::addEncryptedSecrets);
+        web2SecretService.setWriteCombiner(web2Combiner);
+        web3SecretService.setWriteCombiner(web3Combiner);
+        teeTaskComputeSecretService.setWriteCombiner(computeCombiner);
+        combiners = List.of(web2Combiner, web3Combiner, computeCombiner);
+        log.info("Combining concurrent secret inserts [linger:{}, batchSize:{}]",
+                configuration.getLinger(), configuration.getBatchSize());
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        web2SecretService.setWriteCombiner(null);
+        web3SecretService.setWriteCombiner(null);
+        teeTaskComputeSecretService.setWriteCombiner(null);
+        for (final SecretWriteCombiner<?> combiner : combiners) {
+            combiner.close();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2021-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,10 @@ package com.iexec.sms.secret.compute;
 import com.iexec.common.web.ApiResponseBody;
 import com.iexec.sms.api.SmsClient;
 import com.iexec.sms.authorization.AuthorizationService;
+import com.iexec.sms.secret.SecretImportHandler;
+import com.iexec.sms.secret.SecretImportItem;
+import com.iexec.sms.secret.SecretImportResult;
+import com.iexec.sms.secret.SecretImportService;
 import com.iexec.sms.secret.SecretUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -28,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 @Slf4j
@@ -37,19 +42,63 @@ public class AppComputeSecretController {
 
     private final AuthorizationService authorizationService;
     private final TeeTaskComputeSecretService teeTaskComputeSecretService;
+    private final SecretImportService secretImportService;
+    private final SecretImportHandler<TeeTaskComputeSecret> appDeveloperImportHandler;
+    private final SecretImportHandler<TeeTaskComputeSecret> requesterImportHandler;
 
     private static final ApiResponseBody<String, List<String>> invalidAuthorizationPayload = createErrorPayload("Invalid authorization");
 
     static final String INVALID_SECRET_KEY_FORMAT_MSG = "Secret key should contain at most 64 characters from [0-9A-Za-z-_]";
     static final String SECRET_NOT_FOUND_MSG = "Secret not found";
-    private static final Pattern secretKeyPattern = Pattern.compile("^[\\p{Alnum}-_]{"
-            + TeeTaskComputeSecretHeader.SECRET_KEY_MIN_LENGTH + ","
-            + TeeTaskComputeSecretHeader.SECRET_KEY_MAX_LENGTH + "}$");
+    private static final Pattern secretKeyPattern = TeeTaskComputeSecretHeader.SECRET_KEY_PATTERN;
 
     public AppComputeSecretController(AuthorizationService authorizationService,
-                                      TeeTaskComputeSecretService teeTaskComputeSecretService) {
+                                      TeeTaskComputeSecretService teeTaskComputeSecretService,
+                                      SecretImportService secretImportService) {
         this.authorizationService = authorizationService;
         this.teeTaskComputeSecretService = teeTaskComputeSecretService;
+        this.secretImportService = secretImportService;
+        this.appDeveloperImportHandler = SecretImportHandler.<TeeTaskComputeSecret>builder()
+                .validation(AppComputeSecretController::validateSecretSize)
+                .authorization(item -> authorizationService.isSignedByOwner(
+                        authorizationService.getChallengeForSetAppDeveloperAppComputeSecret(
+                                item.getAddress().toLowerCase(), SmsClient.APP_DEVELOPER_SECRET_INDEX, item.getValue()),
+                        item.getAuthorization(), item.getAddress().toLowerCase()))
+                .secretFactory((item, encryptedValue) -> TeeTaskComputeSecret.builder()
+                        .onChainObjectType(OnChainObjectType.APPLICATION)
+                        .onChainObjectAddress(item.getAddress().toLowerCase())
+                        .secretOwnerRole(SecretOwnerRole.APPLICATION_DEVELOPER)
+                        .fixedSecretOwner("")
+                        .key(SmsClient.APP_DEVELOPER_SECRET_INDEX)
+                        .value(encryptedValue)
+                        .build())
+                .batchInsert(teeTaskComputeSecretService::addEncryptedSecrets)
+                .build();
+        this.requesterImportHandler = SecretImportHandler.<TeeTaskComputeSecret>builder()
+                .validation(item -> item.getKey() == null || !secretKeyPattern.matcher(item.getKey()).matches()
+                        ? Optional.of(HttpStatus.BAD_REQUEST)
+                        : validateSecretSize(item))
+                // a missing key cannot be part of a signed challenge
+                .authorization(item -> item.getKey() != null && authorizationService.isSignedByHimself(
+                        authorizationService.getChallengeForSetRequesterAppComputeSecret(
+                                item.getAddress().toLowerCase(), item.getKey(), item.getValue()),
+                        item.getAuthorization(), item.getAddress().toLowerCase()))
+                .secretFactory((item, encryptedValue) -> TeeTaskComputeSecret.builder()
+                        .onChainObjectType(OnChainObjectType.APPLICATION)
+                        .onChainObjectAddress("")
+                        .secretOwnerRole(SecretOwnerRole.REQUESTER)
+                        .fixedSecretOwner(item.getAddress().toLowerCase())
+                        .key(item.getKey())
+                        .value(encryptedValue)
+                        .build())
+                .batchInsert(teeTaskComputeSecretService::addEncryptedSecrets)
+                .build();
+    }
+
+    private static Optional<HttpStatus> validateSecretSize(SecretImportItem item) {
+        return SecretUtils.isSecretSizeValid(item.getValue())
+                ? Optional.empty()
+                : Optional.of(HttpStatus.PAYLOAD_TOO_LARGE);
     }
 
     // region App developer endpoints
@@ -92,6 +141,23 @@ public class AppComputeSecretController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Adds secrets of many applications at once.
+     * <p>
+     * Each item is checked as it would be by {@link #addApplicationDeveloperAppComputeSecret(String, String, String)},
+     * valid secrets are stored in a single transaction.
+     *
+     * @param secrets Signed secrets, {@code address} is the application address.
+     * @return The outcome of each secret, or HTTP 413 if there are too many secrets.
+     */
+    @PostMapping("/apps/secrets/batch")
+    public ResponseEntity<List<SecretImportResult>> addApplicationDeveloperAppComputeSecrets(@RequestBody List<SecretImportItem> secrets) {
+        if (secrets.size() > secretImportService.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(secretImportService.importSecrets(secrets, appDeveloperImportHandler));
+    }
+
     @RequestMapping(method = RequestMethod.HEAD, path = "/apps/{appAddress}/secrets")
     public ResponseEntity<ApiResponseBody<String, List<String>>> isApplicationDeveloperAppComputeSecretPresent(@PathVariable String appAddress) {
         appAddress = appAddress.toLowerCase();
@@ -168,6 +234,23 @@ public class AppComputeSecretController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Adds many requester secrets at once.
+     * <p>
+     * Each item is checked as it would be by {@link #addRequesterAppComputeSecret(String, String, String, String)},
+     * valid secrets are stored in a single transaction.
+     *
+     * @param secrets Signed secrets, {@code address} is the requester address and {@code key} the secret key.
+     * @return The outcome of each secret, or HTTP 413 if there are too many secrets.
+     */
+    @PostMapping("/requesters/secrets/batch")
+    public ResponseEntity<List<SecretImportResult>> addRequesterAppComputeSecrets(@RequestBody List<SecretImportItem> secrets) {
+        if (secrets.size() > secretImportService.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(secretImportService.importSecrets(secrets, requesterImportHandler));
+    }
+
     private List<String> validateRequesterAppComputeSecret(
             String requesterAddress,
             String secretKey,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2021-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package com.iexec.sms.secret.compute;
 
+import com.iexec.sms.encryption.EncryptedValueConverter;
 import com.iexec.sms.secret.SecretUtils;
 import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
@@ -61,16 +62,25 @@ public class TeeTaskComputeSecret implements Serializable {
      * Final size might be padded to the next block, plus another padding might
      * be necessary for the IV (https://stackoverflow.com/a/93463).
      * In addition to that, it is worth mentioning that current implementation
-     * encrypts the input and produces a Base64 result (stored as-is in
-     * database) which causes an overhead of ~33%
-     * (https://en.wikipedia.org/wiki/Base64).
+     * encrypts the input and produces a Base64 result. It is stored as bytes
+     * in database to avoid the Base64 overhead of ~33%
+     * (https://en.wikipedia.org/wiki/Base64), in the binary representation
+     * of EncryptedValueConverter.
      * <p>
-     * For these reasons and for simplicity purposes, we reserve twice the size
-     * of `SECRET_MAX_SIZE` in storage.
+     * For these reasons and for simplicity purposes, we reserve one and a half
+     * times the size of `SECRET_MAX_SIZE` in storage.
      */
-    @NotNull
-    @Column(length = SecretUtils.SECRET_MAX_SIZE * 2)
-    private String value;
+    @Getter(AccessLevel.NONE)
+    @Column(name = "encrypted_value", length = SecretUtils.SECRET_MAX_SIZE * 3 / 2)
+    private byte[] value;
+
+    /*
+     * Base64 encrypted value of a secret stored before binary storage,
+     * until moved by SecretValueMigrationService.
+     */
+    @Getter(AccessLevel.NONE)
+    @Column(name = "value", length = SecretUtils.SECRET_MAX_SIZE * 2)
+    private String legacyValue;
 
     @Builder
     public TeeTaskComputeSecret(
@@ -87,11 +97,23 @@ public class TeeTaskComputeSecret implements Serializable {
                 fixedSecretOwner,
                 key
         );
-        this.value = value;
+        this.value = EncryptedValueConverter.toBinary(value);
+    }
+
+    public String getValue() {
+        return value != null ? EncryptedValueConverter.fromBinary(value) : legacyValue;
+    }
+
+    /**
+     * Returns the encrypted value in its binary representation, which is decrypted without Base64 decoding.
+     * The returned array must not be modified.
+     */
+    public byte[] getBinaryValue() {
+        return value != null ? value : EncryptedValueConverter.toBinary(legacyValue);
     }
 
     public TeeTaskComputeSecret withValue(String newValue) {
-        return new TeeTaskComputeSecret(header, newValue);
+        return new TeeTaskComputeSecret(header, EncryptedValueConverter.toBinary(newValue), null);
     }
 
     @Override
@@ -100,11 +122,11 @@ public class TeeTaskComputeSecret implements Serializable {
         if (o == null || getClass() != o.getClass()) return false;
         final TeeTaskComputeSecret that = (TeeTaskComputeSecret) o;
         return Objects.equals(header, that.header)
-                && Objects.equals(value, that.value);
+                && Objects.equals(getValue(), that.getValue());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(header, value);
+        return Objects.hash(header, getValue());
     }
 }
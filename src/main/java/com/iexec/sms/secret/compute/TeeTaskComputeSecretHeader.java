@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package com.iexec.sms.secret.compute;
 
+import com.iexec.sms.secret.AddressConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import jakarta.validation.*;
 import jakarta.validation.constraints.NotNull;
@@ -29,6 +32,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.io.Serializable;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 @Embeddable
 @Slf4j
@@ -38,6 +42,15 @@ import java.util.Set;
 public class TeeTaskComputeSecretHeader implements Serializable {
     public static final int SECRET_KEY_MIN_LENGTH = 1;
     public static final int SECRET_KEY_MAX_LENGTH = 64;
+    /**
+     * Format of keys of requester secrets, as accepted by their endpoints.
+     */
+    public static final Pattern SECRET_KEY_PATTERN = Pattern.compile("^[\\p{Alnum}-_]{"
+            + SECRET_KEY_MIN_LENGTH + "," + SECRET_KEY_MAX_LENGTH + "}$");
+    /**
+     * Building a validator is costly, headers are built for each secret read from the secret log on startup.
+     */
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
 
     @NotNull
     private OnChainObjectType onChainObjectType;
@@ -49,10 +62,14 @@ public class TeeTaskComputeSecretHeader implements Serializable {
      * In a future release, it should also handle ENS names.
      */
     @NotNull
+    @Convert(converter = AddressConverter.class)
+    @Column(length = AddressConverter.COLUMN_LENGTH)
     private String onChainObjectAddress; // Will be empty for a secret belonging to a requester
     @NotNull
     private SecretOwnerRole secretOwnerRole;
     @NotNull
+    @Convert(converter = AddressConverter.class)
+    @Column(length = AddressConverter.COLUMN_LENGTH)
     private String fixedSecretOwner; // Will be empty for a secret belonging to an application developer
     @NotNull
     @Size(min = SECRET_KEY_MIN_LENGTH, max = SECRET_KEY_MAX_LENGTH)
@@ -81,13 +98,10 @@ public class TeeTaskComputeSecretHeader implements Serializable {
     }
 
     private void validateFields() {
-        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
-            final Validator validator = factory.getValidator();
-            final Set<ConstraintViolation<TeeTaskComputeSecretHeader>> issues = validator.validate(this);
-            if (!issues.isEmpty()) {
-                log.warn("{}", issues.stream().map(ConstraintViolation::getMessage).toList());
-                throw new ValidationException("Can't create TeeTaskComputeSecretHeader.");
-            }
+        final Set<ConstraintViolation<TeeTaskComputeSecretHeader>> issues = VALIDATOR.validate(this);
+        if (!issues.isEmpty()) {
+            log.warn("{}", issues.stream().map(ConstraintViolation::getMessage).toList());
+            throw new ValidationException("Can't create TeeTaskComputeSecretHeader.");
         }
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2021-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,14 +17,20 @@
 package com.iexec.sms.secret.compute;
 
 import com.iexec.sms.encryption.EncryptionService;
+import com.iexec.sms.secret.AddressConverter;
 import com.iexec.sms.secret.CacheSecretService;
 import com.iexec.sms.secret.MeasuredSecretService;
+import com.iexec.sms.secret.SecretBatchInserter;
+import com.iexec.sms.secret.SecretExistenceChecker;
+import com.iexec.sms.secret.SecretWriteCombiner;
+import com.iexec.sms.secret.store.ResidentSecretTable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -32,24 +38,51 @@ import java.util.Optional;
 @Slf4j
 @Service
 public class TeeTaskComputeSecretService {
+    private static final String INSERT_SQL = "INSERT INTO \"tee_task_compute_secret\" "
+            + "(\"on_chain_object_type\", \"on_chain_object_address\", \"secret_owner_role\", \"fixed_secret_owner\", \"key\", \"encrypted_value\") VALUES "
+            + "(?, ?, ?, ?, ?, ?)";
+
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
     private final TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
     private final EncryptionService encryptionService;
     private final MeasuredSecretService measuredSecretService;
     private final CacheSecretService<TeeTaskComputeSecretHeader> cacheSecretService;
+    private volatile ResidentSecretTable<TeeTaskComputeSecretHeader, TeeTaskComputeSecret> residentSecrets;
+    private volatile SecretWriteCombiner<TeeTaskComputeSecret> writeCombiner;
 
     protected TeeTaskComputeSecretService(JdbcTemplate jdbcTemplate,
+                                          TransactionTemplate transactionTemplate,
                                           TeeTaskComputeSecretRepository teeTaskComputeSecretRepository,
                                           EncryptionService encryptionService,
                                           MeasuredSecretService computeMeasuredSecretService,
                                           CacheSecretService<TeeTaskComputeSecretHeader> teeTaskComputeCacheSecretService) {
         this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
         this.teeTaskComputeSecretRepository = teeTaskComputeSecretRepository;
         this.encryptionService = encryptionService;
         this.measuredSecretService = computeMeasuredSecretService;
         this.cacheSecretService = teeTaskComputeCacheSecretService;
     }
 
+    /**
+     * Reads secrets from memory instead of the database, missing secrets being read from the database.
+     *
+     * @param residentSecrets Secrets kept in memory
+     */
+    public void setResidentSecrets(final ResidentSecretTable<TeeTaskComputeSecretHeader, TeeTaskComputeSecret> residentSecrets) {
+        this.residentSecrets = residentSecrets;
+    }
+
+    /**
+     * Inserts new secrets with concurrent ones, {@link #addEncryptedSecrets} then storing them in batches.
+     *
+     * @param writeCombiner Combiner of concurrent inserts, {@literal null} to insert each secret on its own
+     */
+    public void setWriteCombiner(final SecretWriteCombiner<TeeTaskComputeSecret> writeCombiner) {
+        this.writeCombiner = writeCombiner;
+    }
+
     /**
      * Retrieve a secret.
      * Decrypt if required.
@@ -67,25 +100,33 @@ public class TeeTaskComputeSecretService {
                 secretOwner,
                 secretKey
         );
-        final Optional<TeeTaskComputeSecret> oSecret = teeTaskComputeSecretRepository
-                .findById(header);
+        final ResidentSecretTable<TeeTaskComputeSecretHeader, TeeTaskComputeSecret> resident = residentSecrets;
+        final Optional<TeeTaskComputeSecret> oSecret = resident != null
+                ? resident.find(header, teeTaskComputeSecretRepository::findById)
+                : teeTaskComputeSecretRepository.findById(header);
         if (oSecret.isEmpty()) {
             return Optional.empty();
         }
         final TeeTaskComputeSecret secret = oSecret.get();
-        final String decryptedValue = encryptionService.decrypt(secret.getValue());
+        final String decryptedValue = encryptionService.decrypt(secret.getBinaryValue());
         TeeTaskComputeSecret decryptedSecret = secret.withValue(decryptedValue);
         return Optional.of(decryptedSecret);
     }
 
     public List<TeeTaskComputeSecret> getSecretsForTeeSession(Iterable<TeeTaskComputeSecretHeader> ids) {
-        return teeTaskComputeSecretRepository.findAllById(ids).stream()
-                .map(secret -> secret.withValue(encryptionService.decrypt(secret.getValue())))
+        final ResidentSecretTable<TeeTaskComputeSecretHeader, TeeTaskComputeSecret> resident = residentSecrets;
+        final List<TeeTaskComputeSecret> secrets = resident != null
+                ? resident.findAll(ids, teeTaskComputeSecretRepository::findAllById)
+                : teeTaskComputeSecretRepository.findAllById(ids);
+        return secrets.stream()
+                .map(secret -> secret.withValue(encryptionService.decrypt(secret.getBinaryValue())))
                 .toList();
     }
 
     /**
      * Check whether a secret exists.
+     * <p>
+     * Only the primary key is queried, the secret value is neither loaded nor decrypted.
      *
      * @return {@code true} if the secret exists in the database, {@code false} otherwise.
      */
@@ -107,18 +148,27 @@ public class TeeTaskComputeSecretService {
             return found;
         }
 
-        final boolean isPresentInDB = getSecret(
-                onChainObjectType,
-                deployedObjectAddress,
-                secretOwnerRole,
-                secretOwner,
-                secretKey
-        ).isPresent();
+        final boolean isPresentInDB = teeTaskComputeSecretRepository.existsById(key);
 
         cacheSecretService.putSecretExistenceInCache(key, isPresentInDB);
         return isPresentInDB;
     }
 
+    /**
+     * Checks the existence of many secrets with at most one query.
+     *
+     * @param headers Headers of the secrets.
+     * @return For each header at the same index, whether the secret exists.
+     */
+    public List<Boolean> areSecretsPresent(List<TeeTaskComputeSecretHeader> headers) {
+        return SecretExistenceChecker.areSecretsPresent(jdbcTemplate, cacheSecretService,
+                "tee_task_compute_secret",
+                List.of("on_chain_object_type", "on_chain_object_address", "secret_owner_role", "fixed_secret_owner", "key"),
+                headers,
+                header -> List.of(header.getOnChainObjectType().ordinal(), AddressConverter.toBinary(header.getOnChainObjectAddress()),
+                        header.getSecretOwnerRole().ordinal(), AddressConverter.toBinary(header.getFixedSecretOwner()), header.getKey()));
+    }
+
     /**
      * Encrypt a secret and store it if it doesn't already exist.
      *
@@ -141,19 +191,21 @@ public class TeeTaskComputeSecretService {
                     .value(encryptionService.encrypt(secretValue))
                     .build();
             log.info("Adding new tee task compute secret [secret:{}]", secret);
-            final int result = jdbcTemplate.update("INSERT INTO \"tee_task_compute_secret\" "
-                            + "(\"on_chain_object_type\", \"on_chain_object_address\", \"secret_owner_role\", \"fixed_secret_owner\", \"key\", \"value\") VALUES "
-                            + "(?, ?, ?, ?, ?, ?)",
-                    secret.getHeader().getOnChainObjectType().ordinal(), secret.getHeader().getOnChainObjectAddress(),
-                    secret.getHeader().getSecretOwnerRole().ordinal(), secret.getHeader().getFixedSecretOwner(),
-                    secret.getHeader().getKey(), secret.getValue());
+            final SecretWriteCombiner<TeeTaskComputeSecret> combiner = writeCombiner;
+            if (combiner != null) {
+                return combiner.write(secret);
+            }
+            final int result = jdbcTemplate.update(INSERT_SQL,
+                    secret.getHeader().getOnChainObjectType().ordinal(), AddressConverter.toBinary(secret.getHeader().getOnChainObjectAddress()),
+                    secret.getHeader().getSecretOwnerRole().ordinal(), AddressConverter.toBinary(secret.getHeader().getFixedSecretOwner()),
+                    secret.getHeader().getKey(), secret.getBinaryValue());
             // With SQL INSERT INTO and a single set VALUES, at most 1 row can be added and result can only be 0 or 1
             // When value should be 0, an exception should have been thrown
             // This check is only there as a fallback and cannot be reached in tests at the moment
             if (result != 1) {
                 throw new IncorrectResultSizeDataAccessException("Data insert did not work but did not produce an exception", 1);
             }
-            cacheSecretService.putSecretExistenceInCache(secret.getHeader(), true);
+            cacheSecretService.secretStored(secret.getHeader());
             measuredSecretService.newlyAddedSecret();
             return true;
         } catch (DuplicateKeyException e) {
@@ -165,4 +217,28 @@ public class TeeTaskComputeSecretService {
         }
         return false;
     }
+
+    /**
+     * Stores already encrypted secrets with a single batch.
+     *
+     * @param secrets Secrets whose values have been encrypted.
+     * @return For each secret at the same index, {@code true} if it has been added,
+     * {@code false} if it already exists or could not be stored.
+     */
+    public List<Boolean> addEncryptedSecrets(List<TeeTaskComputeSecret> secrets) {
+        final List<Boolean> results = SecretBatchInserter.insert(jdbcTemplate, transactionTemplate, INSERT_SQL, secrets,
+                (ps, secret) -> {
+                    final TeeTaskComputeSecretHeader header = secret.getHeader();
+                    ps.setInt(1, header.getOnChainObjectType().ordinal());
+                    ps.setBytes(2, AddressConverter.toBinary(header.getOnChainObjectAddress()));
+                    ps.setInt(3, header.getSecretOwnerRole().ordinal());
+                    ps.setBytes(4, AddressConverter.toBinary(header.getFixedSecretOwner()));
+                    ps.setString(5, header.getKey());
+                    ps.setBytes(6, secret.getBinaryValue());
+                });
+        final long added = SecretBatchInserter.recordAddedSecrets(secrets, results, TeeTaskComputeSecret::getHeader,
+                cacheSecretService, measuredSecretService);
+        log.info("Added tee task compute secrets batch [added:{}, size:{}]", added, secrets.size());
+        return results;
+    }
 }
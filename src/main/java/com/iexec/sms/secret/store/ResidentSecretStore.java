@@ -0,0 +1,383 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret.store;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.secret.CacheSecretService;
+import com.iexec.sms.secret.compute.*;
+import com.iexec.sms.secret.web2.Web2Secret;
+import com.iexec.sms.secret.web2.Web2SecretHeader;
+import com.iexec.sms.secret.web2.Web2SecretRepository;
+import com.iexec.sms.secret.web2.Web2SecretService;
+import com.iexec.sms.secret.web3.Web3Secret;
+import com.iexec.sms.secret.web3.Web3SecretHeader;
+import com.iexec.sms.secret.web3.Web3SecretRepository;
+import com.iexec.sms.secret.web3.Web3SecretService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps all encrypted secrets in memory so that session generation does not query the database.
+ * <p>
+ * The database remains the reference: secrets missing in memory are read from it and stored secrets are evicted.
+ * Secrets kept in memory and evictions are appended to a {@link SecretLog}, replayed on startup so that secrets
+ * are not read again from the database. Records are appended by a background thread in the order of the changes,
+ * so that lookups never wait for the log. A close record is appended on shutdown once all evictions are in the log.
+ * The whole database is read when the log is empty, when it does not end with a close record, for instance after
+ * a crash between the storage of a secret and the append of its eviction, or when its secret counts differ
+ * from the ones of the database.
+ * <p>
+ * Secrets of a restored backup are read from the database until they are loaded again. The load runs in background
+ * once the SMS is online again, so that putting the SMS online does not wait for it.
+ * <p>
+ * Other SMS instances sharing the database do not notify evictions, the store is then disabled in clustered mode.
+ */
+@Slf4j
+@Service
+@ConditionalOnExpression("'${secrets.resident.enabled}'=='true' and '${cluster.enabled}'!='true'")
+public class ResidentSecretStore {
+    static final String METRIC_ENTRIES = "iexec.sms.secrets.resident.entries";
+    static final String METRIC_LOG_SIZE = "iexec.sms.secrets.resident.log.size";
+    private static final byte OPERATION_PUT = 1;
+    private static final byte OPERATION_EVICT = 2;
+    private static final byte OPERATION_CLOSE = 3;
+
+    private final ResidentSecretStoreConfiguration configuration;
+    private final Web2SecretRepository web2SecretRepository;
+    private final Web3SecretRepository web3SecretRepository;
+    private final TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
+    private final Web2SecretService web2SecretService;
+    private final Web3SecretService web3SecretService;
+    private final TeeTaskComputeSecretService teeTaskComputeSecretService;
+    private final CacheSecretService<Web2SecretHeader> web2CacheSecretService;
+    private final CacheSecretService<Web3SecretHeader> web3CacheSecretService;
+    private final CacheSecretService<TeeTaskComputeSecretHeader> teeTaskComputeCacheSecretService;
+    private final AdminService adminService;
+    private final ExecutorService reloadExecutorService = Executors.newSingleThreadExecutor();
+    private final ExecutorService appendExecutorService = Executors.newSingleThreadExecutor();
+
+    private final ResidentSecretTable<Web2SecretHeader, Web2Secret> web2Secrets = new ResidentSecretTable<>("web2",
+            Web2Secret::getHeader,
+            secret -> List.of(secret.getHeader().getOwnerAddress(), secret.getHeader().getAddress(), secret.getValue()),
+            fields -> new Web2Secret(fields.get(0), fields.get(1), fields.get(2)));
+    private final ResidentSecretTable<Web3SecretHeader, Web3Secret> web3Secrets = new ResidentSecretTable<>("web3",
+            Web3Secret::getHeader,
+            secret -> List.of(secret.getHeader().getAddress(), secret.getValue()),
+            fields -> new Web3Secret(fields.get(0), fields.get(1)));
+    private final ResidentSecretTable<TeeTaskComputeSecretHeader, TeeTaskComputeSecret> computeSecrets = new ResidentSecretTable<>("compute",
+            TeeTaskComputeSecret::getHeader,
+            secret -> List.of(secret.getHeader().getOnChainObjectType().name(), secret.getHeader().getOnChainObjectAddress(),
+                    secret.getHeader().getSecretOwnerRole().name(), secret.getHeader().getFixedSecretOwner(),
+                    secret.getHeader().getKey(), secret.getValue()),
+            fields -> TeeTaskComputeSecret.builder()
+                    .onChainObjectType(OnChainObjectType.valueOf(fields.get(0)))
+                    .onChainObjectAddress(fields.get(1))
+                    .secretOwnerRole(SecretOwnerRole.valueOf(fields.get(2)))
+                    .fixedSecretOwner(fields.get(3))
+                    .key(fields.get(4))
+                    .value(fields.get(5))
+                    .build());
+    private final List<ResidentSecretTable<?, ?>> tables = List.of(web2Secrets, web3Secrets, computeSecrets);
+
+    private SecretLog secretLog;
+    private int logRecords;
+    private boolean compactionRequired;
+    private boolean logClosed;
+    private volatile boolean reloadRequired;
+
+    public ResidentSecretStore(final ResidentSecretStoreConfiguration configuration,
+                               final Web2SecretRepository web2SecretRepository,
+                               final Web3SecretRepository web3SecretRepository,
+                               final TeeTaskComputeSecretRepository teeTaskComputeSecretRepository,
+                               final Web2SecretService web2SecretService,
+                               final Web3SecretService web3SecretService,
+                               final TeeTaskComputeSecretService teeTaskComputeSecretService,
+                               final CacheSecretService<Web2SecretHeader> web2CacheSecretService,
+                               final CacheSecretService<Web3SecretHeader> web3CacheSecretService,
+                               final CacheSecretService<TeeTaskComputeSecretHeader> teeTaskComputeCacheSecretService,
+                               final AdminService adminService) {
+        this.configuration = configuration;
+        this.web2SecretRepository = web2SecretRepository;
+        this.web3SecretRepository = web3SecretRepository;
+        this.teeTaskComputeSecretRepository = teeTaskComputeSecretRepository;
+        this.web2SecretService = web2SecretService;
+        this.web3SecretService = web3SecretService;
+        this.teeTaskComputeSecretService = teeTaskComputeSecretService;
+        this.web2CacheSecretService = web2CacheSecretService;
+        this.web3CacheSecretService = web3CacheSecretService;
+        this.teeTaskComputeCacheSecretService = teeTaskComputeCacheSecretService;
+        this.adminService = adminService;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        final long start = System.currentTimeMillis();
+        secretLog = new SecretLog(Path.of(configuration.getLogPath()), configuration.getLogGrowthSize().toBytes());
+        logRecords = secretLog.replay(this::replay);
+        // evictions of secrets stored right before a crash may be missing from the log
+        final boolean matchesDatabase = logClosed
+                && web2Secrets.size() == web2SecretRepository.count()
+                && web3Secrets.size() == web3SecretRepository.count()
+                && computeSecrets.size() == teeTaskComputeSecretRepository.count();
+        log.info("Replayed secret log [records:{}, closed:{}, matchesDatabase:{}, duration:{} ms]",
+                logRecords, logClosed, matchesDatabase, System.currentTimeMillis() - start);
+        if (!matchesDatabase) {
+            reload();
+        }
+        web2Secrets.setListeners(this::onPut, this::onEvict);
+        web3Secrets.setListeners(this::onPut, this::onEvict);
+        computeSecrets.setListeners(this::onPut, this::onEvict);
+        web2CacheSecretService.addSecretStoredListener(web2Secrets::evict);
+        web3CacheSecretService.addSecretStoredListener(web3Secrets::evict);
+        teeTaskComputeCacheSecretService.addSecretStoredListener(computeSecrets::evict);
+        // a restored backup replaces all secrets, they are read from the database until loaded again
+        adminService.addDatabaseRestoredListener(this::unloadAll);
+        adminService.addOnlineStateListener(online -> {
+            if (Boolean.TRUE.equals(online) && reloadRequired) {
+                reloadExecutorService.execute(this::reloadRestoredSecrets);
+            }
+        });
+        web2SecretService.setResidentSecrets(web2Secrets);
+        web3SecretService.setResidentSecrets(web3Secrets);
+        teeTaskComputeSecretService.setResidentSecrets(computeSecrets);
+        tables.forEach(table -> Gauge.builder(METRIC_ENTRIES, table::size)
+                .tags("table", table.getName())
+                .register(Metrics.globalRegistry));
+        Gauge.builder(METRIC_LOG_SIZE, secretLog::size)
+                .baseUnit("bytes")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Removes all secrets from memory and from the log, run while the SMS is offline.
+     */
+    void unloadAll() {
+        reloadRequired = true;
+        tables.forEach(ResidentSecretTable::clear);
+        awaitPendingAppends();
+        compact();
+        log.info("Unloaded all secrets of restored database");
+    }
+
+    void reloadRestoredSecrets() {
+        if (!reloadRequired) {
+            return;
+        }
+        try {
+            reload();
+            reloadRequired = false;
+        } catch (RuntimeException e) {
+            // missing secrets are read from the database
+            log.error("Failed to load secrets of restored database", e);
+        }
+    }
+
+    /**
+     * Reads all secrets from the database and rewrites the log with them.
+     * <p>
+     * The store lock is only taken to rewrite the log, table locks are taken before the store lock by lookups.
+     */
+    void reload() {
+        final long start = System.currentTimeMillis();
+        tables.forEach(ResidentSecretTable::clear);
+        loadAll(web2SecretRepository, web2Secrets);
+        loadAll(web3SecretRepository, web3Secrets);
+        loadAll(teeTaskComputeSecretRepository, computeSecrets);
+        awaitPendingAppends();
+        compact();
+        log.info("Loaded all secrets from database [web2:{}, web3:{}, compute:{}, duration:{} ms]",
+                web2Secrets.size(), web3Secrets.size(), computeSecrets.size(), System.currentTimeMillis() - start);
+    }
+
+    private static <K, S> void loadAll(final JpaRepository<S, K> repository, final ResidentSecretTable<K, S> table) {
+        boolean loaded;
+        do {
+            final long evictionsBeforeLoad = table.getEvictions();
+            // secrets read while a secret is stored may hold its previous value, they are read again
+            loaded = table.loadAll(repository.findAll(), evictionsBeforeLoad);
+        } while (!loaded);
+    }
+
+    /**
+     * Rewrites the log when obsolete records exceed the configured ratio or when a previous append failed.
+     */
+    @Scheduled(fixedDelayString = "${secrets.resident.compaction-interval}")
+    synchronized void compactIfNeeded() {
+        final int liveRecords = tables.stream().mapToInt(ResidentSecretTable::size).sum();
+        if (compactionRequired || logRecords - liveRecords > configuration.getCompactionRatio() * logRecords) {
+            compact();
+        }
+    }
+
+    private synchronized void compact() {
+        final List<byte[]> payloads = new ArrayList<>();
+        tables.forEach(table -> addPutPayloads(table, payloads));
+        try {
+            final int previousSize = secretLog.size();
+            secretLog.rewrite(payloads);
+            log.info("Compacted secret log [previousRecords:{}, records:{}, previousSize:{}, size:{}]",
+                    logRecords, payloads.size(), previousSize, secretLog.size());
+            logRecords = payloads.size();
+            compactionRequired = false;
+        } catch (IOException e) {
+            log.error("Failed to compact secret log", e);
+            compactionRequired = true;
+        }
+    }
+
+    private <K, S> void addPutPayloads(final ResidentSecretTable<K, S> table, final List<byte[]> payloads) {
+        for (final S secret : table.values()) {
+            payloads.add(encode(OPERATION_PUT, table, secret));
+        }
+    }
+
+    /**
+     * Queues the record of a secret kept in memory.
+     * Listeners are called under the table lock, records are then queued in the order of the changes.
+     */
+    private <K, S> void onPut(final ResidentSecretTable<K, S> table, final S secret) {
+        appendExecutorService.execute(() -> append(encode(OPERATION_PUT, table, secret)));
+    }
+
+    private <K, S> void onEvict(final ResidentSecretTable<K, S> table, final S secret) {
+        appendExecutorService.execute(() -> append(encode(OPERATION_EVICT, table, secret)));
+    }
+
+    /**
+     * Waits for queued records to be appended, so that records of cleared secrets are dropped by the next compaction.
+     */
+    private void awaitPendingAppends() {
+        try {
+            appendExecutorService.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Failed to wait for pending appends to secret log", e);
+        }
+    }
+
+    private synchronized void append(final byte[] payload) {
+        try {
+            secretLog.append(payload);
+            logRecords++;
+        } catch (IOException e) {
+            // memory is up to date, the log is rewritten from memory on next compaction
+            log.error("Failed to append to secret log", e);
+            compactionRequired = true;
+        }
+    }
+
+    /**
+     * Encodes a record as its operation, its table index, its number of fields and each field as UTF-8 bytes.
+     */
+    private <K, S> byte[] encode(final byte operation, final ResidentSecretTable<K, S> table, final S secret) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(operation);
+            out.writeByte(tables.indexOf(table));
+            final List<String> fields = table.encode(secret);
+            out.writeShort(fields.size());
+            for (final String field : fields) {
+                final byte[] fieldBytes = field.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(fieldBytes.length);
+                out.write(fieldBytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void replay(final ByteBuffer payload) {
+        final byte operation = payload.get();
+        logClosed = operation == OPERATION_CLOSE;
+        if (!logClosed) {
+            replay(operation, tables.get(payload.get()), payload);
+        }
+    }
+
+    private <K, S> void replay(final byte operation, final ResidentSecretTable<K, S> table, final ByteBuffer payload) {
+        final int fieldCount = payload.getShort();
+        final List<String> fields = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            final byte[] fieldBytes = new byte[payload.getInt()];
+            payload.get(fieldBytes);
+            fields.add(new String(fieldBytes, StandardCharsets.UTF_8));
+        }
+        final S secret = table.decode(fields);
+        if (operation == OPERATION_PUT) {
+            table.load(secret);
+        } else {
+            table.unload(secret);
+        }
+    }
+
+    int getLogSize() {
+        awaitPendingAppends();
+        return secretLog.size();
+    }
+
+    /**
+     * Appends a close record if all secrets kept in memory and evictions are in the log, then closes the log.
+     * <p>
+     * The store is closed after the web server stopped, no secret is stored anymore.
+     */
+    @PreDestroy
+    void close() throws IOException {
+        reloadExecutorService.shutdownNow();
+        appendExecutorService.shutdown();
+        boolean appendsCompleted;
+        try {
+            appendsCompleted = appendExecutorService.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            appendsCompleted = false;
+        }
+        synchronized (this) {
+            if (compactionRequired) {
+                compact();
+            }
+            if (appendsCompleted && !compactionRequired && !reloadRequired) {
+                append(new byte[]{OPERATION_CLOSE});
+            }
+        }
+        secretLog.close();
+    }
+}
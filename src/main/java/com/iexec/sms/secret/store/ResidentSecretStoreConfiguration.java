@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret.store;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "secrets.resident")
+public class ResidentSecretStoreConfiguration {
+    /**
+     * Whether encrypted secrets are kept in memory, the database remaining the reference.
+     */
+    boolean enabled;
+    /**
+     * Path of the log persisting secrets kept in memory across restarts.
+     */
+    @NotBlank(message = "Log path must not be blank")
+    String logPath;
+    /**
+     * Size by which the memory mapping of the log is extended when full.
+     */
+    @NotNull(message = "Log growth size must not be null")
+    DataSize logGrowthSize;
+    /**
+     * Interval between two consecutive checks of the log for compaction.
+     */
+    @NotNull(message = "Compaction interval must not be null")
+    Duration compactionInterval;
+    /**
+     * Ratio of obsolete records above which the log is compacted.
+     */
+    @DecimalMin(value = "0", message = "Compaction ratio must be between 0 and 1")
+    @DecimalMax(value = "1", message = "Compaction ratio must be between 0 and 1")
+    double compactionRatio;
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret.store;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Encrypted secrets of a table kept in memory.
+ * <p>
+ * Lookups of missing secrets are read from the database and kept in memory once found.
+ * Stored secrets are evicted, so that the next lookup reads their new value.
+ *
+ * @param <K> Type of secret headers
+ * @param <S> Type of secrets
+ */
+public class ResidentSecretTable<K, S> {
+    static final String METRIC_LOOKUPS = "iexec.sms.secrets.resident.lookups";
+
+    @Getter
+    private final String name;
+    private final Function<S, K> headerOf;
+    private final Function<S, List<String>> encoder;
+    private final Function<List<String>, S> decoder;
+    private final Map<K, S> secrets = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private BiConsumer<ResidentSecretTable<K, S>, S> putListener = (table, secret) -> {
+    };
+    private BiConsumer<ResidentSecretTable<K, S>, S> evictListener = (table, secret) -> {
+    };
+    private long evictions;
+
+    /**
+     * @param name     Name of the table
+     * @param headerOf Returns the header of a secret
+     * @param encoder  Returns the fields of a secret, its encrypted value being the last field
+     * @param decoder  Builds a secret from its fields
+     */
+    public ResidentSecretTable(final String name,
+                               final Function<S, K> headerOf,
+                               final Function<S, List<String>> encoder,
+                               final Function<List<String>, S> decoder) {
+        this.name = name;
+        this.headerOf = headerOf;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.hits = Metrics.counter(METRIC_LOOKUPS, "table", name, "result", "hit");
+        this.misses = Metrics.counter(METRIC_LOOKUPS, "table", name, "result", "miss");
+    }
+
+    void setListeners(final BiConsumer<ResidentSecretTable<K, S>, S> putListener,
+                      final BiConsumer<ResidentSecretTable<K, S>, S> evictListener) {
+        this.putListener = putListener;
+        this.evictListener = evictListener;
+    }
+
+    /**
+     * Returns a secret, reading it from the database if it is not in memory.
+     *
+     * @param header Header of the secret
+     * @param loader Reads a secret from the database
+     * @return The secret with its encrypted value, or an empty {@link Optional} if it does not exist
+     */
+    public Optional<S> find(final K header, final Function<K, Optional<S>> loader) {
+        final S secret = secrets.get(header);
+        if (secret != null) {
+            hits.increment();
+            return Optional.of(secret);
+        }
+        misses.increment();
+        final long evictionsBeforeLoad = getEvictions();
+        final Optional<S> loadedSecret = loader.apply(header);
+        loadedSecret.ifPresent(s -> admit(s, evictionsBeforeLoad));
+        return loadedSecret;
+    }
+
+    /**
+     * Returns secrets, reading those which are not in memory from the database with a single call.
+     *
+     * @param headers Headers of the secrets
+     * @param loader  Reads secrets from the database
+     * @return Existing secrets with their encrypted values, in no particular order
+     */
+    public List<S> findAll(final Iterable<K> headers, final Function<List<K>, List<S>> loader) {
+        final List<S> found = new ArrayList<>();
+        final List<K> missing = new ArrayList<>();
+        for (final K header : headers) {
+            final S secret = secrets.get(header);
+            if (secret != null) {
+                found.add(secret);
+            } else {
+                missing.add(header);
+            }
+        }
+        hits.increment(found.size());
+        if (!missing.isEmpty()) {
+            misses.increment(missing.size());
+            final long evictionsBeforeLoad = getEvictions();
+            final List<S> loadedSecrets = loader.apply(missing);
+            loadedSecrets.forEach(secret -> admit(secret, evictionsBeforeLoad));
+            found.addAll(loadedSecrets);
+        }
+        return found;
+    }
+
+    /**
+     * Keeps a secret read from the database, unless a secret was evicted while reading it,
+     * in which case the read value may be outdated.
+     */
+    private synchronized void admit(final S secret, final long evictionsBeforeLoad) {
+        if (evictions == evictionsBeforeLoad && secrets.putIfAbsent(headerOf.apply(secret), secret) == null) {
+            putListener.accept(this, secret);
+        }
+    }
+
+    /**
+     * Removes a secret from memory.
+     *
+     * @param header Header of the secret
+     */
+    public synchronized void evict(final K header) {
+        evictions++;
+        final S secret = secrets.remove(header);
+        if (secret != null) {
+            evictListener.accept(this, secret);
+        }
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Keeps a secret without notifying listeners, used when replaying.
+     */
+    void load(final S secret) {
+        secrets.put(headerOf.apply(secret), secret);
+    }
+
+    /**
+     * Keeps secrets read from the database without notifying listeners, unless a secret was evicted while reading them.
+     *
+     * @return {@code true} if secrets have been kept, {@code false} if they must be read again
+     */
+    synchronized boolean loadAll(final List<S> loadedSecrets, final long evictionsBeforeLoad) {
+        if (evictions != evictionsBeforeLoad) {
+            return false;
+        }
+        loadedSecrets.forEach(this::load);
+        return true;
+    }
+
+    /**
+     * Removes a secret without notifying listeners, used when replaying.
+     */
+    void unload(final S secret) {
+        secrets.remove(headerOf.apply(secret));
+    }
+
+    synchronized void clear() {
+        evictions++;
+        secrets.clear();
+    }
+
+    public int size() {
+        return secrets.size();
+    }
+
+    Collection<S> values() {
+        return secrets.values();
+    }
+
+    List<String> encode(final S secret) {
+        return encoder.apply(secret);
+    }
+
+    S decode(final List<String> fields) {
+        return decoder.apply(fields);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of checksummed records, written through a memory mapping.
+ * <p>
+ * Each record holds the length of its payload, the CRC32 of its payload and its payload.
+ * The mapping is extended by a fixed size when full, unused bytes are zeros and a zero length marks the end of the log.
+ * Replay stops at the first truncated or corrupted record, which is overwritten by the next append.
+ * <p>
+ * Appended records are only flushed to the storage device on rewrite and on close,
+ * a log which was not closed may miss records written by the operating system after a crash.
+ */
+@Slf4j
+public class SecretLog implements Closeable {
+    static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+
+    private final Path path;
+    private final long growthSize;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+
+    public SecretLog(final Path path, final long growthSize) throws IOException {
+        this.path = path;
+        this.growthSize = growthSize;
+        map();
+    }
+
+    private void map() throws IOException {
+        channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), growthSize));
+        position = 0;
+    }
+
+    /**
+     * Reads all valid records from the beginning of the log.
+     *
+     * @param consumer Receives the read-only payload of each record, in append order
+     * @return The number of records read
+     */
+    public synchronized int replay(final Consumer<ByteBuffer> consumer) {
+        position = 0;
+        int count = 0;
+        while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            final int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER_SIZE) {
+                break;
+            }
+            final ByteBuffer payload = buffer.slice(position + RECORD_HEADER_SIZE, length);
+            if (buffer.getInt(position + Integer.BYTES) != checksum(payload)) {
+                log.warn("Corrupted record found in secret log, ignoring end of log [path:{}, position:{}]",
+                        path, position);
+                break;
+            }
+            consumer.accept(payload.asReadOnlyBuffer());
+            position += RECORD_HEADER_SIZE + length;
+            count++;
+        }
+        clearTail();
+        return count;
+    }
+
+    /**
+     * Zeroes bytes following the last valid record, so that a later shorter record is not followed by garbage.
+     */
+    private void clearTail() {
+        if (position + Integer.BYTES > buffer.capacity() || buffer.getInt(position) == 0) {
+            return;
+        }
+        for (int i = position; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+    }
+
+    /**
+     * Appends a record, without flushing it to the storage device.
+     *
+     * @param payload Payload of the record
+     * @throws IOException if the log cannot be extended
+     */
+    public synchronized void append(final byte[] payload) throws IOException {
+        final int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if ((long) position + recordSize + Integer.BYTES > buffer.capacity()) {
+            final long newSize = buffer.capacity() + Math.max(growthSize, recordSize + Integer.BYTES);
+            if (newSize > Integer.MAX_VALUE) {
+                throw new IOException("Secret log is full, it must be compacted");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+        }
+        buffer.putInt(position + Integer.BYTES, checksum(ByteBuffer.wrap(payload)));
+        buffer.put(position + RECORD_HEADER_SIZE, payload);
+        // length is written last, a record is only visible once complete
+        buffer.putInt(position, payload.length);
+        position += recordSize;
+    }
+
+    /**
+     * Replaces the content of the log with the given records.
+     * <p>
+     * Records are written to a temporary file which then atomically replaces the log.
+     *
+     * @param payloads Payloads of the records of the new log
+     * @throws IOException if the new log cannot be written
+     */
+    public synchronized void rewrite(final List<byte[]> payloads) throws IOException {
+        final Path compactedPath = path.resolveSibling(path.getFileName() + ".compacted");
+        Files.deleteIfExists(compactedPath);
+        try (SecretLog compactedLog = new SecretLog(compactedPath, growthSize)) {
+            for (final byte[] payload : payloads) {
+                compactedLog.append(payload);
+            }
+        }
+        channel.close();
+        Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map();
+        replay(payload -> {
+        });
+    }
+
+    /**
+     * @return Number of bytes used by valid records
+     */
+    public synchronized int size() {
+        return position;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private static int checksum(final ByteBuffer payload) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(payload.duplicate());
+        return (int) crc32.getValue();
+    }
+}
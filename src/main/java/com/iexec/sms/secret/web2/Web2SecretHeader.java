@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package com.iexec.sms.secret.web2;
 
+import com.iexec.sms.secret.AddressConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
@@ -31,7 +34,11 @@ import java.util.Objects;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Web2SecretHeader implements Serializable {
     private static final long serialVersionUID = -6126999592529129002L;
+    @Convert(converter = AddressConverter.class)
+    @Column(length = AddressConverter.COLUMN_LENGTH)
     private String ownerAddress;
+    @Convert(converter = AddressConverter.class)
+    @Column(length = AddressConverter.COLUMN_LENGTH)
     private String address; //0xdataset1, aws.amazon.com, beneficiary.key.iex.ec (Kb)
 
     public Web2SecretHeader(String ownerAddress, String address) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,14 +17,20 @@
 package com.iexec.sms.secret.web2;
 
 import com.iexec.sms.encryption.EncryptionService;
+import com.iexec.sms.secret.AddressConverter;
 import com.iexec.sms.secret.CacheSecretService;
 import com.iexec.sms.secret.MeasuredSecretService;
+import com.iexec.sms.secret.SecretBatchInserter;
+import com.iexec.sms.secret.SecretExistenceChecker;
+import com.iexec.sms.secret.SecretWriteCombiner;
+import com.iexec.sms.secret.store.ResidentSecretTable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Objects;
@@ -33,24 +39,49 @@ import java.util.Optional;
 @Slf4j
 @Service
 public class Web2SecretService {
+    private static final String INSERT_SQL = "INSERT INTO \"web2secret\" (\"owner_address\", \"address\", \"encrypted_value\") VALUES (?, ?, ?)";
+
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
     private final Web2SecretRepository web2SecretRepository;
     private final EncryptionService encryptionService;
     private final MeasuredSecretService measuredSecretService;
     private final CacheSecretService<Web2SecretHeader> cacheSecretService;
+    private volatile ResidentSecretTable<Web2SecretHeader, Web2Secret> residentSecrets;
+    private volatile SecretWriteCombiner<Web2Secret> writeCombiner;
 
     protected Web2SecretService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
                                 Web2SecretRepository web2SecretRepository,
                                 EncryptionService encryptionService,
                                 MeasuredSecretService web2MeasuredSecretService,
                                 CacheSecretService<Web2SecretHeader> web2CacheSecretService) {
         this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
         this.web2SecretRepository = web2SecretRepository;
         this.encryptionService = encryptionService;
         this.measuredSecretService = web2MeasuredSecretService;
         this.cacheSecretService = web2CacheSecretService;
     }
 
+    /**
+     * Reads secrets from memory instead of the database, missing secrets being read from the database.
+     *
+     * @param residentSecrets Secrets kept in memory
+     */
+    public void setResidentSecrets(final ResidentSecretTable<Web2SecretHeader, Web2Secret> residentSecrets) {
+        this.residentSecrets = residentSecrets;
+    }
+
+    /**
+     * Inserts new secrets with concurrent ones, {@link #addEncryptedSecrets} then storing them in batches.
+     *
+     * @param writeCombiner Combiner of concurrent inserts, {@literal null} to insert each secret on its own
+     */
+    public void setWriteCombiner(final SecretWriteCombiner<Web2Secret> writeCombiner) {
+        this.writeCombiner = writeCombiner;
+    }
+
     /**
      * Get the secret as it was saved in DB.
      * Its value should then be encrypted.
@@ -61,17 +92,25 @@ public class Web2SecretService {
      * an {@link Optional} containing the secret if it exists.
      */
     Optional<Web2Secret> getSecret(String ownerAddress, String secretAddress) {
-        return web2SecretRepository.findById(new Web2SecretHeader(ownerAddress, secretAddress));
+        final Web2SecretHeader header = new Web2SecretHeader(ownerAddress, secretAddress);
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> resident = residentSecrets;
+        return resident != null
+                ? resident.find(header, web2SecretRepository::findById)
+                : web2SecretRepository.findById(header);
     }
 
     public Optional<String> getDecryptedValue(String ownerAddress, String secretAddress) {
         return getSecret(ownerAddress, secretAddress)
-                .map(secret -> encryptionService.decrypt(secret.getValue()));
+                .map(secret -> encryptionService.decrypt(secret.getBinaryValue()));
     }
 
     public List<Web2Secret> getSecretsForTeeSession(Iterable<Web2SecretHeader> ids) {
-        return web2SecretRepository.findAllById(ids).stream()
-                .map(secret -> secret.withValue(encryptionService.decrypt(secret.getValue())))
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> resident = residentSecrets;
+        final List<Web2Secret> secrets = resident != null
+                ? resident.findAll(ids, web2SecretRepository::findAllById)
+                : web2SecretRepository.findAllById(ids);
+        return secrets.stream()
+                .map(secret -> secret.withValue(encryptionService.decrypt(secret.getBinaryValue())))
                 .toList();
     }
 
@@ -81,11 +120,24 @@ public class Web2SecretService {
         if (found != null) {
             return found;
         }
-        final boolean isPresentInDB = getSecret(ownerAddress, secretAddress).isPresent();
+        final boolean isPresentInDB = web2SecretRepository.existsById(key);
         cacheSecretService.putSecretExistenceInCache(key, isPresentInDB);
         return isPresentInDB;
     }
 
+    /**
+     * Checks the existence of many secrets with at most one query.
+     *
+     * @param headers Headers of the secrets.
+     * @return For each header at the same index, whether the secret exists.
+     */
+    public List<Boolean> areSecretsPresent(List<Web2SecretHeader> headers) {
+        return SecretExistenceChecker.areSecretsPresent(jdbcTemplate, cacheSecretService,
+                "web2secret", List.of("owner_address", "address"),
+                headers,
+                header -> List.of(AddressConverter.toBinary(header.getOwnerAddress()), AddressConverter.toBinary(header.getAddress())));
+    }
+
     /**
      * Creates and saves a new {@link Web2Secret}.
      * If a secret with same {@code ownerAddress}/{@code secretAddress} couple already exists, then cancels the save.
@@ -99,15 +151,20 @@ public class Web2SecretService {
         try {
             final String encryptedValue = encryptionService.encrypt(secretValue);
             final Web2Secret web2Secret = new Web2Secret(ownerAddress, secretAddress, encryptedValue);
-            final int result = jdbcTemplate.update("INSERT INTO \"web2secret\" (\"owner_address\", \"address\", \"value\") VALUES (?, ?, ?)",
-                    web2Secret.getHeader().getOwnerAddress(), web2Secret.getHeader().getAddress(), web2Secret.getValue());
+            final SecretWriteCombiner<Web2Secret> combiner = writeCombiner;
+            if (combiner != null) {
+                return combiner.write(web2Secret);
+            }
+            final int result = jdbcTemplate.update(INSERT_SQL,
+                    AddressConverter.toBinary(web2Secret.getHeader().getOwnerAddress()), AddressConverter.toBinary(web2Secret.getHeader().getAddress()),
+                    web2Secret.getBinaryValue());
             // With SQL INSERT INTO and a single set VALUES, at most 1 row can be added and result can only be 0 or 1
             // When value should be 0, an exception should have been thrown
             // This check is only there as a fallback and cannot be reached in tests at the moment
             if (result != 1) {
                 throw new IncorrectResultSizeDataAccessException("Data insert did not work but did not produce an exception", 1);
             }
-            cacheSecretService.putSecretExistenceInCache(web2Secret.getHeader(), true);
+            cacheSecretService.secretStored(web2Secret.getHeader());
             measuredSecretService.newlyAddedSecret();
             return true;
         } catch (DuplicateKeyException e) {
@@ -120,6 +177,26 @@ public class Web2SecretService {
         return false;
     }
 
+    /**
+     * Stores already encrypted secrets with a single batch.
+     *
+     * @param secrets Secrets whose values have been encrypted.
+     * @return For each secret at the same index, {@code true} if it has been added,
+     * {@code false} if it already exists or could not be stored.
+     */
+    public List<Boolean> addEncryptedSecrets(List<Web2Secret> secrets) {
+        final List<Boolean> results = SecretBatchInserter.insert(jdbcTemplate, transactionTemplate, INSERT_SQL, secrets,
+                (ps, secret) -> {
+                    ps.setBytes(1, AddressConverter.toBinary(secret.getHeader().getOwnerAddress()));
+                    ps.setBytes(2, AddressConverter.toBinary(secret.getHeader().getAddress()));
+                    ps.setBytes(3, secret.getBinaryValue());
+                });
+        final long added = SecretBatchInserter.recordAddedSecrets(secrets, results, Web2Secret::getHeader,
+                cacheSecretService, measuredSecretService);
+        log.info("Added web2 secrets batch [added:{}, size:{}]", added, secrets.size());
+        return results;
+    }
+
     /**
      * Updates an existing {@link Web2Secret}.
      * If the secret does not already exist, then cancels the save.
@@ -148,6 +225,6 @@ public class Web2SecretService {
 
         final Web2Secret newSecret = secret.withValue(encryptedValue);
         final Web2Secret savedSecret = web2SecretRepository.save(newSecret);
-        cacheSecretService.putSecretExistenceInCache(savedSecret.getHeader(), true);
+        cacheSecretService.secretStored(savedSecret.getHeader());
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package com.iexec.sms.secret.web3;
 
+import com.iexec.sms.secret.AddressConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
@@ -31,6 +34,8 @@ import java.util.Objects;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Web3SecretHeader implements Serializable {
     private static final long serialVersionUID = -6181164795694317827L;
+    @Convert(converter = AddressConverter.class)
+    @Column(length = AddressConverter.COLUMN_LENGTH)
     private String address;
 
     Web3SecretHeader(String address) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,39 +17,71 @@
 package com.iexec.sms.secret.web3;
 
 import com.iexec.sms.encryption.EncryptionService;
+import com.iexec.sms.secret.AddressConverter;
 import com.iexec.sms.secret.CacheSecretService;
 import com.iexec.sms.secret.MeasuredSecretService;
+import com.iexec.sms.secret.SecretBatchInserter;
+import com.iexec.sms.secret.SecretExistenceChecker;
+import com.iexec.sms.secret.SecretWriteCombiner;
+import com.iexec.sms.secret.store.ResidentSecretTable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
 @Service
 public class Web3SecretService {
+    private static final String INSERT_SQL = "INSERT INTO \"web3secret\" (\"address\", \"encrypted_value\") VALUES (?, ?)";
+
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
     private final Web3SecretRepository web3SecretRepository;
     private final EncryptionService encryptionService;
     private final MeasuredSecretService measuredSecretService;
 
     private final CacheSecretService<Web3SecretHeader> cacheSecretService;
+    private volatile ResidentSecretTable<Web3SecretHeader, Web3Secret> residentSecrets;
+    private volatile SecretWriteCombiner<Web3Secret> writeCombiner;
 
     protected Web3SecretService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
                                 Web3SecretRepository web3SecretRepository,
                                 EncryptionService encryptionService,
                                 MeasuredSecretService web3MeasuredSecretService,
                                 CacheSecretService<Web3SecretHeader> web3CacheSecretService) {
         this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
         this.web3SecretRepository = web3SecretRepository;
         this.encryptionService = encryptionService;
         this.measuredSecretService = web3MeasuredSecretService;
         this.cacheSecretService = web3CacheSecretService;
     }
 
+    /**
+     * Reads secrets from memory instead of the database, missing secrets being read from the database.
+     *
+     * @param residentSecrets Secrets kept in memory
+     */
+    public void setResidentSecrets(final ResidentSecretTable<Web3SecretHeader, Web3Secret> residentSecrets) {
+        this.residentSecrets = residentSecrets;
+    }
+
+    /**
+     * Inserts new secrets with concurrent ones, {@link #addEncryptedSecrets} then storing them in batches.
+     *
+     * @param writeCombiner Combiner of concurrent inserts, {@literal null} to insert each secret on its own
+     */
+    public void setWriteCombiner(final SecretWriteCombiner<Web3Secret> writeCombiner) {
+        this.writeCombiner = writeCombiner;
+    }
+
     /**
      * Get the secret as it was saved in DB.
      * Its value should then be encrypted.
@@ -59,12 +91,16 @@ public class Web3SecretService {
      * an {@link Optional} containing the secret if it exists.
      */
     Optional<Web3Secret> getSecret(String secretAddress) {
-        return web3SecretRepository.findById(new Web3SecretHeader(secretAddress));
+        final Web3SecretHeader header = new Web3SecretHeader(secretAddress);
+        final ResidentSecretTable<Web3SecretHeader, Web3Secret> resident = residentSecrets;
+        return resident != null
+                ? resident.find(header, web3SecretRepository::findById)
+                : web3SecretRepository.findById(header);
     }
 
     public Optional<String> getDecryptedValue(String secretAddress) {
         return getSecret(secretAddress)
-                .map(secret -> encryptionService.decrypt(secret.getValue()));
+                .map(secret -> encryptionService.decrypt(secret.getBinaryValue()));
     }
 
     public boolean isSecretPresent(String secretAddress) {
@@ -73,11 +109,24 @@ public class Web3SecretService {
         if (found != null) {
             return found;
         }
-        final boolean isPresentInDB = getSecret(secretAddress).isPresent();
+        final boolean isPresentInDB = web3SecretRepository.existsById(key);
         cacheSecretService.putSecretExistenceInCache(key, isPresentInDB);
         return isPresentInDB;
     }
 
+    /**
+     * Checks the existence of many secrets with at most one query.
+     *
+     * @param secretAddresses Addresses of the secrets.
+     * @return For each address at the same index, whether the secret exists.
+     */
+    public List<Boolean> areSecretsPresent(List<String> secretAddresses) {
+        return SecretExistenceChecker.areSecretsPresent(jdbcTemplate, cacheSecretService,
+                "web3secret", List.of("address"),
+                secretAddresses.stream().map(Web3SecretHeader::new).toList(),
+                header -> List.of(AddressConverter.toBinary(header.getAddress())));
+    }
+
     /*
      *
      * Stores encrypted secrets
@@ -89,15 +138,19 @@ public class Web3SecretService {
                     secretAddress, encryptedValue);
 
             final Web3Secret web3Secret = new Web3Secret(secretAddress, encryptedValue);
-            final int result = jdbcTemplate.update("INSERT INTO \"web3secret\" (\"address\", \"value\") VALUES (?, ?)",
-                    web3Secret.getHeader().getAddress(), web3Secret.getValue());
+            final SecretWriteCombiner<Web3Secret> combiner = writeCombiner;
+            if (combiner != null) {
+                return combiner.write(web3Secret);
+            }
+            final int result = jdbcTemplate.update(INSERT_SQL,
+                    AddressConverter.toBinary(web3Secret.getHeader().getAddress()), web3Secret.getBinaryValue());
             // With SQL INSERT INTO and a single set VALUES, at most 1 row can be added and result can only be 0 or 1
             // When value should be 0, an exception should have been thrown
             // This check is only there as a fallback and cannot be reached in tests at the moment
             if (result != 1) {
                 throw new IncorrectResultSizeDataAccessException("Data insert did not work but did not produce an exception", 1);
             }
-            cacheSecretService.putSecretExistenceInCache(web3Secret.getHeader(), true);
+            cacheSecretService.secretStored(web3Secret.getHeader());
             measuredSecretService.newlyAddedSecret();
             return true;
         } catch (DuplicateKeyException e) {
@@ -109,4 +162,23 @@ public class Web3SecretService {
         }
         return false;
     }
+
+    /**
+     * Stores already encrypted secrets with a single batch.
+     *
+     * @param secrets Secrets whose values have been encrypted.
+     * @return For each secret at the same index, {@code true} if it has been added,
+     * {@code false} if it already exists or could not be stored.
+     */
+    public List<Boolean> addEncryptedSecrets(List<Web3Secret> secrets) {
+        final List<Boolean> results = SecretBatchInserter.insert(jdbcTemplate, transactionTemplate, INSERT_SQL, secrets,
+                (ps, secret) -> {
+                    ps.setBytes(1, AddressConverter.toBinary(secret.getHeader().getAddress()));
+                    ps.setBytes(2, secret.getBinaryValue());
+                });
+        final long added = SecretBatchInserter.recordAddedSecrets(secrets, results, Web3Secret::getHeader,
+                cacheSecretService, measuredSecretService);
+        log.info("Added web3 secrets batch [added:{}, size:{}]", added, secrets.size());
+        return results;
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.ssl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.io.CloseMode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closes an HTTP client once it has been released by its owner and by all requests in progress.
+ * <p>
+ * A request holds a reference on the client from its execution until its response is closed,
+ * a replaced client is then never closed under a request still using it.
+ * Requests of the delegate factory supporting streaming keep supporting it, bodies are then not buffered.
+ */
+@Slf4j
+class ReferenceCountedRequestFactory implements ClientHttpRequestFactory {
+    private final ClientHttpRequestFactory delegate;
+    private final CloseableHttpClient httpClient;
+    // the owner holds the first reference until it releases the client
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    ReferenceCountedRequestFactory(CloseableHttpClient httpClient) {
+        this(new HttpComponentsClientHttpRequestFactory(httpClient), httpClient);
+    }
+
+    ReferenceCountedRequestFactory(ClientHttpRequestFactory delegate, CloseableHttpClient httpClient) {
+        this.delegate = delegate;
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return new ReferenceCountedRequest(delegate.createRequest(uri, httpMethod));
+    }
+
+    /**
+     * Releases the reference held by the owner of the client.
+     * The client is closed now if no request is in progress, or else when the last one completes.
+     */
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            log.debug("Closing released HTTP client");
+            httpClient.close(CloseMode.GRACEFUL);
+        }
+    }
+
+    boolean isClosed() {
+        return references.get() == 0;
+    }
+
+    private boolean retain() {
+        int current;
+        do {
+            current = references.get();
+            if (current == 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private class ReferenceCountedRequest extends HttpRequestWrapper
+            implements ClientHttpRequest, StreamingHttpOutputMessage {
+        ReferenceCountedRequest(ClientHttpRequest request) {
+            super(request);
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return ((ClientHttpRequest) getRequest()).getBody();
+        }
+
+        @Override
+        public void setBody(Body body) {
+            if (getRequest() instanceof StreamingHttpOutputMessage streamingRequest) {
+                streamingRequest.setBody(body);
+                return;
+            }
+            try {
+                body.writeTo(getBody());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            if (!retain()) {
+                throw new IOException("HTTP client has been closed after a keystore reload");
+            }
+            try {
+                return new ReferenceCountedResponse(((ClientHttpRequest) getRequest()).execute());
+            } catch (IOException | RuntimeException e) {
+                release();
+                throw e;
+            }
+        }
+    }
+
+    private class ReferenceCountedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReferenceCountedResponse(ClientHttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    release();
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,27 +18,127 @@ package com.iexec.sms.ssl;
 
 import com.iexec.commons.poco.tee.TeeFramework;
 import com.iexec.sms.tee.ConditionalOnTeeFramework;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.io.BasicHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
 import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.core5.http.config.Registry;
 import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+@Slf4j
 @Configuration
 @ConditionalOnTeeFramework(frameworks = TeeFramework.SCONE)
 public class TwoWaySslClient {
 
+    static final String METRIC_POOL_PREFIX = "iexec.ssl.client.pool.";
+    static final String METRIC_POOL_MAX = METRIC_POOL_PREFIX + "max";
+    static final String METRIC_POOL_LEASED = METRIC_POOL_PREFIX + "leased";
+    static final String METRIC_POOL_AVAILABLE = METRIC_POOL_PREFIX + "available";
+    static final String METRIC_POOL_PENDING = METRIC_POOL_PREFIX + "pending";
+    private static final TimeValue IDLE_CONNECTION_TIMEOUT = TimeValue.ofMinutes(1);
+
     private final SslConfig sslConfig;
+    private final TwoWaySslClientConfiguration clientConfiguration;
+    private volatile PooledClient pooledClient;
 
-    public TwoWaySslClient(SslConfig sslConfig) {
+    /**
+     * Long-lived client built from a given version of the keystore.
+     * Once replaced, it is closed when requests still using it have completed.
+     */
+    private record PooledClient(FileTime keystoreLastModifiedTime,
+                                PoolingHttpClientConnectionManager connectionManager,
+                                ReferenceCountedRequestFactory requestFactory,
+                                RestTemplate restTemplate) {
+    }
+
+    public TwoWaySslClient(SslConfig sslConfig, TwoWaySslClientConfiguration clientConfiguration) {
         this.sslConfig = sslConfig;
+        this.clientConfiguration = clientConfiguration;
+        if (clientConfiguration.isPooled()) {
+            registerPoolGauge(METRIC_POOL_MAX, "Max number of connections of the 2-way SSL client pool", PoolStats::getMax);
+            registerPoolGauge(METRIC_POOL_LEASED, "Connections of the 2-way SSL client pool currently in use", PoolStats::getLeased);
+            registerPoolGauge(METRIC_POOL_AVAILABLE, "Idle connections of the 2-way SSL client pool", PoolStats::getAvailable);
+            registerPoolGauge(METRIC_POOL_PENDING, "Requests waiting for a connection of the 2-way SSL client pool", PoolStats::getPending);
+        }
+    }
+
+    /**
+     * Returns a {@link RestTemplate} for connections requiring 2-way SSL authentication.
+     * <p>
+     * When the client is pooled, the same template is returned as long as the keystore file is not modified.
+     * Connections are kept alive and reuse a single {@link SSLContext}, so TLS sessions are resumed
+     * instead of performing a full handshake on each call.
+     * A modification of the keystore file is detected on the next call, a new client is then built
+     * with the new key material and the previous one is closed once requests using it have completed.
+     * <p>
+     * When the client is not pooled, a new client with a fresh {@link SSLContext} is built on each call.
+     * This is the default, as CAS has been observed to reject calls reusing an {@link SSLContext}
+     * (see {@link #createRestTemplate()}). Pooling must only be enabled once validated against the CAS in use.
+     *
+     * @return A template configured for 2-way SSL authentication
+     */
+    public RestTemplate getRestTemplate() {
+        if (!clientConfiguration.isPooled()) {
+            return createRestTemplate();
+        }
+        final FileTime keystoreLastModifiedTime = getKeystoreLastModifiedTime();
+        PooledClient current = pooledClient;
+        if (isUpToDate(current, keystoreLastModifiedTime)) {
+            return current.restTemplate();
+        }
+        synchronized (this) {
+            current = pooledClient;
+            if (!isUpToDate(current, keystoreLastModifiedTime)) {
+                if (current != null) {
+                    log.info("Keystore modification detected, reloading 2-way SSL client [keystore:{}]",
+                            sslConfig.getKeystore());
+                }
+                pooledClient = createPooledClient(keystoreLastModifiedTime);
+                if (current != null) {
+                    current.requestFactory().release();
+                }
+                current = pooledClient;
+            }
+        }
+        return current.restTemplate();
+    }
+
+    /**
+     * A client is kept when the keystore modification time cannot be read.
+     */
+    private static boolean isUpToDate(final PooledClient client, final FileTime keystoreLastModifiedTime) {
+        return client != null && (keystoreLastModifiedTime == null
+                || Objects.equals(client.keystoreLastModifiedTime(), keystoreLastModifiedTime));
+    }
+
+    @PreDestroy
+    void close() {
+        final PooledClient current = pooledClient;
+        if (current != null) {
+            current.requestFactory().release();
+        }
     }
 
     /*
@@ -48,24 +148,65 @@ public class TwoWaySslClient {
      *
      * Note: currently not able to avoid 401 responses with feignClient (see feignClient() method starter below)
      * */
-    public RestTemplate getRestTemplate() {
-        final SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(
-                sslConfig.getFreshSslContext(),
-                NoopHostnameVerifier.INSTANCE);
+    private RestTemplate createRestTemplate() {
+        final BasicHttpClientConnectionManager connectionManager =
+                new BasicHttpClientConnectionManager(createSocketFactoryRegistry(sslConfig.getFreshSslContext()));
 
-        final Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("https", sslsf)
-                .register("http", new PlainConnectionSocketFactory())
+        final CloseableHttpClient httpClient = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
                 .build();
 
-        final BasicHttpClientConnectionManager connectionManager = new BasicHttpClientConnectionManager(socketFactoryRegistry);
+        final HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        return new RestTemplate(factory);
+    }
+
+    private PooledClient createPooledClient(final FileTime keystoreLastModifiedTime) {
+        final PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(createSocketFactoryRegistry(sslConfig.getFreshSslContext()));
+        connectionManager.setMaxTotal(clientConfiguration.getMaxConnections());
+        // All calls target the same host
+        connectionManager.setDefaultMaxPerRoute(clientConfiguration.getMaxConnections());
 
         final CloseableHttpClient httpClient = HttpClientBuilder.create()
                 .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_CONNECTION_TIMEOUT)
                 .build();
 
-        final HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
-        return new RestTemplate(factory);
+        final ReferenceCountedRequestFactory factory = new ReferenceCountedRequestFactory(httpClient);
+        return new PooledClient(keystoreLastModifiedTime, connectionManager, factory, new RestTemplate(factory));
+    }
+
+    private Registry<ConnectionSocketFactory> createSocketFactoryRegistry(final SSLContext sslContext) {
+        final SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(
+                sslContext,
+                NoopHostnameVerifier.INSTANCE);
+
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("https", sslsf)
+                .register("http", new PlainConnectionSocketFactory())
+                .build();
+    }
+
+    private FileTime getKeystoreLastModifiedTime() {
+        if (StringUtils.isEmpty(sslConfig.getKeystore())) {
+            return null;
+        }
+        try {
+            return Files.getLastModifiedTime(Path.of(sslConfig.getKeystore()));
+        } catch (IOException e) {
+            log.warn("Failed to read keystore modification time [keystore:{}]", sslConfig.getKeystore(), e);
+            return null;
+        }
+    }
+
+    private void registerPoolGauge(final String name, final String description, final ToIntFunction<PoolStats> stat) {
+        Gauge.builder(name, this, client -> {
+                    final PooledClient current = client.pooledClient;
+                    return current != null ? stat.applyAsInt(current.connectionManager().getTotalStats()) : 0;
+                })
+                .description(description)
+                .register(Metrics.globalRegistry);
     }
 
 }
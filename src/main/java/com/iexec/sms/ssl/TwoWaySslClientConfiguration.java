@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.ssl;
+
+import com.iexec.commons.poco.tee.TeeFramework;
+import com.iexec.sms.tee.ConditionalOnTeeFramework;
+import jakarta.validation.constraints.Positive;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "tee.ssl.client")
+@ConditionalOnTeeFramework(frameworks = TeeFramework.SCONE)
+public class TwoWaySslClientConfiguration {
+    /**
+     * Whether a long-lived pooled client is used for 2-way SSL calls, a new client is built on each call otherwise.
+     */
+    boolean pooled;
+    /**
+     * Max number of pooled connections.
+     */
+    @Positive(message = "Max connections must be greater than 0")
+    int maxConnections;
+}
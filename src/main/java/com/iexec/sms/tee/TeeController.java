@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,8 +27,10 @@ import com.iexec.sms.api.config.TeeServicesProperties;
 import com.iexec.sms.authorization.AuthorizationError;
 import com.iexec.sms.authorization.AuthorizationService;
 import com.iexec.sms.tee.challenge.TeeChallengeService;
+import com.iexec.sms.tee.session.TeeSessionMetrics;
 import com.iexec.sms.tee.session.TeeSessionService;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -181,7 +183,9 @@ public class TeeController {
             @RequestBody WorkerpoolAuthorization workerpoolAuthorization) {
         String workerAddress = workerpoolAuthorization.getWorkerWallet();
         String challenge = workerpoolAuthorization.getHash();
+        final Timer.Sample authorizationSample = TeeSessionMetrics.start();
         if (!authorizationService.isSignedByHimself(challenge, authorization, workerAddress)) {
+            recordAuthorization(authorizationSample, INVALID_AUTHORIZATION.name());
             final ApiResponseBody<TeeSessionGenerationResponse, TeeSessionGenerationError> body =
                     ApiResponseBody.<TeeSessionGenerationResponse, TeeSessionGenerationError>builder()
                             .error(INVALID_AUTHORIZATION)
@@ -196,6 +200,7 @@ public class TeeController {
         if (authorizationError.isPresent()) {
             final TeeSessionGenerationError teeSessionGenerationError =
                     authorizationToGenerationError.get(authorizationError.get());
+            recordAuthorization(authorizationSample, String.valueOf(teeSessionGenerationError));
 
             final ApiResponseBody<TeeSessionGenerationResponse, TeeSessionGenerationError> body =
                     ApiResponseBody.<TeeSessionGenerationResponse, TeeSessionGenerationError>builder()
@@ -206,6 +211,7 @@ public class TeeController {
                     .status(HttpStatus.UNAUTHORIZED)
                     .body(body);
         }
+        recordAuthorization(authorizationSample, TeeSessionMetrics.OUTCOME_SUCCESS);
         String taskId = workerpoolAuthorization.getChainTaskId();
         workerAddress = Keys.toChecksumAddress(workerAddress);
         String attestingEnclave = workerpoolAuthorization.getEnclaveChallenge();
@@ -244,4 +250,10 @@ public class TeeController {
                     .body(body);
         }
     }
+
+    private void recordAuthorization(final Timer.Sample sample, final String outcome) {
+        // Pipeline version is only known once the task description has been fetched
+        TeeSessionMetrics.stop(sample, TeeSessionMetrics.Stage.AUTHORIZATION,
+                teeServicesProperties != null ? teeServicesProperties.getTeeFramework() : null, null, outcome);
+    }
 }
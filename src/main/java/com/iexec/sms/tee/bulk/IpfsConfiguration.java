@@ -1,5 +1,5 @@
 /*
- * Copyright 2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2025-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,7 @@
 
 package com.iexec.sms.tee.bulk;
 
-import com.iexec.common.utils.FeignBuilder;
-import feign.Logger;
+import com.iexec.sms.http.FeignClientFactory;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -36,8 +35,8 @@ public class IpfsConfiguration {
     String gatewayUrl;
 
     @Bean
-    IpfsClient ipfsClient() {
+    IpfsClient ipfsClient(final FeignClientFactory feignClientFactory) {
         log.info("starting with ipfs located at {}", gatewayUrl);
-        return FeignBuilder.createBuilder(Logger.Level.BASIC).target(IpfsClient.class, gatewayUrl);
+        return feignClientFactory.create(IpfsClient.class, gatewayUrl);
     }
 }
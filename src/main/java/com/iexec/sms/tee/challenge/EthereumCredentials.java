@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,7 @@
 package com.iexec.sms.tee.challenge;
 
 import com.iexec.commons.poco.utils.CredentialsUtils;
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
+import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -31,18 +28,14 @@ import org.web3j.utils.Numeric;
 import java.security.GeneralSecurityException;
 
 /**
- * Domain entity
+ * Domain value, stored in the row of its TEE challenge
  */
-@Entity
+@Embeddable
 @Getter
 @NoArgsConstructor //for hibernate
 @AllArgsConstructor
 public class EthereumCredentials {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
-
     private String privateKey;
     private boolean isEncrypted;
     /*
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,35 +17,70 @@
 package com.iexec.sms.tee.challenge;
 
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 import java.security.GeneralSecurityException;
 import java.time.Instant;
 
+/**
+ * TEE challenge of a task, keyed by task ID and holding its credentials in the same row.
+ * <p>
+ * Challenges were previously stored in {@code tee_challenge} and {@code ethereum_credentials} tables,
+ * they are moved to this table by {@link TeeChallengeMigrationService}.
+ */
 @Entity
+@Table(name = "tee_task_challenge")
 @Getter
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
-public class TeeChallenge {
+public class TeeChallenge implements Persistable<String> {
 
+    /**
+     * A single challenge exists per task, even when several SMS instances share the same database.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
-
     private String taskId;
 
     private Instant finalDeadline;
 
-    @OneToOne(cascade = {CascadeType.ALL})
+    @Embedded
     private EthereumCredentials credentials;
 
-    public TeeChallenge(final String taskId, final Instant finalDeadline) throws GeneralSecurityException {
+    /**
+     * Challenges keyed by task ID are inserted without being looked up first,
+     * a concurrently created challenge is then rejected by the primary key.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean persisted;
+
+    @Builder
+    public TeeChallenge(final String taskId, final Instant finalDeadline, final EthereumCredentials credentials) {
         this.taskId = taskId;
-        this.credentials = EthereumCredentials.generate();
         this.finalDeadline = finalDeadline;
+        this.credentials = credentials;
+    }
+
+    public TeeChallenge(final String taskId, final Instant finalDeadline) throws GeneralSecurityException {
+        this(taskId, finalDeadline, EthereumCredentials.generate());
+    }
+
+    @Override
+    public String getId() {
+        return taskId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
     }
 }
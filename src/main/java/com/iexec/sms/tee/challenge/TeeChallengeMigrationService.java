@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.tee.challenge;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.tee.config.TeeChallengeMigrationConfiguration;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Moves challenges stored in {@code tee_challenge} and {@code ethereum_credentials} tables to the
+ * {@code tee_task_challenge} table, keyed by task ID and holding credentials inline.
+ * <p>
+ * Challenges are moved by chunks while the SMS keeps serving requests. A challenge looked up before being moved
+ * is moved on lookup, so that a second challenge is never created for its task. When a task has a challenge
+ * in both layouts, the challenge keyed by task ID is kept. The migration stops once legacy tables are empty
+ * and starts again when a backup is restored.
+ */
+@Slf4j
+@Service
+public class TeeChallengeMigrationService {
+    static final String METRIC_MIGRATED = "iexec.sms.tee.challenges.migrated";
+
+    private static final String LEGACY_CHALLENGE_TABLE = "tee_challenge";
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT \"id\", \"credentials_id\" FROM \"tee_challenge\" FETCH FIRST ? ROWS ONLY";
+    private static final String SELECT_TASK_SQL =
+            "SELECT \"id\", \"credentials_id\" FROM \"tee_challenge\" WHERE \"task_id\" = ?";
+    private static final String COPY_SQL = "INSERT INTO \"tee_task_challenge\" "
+            + "(\"task_id\", \"final_deadline\", \"address\", \"is_encrypted\", \"private_key\") "
+            + "SELECT c.\"task_id\", c.\"final_deadline\", e.\"address\", e.\"is_encrypted\", e.\"private_key\" "
+            + "FROM \"tee_challenge\" c JOIN \"ethereum_credentials\" e ON e.\"id\" = c.\"credentials_id\" "
+            + "WHERE c.\"id\" = ? AND c.\"task_id\" IS NOT NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM \"tee_task_challenge\" t WHERE t.\"task_id\" = c.\"task_id\")";
+    private static final String DELETE_CHALLENGE_SQL = "DELETE FROM \"tee_challenge\" WHERE \"id\" = ?";
+    private static final String DELETE_CREDENTIALS_SQL = "DELETE FROM \"ethereum_credentials\" WHERE \"id\" = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TeeChallengeMigrationConfiguration configuration;
+    private volatile boolean completed;
+
+    private record LegacyChallenge(String id, String credentialsId) {
+    }
+
+    public TeeChallengeMigrationService(final JdbcTemplate jdbcTemplate,
+                                        final TransactionTemplate transactionTemplate,
+                                        final TeeChallengeMigrationConfiguration configuration,
+                                        final TeeChallengeService teeChallengeService,
+                                        final AdminService adminService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.configuration = configuration;
+        teeChallengeService.setLegacyChallengeMover(this::migrate);
+        // a restored backup may have been created before challenges were keyed by task ID
+        adminService.addDatabaseRestoredListener(() -> completed = !hasLegacyTables());
+    }
+
+    @PostConstruct
+    void init() {
+        completed = !hasLegacyTables();
+    }
+
+    /**
+     * Legacy tables are created by versioned migrations of an external database, or exist in an embedded database
+     * created before challenges were keyed by task ID.
+     */
+    private boolean hasLegacyTables() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet tables = connection.getMetaData()
+                    .getTables(null, connection.getSchema(), LEGACY_CHALLENGE_TABLE, null)) {
+                return tables.next();
+            }
+        }));
+    }
+
+    /**
+     * Moves a chunk of challenges from legacy tables.
+     */
+    @Scheduled(fixedDelayString = "${tee.challenge.migration.interval}")
+    void migrateChunk() {
+        if (completed) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        try {
+            final List<LegacyChallenge> challenges = jdbcTemplate.query(SELECT_CHUNK_SQL,
+                    TeeChallengeMigrationService::toLegacyChallenge, configuration.getBatchSize());
+            if (challenges.isEmpty()) {
+                completed = true;
+                log.info("All TEE challenges are keyed by task ID [duration:{} ms]", System.currentTimeMillis() - start);
+                return;
+            }
+            final int migrated = move(challenges);
+            log.info("Moved TEE challenges from legacy tables [migrated:{}, read:{}]", migrated, challenges.size());
+        } catch (DataAccessException e) {
+            log.error("Failed to move TEE challenges from legacy tables", e);
+        }
+    }
+
+    /**
+     * Moves the legacy challenge of a task, if any.
+     *
+     * @param taskId ID of the task
+     * @return Whether a legacy challenge was found, the challenge of the task must then be looked up again
+     */
+    boolean migrate(final String taskId) {
+        if (completed) {
+            return false;
+        }
+        try {
+            final List<LegacyChallenge> challenges = jdbcTemplate.query(SELECT_TASK_SQL,
+                    TeeChallengeMigrationService::toLegacyChallenge, taskId);
+            if (challenges.isEmpty()) {
+                return false;
+            }
+            move(challenges);
+            log.info("Moved TEE challenge from legacy tables on lookup [chainTaskId:{}]", taskId);
+        } catch (DataAccessException e) {
+            // the challenge is likely being moved by another SMS instance sharing the database
+            log.warn("Failed to move TEE challenge from legacy tables on lookup [chainTaskId:{}]", taskId, e);
+        }
+        return true;
+    }
+
+    /**
+     * Copies challenges keyed by task ID and deletes legacy rows in a single transaction.
+     *
+     * @return Number of challenges copied, challenges of tasks already having a challenge keyed by task ID are
+     * only deleted
+     */
+    private int move(final List<LegacyChallenge> challenges) {
+        final List<Object[]> challengeIds = challenges.stream()
+                .map(challenge -> new Object[]{challenge.id()})
+                .toList();
+        final List<Object[]> credentialsIds = challenges.stream()
+                .map(LegacyChallenge::credentialsId)
+                .filter(Objects::nonNull)
+                .map(credentialsId -> new Object[]{credentialsId})
+                .toList();
+        final int migrated = Objects.requireNonNull(transactionTemplate.execute(status -> {
+            final int[] results = jdbcTemplate.batchUpdate(COPY_SQL, challengeIds);
+            // credentials are referenced by challenges, challenges are deleted first
+            jdbcTemplate.batchUpdate(DELETE_CHALLENGE_SQL, challengeIds);
+            if (!credentialsIds.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_CREDENTIALS_SQL, credentialsIds);
+            }
+            int copied = 0;
+            for (final int result : results) {
+                // some drivers do not report counts of batched statements
+                if (result > 0 || result == Statement.SUCCESS_NO_INFO) {
+                    copied++;
+                }
+            }
+            return copied;
+        }));
+        Metrics.counter(METRIC_MIGRATED).increment(migrated);
+        return migrated;
+    }
+
+    private static LegacyChallenge toLegacyChallenge(final ResultSet rs, final int rowNum) throws SQLException {
+        return new LegacyChallenge(rs.getString(1), rs.getString(2));
+    }
+}
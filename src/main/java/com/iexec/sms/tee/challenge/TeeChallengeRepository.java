@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,7 +26,7 @@ public interface TeeChallengeRepository extends JpaRepository<TeeChallenge, Stri
     Optional<TeeChallenge> findByTaskId(String taskId);
 
     @Transactional
-    void deleteByFinalDeadlineBefore(Instant now);
+    long deleteByFinalDeadlineBefore(Instant now);
 
     int countByFinalDeadlineIsNull();
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,12 +21,19 @@ import com.iexec.sms.encryption.EncryptionService;
 import com.iexec.sms.secret.MeasuredSecretService;
 import com.iexec.sms.tee.config.TeeChallengeCleanupConfiguration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
@@ -39,6 +46,9 @@ public class TeeChallengeService {
     private final MeasuredSecretService teeChallengesMeasuredSecretService;
     private final MeasuredSecretService ethereumCredentialsMeasuredSecretService;
     private final TeeChallengeCleanupConfiguration teeChallengeCleanupConfiguration;
+    private final List<Consumer<TeeChallenge>> challengeCreatedListeners = new CopyOnWriteArrayList<>();
+    private volatile Function<String, Optional<TeeChallenge>> remoteChallengeProvider;
+    private volatile Predicate<String> legacyChallengeMover;
 
     public TeeChallengeService(final JdbcTemplate jdbcTemplate,
                                final TeeChallengeRepository teeChallengeRepository,
@@ -58,7 +68,7 @@ public class TeeChallengeService {
 
     public Optional<TeeChallenge> getOrCreate(final String taskId, final boolean shouldDecryptKeys) {
         // if existing returns from the db
-        final Optional<TeeChallenge> optionalTeeChallenge = teeChallengeRepository.findByTaskId(taskId);
+        final Optional<TeeChallenge> optionalTeeChallenge = findByTaskId(taskId);
         if (optionalTeeChallenge.isPresent()) {
             if (shouldDecryptKeys) { //eventually decrypt if wanted
                 decryptChallengeKeys(optionalTeeChallenge.get());
@@ -66,6 +76,16 @@ public class TeeChallengeService {
             return optionalTeeChallenge;
         }
 
+        // a follower never creates challenges, they are created by its primary
+        final Function<String, Optional<TeeChallenge>> provider = remoteChallengeProvider;
+        if (provider != null) {
+            final Optional<TeeChallenge> remoteTeeChallenge = provider.apply(taskId);
+            if (shouldDecryptKeys) {
+                remoteTeeChallenge.ifPresent(this::decryptChallengeKeys);
+            }
+            return remoteTeeChallenge;
+        }
+
         // otherwise create it
         try {
             final long finalDeadline = iexecHubService.getTaskDescription(taskId).getFinalDeadline();
@@ -74,6 +94,9 @@ public class TeeChallengeService {
             teeChallenge = teeChallengeRepository.save(teeChallenge);
             teeChallengesMeasuredSecretService.newlyAddedSecret();
             ethereumCredentialsMeasuredSecretService.newlyAddedSecret();
+            for (final Consumer<TeeChallenge> listener : challengeCreatedListeners) {
+                listener.accept(teeChallenge);
+            }
             log.info("Created tee challenge [chainTaskId:{}, teeChallenge:{}]",
                     taskId, teeChallenge.getCredentials().getAddress());
 
@@ -82,12 +105,59 @@ public class TeeChallengeService {
             }
 
             return Optional.of(teeChallenge);
+        } catch (DataIntegrityViolationException e) {
+            // Another thread or SMS instance created the challenge first, its credentials must be shared
+            log.info("Tee challenge created concurrently [chainTaskId:{}]", taskId);
+            final Optional<TeeChallenge> concurrentTeeChallenge = teeChallengeRepository.findByTaskId(taskId);
+            if (shouldDecryptKeys) {
+                concurrentTeeChallenge.ifPresent(this::decryptChallengeKeys);
+            }
+            return concurrentTeeChallenge;
         } catch (Exception e) {
             log.error("Couldn't create credentials [exception:{}]", e.getMessage());
             return Optional.empty();
         }
     }
 
+    /**
+     * Looks a challenge up, moving it first from legacy tables if it has not been moved yet.
+     */
+    private Optional<TeeChallenge> findByTaskId(final String taskId) {
+        final Optional<TeeChallenge> teeChallenge = teeChallengeRepository.findByTaskId(taskId);
+        final Predicate<String> mover = legacyChallengeMover;
+        if (teeChallenge.isPresent() || mover == null || !mover.test(taskId)) {
+            return teeChallenge;
+        }
+        return teeChallengeRepository.findByTaskId(taskId);
+    }
+
+    /**
+     * Registers a listener notified with each created challenge, before its keys are decrypted.
+     *
+     * @param listener The listener to notify
+     */
+    public void addChallengeCreatedListener(final Consumer<TeeChallenge> listener) {
+        challengeCreatedListeners.add(listener);
+    }
+
+    /**
+     * Delegates the creation of missing challenges, challenges are then never created locally.
+     *
+     * @param provider Returns the challenge of a task with encrypted keys, creating it if needed
+     */
+    public void setRemoteChallengeProvider(final Function<String, Optional<TeeChallenge>> provider) {
+        this.remoteChallengeProvider = provider;
+    }
+
+    /**
+     * Moves challenges of legacy tables on lookup, so that a challenge is never created twice for a task.
+     *
+     * @param mover Moves the legacy challenge of a task, returns whether a challenge was moved
+     */
+    public void setLegacyChallengeMover(final Predicate<String> mover) {
+        this.legacyChallengeMover = mover;
+    }
+
     public void encryptChallengeKeys(final TeeChallenge teeChallenge) {
         final EthereumCredentials credentials = teeChallenge.getCredentials();
         if (!credentials.isEncrypted()) {
@@ -119,16 +189,22 @@ public class TeeChallengeService {
     @Scheduled(cron = "${tee.challenge.cleanup.cron}")
     void cleanExpiredTasksTeeChallenges() {
         final long start = System.currentTimeMillis();
-        teeChallengeRepository.deleteByFinalDeadlineBefore(Instant.now());
+        final long deleted = teeChallengeRepository.deleteByFinalDeadlineBefore(Instant.now());
+        // Each TEE challenge holds its Ethereum credentials, both are deleted together
+        teeChallengesMeasuredSecretService.removedSecrets(deleted);
+        ethereumCredentialsMeasuredSecretService.removedSecrets(deleted);
         final int remaining = teeChallengeRepository.countByFinalDeadlineIsNull();
-        log.info("cleanExpiredTasksTeeChallenges [duration:{}ms, remaining:{}]",
-                System.currentTimeMillis() - start, remaining);
+        log.info("cleanExpiredTasksTeeChallenges [duration:{}ms, deleted:{}, remaining:{}]",
+                System.currentTimeMillis() - start, deleted, remaining);
         if (remaining == 0) {
             return;
         }
         final int updated = jdbcTemplate.update(
-                "UPDATE \"tee_challenge\" SET \"final_deadline\" = ? WHERE \"final_deadline\" IS NULL FETCH FIRST ? ROWS ONLY",
-                Instant.now().plus(teeChallengeCleanupConfiguration.getMissingDeadlineRetentionDuration()),
+                "UPDATE \"tee_task_challenge\" SET \"final_deadline\" = ? WHERE \"task_id\" IN "
+                        + "(SELECT \"task_id\" FROM \"tee_task_challenge\" WHERE \"final_deadline\" IS NULL FETCH FIRST ? ROWS ONLY)",
+                // PostgreSQL driver does not bind Instant values
+                Instant.now().plus(teeChallengeCleanupConfiguration.getMissingDeadlineRetentionDuration())
+                        .atOffset(ZoneOffset.UTC),
                 teeChallengeCleanupConfiguration.getMissingDeadlineMaxBatchSize());
         log.info("cleanExpiredTasksTeeChallenges [duration:{}ms, updated:{}]",
                 System.currentTimeMillis() - start, updated);
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "tee.session.deduplication")
+public class TeeSessionDeduplicationConfiguration {
+    /**
+     * Whether identical session requests return the same session instead of generating a new one.
+     */
+    boolean enabled;
+    /**
+     * Duration during which a generated session is returned to identical requests.
+     */
+    @NotNull(message = "Window must not be null")
+    Duration window;
+    /**
+     * Max number of generated sessions kept in memory.
+     */
+    @Positive(message = "Max entries must be greater than 0")
+    int maxEntries;
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session;
+
+import com.iexec.commons.poco.tee.TeeFramework;
+import com.iexec.sms.api.TeeSessionGenerationError;
+import com.iexec.sms.api.config.TeeServicesProperties;
+import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * Timers of the TEE session generation pipeline.
+ * <p>
+ * Each stage is recorded in the {@value #STAGE_TIMER_NAME} timer with a percentile histogram,
+ * tagged by stage, TEE framework, pipeline version and outcome.
+ * The outcome is {@value #OUTCOME_SUCCESS}, the name of the {@link TeeSessionGenerationError} which made
+ * the stage fail, or {@value #OUTCOME_UNEXPECTED_ERROR}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TeeSessionMetrics {
+    public static final String STAGE_TIMER_NAME = "iexec.tee.session.stage";
+    public static final String STAGE_TIMER_DESC = "Duration of TEE session generation stages";
+    public static final String TAG_STAGE = "stage";
+    public static final String TAG_FRAMEWORK = "framework";
+    public static final String TAG_VERSION = "version";
+    public static final String TAG_OUTCOME = "outcome";
+    public static final String OUTCOME_SUCCESS = "SUCCESS";
+    public static final String OUTCOME_UNEXPECTED_ERROR = "UNEXPECTED_ERROR";
+    public static final String UNKNOWN = "unknown";
+
+    private static final Duration MIN_EXPECTED_DURATION = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED_DURATION = Duration.ofMinutes(1);
+
+    public enum Stage {
+        AUTHORIZATION,
+        TASK_DESCRIPTION,
+        CHALLENGE,
+        COMPUTE_SECRETS,
+        POST_COMPUTE_SECRETS,
+        BULK_FETCH,
+        SESSION_BUILD,
+        SESSION_STORAGE
+    }
+
+    @FunctionalInterface
+    public interface StageCall<T> {
+        T call() throws TeeSessionGenerationException;
+    }
+
+    public static Timer.Sample start() {
+        return Timer.start(Metrics.globalRegistry);
+    }
+
+    /**
+     * Stops a sample and records it in the timer of a stage.
+     *
+     * @param sample     Sample started with {@link #start()}
+     * @param stage      Recorded stage
+     * @param properties Properties of the pipeline used by the session, {@literal null} if not resolved yet
+     * @param outcome    {@value #OUTCOME_SUCCESS}, a {@link TeeSessionGenerationError} name or {@value #OUTCOME_UNEXPECTED_ERROR}
+     */
+    public static void stop(final Timer.Sample sample,
+                            final Stage stage,
+                            final TeeServicesProperties properties,
+                            final String outcome) {
+        stop(sample, stage,
+                properties != null ? properties.getTeeFramework() : null,
+                properties != null ? properties.getTeeFrameworkVersion() : null,
+                outcome);
+    }
+
+    /**
+     * Stops a sample and records it in the timer of a stage.
+     *
+     * @param sample    Sample started with {@link #start()}
+     * @param stage     Recorded stage
+     * @param framework TEE framework, {@literal null} if unknown
+     * @param version   Pipeline version, {@literal null} if not resolved yet
+     * @param outcome   {@value #OUTCOME_SUCCESS}, a {@link TeeSessionGenerationError} name or {@value #OUTCOME_UNEXPECTED_ERROR}
+     */
+    public static void stop(final Timer.Sample sample,
+                            final Stage stage,
+                            final TeeFramework framework,
+                            final String version,
+                            final String outcome) {
+        sample.stop(Timer.builder(STAGE_TIMER_NAME)
+                .description(STAGE_TIMER_DESC)
+                .tag(TAG_STAGE, stage.name())
+                .tag(TAG_FRAMEWORK, framework != null ? framework.name() : UNKNOWN)
+                .tag(TAG_VERSION, version != null ? version : UNKNOWN)
+                .tag(TAG_OUTCOME, outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_DURATION)
+                .maximumExpectedValue(MAX_EXPECTED_DURATION)
+                .register(Metrics.globalRegistry));
+    }
+
+    /**
+     * Runs and records a stage.
+     * <p>
+     * The outcome is derived from the {@link TeeSessionGenerationException} or runtime exception thrown by the stage,
+     * the exception is then rethrown.
+     *
+     * @param stage      Recorded stage
+     * @param properties Properties of the pipeline used by the session, {@literal null} if not resolved yet
+     * @param call       Stage to run
+     * @return The result of the stage
+     * @throws TeeSessionGenerationException if the stage failed
+     */
+    public static <T> T record(final Stage stage,
+                               final TeeServicesProperties properties,
+                               final StageCall<T> call) throws TeeSessionGenerationException {
+        final Timer.Sample sample = start();
+        try {
+            final T result = call.call();
+            stop(sample, stage, properties, OUTCOME_SUCCESS);
+            return result;
+        } catch (TeeSessionGenerationException e) {
+            stop(sample, stage, properties, e.getError() != null ? e.getError().name() : OUTCOME_UNEXPECTED_ERROR);
+            throw e;
+        } catch (RuntimeException e) {
+            stop(sample, stage, properties, OUTCOME_UNEXPECTED_ERROR);
+            throw e;
+        }
+    }
+}
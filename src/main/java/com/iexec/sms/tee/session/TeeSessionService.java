@@ -25,43 +25,139 @@ import com.iexec.sms.chain.IexecHubService;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
 import com.iexec.sms.tee.session.generic.TeeSessionHandler;
 import com.iexec.sms.tee.session.generic.TeeSessionRequest;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static com.iexec.sms.api.TeeSessionGenerationError.*;
 
+@Slf4j
 @Service
 public class TeeSessionService {
+    static final String METRIC_DEDUPLICATED = "iexec.tee.session.deduplicated";
+    static final String METRIC_LABEL_STATE = "state";
+    static final String STATE_COMPLETED = "completed";
+    static final String STATE_IN_FLIGHT = "in_flight";
 
     private final IexecHubService iexecHubService;
     private final TeeSessionHandler teeSessionHandler;
     private final Map<String, TeeServicesProperties> teeServicesPropertiesMap;
+    private final TeeSessionDeduplicationConfiguration deduplicationConfiguration;
+    private final ExpiringMap<SessionRequestKey, CompletableFuture<TeeSessionGenerationResponse>> sessions;
+
+    /**
+     * Identifies session requests which must return the same session.
+     */
+    private record SessionRequestKey(String taskId, String workerAddress, String teeChallenge) {
+    }
 
     public TeeSessionService(
             final IexecHubService iexecService,
             final TeeSessionHandler teeSessionHandler,
-            final Map<String, TeeServicesProperties> teeServicesPropertiesMap) {
+            final Map<String, TeeServicesProperties> teeServicesPropertiesMap,
+            final TeeSessionDeduplicationConfiguration deduplicationConfiguration) {
         this.iexecHubService = iexecService;
         this.teeSessionHandler = teeSessionHandler;
         this.teeServicesPropertiesMap = teeServicesPropertiesMap;
+        this.deduplicationConfiguration = deduplicationConfiguration;
+        this.sessions = ExpiringMap.builder()
+                .expiration(deduplicationConfiguration.getWindow().toMillis(), TimeUnit.MILLISECONDS)
+                .expirationPolicy(ExpirationPolicy.CREATED)
+                .maxSize(deduplicationConfiguration.getMaxEntries())
+                .build();
     }
 
+    /**
+     * Generates a TEE session for a worker and posts it to the secret provisioner.
+     * <p>
+     * When deduplication is enabled, a request identical to a previous one received within the deduplication window
+     * returns the session generated for the previous request. Concurrent identical requests wait for
+     * a single generation. Failed generations are not kept, so that a new request generates a new session.
+     *
+     * @param taskId        ID of the task
+     * @param workerAddress Address of the worker
+     * @param teeChallenge  Enclave challenge of the task
+     * @return The session ID and the secret provisioning URL
+     * @throws TeeSessionGenerationException if the session could not be generated
+     */
     public TeeSessionGenerationResponse generateTeeSession(
             final String taskId,
             final String workerAddress,
             final String teeChallenge) throws TeeSessionGenerationException {
+        if (!deduplicationConfiguration.isEnabled()) {
+            return createTeeSession(taskId, workerAddress, teeChallenge);
+        }
+        final SessionRequestKey key = new SessionRequestKey(taskId, workerAddress, teeChallenge);
+        final CompletableFuture<TeeSessionGenerationResponse> generation = new CompletableFuture<>();
+        final CompletableFuture<TeeSessionGenerationResponse> existingGeneration = sessions.putIfAbsent(key, generation);
+        if (existingGeneration != null) {
+            final String state = existingGeneration.isDone() ? STATE_COMPLETED : STATE_IN_FLIGHT;
+            Metrics.counter(METRIC_DEDUPLICATED, METRIC_LABEL_STATE, state).increment();
+            log.info("Deduplicated TEE session request [taskId:{}, workerAddress:{}, state:{}]",
+                    taskId, workerAddress, state);
+            return waitForGeneration(existingGeneration);
+        }
+        try {
+            final TeeSessionGenerationResponse response = createTeeSession(taskId, workerAddress, teeChallenge);
+            generation.complete(response);
+            return response;
+        } catch (TeeSessionGenerationException | RuntimeException e) {
+            sessions.remove(key, generation);
+            generation.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static TeeSessionGenerationResponse waitForGeneration(
+            final CompletableFuture<TeeSessionGenerationResponse> generation) throws TeeSessionGenerationException {
+        try {
+            return generation.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TeeSessionGenerationException teeSessionGenerationException) {
+                throw teeSessionGenerationException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new TeeSessionGenerationException(SECURE_SESSION_GENERATION_FAILED,
+                    "Failed to generate session: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TeeSessionGenerationException(SECURE_SESSION_GENERATION_FAILED,
+                    "Interrupted while waiting for session generation");
+        }
+    }
+
+    private TeeSessionGenerationResponse createTeeSession(
+            final String taskId,
+            final String workerAddress,
+            final String teeChallenge) throws TeeSessionGenerationException {
         final String sessionId = createSessionId(taskId);
+        final Timer.Sample taskDescriptionSample = TeeSessionMetrics.start();
         final TaskDescription taskDescription = iexecHubService.getTaskDescription(taskId);
         if (taskDescription == null) {
+            TeeSessionMetrics.stop(taskDescriptionSample, TeeSessionMetrics.Stage.TASK_DESCRIPTION,
+                    null, null, GET_TASK_DESCRIPTION_FAILED.name());
             throw new TeeSessionGenerationException(
                     GET_TASK_DESCRIPTION_FAILED,
                     String.format("Failed to get task description [taskId:%s]", taskId));
         }
 
         final TeeEnclaveConfiguration teeEnclaveConfiguration = taskDescription.getAppEnclaveConfiguration();
+        TeeSessionMetrics.stop(taskDescriptionSample, TeeSessionMetrics.Stage.TASK_DESCRIPTION,
+                taskDescription.getTeeFramework(),
+                teeEnclaveConfiguration != null ? teeEnclaveConfiguration.getVersion() : null,
+                TeeSessionMetrics.OUTCOME_SUCCESS);
         if (taskDescription.requiresSgx() && teeEnclaveConfiguration == null) {
             throw new TeeSessionGenerationException(
                     APP_COMPUTE_NO_ENCLAVE_CONFIG,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,12 +33,14 @@ import com.iexec.sms.tee.bulk.IpfsClient;
 import com.iexec.sms.tee.challenge.EthereumCredentials;
 import com.iexec.sms.tee.challenge.TeeChallenge;
 import com.iexec.sms.tee.challenge.TeeChallengeService;
+import com.iexec.sms.tee.session.TeeSessionMetrics;
 import com.iexec.sms.tee.session.base.SecretEnclaveBase.SecretEnclaveBaseBuilder;
 import com.iexec.sms.tee.session.base.SecretSessionBase.SecretSessionBaseBuilder;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
 import com.iexec.sms.tee.session.generic.TeeSessionRequest;
 import com.iexec.sms.tee.session.gramine.GramineSessionMakerService;
 import com.iexec.sms.tee.session.scone.SconeSessionMakerService;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
@@ -146,7 +148,9 @@ public class SecretSessionBaseService {
                     GET_SIGNATURE_TOKENS_FAILED_EMPTY_PUBLIC_ENCLAVE_CHALLENGE,
                     "Empty public enclave challenge - taskId: " + taskId);
         }
-        final Optional<TeeChallenge> teeChallenge = teeChallengeService.getOrCreate(taskId, true);
+        final Optional<TeeChallenge> teeChallenge = TeeSessionMetrics.record(
+                TeeSessionMetrics.Stage.CHALLENGE, request.getTeeServicesProperties(),
+                () -> teeChallengeService.getOrCreate(taskId, true));
         if (teeChallenge.isEmpty()) {
             throw new TeeSessionGenerationException(
                     GET_SIGNATURE_TOKENS_FAILED_EMPTY_TEE_CHALLENGE,
@@ -170,10 +174,12 @@ public class SecretSessionBaseService {
     /**
      * Fetch dataset orders related to a bulk processing slice from IPFS
      *
-     * @param taskDescription A task part of a bulk processing deal and corresponding to one of the slices
+     * @param request Session request details, its task is part of a bulk processing deal and corresponds to one of the slices
      * @return The list of {@code DatasetOrder} found in the slice, or an empty list if any issue arises
      */
-    private List<DatasetOrder> fetchDatasetOrders(final TaskDescription taskDescription) {
+    private List<DatasetOrder> fetchDatasetOrders(final TeeSessionRequest request) {
+        final TaskDescription taskDescription = request.getTaskDescription();
+        final Timer.Sample sample = TeeSessionMetrics.start();
         try {
             final String bulkCid = taskDescription.getDealParams().getBulkCid();
             final int bulkSliceIndex = taskDescription.getBotIndex();
@@ -181,8 +187,12 @@ public class SecretSessionBaseService {
                     taskDescription.getChainTaskId(), bulkCid, bulkSliceIndex);
             final List<String> bulkSlices = ipfsClient.readBulkCid(bulkCid);
             final List<DatasetOrder> tempList = ipfsClient.readOrders(bulkSlices.get(bulkSliceIndex));
+            TeeSessionMetrics.stop(sample, TeeSessionMetrics.Stage.BULK_FETCH,
+                    request.getTeeServicesProperties(), TeeSessionMetrics.OUTCOME_SUCCESS);
             return List.copyOf(tempList);
         } catch (final Exception e) {
+            TeeSessionMetrics.stop(sample, TeeSessionMetrics.Stage.BULK_FETCH,
+                    request.getTeeServicesProperties(), TeeSessionMetrics.OUTCOME_UNEXPECTED_ERROR);
             log.error("Error during bulk computation", e);
             return List.of();
         }
@@ -249,7 +259,7 @@ public class SecretSessionBaseService {
         tokens.put(IS_DATASET_REQUIRED.name(), String.valueOf(taskDescription.containsDataset()));
 
         if (taskDescription.isBulkRequest()) {
-            final List<DatasetOrder> orders = fetchDatasetOrders(taskDescription);
+            final List<DatasetOrder> orders = fetchDatasetOrders(request);
             tokens.put(IEXEC_BULK_SLICE_SIZE.name(), String.valueOf(orders.size()));
             for (int i = 0; i < orders.size(); i++) {
                 final DatasetOrder order = orders.get(i);
@@ -330,13 +340,15 @@ public class SecretSessionBaseService {
             enclaveBase.mrenclave(enclaveConfig.getFingerprint());
         }
 
-        final Map<String, String> computeSecrets = getApplicationComputeSecrets(taskDescription);
+        final Map<String, String> computeSecrets = TeeSessionMetrics.record(
+                TeeSessionMetrics.Stage.COMPUTE_SECRETS, request.getTeeServicesProperties(),
+                () -> getApplicationComputeSecrets(taskDescription));
         tokens.putAll(computeSecrets);
         // trusted env variables (not confidential)
         tokens.putAll(IexecEnvUtils.getComputeStageEnvMap(taskDescription));
 
         if (taskDescription.isBulkRequest()) {
-            final List<String> addresses = fetchDatasetOrders(taskDescription).stream()
+            final List<String> addresses = fetchDatasetOrders(request).stream()
                     .map(DatasetOrder::getDataset)
                     .toList();
             tokens.put(IEXEC_BULK_SLICE_SIZE.name(), String.valueOf(addresses.size()));
@@ -446,7 +458,9 @@ public class SecretSessionBaseService {
         final List<Web2SecretHeader> ids = getPostComputeSecretHeaders(taskDescription, request.getWorkerAddress());
         log.debug("Web2Secret looking for secrets [chainTaskId:{}, count:{}]",
                 taskDescription.getChainTaskId(), ids.size());
-        final List<Web2Secret> secrets = web2SecretService.getSecretsForTeeSession(ids);
+        final List<Web2Secret> secrets = TeeSessionMetrics.record(
+                TeeSessionMetrics.Stage.POST_COMPUTE_SECRETS, request.getTeeServicesProperties(),
+                () -> web2SecretService.getSecretsForTeeSession(ids));
         log.debug("Web2Secret objects fetched from database [chainTaskId:{}, count:{}]",
                 taskDescription.getChainTaskId(), secrets.size());
         // encryption
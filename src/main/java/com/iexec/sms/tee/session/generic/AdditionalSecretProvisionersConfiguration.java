@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+import java.util.Objects;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "tee.secret-provisioner")
+public class AdditionalSecretProvisionersConfiguration {
+    /**
+     * Secret provisioners sharing session posts with the configured secret provisioner.
+     */
+    @Valid
+    List<SecretProvisionerEndpoint> additionalEndpoints;
+
+    public AdditionalSecretProvisionersConfiguration(final List<SecretProvisionerEndpoint> additionalEndpoints) {
+        this.additionalEndpoints = Objects.requireNonNullElse(additionalEndpoints, List.of());
+    }
+
+    /**
+     * @param webUrl      URL where sessions are posted
+     * @param enclaveHost Address returned to workers to retrieve secrets of sessions posted on this endpoint
+     */
+    public record SecretProvisionerEndpoint(
+            @NotBlank(message = "Web URL must not be blank") String webUrl,
+            @NotBlank(message = "Enclave host must not be blank") String enclaveHost) {
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Feign {@link Encoder} writing sessions as CBOR, compressed with gzip above a size threshold.
+ */
+public class CborSessionEncoder implements Encoder {
+    public static final String CBOR_CONTENT_TYPE = "application/cbor";
+    public static final String GZIP_CONTENT_ENCODING = "gzip";
+    static final String CONTENT_TYPE_HEADER = "Content-Type";
+    static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    static final CBORMapper CBOR_MAPPER = new CBORMapper();
+
+    private final long gzipThreshold;
+
+    public CborSessionEncoder(final long gzipThreshold) {
+        this.gzipThreshold = gzipThreshold;
+    }
+
+    @Override
+    public void encode(final Object object, final Type bodyType, final RequestTemplate template) {
+        try {
+            final ObjectWriter writer = CBOR_MAPPER.writerFor(CBOR_MAPPER.constructType(bodyType));
+            byte[] payload = writer.writeValueAsBytes(object);
+            template.removeHeader(CONTENT_TYPE_HEADER);
+            template.header(CONTENT_TYPE_HEADER, CBOR_CONTENT_TYPE);
+            if (payload.length >= gzipThreshold) {
+                payload = gzip(payload);
+                template.header(CONTENT_ENCODING_HEADER, GZIP_CONTENT_ENCODING);
+            }
+            template.body(payload, null);
+        } catch (IOException e) {
+            throw new EncodeException("Failed to encode session as CBOR", e);
+        }
+    }
+
+    private static byte[] gzip(final byte[] payload) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import com.iexec.sms.tee.session.generic.SessionPoster.SessionStorageEndpoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects the secret provisioner receiving a session.
+ * <p>
+ * The healthy secret provisioner with the least outstanding posts is selected, ties are broken by the lowest
+ * moving average of post latencies, then by configuration order.
+ * A secret provisioner failing {@code ejection-failures} consecutive posts is ejected for {@code ejection-duration}.
+ * When all secret provisioners are ejected, all of them are candidates again.
+ * <p>
+ * Each session is posted once under a new random ID, so there is no affinity between a session
+ * and a secret provisioner.
+ */
+@Slf4j
+@Component
+public class SecretProvisionerBalancer {
+    static final String METRIC_OUTSTANDING = "iexec.tee.secret.provisioner.outstanding";
+    static final String METRIC_HEALTHY = "iexec.tee.secret.provisioner.healthy";
+    static final String METRIC_LABEL_URL = "url";
+    /**
+     * Weight of the last post in the latency score.
+     */
+    private static final double LATENCY_SMOOTHING_FACTOR = 0.3;
+
+    private final SecretProvisionerBalancingConfiguration configuration;
+    private final Clock clock;
+    private final Map<String, EndpointState> states = new ConcurrentHashMap<>();
+
+    private final class EndpointState {
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile double latencyScore;
+        private volatile Instant ejectedUntil = Instant.MIN;
+
+        private boolean isHealthy() {
+            return !clock.instant().isBefore(ejectedUntil);
+        }
+    }
+
+    @Autowired
+    public SecretProvisionerBalancer(final SecretProvisionerBalancingConfiguration configuration) {
+        this(configuration, Clock.systemUTC());
+    }
+
+    SecretProvisionerBalancer(final SecretProvisionerBalancingConfiguration configuration, final Clock clock) {
+        this.configuration = configuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Selects an endpoint to post a session.
+     *
+     * @param endpoints Candidate endpoints, in configuration order
+     * @param excluded  Endpoint which must not be selected, may be {@literal null}
+     * @param <S>       Type of the session
+     * @return The selected endpoint, {@literal null} if there is no candidate
+     */
+    public <S> SessionStorageEndpoint<S> select(final List<SessionStorageEndpoint<S>> endpoints,
+                                                final SessionStorageEndpoint<S> excluded) {
+        final List<SessionStorageEndpoint<S>> candidates = endpoints.stream()
+                .filter(endpoint -> endpoint != excluded)
+                .toList();
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        final List<SessionStorageEndpoint<S>> healthy = candidates.stream()
+                .filter(endpoint -> getState(endpoint.webUrl()).isHealthy())
+                .toList();
+        return (healthy.isEmpty() ? candidates : healthy).stream()
+                .min(Comparator.<SessionStorageEndpoint<S>>comparingInt(
+                                endpoint -> getState(endpoint.webUrl()).outstanding.get())
+                        .thenComparingDouble(endpoint -> getState(endpoint.webUrl()).latencyScore))
+                .orElseThrow();
+    }
+
+    /**
+     * Records the start of a post on an endpoint.
+     */
+    public void onPostStarted(final String webUrl) {
+        getState(webUrl).outstanding.incrementAndGet();
+    }
+
+    /**
+     * Records the end of a post on an endpoint.
+     *
+     * @param webUrl       URL of the endpoint
+     * @param available    Whether the endpoint answered the post, even with a client error
+     * @param latencyNanos Duration of the post
+     */
+    public void onPostCompleted(final String webUrl, final boolean available, final long latencyNanos) {
+        final EndpointState state = getState(webUrl);
+        state.outstanding.decrementAndGet();
+        if (available) {
+            state.consecutiveFailures.set(0);
+            state.latencyScore = state.latencyScore == 0
+                    ? latencyNanos
+                    : LATENCY_SMOOTHING_FACTOR * latencyNanos + (1 - LATENCY_SMOOTHING_FACTOR) * state.latencyScore;
+            return;
+        }
+        final int failures = state.consecutiveFailures.incrementAndGet();
+        if (failures >= configuration.getEjectionFailures()) {
+            state.ejectedUntil = clock.instant().plus(configuration.getEjectionDuration());
+            state.consecutiveFailures.set(0);
+            log.warn("Ejecting secret provisioner [url:{}, consecutiveFailures:{}, ejectionDuration:{}]",
+                    webUrl, failures, configuration.getEjectionDuration());
+        }
+    }
+
+    private EndpointState getState(final String webUrl) {
+        return states.computeIfAbsent(webUrl, url -> {
+            final EndpointState state = new EndpointState();
+            Gauge.builder(METRIC_OUTSTANDING, state, s -> s.outstanding.get())
+                    .description("Session posts in progress on the secret provisioner")
+                    .tag(METRIC_LABEL_URL, url)
+                    .register(Metrics.globalRegistry);
+            Gauge.builder(METRIC_HEALTHY, state, s -> s.isHealthy() ? 1 : 0)
+                    .description("Whether the secret provisioner receives sessions")
+                    .tag(METRIC_LABEL_URL, url)
+                    .register(Metrics.globalRegistry);
+            return state;
+        });
+    }
+}
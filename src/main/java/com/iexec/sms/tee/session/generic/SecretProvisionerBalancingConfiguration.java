@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "tee.secret-provisioner.balancing")
+public class SecretProvisionerBalancingConfiguration {
+    /**
+     * Number of consecutive failed posts after which a secret provisioner stops receiving sessions.
+     */
+    @Positive(message = "Ejection failures must be greater than 0")
+    int ejectionFailures;
+    /**
+     * Duration during which an ejected secret provisioner does not receive sessions.
+     */
+    @NotNull(message = "Ejection duration must not be null")
+    Duration ejectionDuration;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "tee.session.encoding")
+public class SessionEncodingConfiguration {
+    /**
+     * Whether sessions are posted as CBOR to the secret provisioner or the TDX session storage.
+     * Sessions are posted as JSON when disabled or when the remote service rejects CBOR payloads.
+     */
+    boolean compact;
+    /**
+     * Compact payloads at least this large are compressed with gzip.
+     */
+    @NotNull(message = "Gzip threshold must not be null")
+    DataSize gzipThreshold;
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Function;
+
+/**
+ * Posts sessions with a compact encoding as long as the remote service accepts it.
+ * <p>
+ * A {@code 415 Unsupported Media Type} response on a compact post switches to the JSON encoding:
+ * the session is posted again as JSON, and so are all following sessions.
+ *
+ * @param <S> Type of the session
+ */
+@Slf4j
+public class SessionEncodingNegotiator<S> {
+    private final String target;
+    private final Function<S, String> compactPost;
+    private final Function<S, String> jsonPost;
+    private volatile boolean compactAccepted = true;
+
+    public SessionEncodingNegotiator(final String target,
+                                     final Function<S, String> compactPost,
+                                     final Function<S, String> jsonPost) {
+        this.target = target;
+        this.compactPost = compactPost;
+        this.jsonPost = jsonPost;
+    }
+
+    public String postSession(final S session) {
+        if (compactAccepted) {
+            try {
+                return compactPost.apply(session);
+            } catch (FeignException.UnsupportedMediaType e) {
+                log.warn("Compact session encoding rejected, falling back to JSON [target:{}]", target);
+                compactAccepted = false;
+            }
+        }
+        return jsonPost.apply(session);
+    }
+
+    boolean isCompactAccepted() {
+        return compactAccepted;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "tee.session.post")
+public class SessionPostConfiguration {
+    /**
+     * Max number of attempts to post a session to a secret provisioner, including the first one.
+     */
+    @Positive(message = "Max attempts must be greater than 0")
+    int maxAttempts;
+    /**
+     * Upper bound of the random delay before the first retry, doubled on each following retry.
+     */
+    @NotNull(message = "Initial backoff must not be null")
+    Duration initialBackoff;
+    /**
+     * Upper bound of the random delay before any retry.
+     */
+    @NotNull(message = "Max backoff must not be null")
+    Duration maxBackoff;
+    /**
+     * Whether a slow post is hedged by posting the session to an additional secret provisioner.
+     */
+    boolean hedging;
+    /**
+     * Min duration before hedging a post, posts are hedged once slower than the p99 of recent posts.
+     */
+    @NotNull(message = "Hedge min delay must not be null")
+    Duration hedgeMinDelay;
+}
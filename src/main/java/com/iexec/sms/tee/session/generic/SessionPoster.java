@@ -0,0 +1,292 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import com.iexec.commons.poco.tee.TeeFramework;
+import feign.FeignException;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.iexec.sms.api.TeeSessionGenerationError.SECURE_SESSION_STORAGE_CALL_FAILED;
+
+/**
+ * Posts sessions to secret provisioners.
+ * <p>
+ * The secret provisioner receiving a session is selected by the {@link SecretProvisionerBalancer}.
+ * Failed posts are retried after a random delay bounded by an exponential backoff, as long as the failure
+ * is transient: connection error, {@code 429} or {@code 5xx} response.
+ * Session names are unique, a {@code 409 Conflict} response on a retry means that the session has been stored
+ * by a previous attempt and is considered a success.
+ * <p>
+ * When hedging is enabled and several secret provisioners are configured, a post slower than
+ * the p99 latency of recent posts is hedged by posting the session to another secret provisioner.
+ * The first successful post wins.
+ */
+@Slf4j
+@Component
+public class SessionPoster {
+    static final String METRIC_RETRIES = "iexec.tee.session.post.retries";
+    static final String METRIC_HEDGES = "iexec.tee.session.post.hedges";
+    static final String METRIC_LABEL_FRAMEWORK = "framework";
+    static final String METRIC_LABEL_OUTCOME = "outcome";
+    static final String HEDGE_LAUNCHED = "launched";
+    static final String HEDGE_WON = "won";
+    private static final int LATENCY_WINDOW_SIZE = 256;
+    private static final int LATENCY_MIN_SAMPLES = 20;
+    private static final int MAX_BACKOFF_EXPONENT = 16;
+
+    private final SessionPostConfiguration configuration;
+    private final SecretProvisionerBalancer balancer;
+    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+    private final long[] latencyWindow = new long[LATENCY_WINDOW_SIZE];
+    private int latencyIndex;
+    private int latencyCount;
+
+    /**
+     * Posts a session to a secret provisioner.
+     *
+     * @param <S> Type of the session
+     */
+    @FunctionalInterface
+    public interface SessionPost<S> {
+        void post(S session) throws Exception;
+    }
+
+    /**
+     * Secret provisioner receiving sessions.
+     *
+     * @param webUrl      URL where sessions are posted, for logs
+     * @param enclaveHost Address returned to workers once a session has been posted on this endpoint
+     * @param post        Call posting a session on this endpoint
+     * @param <S>         Type of the session
+     */
+    public record SessionStorageEndpoint<S>(String webUrl, String enclaveHost, SessionPost<S> post) {
+    }
+
+    public SessionPoster(final SessionPostConfiguration configuration, final SecretProvisionerBalancer balancer) {
+        this.configuration = configuration;
+        this.balancer = balancer;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Posts a session to the endpoint selected by the balancer, hedged by another endpoint if hedging is enabled.
+     *
+     * @param framework TEE framework of the session, for metrics
+     * @param session   Session to post
+     * @param endpoints Endpoints able to store the session, in configuration order
+     * @param <S>       Type of the session
+     * @return The enclave host of the endpoint which stored the session
+     * @throws TeeSessionGenerationException if the session could not be posted
+     */
+    public <S> String postSession(final TeeFramework framework,
+                                  final S session,
+                                  final List<SessionStorageEndpoint<S>> endpoints) throws TeeSessionGenerationException {
+        final SessionStorageEndpoint<S> primary = balancer.select(endpoints, null);
+        final SessionStorageEndpoint<S> hedge = configuration.isHedging()
+                ? balancer.select(endpoints, primary) : null;
+        final SessionStorageEndpoint<S> winner = hedge == null
+                ? postWithRetries(framework, session, primary)
+                : postWithHedging(framework, session, primary, hedge);
+        return winner.enclaveHost();
+    }
+
+    private <S> SessionStorageEndpoint<S> postWithHedging(final TeeFramework framework,
+                                                          final S session,
+                                                          final SessionStorageEndpoint<S> primary,
+                                                          final SessionStorageEndpoint<S> hedge) throws TeeSessionGenerationException {
+        final CompletableFuture<SessionStorageEndpoint<S>> primaryPost = postAsync(framework, session, primary);
+        final Duration hedgeDelay = getHedgeDelay();
+        try {
+            return primaryPost.get(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.info("Hedging slow session post [url:{}, hedgeUrl:{}, hedgeDelay:{}]",
+                    primary.webUrl(), hedge.webUrl(), hedgeDelay);
+        } catch (ExecutionException e) {
+            throw toGenerationException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TeeSessionGenerationException(SECURE_SESSION_STORAGE_CALL_FAILED,
+                    "Interrupted while posting session");
+        }
+
+        Metrics.counter(METRIC_HEDGES, METRIC_LABEL_FRAMEWORK, framework.name(), METRIC_LABEL_OUTCOME, HEDGE_LAUNCHED)
+                .increment();
+        final CompletableFuture<SessionStorageEndpoint<S>> firstSuccess = new CompletableFuture<>();
+        final AtomicInteger failures = new AtomicInteger();
+        primaryPost.whenComplete((endpoint, error) -> {
+            if (error == null) {
+                firstSuccess.complete(endpoint);
+            } else if (failures.incrementAndGet() == 2) {
+                firstSuccess.completeExceptionally(error);
+            }
+        });
+        postAsync(framework, session, hedge).whenComplete((endpoint, error) -> {
+            if (error == null) {
+                if (firstSuccess.complete(endpoint)) {
+                    Metrics.counter(METRIC_HEDGES, METRIC_LABEL_FRAMEWORK, framework.name(), METRIC_LABEL_OUTCOME, HEDGE_WON)
+                            .increment();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                firstSuccess.completeExceptionally(error);
+            }
+        });
+        try {
+            return firstSuccess.get();
+        } catch (ExecutionException e) {
+            throw toGenerationException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TeeSessionGenerationException(SECURE_SESSION_STORAGE_CALL_FAILED,
+                    "Interrupted while posting session");
+        }
+    }
+
+    private <S> CompletableFuture<SessionStorageEndpoint<S>> postAsync(final TeeFramework framework,
+                                                                       final S session,
+                                                                       final SessionStorageEndpoint<S> endpoint) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return postWithRetries(framework, session, endpoint);
+            } catch (TeeSessionGenerationException e) {
+                throw new CompletionException(e);
+            }
+        }, executorService);
+    }
+
+    private <S> SessionStorageEndpoint<S> postWithRetries(final TeeFramework framework,
+                                                          final S session,
+                                                          final SessionStorageEndpoint<S> endpoint) throws TeeSessionGenerationException {
+        Exception lastFailure = null;
+        for (int attempt = 1; attempt <= configuration.getMaxAttempts(); attempt++) {
+            if (attempt > 1) {
+                Metrics.counter(METRIC_RETRIES, METRIC_LABEL_FRAMEWORK, framework.name()).increment();
+                sleep(getBackoff(attempt - 1));
+            }
+            final long start = System.nanoTime();
+            balancer.onPostStarted(endpoint.webUrl());
+            try {
+                endpoint.post().post(session);
+                final long latency = System.nanoTime() - start;
+                balancer.onPostCompleted(endpoint.webUrl(), true, latency);
+                recordLatency(latency);
+                return endpoint;
+            } catch (Exception e) {
+                balancer.onPostCompleted(endpoint.webUrl(), !isRetryable(e), System.nanoTime() - start);
+                if (attempt > 1 && getStatus(e) == 409) {
+                    log.info("Session already stored by a previous attempt [url:{}, attempt:{}]",
+                            endpoint.webUrl(), attempt);
+                    return endpoint;
+                }
+                lastFailure = e;
+                if (!isRetryable(e)) {
+                    break;
+                }
+                log.warn("Failed to post session [url:{}, attempt:{}, maxAttempts:{}]",
+                        endpoint.webUrl(), attempt, configuration.getMaxAttempts(), e);
+            }
+        }
+        if (lastFailure instanceof TeeSessionGenerationException teeSessionGenerationException) {
+            throw teeSessionGenerationException;
+        }
+        throw new TeeSessionGenerationException(SECURE_SESSION_STORAGE_CALL_FAILED,
+                "Failed to post session: " + (lastFailure != null ? lastFailure.getMessage() : null));
+    }
+
+    private static void sleep(final Duration duration) throws TeeSessionGenerationException {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TeeSessionGenerationException(SECURE_SESSION_STORAGE_CALL_FAILED,
+                    "Interrupted while waiting before retrying to post session");
+        }
+    }
+
+    private static TeeSessionGenerationException toGenerationException(final ExecutionException e) {
+        if (e.getCause() instanceof TeeSessionGenerationException teeSessionGenerationException) {
+            return teeSessionGenerationException;
+        }
+        return new TeeSessionGenerationException(SECURE_SESSION_STORAGE_CALL_FAILED,
+                "Failed to post session: " + e.getCause().getMessage());
+    }
+
+    static boolean isRetryable(final Exception e) {
+        if (e instanceof RetryableException || e instanceof ResourceAccessException || e instanceof IOException) {
+            return true;
+        }
+        final int status = getStatus(e);
+        return status == 429 || status >= 500;
+    }
+
+    static int getStatus(final Exception e) {
+        if (e instanceof FeignException feignException) {
+            return feignException.status();
+        }
+        if (e instanceof RestClientResponseException restClientResponseException) {
+            return restClientResponseException.getStatusCode().value();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a random delay between 0 and the exponential backoff of the given retry, capped by the max backoff.
+     */
+    Duration getBackoff(final int retry) {
+        final int exponent = Math.min(retry - 1, MAX_BACKOFF_EXPONENT);
+        final long ceiling = Math.min(configuration.getInitialBackoff().toMillis() << exponent,
+                configuration.getMaxBackoff().toMillis());
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    /**
+     * Returns the p99 latency of recent successful posts, at least the configured hedge min delay.
+     */
+    synchronized Duration getHedgeDelay() {
+        final int count = latencyCount;
+        if (count < LATENCY_MIN_SAMPLES) {
+            return configuration.getHedgeMinDelay();
+        }
+        final long[] sorted = Arrays.copyOf(latencyWindow, count);
+        Arrays.sort(sorted);
+        final Duration p99 = Duration.ofNanos(sorted[(int) Math.ceil(count * 0.99) - 1]);
+        return p99.compareTo(configuration.getHedgeMinDelay()) > 0 ? p99 : configuration.getHedgeMinDelay();
+    }
+
+    synchronized void recordLatency(final long nanos) {
+        latencyWindow[latencyIndex] = nanos;
+        latencyIndex = (latencyIndex + 1) % LATENCY_WINDOW_SIZE;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW_SIZE);
+    }
+}
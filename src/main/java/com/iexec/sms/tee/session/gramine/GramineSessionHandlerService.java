@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2023 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,11 @@
 package com.iexec.sms.tee.session.gramine;
 
 import com.iexec.commons.poco.tee.TeeFramework;
-import com.iexec.sms.api.TeeSessionGenerationError;
 import com.iexec.sms.tee.ConditionalOnTeeFramework;
+import com.iexec.sms.tee.session.TeeSessionMetrics;
+import com.iexec.sms.tee.session.generic.AdditionalSecretProvisionersConfiguration;
+import com.iexec.sms.tee.session.generic.SessionPoster;
+import com.iexec.sms.tee.session.generic.SessionPoster.SessionStorageEndpoint;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
 import com.iexec.sms.tee.session.generic.TeeSessionHandler;
 import com.iexec.sms.tee.session.generic.TeeSessionRequest;
@@ -27,17 +30,26 @@ import com.iexec.sms.tee.session.gramine.sps.SpsConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @Component
 @ConditionalOnTeeFramework(frameworks = TeeFramework.GRAMINE)
 public class GramineSessionHandlerService implements TeeSessionHandler {
     private final GramineSessionMakerService sessionService;
     private final SpsConfiguration spsConfiguration;
+    private final AdditionalSecretProvisionersConfiguration additionalSecretProvisionersConfiguration;
+    private final SessionPoster sessionPoster;
 
     public GramineSessionHandlerService(GramineSessionMakerService sessionService,
-            SpsConfiguration spsConfiguration) {
+            SpsConfiguration spsConfiguration,
+            AdditionalSecretProvisionersConfiguration additionalSecretProvisionersConfiguration,
+            SessionPoster sessionPoster) {
         this.sessionService = sessionService;
         this.spsConfiguration = spsConfiguration;
+        this.additionalSecretProvisionersConfiguration = additionalSecretProvisionersConfiguration;
+        this.sessionPoster = sessionPoster;
     }
 
     /**
@@ -50,15 +62,23 @@ public class GramineSessionHandlerService implements TeeSessionHandler {
     @Override
     public String buildAndPostSession(TeeSessionRequest request)
             throws TeeSessionGenerationException {
-        GramineSession session = sessionService.generateSession(request);
+        GramineSession session = TeeSessionMetrics.record(
+                TeeSessionMetrics.Stage.SESSION_BUILD, request.getTeeServicesProperties(),
+                () -> sessionService.generateSession(request));
+
+        return TeeSessionMetrics.record(
+                TeeSessionMetrics.Stage.SESSION_STORAGE, request.getTeeServicesProperties(),
+                () -> sessionPoster.postSession(
+                        TeeFramework.GRAMINE, session, getEndpoints()));
+    }
 
-        try {
-            spsConfiguration.getInstance().postSession(session);
-            return spsConfiguration.getEnclaveHost();
-        } catch (Exception e) {
-            throw new TeeSessionGenerationException(
-                    TeeSessionGenerationError.SECURE_SESSION_STORAGE_CALL_FAILED,
-                    "Failed to post session: " + e.getMessage());
-        }
+    private List<SessionStorageEndpoint<GramineSession>> getEndpoints() {
+        final List<SessionStorageEndpoint<GramineSession>> endpoints = new ArrayList<>();
+        endpoints.add(new SessionStorageEndpoint<>(spsConfiguration.getWebUrl(), spsConfiguration.getEnclaveHost(),
+                session -> spsConfiguration.getInstance().postSession(session)));
+        additionalSecretProvisionersConfiguration.getAdditionalEndpoints().forEach(endpoint ->
+                endpoints.add(new SessionStorageEndpoint<>(endpoint.webUrl(), endpoint.enclaveHost(),
+                        session -> spsConfiguration.getInstance(endpoint.webUrl()).postSession(session))));
+        return endpoints;
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2023 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,18 +16,29 @@
 
 package com.iexec.sms.tee.session.gramine.sps;
 
-import com.iexec.common.utils.FeignBuilder;
 import com.iexec.commons.poco.tee.TeeFramework;
+import com.iexec.sms.http.FeignClientFactory;
 import com.iexec.sms.tee.ConditionalOnTeeFramework;
-import feign.Logger.Level;
+import com.iexec.sms.tee.session.generic.CborSessionEncoder;
+import com.iexec.sms.tee.session.generic.SessionEncodingConfiguration;
+import com.iexec.sms.tee.session.generic.SessionEncodingNegotiator;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Configuration
 @ConditionalOnTeeFramework(frameworks = TeeFramework.GRAMINE)
 @Getter
 public class SpsConfiguration {
+    @Getter(AccessLevel.NONE)
+    private final FeignClientFactory feignClientFactory;
+    @Getter(AccessLevel.NONE)
+    private final SessionEncodingConfiguration sessionEncodingConfiguration;
+
     @Value("${tee.secret-provisioner.web.hostname}")
     private String webHost;
 
@@ -46,7 +57,14 @@ public class SpsConfiguration {
     @Value("${tee.secret-provisioner.enclave.port}")
     private String enclavePort;
 
-    private SpsApiClient spsApiClient;
+    @Getter(AccessLevel.NONE)
+    private final Map<String, SpsApiClient> spsApiClients = new ConcurrentHashMap<>();
+
+    public SpsConfiguration(final FeignClientFactory feignClientFactory,
+                            final SessionEncodingConfiguration sessionEncodingConfiguration) {
+        this.feignClientFactory = feignClientFactory;
+        this.sessionEncodingConfiguration = sessionEncodingConfiguration;
+    }
 
     public String getWebUrl() {
         return "http://" + webHost + ":" + webPort;
@@ -57,12 +75,30 @@ public class SpsConfiguration {
     }
 
     public SpsApiClient getInstance() {
-        if (spsApiClient == null) {
-            spsApiClient = FeignBuilder.createBuilderWithBasicAuth(Level.FULL,
-                    webLogin, webPassword)
-                    .target(SpsApiClient.class, getWebUrl());
+        return getInstance(getWebUrl());
+    }
+
+    /**
+     * Returns a client of the SPS located at the given URL, SPS instances share the same credentials.
+     *
+     * @param webUrl URL of the SPS
+     * @return A client of the SPS
+     */
+    public SpsApiClient getInstance(final String webUrl) {
+        return spsApiClients.computeIfAbsent(webUrl, this::createClient);
+    }
+
+    private SpsApiClient createClient(final String webUrl) {
+        final SpsApiClient jsonClient = feignClientFactory.createWithBasicAuth(SpsApiClient.class, webUrl,
+                webLogin, webPassword);
+        if (!sessionEncodingConfiguration.isCompact()) {
+            return jsonClient;
         }
-        return spsApiClient;
+        final SpsApiClient compactClient = feignClientFactory.createWithBasicAuth(SpsApiClient.class,
+                webUrl, webLogin, webPassword,
+                new CborSessionEncoder(sessionEncodingConfiguration.getGzipThreshold().toBytes()));
+        return new SessionEncodingNegotiator<GramineSession>(
+                webUrl, compactClient::postSession, jsonClient::postSession)::postSession;
     }
 
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.scone;
+
+import com.iexec.commons.poco.tee.TeeFramework;
+import com.iexec.sms.tee.ConditionalOnTeeFramework;
+import jakarta.validation.constraints.NotNull;
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Value
+@Validated
+@ConfigurationProperties(prefix = "tee.scone.attestation.health-check")
+@ConditionalOnTeeFramework(frameworks = TeeFramework.SCONE)
+public class AttestationServerHealthCheckConfiguration {
+    /**
+     * Delay between two probes of a healthy attestation server.
+     */
+    @NotNull(message = "Health check interval must not be null")
+    Duration interval;
+    /**
+     * Max delay before probing again a failing attestation server.
+     */
+    @NotNull(message = "Health check max backoff must not be null")
+    Duration maxBackoff;
+}
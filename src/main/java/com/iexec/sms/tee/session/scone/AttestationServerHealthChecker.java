@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.scone;
+
+import com.iexec.common.utils.FeignBuilder;
+import com.iexec.commons.poco.tee.TeeFramework;
+import com.iexec.sms.tee.ConditionalOnTeeFramework;
+import feign.Logger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps track of the health of Azure attestation servers.
+ * <p>
+ * Each configured server is probed in background on a fixed delay. A server answering the probe is healthy,
+ * its latency score is a moving average of probe latencies. A failing server is unhealthy and is probed again
+ * after an exponential backoff, capped by {@code tee.scone.attestation.health-check.max-backoff}.
+ * <p>
+ * The healthy server with the lowest latency score is selected ahead of time, so that sessions
+ * do not have to query attestation servers.
+ */
+@Slf4j
+@Component
+@ConditionalOnTeeFramework(frameworks = TeeFramework.SCONE)
+public class AttestationServerHealthChecker {
+    static final String METRIC_HEALTHY = "iexec.scone.attestation.server.healthy";
+    static final String METRIC_LATENCY = "iexec.scone.attestation.server.latency";
+    static final String METRIC_PROBE_FAILURES = "iexec.scone.attestation.server.probe.failures";
+    static final String METRIC_LABEL_URL = "url";
+    /**
+     * Weight of the last probe in the latency score.
+     */
+    private static final double LATENCY_SMOOTHING_FACTOR = 0.3;
+    private static final int MAX_BACKOFF_EXPONENT = 16;
+
+    private final List<AttestationServer> servers;
+    private final Duration interval;
+    private final Duration maxBackoff;
+    private final Clock clock;
+    private ScheduledExecutorService executorService;
+    private volatile URL bestServer;
+    private volatile URL lastKnownServer;
+
+    private static final class AttestationServer {
+        private final URL url;
+        private final AzureAttestationServer client;
+        private final Counter probeFailuresCounter;
+        private volatile boolean healthy;
+        private volatile double latencyScore = Double.NaN;
+        private int consecutiveFailures;
+        private Instant nextProbe = Instant.MIN;
+
+        private AttestationServer(final URL url, final AzureAttestationServer client) {
+            this.url = url;
+            this.client = client;
+            this.probeFailuresCounter = Metrics.counter(METRIC_PROBE_FAILURES, METRIC_LABEL_URL, url.toString());
+        }
+    }
+
+    @Autowired
+    public AttestationServerHealthChecker(final SconeSessionSecurityConfig attestationSecurityConfig,
+                                          final AttestationServerHealthCheckConfiguration healthCheckConfiguration) {
+        this(attestationSecurityConfig.getUrls().stream()
+                        .collect(Collectors.toMap(
+                                Function.identity(),
+                                url -> FeignBuilder.createBuilder(Logger.Level.BASIC).target(AzureAttestationServer.class, url.toString()),
+                                (client1, client2) -> client1,
+                                LinkedHashMap::new)),
+                healthCheckConfiguration.getInterval(),
+                healthCheckConfiguration.getMaxBackoff(),
+                Clock.systemUTC());
+    }
+
+    AttestationServerHealthChecker(final Map<URL, AzureAttestationServer> clients,
+                                   final Duration interval,
+                                   final Duration maxBackoff,
+                                   final Clock clock) {
+        this.servers = clients.entrySet().stream()
+                .map(entry -> new AttestationServer(entry.getKey(), entry.getValue()))
+                .toList();
+        this.interval = interval;
+        this.maxBackoff = maxBackoff;
+        this.clock = clock;
+        for (final AttestationServer server : servers) {
+            Gauge.builder(METRIC_HEALTHY, server, s -> s.healthy ? 1 : 0)
+                    .description("Whether the attestation server answered its last probe")
+                    .tag(METRIC_LABEL_URL, server.url.toString())
+                    .register(Metrics.globalRegistry);
+            Gauge.builder(METRIC_LATENCY, server, s -> s.latencyScore)
+                    .description("Moving average of the attestation server probe latency in milliseconds")
+                    .tag(METRIC_LABEL_URL, server.url.toString())
+                    .register(Metrics.globalRegistry);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (servers.isEmpty()) {
+            return;
+        }
+        executorService = Executors.newSingleThreadScheduledExecutor();
+        executorService.scheduleWithFixedDelay(
+                this::probeServers, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the healthy attestation server with the lowest latency score.
+     * <p>
+     * Servers are never probed on the calling thread. When no server is healthy, the last server which was
+     * healthy is returned, as it may have recovered since its last probe.
+     *
+     * @return The URL of the best attestation server, {@literal null} if no server has ever been healthy
+     */
+    public URL getBestServer() {
+        final URL best = bestServer;
+        return best != null ? best : lastKnownServer;
+    }
+
+    /**
+     * Probes servers whose backoff has elapsed and selects the best healthy server.
+     */
+    synchronized void probeServers() {
+        for (final AttestationServer server : servers) {
+            if (!clock.instant().isBefore(server.nextProbe)) {
+                probe(server);
+            }
+        }
+        final URL best = servers.stream()
+                .filter(server -> server.healthy)
+                .min(Comparator.comparingDouble(server -> server.latencyScore))
+                .map(server -> server.url)
+                .orElse(null);
+        if (!Objects.equals(best, bestServer)) {
+            log.info("Selected attestation server [url:{}]", best);
+        }
+        bestServer = best;
+        if (best != null) {
+            lastKnownServer = best;
+        }
+    }
+
+    private void probe(final AttestationServer server) {
+        final long start = System.nanoTime();
+        try {
+            server.client.canFetchOpenIdMetadata();
+            final double latencyMillis = (System.nanoTime() - start) / 1_000_000.0;
+            server.latencyScore = Double.isNaN(server.latencyScore)
+                    ? latencyMillis
+                    : LATENCY_SMOOTHING_FACTOR * latencyMillis + (1 - LATENCY_SMOOTHING_FACTOR) * server.latencyScore;
+            if (!server.healthy) {
+                log.info("Attestation server is healthy [url:{}, latencyMillis:{}]", server.url, latencyMillis);
+            }
+            server.healthy = true;
+            server.consecutiveFailures = 0;
+            server.nextProbe = Instant.MIN;
+        } catch (Exception e) {
+            server.healthy = false;
+            server.consecutiveFailures++;
+            server.probeFailuresCounter.increment();
+            final Duration backoff = getBackoff(server.consecutiveFailures);
+            server.nextProbe = clock.instant().plus(backoff);
+            log.error("Failed to check Azure attestation server liveness [url:{}, consecutiveFailures:{}, backoff:{}]",
+                    server.url, server.consecutiveFailures, backoff, e);
+        }
+    }
+
+    Duration getBackoff(final int consecutiveFailures) {
+        final int exponent = Math.min(consecutiveFailures - 1, MAX_BACKOFF_EXPONENT);
+        final Duration backoff = interval.multipliedBy(1L << exponent);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,10 @@ package com.iexec.sms.tee.session.scone;
 import com.iexec.commons.poco.tee.TeeFramework;
 import com.iexec.sms.api.TeeSessionGenerationError;
 import com.iexec.sms.tee.ConditionalOnTeeFramework;
+import com.iexec.sms.tee.session.TeeSessionMetrics;
+import com.iexec.sms.tee.session.generic.AdditionalSecretProvisionersConfiguration;
+import com.iexec.sms.tee.session.generic.SessionPoster;
+import com.iexec.sms.tee.session.generic.SessionPoster.SessionStorageEndpoint;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
 import com.iexec.sms.tee.session.generic.TeeSessionHandler;
 import com.iexec.sms.tee.session.generic.TeeSessionRequest;
@@ -28,19 +32,28 @@ import com.iexec.sms.tee.session.scone.cas.SconeSession;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 @ConditionalOnTeeFramework(frameworks = TeeFramework.SCONE)
 public class SconeSessionHandlerService implements TeeSessionHandler {
     private final SconeSessionMakerService sessionService;
     private final CasClient apiClient;
     private final CasConfiguration casConfiguration;
+    private final AdditionalSecretProvisionersConfiguration additionalSecretProvisionersConfiguration;
+    private final SessionPoster sessionPoster;
 
     public SconeSessionHandlerService(final SconeSessionMakerService sessionService,
                                       final CasClient apiClient,
-                                      final CasConfiguration casConfiguration) {
+                                      final CasConfiguration casConfiguration,
+                                      final AdditionalSecretProvisionersConfiguration additionalSecretProvisionersConfiguration,
+                                      final SessionPoster sessionPoster) {
         this.sessionService = sessionService;
         this.apiClient = apiClient;
         this.casConfiguration = casConfiguration;
+        this.additionalSecretProvisionersConfiguration = additionalSecretProvisionersConfiguration;
+        this.sessionPoster = sessionPoster;
     }
 
     /**
@@ -52,9 +65,26 @@ public class SconeSessionHandlerService implements TeeSessionHandler {
      */
     @Override
     public String buildAndPostSession(final TeeSessionRequest request) throws TeeSessionGenerationException {
-        final SconeSession session = sessionService.generateSession(request);
-        final ResponseEntity<String> postSession = apiClient.postSession(session.toString());
+        final SconeSession session = TeeSessionMetrics.record(
+                TeeSessionMetrics.Stage.SESSION_BUILD, request.getTeeServicesProperties(),
+                () -> sessionService.generateSession(request));
+        return TeeSessionMetrics.record(
+                TeeSessionMetrics.Stage.SESSION_STORAGE, request.getTeeServicesProperties(),
+                () -> sessionPoster.postSession(
+                        TeeFramework.SCONE, session, getEndpoints()));
+    }
+
+    private List<SessionStorageEndpoint<SconeSession>> getEndpoints() {
+        final List<SessionStorageEndpoint<SconeSession>> endpoints = new ArrayList<>();
+        endpoints.add(new SessionStorageEndpoint<>(casConfiguration.getUrl(), casConfiguration.getEnclaveHost(),
+                session -> checkResponse(apiClient.postSession(session))));
+        additionalSecretProvisionersConfiguration.getAdditionalEndpoints().forEach(endpoint ->
+                endpoints.add(new SessionStorageEndpoint<>(endpoint.webUrl(), endpoint.enclaveHost(),
+                        session -> checkResponse(apiClient.postSession(endpoint.webUrl(), session)))));
+        return endpoints;
+    }
 
+    private static void checkResponse(final ResponseEntity<String> postSession) throws TeeSessionGenerationException {
         if (postSession == null) {
             throw new TeeSessionGenerationException(
                     TeeSessionGenerationError.SECURE_SESSION_STORAGE_CALL_FAILED,
@@ -67,7 +97,6 @@ public class SconeSessionHandlerService implements TeeSessionHandler {
                     TeeSessionGenerationError.SECURE_SESSION_STORAGE_CALL_FAILED,
                     "Failed to post session: " + httpCode);
         }
-        return casConfiguration.getEnclaveHost();
     }
 
 }
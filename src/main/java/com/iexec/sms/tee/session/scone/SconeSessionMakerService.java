@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,6 @@
 
 package com.iexec.sms.tee.session.scone;
 
-import com.iexec.common.utils.FeignBuilder;
 import com.iexec.commons.poco.tee.TeeFramework;
 import com.iexec.sms.tee.ConditionalOnTeeFramework;
 import com.iexec.sms.tee.session.base.SecretEnclaveBase;
@@ -31,14 +30,12 @@ import com.iexec.sms.tee.session.scone.cas.SconeSession.Image;
 import com.iexec.sms.tee.session.scone.cas.SconeSession.Image.Volume;
 import com.iexec.sms.tee.session.scone.cas.SconeSession.Security;
 import com.iexec.sms.tee.session.scone.cas.SconeSession.Volumes;
-import feign.Logger;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.net.URL;
 import java.util.*;
-import java.util.stream.Collectors;
 
 //TODO Rename and move
 @Slf4j
@@ -48,17 +45,14 @@ public class SconeSessionMakerService {
 
     private final SecretSessionBaseService secretSessionBaseService;
     private final SconeSessionSecurityConfig attestationSecurityConfig;
-    private final Map<URL, AzureAttestationServer> azureAttestationServersMap;
+    private final AttestationServerHealthChecker attestationServerHealthChecker;
 
     public SconeSessionMakerService(final SecretSessionBaseService secretSessionBaseService,
-                                    final SconeSessionSecurityConfig attestationSecurityConfig) {
+                                    final SconeSessionSecurityConfig attestationSecurityConfig,
+                                    final AttestationServerHealthChecker attestationServerHealthChecker) {
         this.secretSessionBaseService = secretSessionBaseService;
         this.attestationSecurityConfig = attestationSecurityConfig;
-        azureAttestationServersMap = attestationSecurityConfig.getUrls().stream()
-                .collect(Collectors.toMap(
-                        url -> url,
-                        url -> FeignBuilder.createBuilder(Logger.Level.BASIC).target(AzureAttestationServer.class, url.toString())
-                ));
+        this.attestationServerHealthChecker = attestationServerHealthChecker;
     }
 
     /**
@@ -113,7 +107,7 @@ public class SconeSessionMakerService {
                 sconePostEnclave.getImageName(),
                 List.of(iexecOutVolume, postComputeTmpVolume)));
 
-        final URL validAttestationServer = resolveValidAttestationServer();
+        final URL validAttestationServer = attestationServerHealthChecker.getBestServer();
 
         return SconeSession.builder()
                 .name(request.getSessionId())
@@ -135,22 +129,6 @@ public class SconeSessionMakerService {
                 .build();
     }
 
-    private URL resolveValidAttestationServer() {
-        // The keys of the Map are shuffled to avoid always querying servers in the same order
-        final List<URL> urls = new ArrayList<>(azureAttestationServersMap.keySet());
-        Collections.shuffle(urls);
-        for (final URL attestationServerUrl : urls) {
-            try {
-                azureAttestationServersMap.get(attestationServerUrl).canFetchOpenIdMetadata();
-                log.info("Resolved attestation server [url:{}]", attestationServerUrl);
-                return attestationServerUrl;
-            } catch (Exception e) {
-                log.error("Failed to check Azure attestation server liveness [url:{}]", attestationServerUrl, e);
-            }
-        }
-        return null;
-    }
-
     private SconeEnclave toSconeEnclave(final SecretEnclaveBase enclaveBase,
                                         final String command,
                                         final boolean addJavaEnvVars) {
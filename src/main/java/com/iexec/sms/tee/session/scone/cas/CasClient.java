@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2023 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,11 +19,14 @@ package com.iexec.sms.tee.session.scone.cas;
 import com.iexec.commons.poco.tee.TeeFramework;
 import com.iexec.sms.ssl.TwoWaySslClient;
 import com.iexec.sms.tee.ConditionalOnTeeFramework;
-import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.stereotype.Service;
-
-import java.nio.charset.StandardCharsets;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
 
 @Service
 @ConditionalOnTeeFramework(frameworks = TeeFramework.SCONE)
@@ -38,15 +41,41 @@ public class CasClient {
         this.twoWaySslClient = twoWaySslClient;
     }
 
-    /*
-     * POST /session of CAS requires 2-way SSL authentication
+    /**
+     * Posts a session to CAS, POST /session of CAS requires 2-way SSL authentication.
+     * <p>
+     * The session YAML is written by the HTTP client directly to the connection, without buffering it,
+     * when the request supports streaming. The session is then sent with chunked transfer encoding.
+     *
+     * @param session Session to post
+     * @return CAS response
+     */
+    public ResponseEntity<String> postSession(SconeSession session) {
+        return postSession(casConfiguration.getUrl(), session);
+    }
+
+    /**
+     * Posts a session to a given CAS, POST /session of CAS requires 2-way SSL authentication.
+     *
+     * @param casUrl  Base URL of the CAS
+     * @param session Session to post
+     * @return CAS response
      */
-    public ResponseEntity<String> postSession(String palaemonFile) {
-        String url = casConfiguration.getUrl() + "/session";
-        HttpEntity<byte[]> request = new HttpEntity<>(palaemonFile.getBytes(StandardCharsets.UTF_8));
-        return twoWaySslClient
-                .getRestTemplate()
-                .postForEntity(url, request, String.class);
+    public ResponseEntity<String> postSession(String casUrl, SconeSession session) {
+        final String url = casUrl + "/session";
+        final RestTemplate restTemplate = twoWaySslClient.getRestTemplate();
+        final RequestCallback acceptHeaderCallback = restTemplate.acceptHeaderRequestCallback(String.class);
+        final ResponseExtractor<ResponseEntity<String>> responseExtractor =
+                restTemplate.responseEntityExtractor(String.class);
+        return restTemplate.execute(url, HttpMethod.POST, request -> {
+            acceptHeaderCallback.doWithRequest(request);
+            request.getHeaders().setContentType(MediaType.APPLICATION_OCTET_STREAM);
+            if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                streamingRequest.setBody(session::writeTo);
+            } else {
+                session.writeTo(request.getBody());
+            }
+        }, responseExtractor);
     }
 
 }
\ No newline at end of file
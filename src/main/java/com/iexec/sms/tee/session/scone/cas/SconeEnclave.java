@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package com.iexec.sms.tee.session.scone.cas;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.Builder;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +32,8 @@ import java.util.Map;
 @Builder
 public class SconeEnclave {
 
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper().writer();
+
     @JsonProperty("name")
     String name;
     @JsonProperty("image_name")
@@ -47,7 +50,7 @@ public class SconeEnclave {
     @Override
     public String toString() {
         try {
-            return new ObjectMapper().writeValueAsString(this);
+            return JSON_WRITER.writeValueAsString(this);
         } catch (JsonProcessingException e) {
             log.error("Failed to write CAS session as string [session:{}]", name, e);
             return "";
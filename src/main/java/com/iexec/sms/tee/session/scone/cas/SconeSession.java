@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,15 @@
 package com.iexec.sms.tee.session.scone.cas;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URL;
 import java.util.List;
 
@@ -33,6 +37,15 @@ import java.util.List;
 @NoArgsConstructor
 public class SconeSession {
 
+    /**
+     * Writers are immutable and thread-safe, a single instance is shared by all sessions.
+     * Target streams are left open, they belong to the caller.
+     */
+    private static final ObjectWriter YAML_WRITER = YAMLMapper.builder()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build()
+            .writer();
+
     @JsonProperty("name")
     private String name;
     @JsonProperty("version")
@@ -104,10 +117,20 @@ public class SconeSession {
         }
     }
 
+    /**
+     * Writes the YAML representation of the session to a stream, without intermediate copies.
+     *
+     * @param outputStream Target stream, not closed by this method
+     * @throws IOException if the session could not be written
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        YAML_WRITER.writeValue(outputStream, this);
+    }
+
     @Override
     public String toString() {
         try {
-            return new YAMLMapper().writeValueAsString(this);
+            return YAML_WRITER.writeValueAsString(this);
         } catch (JsonProcessingException e) {
             log.error("Failed to write SPS session as string [session:{}]", name, e);
             return "";
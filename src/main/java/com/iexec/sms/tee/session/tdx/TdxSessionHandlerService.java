@@ -1,5 +1,5 @@
 /*
- * Copyright 2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2025-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,38 +16,80 @@
 
 package com.iexec.sms.tee.session.tdx;
 
-import com.iexec.common.utils.FeignBuilder;
 import com.iexec.commons.poco.tee.TeeFramework;
-import com.iexec.sms.api.TeeSessionGenerationError;
+import com.iexec.sms.http.FeignClientFactory;
 import com.iexec.sms.ssl.SslConfig;
 import com.iexec.sms.tee.ConditionalOnTeeFramework;
+import com.iexec.sms.tee.session.TeeSessionMetrics;
+import com.iexec.sms.tee.session.generic.AdditionalSecretProvisionersConfiguration;
+import com.iexec.sms.tee.session.generic.AdditionalSecretProvisionersConfiguration.SecretProvisionerEndpoint;
+import com.iexec.sms.tee.session.generic.CborSessionEncoder;
+import com.iexec.sms.tee.session.generic.SessionEncodingConfiguration;
+import com.iexec.sms.tee.session.generic.SessionEncodingNegotiator;
+import com.iexec.sms.tee.session.generic.SessionPoster;
+import com.iexec.sms.tee.session.generic.SessionPoster.SessionStorageEndpoint;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
 import com.iexec.sms.tee.session.generic.TeeSessionHandler;
 import com.iexec.sms.tee.session.generic.TeeSessionRequest;
 import com.iexec.sms.tee.session.tdx.storage.TdxSession;
 import com.iexec.sms.tee.session.tdx.storage.TdxSessionStorageApiClient;
 import com.iexec.sms.tee.session.tdx.storage.TdxSessionStorageConfiguration;
-import feign.Client;
-import feign.Logger;
-import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.springframework.stereotype.Service;
 
+import javax.net.ssl.SSLContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @ConditionalOnTeeFramework(frameworks = TeeFramework.TDX)
 public class TdxSessionHandlerService implements TeeSessionHandler {
     private final TdxSessionMakerService sessionService;
     private final TdxSessionStorageConfiguration storageConfiguration;
+    private final AdditionalSecretProvisionersConfiguration additionalSecretProvisionersConfiguration;
+    private final SessionPoster sessionPoster;
     private final TdxSessionStorageApiClient storageClient;
+    private final Map<String, TdxSessionStorageApiClient> additionalStorageClients;
 
     public TdxSessionHandlerService(
             final SslConfig sslConfig,
+            final FeignClientFactory feignClientFactory,
             final TdxSessionMakerService sessionService,
-            final TdxSessionStorageConfiguration storageConfiguration) {
+            final TdxSessionStorageConfiguration storageConfiguration,
+            final SessionEncodingConfiguration sessionEncodingConfiguration,
+            final AdditionalSecretProvisionersConfiguration additionalSecretProvisionersConfiguration,
+            final SessionPoster sessionPoster) {
         this.sessionService = sessionService;
         this.storageConfiguration = storageConfiguration;
-        this.storageClient = FeignBuilder.createBuilder(Logger.Level.FULL)
-                .client(new Client.Default(sslConfig.getFreshSslContext().getSocketFactory(), NoopHostnameVerifier.INSTANCE))
-                .target(TdxSessionStorageApiClient.class, storageConfiguration.getPostUrl());
+        this.additionalSecretProvisionersConfiguration = additionalSecretProvisionersConfiguration;
+        this.sessionPoster = sessionPoster;
+        final SSLContext sslContext = sslConfig.getFreshSslContext();
+        this.storageClient = createStorageClient(
+                feignClientFactory, sessionEncodingConfiguration, sslContext, storageConfiguration.getPostUrl());
+        this.additionalStorageClients = additionalSecretProvisionersConfiguration.getAdditionalEndpoints().stream()
+                .map(SecretProvisionerEndpoint::webUrl)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), postUrl -> createStorageClient(
+                        feignClientFactory, sessionEncodingConfiguration, sslContext, postUrl)));
+    }
+
+    private static TdxSessionStorageApiClient createStorageClient(
+            final FeignClientFactory feignClientFactory,
+            final SessionEncodingConfiguration sessionEncodingConfiguration,
+            final SSLContext sslContext,
+            final String postUrl) {
+        final TdxSessionStorageApiClient jsonClient = feignClientFactory.createWithSslContext(
+                TdxSessionStorageApiClient.class, postUrl, sslContext);
+        if (!sessionEncodingConfiguration.isCompact()) {
+            return jsonClient;
+        }
+        final TdxSessionStorageApiClient compactClient = feignClientFactory.createWithSslContext(
+                TdxSessionStorageApiClient.class, postUrl, sslContext,
+                new CborSessionEncoder(sessionEncodingConfiguration.getGzipThreshold().toBytes()));
+        return new SessionEncodingNegotiator<TdxSession>(postUrl,
+                compactClient::postSession, jsonClient::postSession)::postSession;
     }
 
     /**
@@ -59,15 +101,23 @@ public class TdxSessionHandlerService implements TeeSessionHandler {
      */
     @Override
     public String buildAndPostSession(final TeeSessionRequest request) throws TeeSessionGenerationException {
-        final TdxSession session = sessionService.generateSession(request);
+        final TdxSession session = TeeSessionMetrics.record(
+                TeeSessionMetrics.Stage.SESSION_BUILD, request.getTeeServicesProperties(),
+                () -> sessionService.generateSession(request));
 
-        try {
-            storageClient.postSession(session);
-            return storageConfiguration.getRemoteAttestationUrl();
-        } catch (Exception e) {
-            throw new TeeSessionGenerationException(
-                    TeeSessionGenerationError.SECURE_SESSION_STORAGE_CALL_FAILED,
-                    "Failed to post session: " + e.getMessage());
-        }
+        return TeeSessionMetrics.record(
+                TeeSessionMetrics.Stage.SESSION_STORAGE, request.getTeeServicesProperties(),
+                () -> sessionPoster.postSession(
+                        TeeFramework.TDX, session, getEndpoints()));
+    }
+
+    private List<SessionStorageEndpoint<TdxSession>> getEndpoints() {
+        final List<SessionStorageEndpoint<TdxSession>> endpoints = new ArrayList<>();
+        endpoints.add(new SessionStorageEndpoint<>(storageConfiguration.getPostUrl(),
+                storageConfiguration.getRemoteAttestationUrl(), session -> storageClient.postSession(session)));
+        additionalSecretProvisionersConfiguration.getAdditionalEndpoints().forEach(endpoint ->
+                endpoints.add(new SessionStorageEndpoint<>(endpoint.webUrl(), endpoint.enclaveHost(),
+                        session -> additionalStorageClients.get(endpoint.webUrl()).postSession(session))));
+        return endpoints;
     }
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package db.migration.postgresql;
+
+import com.iexec.sms.secret.SecretAddressMigration;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Stores addresses of secret headers as bytes, see {@link SecretAddressMigration}.
+ */
+public class V4__Binary_secret_addresses extends BaseJavaMigration {
+    @Override
+    public void migrate(final Context context) throws Exception {
+        SecretAddressMigration.migrate(context.getConnection(), SecretAddressMigration.BATCH_SIZE);
+    }
+}
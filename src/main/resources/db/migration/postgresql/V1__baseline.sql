@@ -0,0 +1,51 @@
+-- Schema matching JPA entities, identifiers are quoted as with hibernate.globally_quoted_identifiers
+
+CREATE TABLE "data_key" (
+    "version" integer NOT NULL,
+    "creation_date" timestamp(6) with time zone,
+    "wrapped_key" varchar(512) NOT NULL,
+    PRIMARY KEY ("version")
+);
+
+CREATE TABLE "ethereum_credentials" (
+    "id" varchar(255) NOT NULL,
+    "address" varchar(255),
+    "is_encrypted" boolean NOT NULL,
+    "private_key" varchar(255),
+    PRIMARY KEY ("id")
+);
+
+CREATE TABLE "tee_challenge" (
+    "id" varchar(255) NOT NULL,
+    "final_deadline" timestamp(6) with time zone,
+    "task_id" varchar(255),
+    "credentials_id" varchar(255) UNIQUE,
+    PRIMARY KEY ("id"),
+    FOREIGN KEY ("credentials_id") REFERENCES "ethereum_credentials" ("id")
+);
+
+CREATE INDEX "tee_challenge_task_id_idx" ON "tee_challenge" ("task_id");
+CREATE INDEX "tee_challenge_final_deadline_idx" ON "tee_challenge" ("final_deadline");
+
+CREATE TABLE "web2secret" (
+    "address" varchar(255) NOT NULL,
+    "owner_address" varchar(255) NOT NULL,
+    "value" varchar(8192),
+    PRIMARY KEY ("address", "owner_address")
+);
+
+CREATE TABLE "web3secret" (
+    "address" varchar(255) NOT NULL,
+    "value" varchar(8192),
+    PRIMARY KEY ("address")
+);
+
+CREATE TABLE "tee_task_compute_secret" (
+    "fixed_secret_owner" varchar(255) NOT NULL,
+    "key" varchar(255) NOT NULL,
+    "on_chain_object_address" varchar(255) NOT NULL,
+    "on_chain_object_type" smallint NOT NULL,
+    "secret_owner_role" smallint NOT NULL,
+    "value" varchar(8192),
+    PRIMARY KEY ("fixed_secret_owner", "key", "on_chain_object_address", "on_chain_object_type", "secret_owner_role")
+);
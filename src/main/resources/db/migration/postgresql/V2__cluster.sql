@@ -0,0 +1,15 @@
+-- Events shared by SMS instances of a cluster
+CREATE TABLE "cluster_event" (
+    "id" bigint GENERATED BY DEFAULT AS IDENTITY,
+    "creation_date" timestamp(6) with time zone,
+    "origin" varchar(255),
+    "payload" varchar(255),
+    "type" varchar(255),
+    PRIMARY KEY ("id")
+);
+
+CREATE INDEX "cluster_event_creation_date_idx" ON "cluster_event" ("creation_date");
+
+-- A single challenge per task, even when created concurrently by several SMS instances
+DROP INDEX "tee_challenge_task_id_idx";
+ALTER TABLE "tee_challenge" ADD CONSTRAINT "tee_challenge_task_id_key" UNIQUE ("task_id");
@@ -0,0 +1,4 @@
+-- Encrypted values are stored as bytes, values of existing rows are moved by SecretValueMigrationService
+ALTER TABLE "web2secret" ADD COLUMN "encrypted_value" bytea;
+ALTER TABLE "web3secret" ADD COLUMN "encrypted_value" bytea;
+ALTER TABLE "tee_task_compute_secret" ADD COLUMN "encrypted_value" bytea;
@@ -0,0 +1,12 @@
+-- Challenges are keyed by task ID and hold their credentials,
+-- rows of "tee_challenge" and "ethereum_credentials" tables are moved by TeeChallengeMigrationService
+CREATE TABLE "tee_task_challenge" (
+    "task_id" varchar(255) NOT NULL,
+    "final_deadline" timestamp(6) with time zone,
+    "address" varchar(255),
+    "is_encrypted" boolean NOT NULL,
+    "private_key" varchar(255),
+    PRIMARY KEY ("task_id")
+);
+
+CREATE INDEX "tee_task_challenge_final_deadline_idx" ON "tee_task_challenge" ("final_deadline");
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms;
+
+import com.iexec.sms.encryption.DataKey;
+import com.iexec.sms.encryption.DataKeyRepository;
+import com.iexec.sms.secret.compute.OnChainObjectType;
+import com.iexec.sms.secret.compute.SecretOwnerRole;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecret;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretRepository;
+import com.iexec.sms.secret.web2.Web2Secret;
+import com.iexec.sms.secret.web2.Web2SecretRepository;
+import com.iexec.sms.secret.web3.Web3Secret;
+import com.iexec.sms.secret.web3.Web3SecretRepository;
+import com.iexec.sms.tee.challenge.TeeChallenge;
+import com.iexec.sms.tee.challenge.TeeChallengeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks versioned migrations of the PostgreSQL profile against entities of the SMS.
+ * <p>
+ * An H2 database in PostgreSQL compatibility mode stands in for a PostgreSQL server.
+ * Hibernate validates entities against the migrated schema when the context starts.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:postgres-schema;MODE=PostgreSQL",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/postgresql",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostgresSchemaMigrationTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataKeyRepository dataKeyRepository;
+    @Autowired
+    private TeeChallengeRepository teeChallengeRepository;
+    @Autowired
+    private TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
+    @Autowired
+    private Web2SecretRepository web2SecretRepository;
+    @Autowired
+    private Web3SecretRepository web3SecretRepository;
+
+    @Test
+    void shouldApplyMigrations() {
+        final Integer appliedMigrations = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = TRUE", Integer.class);
+        assertThat(appliedMigrations).isPositive();
+    }
+
+    @Test
+    void shouldStoreSecrets() {
+        final Web2Secret web2Secret = new Web2Secret("0xowner", "address", "value");
+        final Web3Secret web3Secret = new Web3Secret("0xaddress", "value");
+        final TeeTaskComputeSecret computeSecret = TeeTaskComputeSecret.builder()
+                .onChainObjectType(OnChainObjectType.APPLICATION)
+                .onChainObjectAddress("")
+                .secretOwnerRole(SecretOwnerRole.REQUESTER)
+                .fixedSecretOwner("0xrequester")
+                .key("key")
+                .value("value")
+                .build();
+        web2SecretRepository.saveAndFlush(web2Secret);
+        web3SecretRepository.saveAndFlush(web3Secret);
+        teeTaskComputeSecretRepository.saveAndFlush(computeSecret);
+
+        assertThat(web2SecretRepository.findById(web2Secret.getHeader())).isPresent();
+        assertThat(web3SecretRepository.findById(web3Secret.getHeader())).isPresent();
+        assertThat(teeTaskComputeSecretRepository.findById(computeSecret.getHeader())).contains(computeSecret);
+    }
+
+    @Test
+    void shouldStoreDataKeys() {
+        final Instant creationDate = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        dataKeyRepository.saveAndFlush(new DataKey(1, "wrappedKey", creationDate));
+
+        assertThat(dataKeyRepository.findById(1))
+                .hasValueSatisfying(dataKey -> assertThat(dataKey.getCreationDate()).isEqualTo(creationDate));
+    }
+
+    @Test
+    void shouldStoreChallengesKeyedByTaskId() throws GeneralSecurityException {
+        final TeeChallenge challenge = new TeeChallenge("0xtask", Instant.now().truncatedTo(ChronoUnit.MICROS));
+        challenge.getCredentials().setEncryptedPrivateKey("encryptedKey");
+        teeChallengeRepository.saveAndFlush(challenge);
+
+        final Integer storedChallenges = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"tee_task_challenge\" WHERE \"task_id\" = ? AND \"is_encrypted\" = TRUE",
+                Integer.class, "0xtask");
+        assertThat(storedChallenges).isOne();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,13 +18,13 @@ package com.iexec.sms.admin;
 
 import com.iexec.sms.encryption.EncryptionService;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
@@ -48,6 +48,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Slf4j
@@ -63,9 +65,14 @@ class AdminControllerTests {
     private AdminService adminService;
     @Mock
     private EncryptionService encryptionService;
-    @InjectMocks
     private AdminController adminController;
 
+    @BeforeEach
+    void beforeEach() {
+        when(adminService.getOperationLock()).thenReturn(new ReentrantLock(true));
+        adminController = new AdminController(adminService, null);
+    }
+
     // region backup
     @Test
     void shouldReturnCreatedWhenBackupSuccess() {
@@ -232,6 +239,61 @@ class AdminControllerTests {
     }
     // endregion
 
+    // region key rotation
+    @Test
+    void shouldReturnOkWhenDataKeyRotated() {
+        when(adminService.rotateDataKey()).thenReturn(true);
+        assertEquals(HttpStatus.OK, adminController.rotateDataKey().getStatusCode());
+    }
+
+    @Test
+    void shouldReturnErrorWhenDataKeyRotationFails() {
+        when(adminService.rotateDataKey()).thenReturn(false);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, adminController.rotateDataKey().getStatusCode());
+    }
+
+    @Test
+    void shouldReturnOkWhenAesKeyRotated() {
+        when(adminService.rotateAesKey()).thenReturn(true);
+        assertEquals(HttpStatus.OK, adminController.rotateAesKey().getStatusCode());
+    }
+
+    @Test
+    void shouldReturnErrorWhenAesKeyRotationThrows() {
+        when(adminService.rotateAesKey()).thenThrow(RuntimeException.class);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, adminController.rotateAesKey().getStatusCode());
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWhenRotationLockIsNotAcquired() throws InterruptedException {
+        ReflectionTestUtils.setField(adminController, "rLock", rLock);
+        when(rLock.tryLock(100, TimeUnit.MILLISECONDS)).thenReturn(false);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, adminController.rotateAesKey().getStatusCode());
+    }
+    // endregion
+
+    // region storage compaction
+    @Test
+    void shouldReturnOkWhenStorageCompacted() {
+        when(adminService.compactStorage()).thenReturn(true);
+        assertEquals(HttpStatus.OK, adminController.compactStorage().getStatusCode());
+    }
+
+    @Test
+    void shouldReturnErrorWhenStorageCompactionFails() {
+        when(adminService.compactStorage()).thenReturn(false);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, adminController.compactStorage().getStatusCode());
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWhenCompactionLockIsNotAcquired() throws InterruptedException {
+        ReflectionTestUtils.setField(adminController, "rLock", rLock);
+        when(rLock.tryLock(100, TimeUnit.MILLISECONDS)).thenReturn(false);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, adminController.compactStorage().getStatusCode());
+        verify(adminService, never()).compactStorage();
+    }
+    // endregion
+
     // region getStoragePathFromID
     @Test
     void testFileSystemNotFoundExceptionOnGetStoragePathFromID() {
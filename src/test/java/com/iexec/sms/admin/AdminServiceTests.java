@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -192,6 +194,33 @@ class AdminServiceTests {
         );
     }
 
+    @Test
+    void shouldRunRestoredListenersAfterAesKeyRestoreEvenWhenOneFails() {
+        final List<String> steps = new ArrayList<>();
+        final EncryptionService encryptionServiceSpy = Mockito.spy(new EncryptionService(
+                new EncryptionConfiguration(tempDir.getAbsolutePath() + "/aes.key")));
+        Mockito.doAnswer(invocation -> {
+            steps.add("aesKey");
+            return invocation.callRealMethod();
+        }).when(encryptionServiceSpy).reloadAESKey();
+        final AdminService restoringAdminService = new AdminService(encryptionServiceSpy, "jdbc:h2:mem:test", "sa", "", "/tmp/");
+        restoringAdminService.addDatabaseRestoredListener(() -> {
+            steps.add("failingListener");
+            throw new IllegalStateException("Migration failed");
+        });
+        restoringAdminService.addDatabaseRestoredListener(() -> steps.add("listener"));
+        restoringAdminService.createBackupFile(tempStorageLocation.getPath(), "backup.sql");
+
+        final boolean restored = restoringAdminService.restoreDatabaseFromBackupFile(tempStorageLocation.getPath(), "backup.sql");
+
+        assertAll(
+                () -> assertThat(restored).isFalse(),
+                () -> assertThat(steps).containsExactly("aesKey", "failingListener", "listener"),
+                () -> assertThat(memoryLogAppender.contains("Failed to process restored database")).isTrue(),
+                () -> assertThat(memoryLogAppender.contains("SMS is now online")).isTrue()
+        );
+    }
+
     @Test
     void shouldFailToRestoreWhenBackupFileOutOfStorage() {
         assertAll(
@@ -378,6 +407,46 @@ class AdminServiceTests {
     }
     // endregion
 
+    // region online-state
+    @Test
+    void shouldNotifyListenersOfOnlineState() {
+        final List<Boolean> states = new ArrayList<>();
+        adminService.addOnlineStateListener(states::add);
+        adminService.putSmsOffline();
+        adminService.putSmsOnline();
+        assertThat(states).containsExactly(false, true);
+    }
+
+    @Test
+    void shouldBeOfflineDuringClusterMaintenance() {
+        final List<Boolean> states = new ArrayList<>();
+        adminService.addOnlineStateListener(states::add);
+        adminService.putSmsOnline();
+        states.clear();
+
+        adminService.setClusterMaintenance(true);
+        assertThat(adminService.isSmsOnline()).isFalse();
+        adminService.setClusterMaintenance(false);
+        assertThat(adminService.isSmsOnline()).isTrue();
+        assertThat(states).isEmpty();
+    }
+    // endregion
+
+    // region storage-compaction
+    @Test
+    void shouldNotCompactStorageWithoutRegisteredCompaction() {
+        assertThat(adminService.compactStorage()).isFalse();
+    }
+
+    @Test
+    void shouldRunRegisteredStorageCompaction() {
+        adminService.setStorageCompaction(() -> true);
+        assertThat(adminService.compactStorage()).isTrue();
+        adminService.setStorageCompaction(() -> false);
+        assertThat(adminService.compactStorage()).isFalse();
+    }
+    // endregion
+
     //region utils
     @Test
     void testCheckCommonParametersValidation() {
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class BulkheadRequestFilterTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BulkheadRequestFilter filter;
+
+    @BeforeEach
+    void init() {
+        Metrics.globalRegistry.add(meterRegistry);
+        final BulkheadConfiguration.Compartment compartment =
+                new BulkheadConfiguration.Compartment(1, 1, Duration.ofMillis(50));
+        filter = new BulkheadRequestFilter(
+                new BulkheadConfiguration(true, compartment, compartment, compartment, compartment, compartment));
+    }
+
+    @AfterEach
+    void tearDown() {
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
+    }
+
+    private static MockHttpServletRequest request(final String method, final String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    private MockHttpServletResponse doFilter(final MockHttpServletRequest req, final FilterChain chain) throws Exception {
+        final MockHttpServletResponse res = new MockHttpServletResponse();
+        filter.doFilter(req, res, chain);
+        return res;
+    }
+
+    /**
+     * Occupies the only processing slot of the secret writes compartment until the returned latch is released.
+     */
+    private CountDownLatch occupySecretWrites() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> {
+            try {
+                doFilter(request("POST", "/secrets/web2"), (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+
+    private double getRejectedCount(final String workload) {
+        return meterRegistry.counter(BulkheadRequestFilter.METRIC_REJECTED,
+                BulkheadRequestFilter.METRIC_LABEL_WORKLOAD, workload).count();
+    }
+
+    // region classify
+    @Test
+    void shouldClassifyRequests() {
+        assertAll(
+                () -> assertThat(BulkheadRequestFilter.classify(request("POST", "/tee/sessions")))
+                        .isEqualTo(BulkheadRequestFilter.Workload.SESSIONS),
+                () -> assertThat(BulkheadRequestFilter.classify(request("POST", "/tee/challenges/0x0")))
+                        .isEqualTo(BulkheadRequestFilter.Workload.CHALLENGES),
+                () -> assertThat(BulkheadRequestFilter.classify(request("POST", "/secrets/web2")))
+                        .isEqualTo(BulkheadRequestFilter.Workload.SECRET_WRITES),
+                () -> assertThat(BulkheadRequestFilter.classify(request("PUT", "/secrets/web2")))
+                        .isEqualTo(BulkheadRequestFilter.Workload.SECRET_WRITES),
+                () -> assertThat(BulkheadRequestFilter.classify(request("HEAD", "/apps/0x0/secrets")))
+                        .isEqualTo(BulkheadRequestFilter.Workload.SECRET_READS),
+                () -> assertThat(BulkheadRequestFilter.classify(request("POST", "/secrets/exists")))
+                        .isEqualTo(BulkheadRequestFilter.Workload.SECRET_READS),
+                () -> assertThat(BulkheadRequestFilter.classify(request("POST", "/admin/backup")))
+                        .isEqualTo(BulkheadRequestFilter.Workload.ADMIN),
+                () -> assertThat(BulkheadRequestFilter.classify(request("GET", "/admin/replication/changes")))
+                        .isNull()
+        );
+    }
+    // endregion
+
+    // region doFilter
+    @Test
+    void shouldProcessRequestAndReleaseSlot() throws Exception {
+        final MockHttpServletResponse res = doFilter(request("POST", "/tee/sessions"), new MockFilterChain());
+        assertThat(res.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(filter.getActive(BulkheadRequestFilter.Workload.SESSIONS)).isZero();
+    }
+
+    @Test
+    void shouldRejectRequestWhenSlotIsNotReleasedInTime() throws Exception {
+        final CountDownLatch release = occupySecretWrites();
+        final MockHttpServletResponse res = doFilter(request("POST", "/secrets/web2"), new MockFilterChain());
+        release.countDown();
+        assertAll(
+                () -> assertThat(res.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE),
+                () -> assertThat(res.getContentAsString()).isEqualTo(BulkheadRequestFilter.BULKHEAD_ERROR),
+                () -> assertThat(getRejectedCount("secret_writes")).isEqualTo(1.0)
+        );
+    }
+
+    private void useLongWaitFilter() {
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        final BulkheadConfiguration.Compartment compartment =
+                new BulkheadConfiguration.Compartment(1, 1, Duration.ofSeconds(5));
+        filter = new BulkheadRequestFilter(
+                new BulkheadConfiguration(true, compartment, compartment, compartment, compartment, compartment));
+    }
+
+    private CompletableFuture<MockHttpServletResponse> queueSecretWrite() {
+        final BulkheadRequestFilter queuedFilter = filter;
+        final CompletableFuture<MockHttpServletResponse> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                final MockHttpServletResponse res = new MockHttpServletResponse();
+                queuedFilter.doFilter(request("POST", "/secrets/web2"), res, new MockFilterChain());
+                return res;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        while (meterRegistry.get(BulkheadRequestFilter.METRIC_QUEUED)
+                .tag(BulkheadRequestFilter.METRIC_LABEL_WORKLOAD, "secret_writes").gauge().value() == 0) {
+            Thread.onSpinWait();
+        }
+        return queued;
+    }
+
+    @Test
+    void shouldProcessQueuedRequestWhenSlotIsReleased() throws Exception {
+        useLongWaitFilter();
+        final CountDownLatch release = occupySecretWrites();
+        final CompletableFuture<MockHttpServletResponse> queued = queueSecretWrite();
+        release.countDown();
+        assertThat(queued.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(getRejectedCount("secret_writes")).isZero();
+    }
+
+    @Test
+    void shouldRejectRequestWhenQueueIsFull() throws Exception {
+        useLongWaitFilter();
+        final CountDownLatch release = occupySecretWrites();
+        final CompletableFuture<MockHttpServletResponse> queued = queueSecretWrite();
+        final MockHttpServletResponse res = doFilter(request("POST", "/secrets/web2"), new MockFilterChain());
+        release.countDown();
+        assertThat(res.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(queued.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(getRejectedCount("secret_writes")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldIsolateWorkloads() throws Exception {
+        final CountDownLatch release = occupySecretWrites();
+        final MockHttpServletResponse res = doFilter(request("POST", "/tee/sessions"), new MockFilterChain());
+        release.countDown();
+        assertThat(res.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(getRejectedCount("sessions")).isZero();
+    }
+
+    @Test
+    void shouldNotLimitReplicationRequests() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> {
+            try {
+                doFilter(request("POST", "/admin/backup"), (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        final MockHttpServletResponse first = doFilter(request("GET", "/admin/replication/changes"), new MockFilterChain());
+        final MockHttpServletResponse second = doFilter(request("GET", "/admin/replication/changes"), new MockFilterChain());
+        release.countDown();
+        assertThat(first.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(second.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(getRejectedCount("admin")).isZero();
+    }
+    // endregion
+}
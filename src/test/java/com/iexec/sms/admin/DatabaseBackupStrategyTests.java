@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatabaseBackupStrategyTests {
+
+    // region forDatasource
+    @Test
+    void shouldSelectPostgresStrategyForPostgresUrl() {
+        assertThat(DatabaseBackupStrategy.forDatasource("jdbc:postgresql://localhost:5432/sms", "sms", ""))
+                .isInstanceOf(PostgresDatabaseBackupStrategy.class);
+    }
+
+    @Test
+    void shouldSelectH2StrategyForH2Url() {
+        assertThat(DatabaseBackupStrategy.forDatasource("jdbc:h2:mem:test", "sa", ""))
+                .isInstanceOf(H2DatabaseBackupStrategy.class);
+    }
+    // endregion
+
+    // region getBackupColumns
+    @Test
+    void shouldReturnBackupColumnsInManifestOrder() throws IOException {
+        final Properties manifest = new Properties();
+        manifest.setProperty("columns.web3secret", "value,address");
+        assertThat(PostgresDatabaseBackupStrategy.getBackupColumns(manifest, "web3secret", List.of("address", "value")))
+                .containsExactly("value", "address");
+    }
+
+    @Test
+    void shouldRejectUnknownBackupColumns() {
+        final Properties manifest = new Properties();
+        manifest.setProperty("columns.web3secret", "address,\"value\" text");
+        assertThatThrownBy(() -> PostgresDatabaseBackupStrategy.getBackupColumns(
+                manifest, "web3secret", List.of("address", "value")))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldRejectTableMissingFromManifest() {
+        assertThatThrownBy(() -> PostgresDatabaseBackupStrategy.getBackupColumns(
+                new Properties(), "web3secret", List.of("address", "value")))
+                .isInstanceOf(IOException.class);
+    }
+    // endregion
+
+    // region sortByDependencies
+    @Test
+    void shouldSortReferencedTablesFirst() {
+        final List<String> tables = PostgresDatabaseBackupStrategy.sortByDependencies(
+                List.of("data_key", "ethereum_credentials", "tee_challenge", "web3secret"),
+                Map.of("tee_challenge", Set.of("ethereum_credentials")));
+        assertThat(tables).containsExactly("data_key", "ethereum_credentials", "tee_challenge", "web3secret");
+    }
+
+    @Test
+    void shouldSortTransitiveReferences() {
+        final List<String> tables = PostgresDatabaseBackupStrategy.sortByDependencies(
+                List.of("a", "b", "c"),
+                Map.of("a", Set.of("b"), "b", Set.of("c")));
+        assertThat(tables).containsExactly("c", "b", "a");
+    }
+
+    @Test
+    void shouldIgnoreSelfReferences() {
+        final List<String> tables = PostgresDatabaseBackupStrategy.sortByDependencies(
+                List.of("b", "a"),
+                Map.of("a", Set.of("a")));
+        assertThat(tables).containsExactly("a", "b");
+    }
+
+    @Test
+    void shouldKeepTablesInCycleAtTheEnd() {
+        final List<String> tables = PostgresDatabaseBackupStrategy.sortByDependencies(
+                List.of("a", "b", "c"),
+                Map.of("a", Set.of("b"), "b", Set.of("a")));
+        assertThat(tables).containsExactly("c", "a", "b");
+    }
+    // endregion
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.admin;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class H2StorageMaintenanceServiceTests {
+    private static final H2StorageConfiguration CONFIGURATION = new H2StorageConfiguration(
+            DataSize.ofMegabytes(16), Duration.ofMillis(100),
+            new H2StorageConfiguration.Compaction("-", Duration.ofSeconds(5)));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private AdminService adminService;
+    private H2StorageMaintenanceService service;
+
+    @BeforeEach
+    void beforeEach() {
+        Metrics.globalRegistry.add(meterRegistry);
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:file:" + tempDir.resolve("sms-h2") + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        adminService = mock(AdminService.class);
+        service = new H2StorageMaintenanceService(jdbcTemplate, CONFIGURATION, adminService);
+    }
+
+    @AfterEach
+    void afterEach() {
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
+        if (!mockingDetails(jdbcTemplate).isMock()) {
+            jdbcTemplate.execute("SHUTDOWN");
+        }
+    }
+
+    private void writeThenDeleteRows() {
+        jdbcTemplate.execute("CREATE TABLE \"challenge\" (\"id\" INT PRIMARY KEY, \"value\" VARCHAR(255))");
+        jdbcTemplate.batchUpdate("INSERT INTO \"challenge\" VALUES (?, REPEAT('a', 200))",
+                IntStream.range(0, 5000).mapToObj(i -> new Object[]{i}).toList());
+        jdbcTemplate.update("DELETE FROM \"challenge\"");
+    }
+
+    @Test
+    void shouldApplyStorageSettings() {
+        service.init();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'WRITE_DELAY'", String.class))
+                .isEqualTo("100");
+    }
+
+    @Test
+    void shouldExposeStorageGauges() {
+        service.init();
+
+        assertThat(meterRegistry.get(H2StorageMaintenanceService.METRIC_FILE_SIZE).gauge().value()).isPositive();
+        assertThat(meterRegistry.get(H2StorageMaintenanceService.METRIC_FILL_RATE).gauge()).isNotNull();
+        assertThat(meterRegistry.get(H2StorageMaintenanceService.METRIC_CACHE_HIT_RATIO).gauge()).isNotNull();
+        assertThat(meterRegistry.get(H2StorageMaintenanceService.METRIC_LAST_COMPACTION_DURATION).gauge().value()).isNaN();
+    }
+
+    @Test
+    void shouldCompactWhenTriggeredByAdmin() {
+        service.init();
+        writeThenDeleteRows();
+        final ArgumentCaptor<BooleanSupplier> captor = ArgumentCaptor.forClass(BooleanSupplier.class);
+        verify(adminService).setStorageCompaction(captor.capture());
+
+        assertThat(captor.getValue().getAsBoolean()).isTrue();
+
+        assertThat(meterRegistry.get(H2StorageMaintenanceService.METRIC_LAST_COMPACTION_DURATION).gauge().value())
+                .isNotNaN()
+                .isNotNegative();
+    }
+
+    @Test
+    void shouldCompactOnScheduleWithOperationLock() {
+        final ReentrantLock operationLock = new ReentrantLock(true);
+        when(adminService.isSmsOnline()).thenReturn(true);
+        when(adminService.getOperationLock()).thenReturn(operationLock);
+        service.init();
+        writeThenDeleteRows();
+
+        service.scheduledCompaction();
+
+        assertThat(service.getLastCompactionDuration()).isNotNaN();
+        assertThat(operationLock.isLocked()).isFalse();
+    }
+
+    @Test
+    void shouldSkipScheduledCompactionWhileAnotherOperationIsInProgress() throws Exception {
+        final ReentrantLock operationLock = new ReentrantLock(true);
+        when(adminService.isSmsOnline()).thenReturn(true);
+        when(adminService.getOperationLock()).thenReturn(operationLock);
+        service.init();
+        // a backup holds the lock in another thread
+        final Thread backup = new Thread(operationLock::lock);
+        backup.start();
+        backup.join();
+
+        service.scheduledCompaction();
+
+        assertThat(service.getLastCompactionDuration()).isNaN();
+    }
+
+    @Test
+    void shouldSkipScheduledCompactionWhileOffline() {
+        when(adminService.isSmsOnline()).thenReturn(false);
+        service.init();
+
+        service.scheduledCompaction();
+
+        assertThat(service.getLastCompactionDuration()).isNaN();
+        verify(adminService, never()).getOperationLock();
+    }
+
+    @Test
+    void shouldNotMaintainOtherDatabases() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(false);
+        service = new H2StorageMaintenanceService(jdbcTemplate, CONFIGURATION, adminService);
+
+        service.init();
+
+        assertThat(service.compact()).isFalse();
+        assertThat(meterRegistry.find(H2StorageMaintenanceService.METRIC_FILE_SIZE).gauge()).isNull();
+        verify(jdbcTemplate, never()).execute(any(String.class));
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class RateLimitRequestFilterTests {
+    private static final String WORKER_1 = "0xAbC0000000000000000000000000000000000001";
+    private static final String WORKER_2 = "0xAbC0000000000000000000000000000000000002";
+    private static final String SESSION_BODY = "{\"chainTaskId\":\"0x0\",\"enclaveChallenge\":\"0x1\",\"workerWallet\":\"%s\"}";
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitRequestFilter filter;
+
+    @BeforeEach
+    void init() {
+        Metrics.globalRegistry.add(meterRegistry);
+        final RateLimitConfiguration configuration = new RateLimitConfiguration(true,
+                new RateLimitConfiguration.Budget(1, 1),
+                new RateLimitConfiguration.Budget(2, 1),
+                new RateLimitConfiguration.Budget(1, 1));
+        filter = new RateLimitRequestFilter(configuration, nanoTime::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
+    }
+
+    private MockHttpServletRequest request(final String method, final String uri, final String remoteAddr) {
+        final MockHttpServletRequest req = new MockHttpServletRequest(method, uri);
+        req.setRemoteAddr(remoteAddr);
+        return req;
+    }
+
+    private MockHttpServletRequest sessionRequest(final String workerWallet) {
+        final MockHttpServletRequest req = request("POST", "/tee/sessions", "10.0.0.1");
+        req.setContentType("application/json");
+        req.setContent(String.format(SESSION_BODY, workerWallet).getBytes(StandardCharsets.UTF_8));
+        return req;
+    }
+
+    private MockHttpServletResponse doFilter(final MockHttpServletRequest req, final MockFilterChain chain) throws Exception {
+        final MockHttpServletResponse res = new MockHttpServletResponse();
+        filter.doFilter(req, res, chain);
+        return res;
+    }
+
+    private MockHttpServletResponse doFilter(final MockHttpServletRequest req) throws Exception {
+        return doFilter(req, new MockFilterChain());
+    }
+
+    // region classify
+    @Test
+    void shouldClassifyRequests() {
+        assertAll(
+                () -> assertThat(RateLimitRequestFilter.classify(request("HEAD", "/secrets/web2", "")))
+                        .isEqualTo(RateLimitRequestFilter.TrafficClass.LOOKUPS),
+                () -> assertThat(RateLimitRequestFilter.classify(request("GET", "/tee/framework", "")))
+                        .isEqualTo(RateLimitRequestFilter.TrafficClass.LOOKUPS),
+                () -> assertThat(RateLimitRequestFilter.classify(request("POST", "/tee/sessions", "")))
+                        .isEqualTo(RateLimitRequestFilter.TrafficClass.SESSIONS),
+                () -> assertThat(RateLimitRequestFilter.classify(request("POST", "/tee/challenges/0x0", "")))
+                        .isEqualTo(RateLimitRequestFilter.TrafficClass.SESSIONS),
+                () -> assertThat(RateLimitRequestFilter.classify(request("POST", "/secrets/web2", "")))
+                        .isEqualTo(RateLimitRequestFilter.TrafficClass.WRITES)
+        );
+    }
+    // endregion
+
+    // region doFilter
+    @Test
+    void shouldRejectRequestsOverBudget() throws Exception {
+        assertThat(doFilter(request("HEAD", "/secrets/web2", "10.0.0.1")).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(doFilter(request("HEAD", "/secrets/web2", "10.0.0.1")).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+
+        final MockHttpServletResponse res = doFilter(request("HEAD", "/secrets/web2", "10.0.0.1"));
+        assertAll(
+                () -> assertThat(res.getStatus()).isEqualTo(HttpServletResponse.SC_TOO_MANY_REQUESTS),
+                () -> assertThat(res.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1"),
+                () -> assertThat(res.getContentAsString()).isEqualTo(RateLimitRequestFilter.RATE_LIMIT_ERROR),
+                () -> assertThat(meterRegistry.counter(RateLimitRequestFilter.METRIC_REJECTED,
+                        RateLimitRequestFilter.METRIC_LABEL_TRAFFIC_CLASS, "lookups").count()).isEqualTo(1.0)
+        );
+    }
+
+    @Test
+    void shouldAcceptRequestsOnceRefilled() throws Exception {
+        doFilter(request("POST", "/secrets/web2", "10.0.0.1"));
+        assertThat(doFilter(request("POST", "/secrets/web2", "10.0.0.1")).getStatus())
+                .isEqualTo(HttpServletResponse.SC_TOO_MANY_REQUESTS);
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(doFilter(request("POST", "/secrets/web2", "10.0.0.1")).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void shouldKeepSeparateBudgetsPerTrafficClass() throws Exception {
+        doFilter(request("POST", "/secrets/web2", "10.0.0.1"));
+        assertThat(doFilter(request("POST", "/secrets/web2", "10.0.0.1")).getStatus())
+                .isEqualTo(HttpServletResponse.SC_TOO_MANY_REQUESTS);
+        assertThat(doFilter(request("HEAD", "/secrets/web2", "10.0.0.1")).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(doFilter(request("POST", "/tee/challenges/0x0", "10.0.0.1")).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void shouldKeepSeparateBudgetsPerClientIp() throws Exception {
+        doFilter(request("POST", "/secrets/web2", "10.0.0.1"));
+        assertThat(doFilter(request("POST", "/secrets/web2", "10.0.0.1")).getStatus())
+                .isEqualTo(HttpServletResponse.SC_TOO_MANY_REQUESTS);
+        assertThat(doFilter(request("POST", "/secrets/web2", "10.0.0.2")).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void shouldNotKeySessionBudgetsOnUnauthenticatedWorkerWallet() throws Exception {
+        assertThat(doFilter(sessionRequest(WORKER_1)).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(doFilter(sessionRequest(WORKER_2)).getStatus())
+                .isEqualTo(HttpServletResponse.SC_TOO_MANY_REQUESTS);
+        assertThat(doFilter(request("POST", "/tee/challenges/0x0", "10.0.0.1")).getStatus())
+                .isEqualTo(HttpServletResponse.SC_TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void shouldPassReadableBodyToNextFilter() throws Exception {
+        final String body = String.format(SESSION_BODY, WORKER_1);
+        final MockFilterChain chain = new MockFilterChain();
+        doFilter(sessionRequest(WORKER_1), chain);
+        assertThat(new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void shouldDropIdleBuckets() throws Exception {
+        doFilter(request("HEAD", "/secrets/web2", "10.0.0.1"));
+        assertThat(filter.getBucketCount(RateLimitRequestFilter.TrafficClass.LOOKUPS)).isOne();
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        doFilter(request("HEAD", "/secrets/web2", "10.0.0.2"));
+        assertThat(filter.getBucketCount(RateLimitRequestFilter.TrafficClass.LOOKUPS)).isOne();
+    }
+    // endregion
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.admin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldAcceptBurstUpToCapacity() {
+        final TokenBucket bucket = new TokenBucket(new RateLimitConfiguration.Budget(3, 1), 0);
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void shouldRefillAtConfiguredRate() {
+        final TokenBucket bucket = new TokenBucket(new RateLimitConfiguration.Budget(1, 2), 0);
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(bucket.tryAcquire(SECOND / 2)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 2)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void shouldNotAccumulateMoreTokensThanCapacity() {
+        final TokenBucket bucket = new TokenBucket(new RateLimitConfiguration.Budget(2, 1), 0);
+        final long later = 100 * SECOND;
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void shouldBeIdleOnceRefilled() {
+        final TokenBucket bucket = new TokenBucket(new RateLimitConfiguration.Budget(2, 1), 0);
+        assertThat(bucket.isIdle(0)).isTrue();
+        bucket.tryAcquire(0);
+        assertThat(bucket.isIdle(0)).isFalse();
+        assertThat(bucket.isIdle(SECOND)).isTrue();
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.cluster;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.encryption.EncryptionService;
+import com.iexec.sms.secret.CacheSecretService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs several cluster nodes in the same JVM against a shared database.
+ */
+@DataJpaTest
+class ClusterServiceTests {
+    private static final String CACHE_NAME = "web3CacheSecretService";
+    private static final String KEY = "0xsecret";
+
+    private final ClusterConfiguration clusterConfiguration = new ClusterConfiguration(
+            true, "", Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofHours(1));
+
+    @Autowired
+    private ClusterEventRepository clusterEventRepository;
+
+    private AdminService adminServiceA;
+    private AdminService adminServiceB;
+    private EncryptionService encryptionServiceB;
+    private CacheSecretService<String> cacheA;
+    private CacheSecretService<String> cacheB;
+    private ClusterService nodeA;
+    private ClusterService nodeB;
+
+    @BeforeEach
+    void beforeEach() {
+        clusterEventRepository.deleteAll();
+        adminServiceA = mock(AdminService.class);
+        adminServiceB = mock(AdminService.class);
+        cacheA = new CacheSecretService<>();
+        cacheB = new CacheSecretService<>();
+        encryptionServiceB = mock(EncryptionService.class);
+        nodeA = startNode(adminServiceA, mock(EncryptionService.class), cacheA);
+        nodeB = startNode(adminServiceB, encryptionServiceB, cacheB);
+    }
+
+    private ClusterService startNode(final AdminService adminService,
+                                     final EncryptionService encryptionService,
+                                     final CacheSecretService<String> cache) {
+        final ClusterService node = new ClusterService(clusterConfiguration, clusterEventRepository,
+                adminService, encryptionService, Map.of(CACHE_NAME, cache));
+        node.init();
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<Boolean> getOnlineStateListener(final AdminService adminService) {
+        final ArgumentCaptor<Consumer<Boolean>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(adminService).addOnlineStateListener(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void shouldGenerateNodeIdWhenEmpty() {
+        assertThat(nodeA.getNodeId()).isNotBlank().isNotEqualTo(nodeB.getNodeId());
+    }
+
+    // region cache invalidation
+    @Test
+    void shouldEvictMissingSecretOnOtherNodes() {
+        cacheB.putSecretExistenceInCache(KEY, false);
+
+        cacheA.secretStored(KEY);
+        nodeA.poll();
+        nodeB.poll();
+
+        assertThat(cacheB.lookSecretExistenceInCache(KEY)).isNull();
+        assertThat(cacheA.lookSecretExistenceInCache(KEY)).isTrue();
+    }
+
+    @Test
+    void shouldPublishOneEventPerPollAndCache() {
+        cacheA.secretStored(KEY);
+        cacheA.secretStored("0xother");
+        nodeA.poll();
+        nodeA.poll();
+
+        assertThat(clusterEventRepository.count()).isOne();
+    }
+
+    @Test
+    void shouldNotApplyOwnEvents() {
+        cacheA.putSecretExistenceInCache("0xmissing", false);
+
+        cacheA.secretStored(KEY);
+        nodeA.poll();
+
+        assertThat(cacheA.lookSecretExistenceInCache("0xmissing")).isFalse();
+    }
+
+    @Test
+    void shouldApplyEventOnlyOnce() {
+        cacheA.secretStored(KEY);
+        nodeA.poll();
+        nodeB.poll();
+        cacheB.putSecretExistenceInCache("0xmissing", false);
+        nodeB.poll();
+
+        assertThat(cacheB.lookSecretExistenceInCache("0xmissing")).isFalse();
+    }
+    // endregion
+
+    // region maintenance
+    @Test
+    void shouldPropagateMaintenanceToOtherNodes() {
+        final Consumer<Boolean> onlineStateListenerA = getOnlineStateListener(adminServiceA);
+
+        onlineStateListenerA.accept(false);
+        nodeB.poll();
+        verify(adminServiceB).setClusterMaintenance(true);
+
+        onlineStateListenerA.accept(true);
+        nodeB.poll();
+        verify(adminServiceB).setClusterMaintenance(false);
+        verify(adminServiceA, never()).setClusterMaintenance(anyBoolean());
+    }
+
+    @Test
+    void shouldApplyOngoingMaintenanceOnStartup() {
+        getOnlineStateListener(adminServiceA).accept(false);
+
+        final AdminService adminServiceC = mock(AdminService.class);
+        startNode(adminServiceC, mock(EncryptionService.class), new CacheSecretService<>());
+
+        verify(adminServiceC).setClusterMaintenance(true);
+    }
+
+    @Test
+    void shouldApplyOngoingMaintenanceOfEachNodeOnStartup() {
+        final AdminService adminServiceC = mock(AdminService.class);
+        startNode(adminServiceC, mock(EncryptionService.class), new CacheSecretService<>());
+        getOnlineStateListener(adminServiceC).accept(false);
+        final Consumer<Boolean> onlineStateListenerB = getOnlineStateListener(adminServiceB);
+        onlineStateListenerB.accept(false);
+        onlineStateListenerB.accept(true);
+
+        final AdminService adminServiceD = mock(AdminService.class);
+        startNode(adminServiceD, mock(EncryptionService.class), new CacheSecretService<>());
+
+        verify(adminServiceD).setClusterMaintenance(true);
+        verify(adminServiceD, never()).setClusterMaintenance(false);
+    }
+
+    @Test
+    void shouldIgnoreAbandonedMaintenance() {
+        clusterEventRepository.save(new ClusterEvent(ClusterEventType.MAINTENANCE, ClusterService.OFFLINE,
+                "crashed-node", Instant.now().minus(Duration.ofHours(2))));
+
+        final AdminService adminServiceC = mock(AdminService.class);
+        startNode(adminServiceC, mock(EncryptionService.class), new CacheSecretService<>());
+
+        verify(adminServiceC, never()).setClusterMaintenance(anyBoolean());
+    }
+
+    @Test
+    void shouldReloadKeysAndClearCachesWhenMaintenanceEnds() {
+        final Consumer<Boolean> onlineStateListenerA = getOnlineStateListener(adminServiceA);
+        cacheB.putSecretExistenceInCache(KEY, true);
+        cacheB.putSecretExistenceInCache("0xmissing", false);
+
+        onlineStateListenerA.accept(false);
+        nodeB.poll();
+        verify(encryptionServiceB, never()).reloadAESKey();
+
+        onlineStateListenerA.accept(true);
+        nodeB.poll();
+        verify(encryptionServiceB).reloadAESKey();
+        assertThat(cacheB.lookSecretExistenceInCache(KEY)).isNull();
+        assertThat(cacheB.lookSecretExistenceInCache("0xmissing")).isNull();
+    }
+    // endregion
+
+    // region purgeEvents
+    @Test
+    void shouldPurgeOldEvents() {
+        clusterEventRepository.save(new ClusterEvent(ClusterEventType.SECRET_STORED, CACHE_NAME,
+                "node", Instant.now().minus(Duration.ofHours(1))));
+        clusterEventRepository.save(new ClusterEvent(ClusterEventType.SECRET_STORED, CACHE_NAME,
+                "node", Instant.now()));
+
+        nodeA.purgeEvents();
+
+        assertThat(clusterEventRepository.count()).isOne();
+    }
+    // endregion
+}
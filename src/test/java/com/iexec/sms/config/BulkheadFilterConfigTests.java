@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.config;
+
+import com.iexec.sms.admin.BulkheadConfiguration;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.context.annotation.UserConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadFilterConfigTests {
+
+    private static final BulkheadConfiguration.Compartment COMPARTMENT =
+            new BulkheadConfiguration.Compartment(1, 1, Duration.ofSeconds(1));
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withBean(BulkheadConfiguration.class, true, COMPARTMENT, COMPARTMENT, COMPARTMENT, COMPARTMENT, COMPARTMENT);
+
+    @Test
+    void shouldCreateBulkheadFilter() {
+        runner.withPropertyValues("admin.bulkhead.enabled=true")
+                .withConfiguration(UserConfigurations.of(BulkheadFilterConfig.class))
+                .run(context -> assertThat(context).hasSingleBean(BulkheadFilterConfig.class));
+    }
+
+    @Test
+    void shouldNotStartWhenCompartmentsMayHoldAllServerThreads() {
+        runner.withPropertyValues("admin.bulkhead.enabled=true", "server.tomcat.threads.max=10")
+                .withConfiguration(UserConfigurations.of(BulkheadFilterConfig.class))
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldNotTakeAdminPermitForUnauthenticatedRequests() {
+        final BulkheadConfiguration.Compartment admin =
+                new BulkheadConfiguration.Compartment(1, 0, Duration.ofMillis(100));
+        new ApplicationContextRunner()
+                .withBean(BulkheadConfiguration.class, true, COMPARTMENT, COMPARTMENT, COMPARTMENT, COMPARTMENT, admin)
+                .withPropertyValues("admin.bulkhead.enabled=true", "admin.api-key=apiKey")
+                .withConfiguration(UserConfigurations.of(ApiKeyFilterConfig.class, BulkheadFilterConfig.class))
+                .run(context -> {
+                    final CountDownLatch entered = new CountDownLatch(1);
+                    final CountDownLatch release = new CountDownLatch(1);
+                    final HttpServlet servlet = new HttpServlet() {
+                        @Override
+                        protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                            entered.countDown();
+                            try {
+                                release.await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                    };
+                    // the single admin permit is held by an authenticated request
+                    final MockHttpServletRequest authenticated = new MockHttpServletRequest("POST", "/admin/backup");
+                    authenticated.addHeader("X-API-KEY", "apiKey");
+                    final MockHttpServletResponse authenticatedResponse = new MockHttpServletResponse();
+                    final CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+                        try {
+                            newChain(context, servlet).doFilter(authenticated, authenticatedResponse);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+                    for (int i = 0; i < 5; i++) {
+                        final MockHttpServletResponse response = new MockHttpServletResponse();
+                        newChain(context, servlet).doFilter(new MockHttpServletRequest("POST", "/admin/backup"), response);
+                        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+                    }
+
+                    release.countDown();
+                    holder.get(5, TimeUnit.SECONDS);
+                    assertThat(authenticatedResponse.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+                });
+    }
+
+    private static MockFilterChain newChain(final ApplicationContext context, final HttpServlet servlet) {
+        final Filter[] filters = context.getBeansOfType(FilterRegistrationBean.class).values().stream()
+                .sorted(Comparator.comparingInt(FilterRegistrationBean::getOrder))
+                .map(FilterRegistrationBean::getFilter)
+                .toArray(Filter[]::new);
+        return new MockFilterChain(servlet, filters);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "admin.bulkhead.enabled", "admin.bulkhead.enabled=false"})
+    void shouldNotCreateFilterWhenIsNotEnabled(String value) {
+        runner.withPropertyValues(value)
+                .withConfiguration(UserConfigurations.of(BulkheadFilterConfig.class))
+                .run(context -> assertThat(context).doesNotHaveBean(BulkheadFilterConfig.class));
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterOrdersTests {
+
+    @Test
+    void shouldRunFiltersInDistinctOrders() {
+        assertThat(new int[]{FilterOrders.RATE_LIMIT, FilterOrders.API_KEY, FilterOrders.OUT_OF_SERVICE,
+                FilterOrders.BULKHEAD, FilterOrders.WRITE_FORWARDING})
+                .isSorted()
+                .doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.config;
+
+import com.iexec.sms.admin.RateLimitConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.context.annotation.UserConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterConfigTests {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withBean(RateLimitConfiguration.class, true,
+                    new RateLimitConfiguration.Budget(10, 1),
+                    new RateLimitConfiguration.Budget(200, 50),
+                    new RateLimitConfiguration.Budget(50, 10));
+
+    @Test
+    void shouldCreateRateLimitFilter() {
+        runner.withPropertyValues("admin.rate-limit.enabled=true")
+                .withConfiguration(UserConfigurations.of(RateLimitFilterConfig.class))
+                .run(context -> assertThat(context).hasSingleBean(RateLimitFilterConfig.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "admin.rate-limit.enabled", "admin.rate-limit.enabled=false"})
+    void shouldNotCreateFilterWhenIsNotEnabled(String value) {
+        runner.withPropertyValues(value)
+                .withConfiguration(UserConfigurations.of(RateLimitFilterConfig.class))
+                .run(context -> assertThat(context).doesNotHaveBean(RateLimitFilterConfig.class));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,7 +25,6 @@ import com.iexec.sms.secret.web2.Web2SecretHeader;
 import com.iexec.sms.secret.web2.Web2SecretRepository;
 import com.iexec.sms.secret.web3.Web3SecretHeader;
 import com.iexec.sms.secret.web3.Web3SecretRepository;
-import com.iexec.sms.tee.challenge.EthereumCredentialsRepository;
 import com.iexec.sms.tee.challenge.TeeChallengeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,7 +45,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class SecretsConfigTests {
-    private static final int STORED_SECRETS_COUNT_PERIOD = 30;
+    private static final int CACHED_SECRETS_COUNT_PERIOD = 30;
+    private static final int STORED_SECRETS_RECONCILIATION_PERIOD = 3600;
     private final ScheduledExecutorService storageMetricsExecutorService = Executors.newSingleThreadScheduledExecutor();
 
     @Mock
@@ -94,7 +94,7 @@ class SecretsConfigTests {
     void web2MeasuredSecretService() {
         final Web2SecretRepository repository = mock(Web2SecretRepository.class);
         final CacheSecretService<Web2SecretHeader> cacheSecretService = new CacheSecretService<>();
-        final MeasuredSecretService measuredSecretService = secretsConfig.web2MeasuredSecretService(cacheSecretService, repository, STORED_SECRETS_COUNT_PERIOD);
+        final MeasuredSecretService measuredSecretService = secretsConfig.web2MeasuredSecretService(cacheSecretService, repository, CACHED_SECRETS_COUNT_PERIOD, STORED_SECRETS_RECONCILIATION_PERIOD);
 
         final String secretsType = (String) ReflectionTestUtils.getField(measuredSecretService, "secretsType");
         final String metricsPrefix = (String) ReflectionTestUtils.getField(measuredSecretService, "metricsPrefix");
@@ -110,7 +110,7 @@ class SecretsConfigTests {
     void web3MeasuredSecretService() {
         final Web3SecretRepository repository = mock(Web3SecretRepository.class);
         final CacheSecretService<Web3SecretHeader> cacheSecretService = new CacheSecretService<>();
-        final MeasuredSecretService measuredSecretService = secretsConfig.web3MeasuredSecretService(cacheSecretService, repository, STORED_SECRETS_COUNT_PERIOD);
+        final MeasuredSecretService measuredSecretService = secretsConfig.web3MeasuredSecretService(cacheSecretService, repository, CACHED_SECRETS_COUNT_PERIOD, STORED_SECRETS_RECONCILIATION_PERIOD);
 
         final String secretsType = (String) ReflectionTestUtils.getField(measuredSecretService, "secretsType");
         final String metricsPrefix = (String) ReflectionTestUtils.getField(measuredSecretService, "metricsPrefix");
@@ -126,7 +126,7 @@ class SecretsConfigTests {
     void computeMeasuredSecretService() {
         final TeeTaskComputeSecretRepository repository = mock(TeeTaskComputeSecretRepository.class);
         final CacheSecretService<TeeTaskComputeSecretHeader> cacheSecretService = new CacheSecretService<>();
-        final MeasuredSecretService measuredSecretService = secretsConfig.computeMeasuredSecretService(cacheSecretService, repository, STORED_SECRETS_COUNT_PERIOD);
+        final MeasuredSecretService measuredSecretService = secretsConfig.computeMeasuredSecretService(cacheSecretService, repository, CACHED_SECRETS_COUNT_PERIOD, STORED_SECRETS_RECONCILIATION_PERIOD);
 
         final String secretsType = (String) ReflectionTestUtils.getField(measuredSecretService, "secretsType");
         final String metricsPrefix = (String) ReflectionTestUtils.getField(measuredSecretService, "metricsPrefix");
@@ -141,7 +141,7 @@ class SecretsConfigTests {
     @Test
     void teeChallengeMeasuredSecretService() {
         final TeeChallengeRepository repository = mock(TeeChallengeRepository.class);
-        final MeasuredSecretService measuredSecretService = secretsConfig.teeChallengeMeasuredSecretService(repository, STORED_SECRETS_COUNT_PERIOD);
+        final MeasuredSecretService measuredSecretService = secretsConfig.teeChallengeMeasuredSecretService(repository, CACHED_SECRETS_COUNT_PERIOD, STORED_SECRETS_RECONCILIATION_PERIOD);
 
         final String secretsType = (String) ReflectionTestUtils.getField(measuredSecretService, "secretsType");
         final String metricsPrefix = (String) ReflectionTestUtils.getField(measuredSecretService, "metricsPrefix");
@@ -158,8 +158,8 @@ class SecretsConfigTests {
 
     @Test
     void ethereumCredentialsMeasuredSecretService() {
-        final EthereumCredentialsRepository repository = mock(EthereumCredentialsRepository.class);
-        final MeasuredSecretService measuredSecretService = secretsConfig.ethereumCredentialsMeasuredSecretService(repository, STORED_SECRETS_COUNT_PERIOD);
+        final TeeChallengeRepository repository = mock(TeeChallengeRepository.class);
+        final MeasuredSecretService measuredSecretService = secretsConfig.ethereumCredentialsMeasuredSecretService(repository, CACHED_SECRETS_COUNT_PERIOD, STORED_SECRETS_RECONCILIATION_PERIOD);
 
         final String secretsType = (String) ReflectionTestUtils.getField(measuredSecretService, "secretsType");
         final String metricsPrefix = (String) ReflectionTestUtils.getField(measuredSecretService, "metricsPrefix");
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.encryption;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class DataKeyCacheTests {
+
+    @Test
+    void shouldRejectNonPositiveSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new DataKeyCache(0));
+    }
+
+    @Test
+    void shouldReturnCopyOfCachedKey() {
+        final DataKeyCache cache = new DataKeyCache(2);
+        final byte[] key = {1, 2, 3};
+        cache.put(1, key);
+        key[0] = 9;
+
+        final byte[] cachedKey = cache.get(1).orElseThrow();
+        assertThat(cachedKey).containsExactly(1, 2, 3);
+        cachedKey[1] = 9;
+        assertThat(cache.get(1).orElseThrow()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedKey() {
+        final DataKeyCache cache = new DataKeyCache(2);
+        cache.put(1, new byte[]{1});
+        cache.put(2, new byte[]{2});
+        cache.get(1);
+        cache.put(3, new byte[]{3});
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1)).isPresent();
+        assertThat(cache.get(2)).isEmpty();
+        assertThat(cache.get(3)).isPresent();
+    }
+
+    @Test
+    void shouldZeroKeysOnClear() {
+        final DataKeyCache cache = new DataKeyCache(2);
+        cache.put(1, new byte[]{1, 2});
+        cache.clear();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1)).isEmpty();
+    }
+
+    @Test
+    void shouldZeroKey() {
+        final byte[] key = {1, 2, 3};
+        DataKeyCache.zero(key);
+        assertThat(key).containsOnly(0);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.encryption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EncryptedValueConverterTests {
+    private static final byte[] CIPHERTEXT = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+    private static final String BASE64_CIPHERTEXT = Base64.getEncoder().encodeToString(CIPHERTEXT);
+
+    @Test
+    void shouldStoreMasterKeyCiphertextAsBytes() {
+        final byte[] bytes = EncryptedValueConverter.toBinary(BASE64_CIPHERTEXT);
+
+        assertThat(bytes).hasSize(CIPHERTEXT.length + 1)
+                .startsWith(EncryptedValueConverter.FORMAT_MASTER_KEY)
+                .endsWith(CIPHERTEXT);
+        assertThat(EncryptedValueConverter.fromBinary(bytes)).isEqualTo(BASE64_CIPHERTEXT);
+    }
+
+    @Test
+    void shouldStoreEnvelopeCiphertextAsBytes() {
+        final String value = "$v12$" + BASE64_CIPHERTEXT;
+
+        final byte[] bytes = EncryptedValueConverter.toBinary(value);
+
+        assertThat(bytes).hasSize(CIPHERTEXT.length + 1 + Integer.BYTES)
+                .startsWith(EncryptedValueConverter.FORMAT_DATA_KEY, 0, 0, 0, 12)
+                .endsWith(CIPHERTEXT);
+        assertThat(EncryptedValueConverter.fromBinary(bytes)).isEqualTo(value);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"value", "AAE=\n", "$v01$AAECAw==", "$v1$value", "$vx$AAECAw==", "$v1", "été"})
+    void shouldStoreOtherValuesAsText(final String value) {
+        final byte[] bytes = EncryptedValueConverter.toBinary(value);
+
+        assertThat(bytes).startsWith(EncryptedValueConverter.FORMAT_TEXT);
+        assertThat(EncryptedValueConverter.fromBinary(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void shouldConvertNullAndEmptyValues() {
+        assertThat(EncryptedValueConverter.toBinary(null)).isNull();
+        assertThat(EncryptedValueConverter.fromBinary(null)).isNull();
+        assertThat(EncryptedValueConverter.fromBinary(EncryptedValueConverter.toBinary(""))).isEmpty();
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThatThrownBy(() -> EncryptedValueConverter.fromBinary(new byte[]{9, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EncryptedValueConverter.fromBinary(new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,7 +37,7 @@ import java.io.IOException;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.jupiter.api.Assertions.assertAll;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 class EncryptionServiceTests {
@@ -93,7 +93,7 @@ class EncryptionServiceTests {
     @Test
     void shouldReturnExceptionInInitializerErrorWhenCheckOnPostConstructFailed() {
         EncryptionService spyEncryptionService = Mockito.spy(service);
-        when(spyEncryptionService.decrypt(any())).thenReturn("bad message");
+        when(spyEncryptionService.decrypt(anyString())).thenReturn("bad message");
 
         assertThatExceptionOfType(ExceptionInInitializerError.class)
                 .isThrownBy(spyEncryptionService::checkAlgoAndPermissions);
@@ -162,6 +162,34 @@ class EncryptionServiceTests {
     }
     // endregion
 
+    // region Binary values
+    @Test
+    void shouldDecryptBinaryValue() {
+        final byte[] binaryValue = service.encryptToBinary("data");
+
+        assertThat(binaryValue).startsWith(EncryptedValueConverter.FORMAT_MASTER_KEY);
+        assertThat(service.decrypt(binaryValue)).isEqualTo("data");
+    }
+
+    @Test
+    void shouldDecryptValuesEncryptedAsBase64AndAsBinary() {
+        assertThat(service.decrypt(EncryptedValueConverter.toBinary(service.encrypt("data")))).isEqualTo("data");
+        assertThat(service.decrypt(EncryptedValueConverter.fromBinary(service.encryptToBinary("data")))).isEqualTo("data");
+    }
+
+    @Test
+    void shouldReturnEmptyIfFailedToDecryptBinaryValue() {
+        assertAll(
+                () -> assertThat(service.decrypt((byte[]) null)).isEmpty(),
+                () -> assertThat(service.decrypt(new byte[0])).isEmpty(),
+                () -> assertThat(service.decrypt(service.encryptToBinary(""))).isEmpty(),
+                () -> assertThat(service.decrypt(new byte[]{EncryptedValueConverter.FORMAT_MASTER_KEY, 1, 2})).isEmpty(),
+                () -> assertThat(service.decrypt(new byte[]{EncryptedValueConverter.FORMAT_DATA_KEY, 0, 0, 0, 1, 2})).isEmpty(),
+                () -> assertThat(service.decrypt(new byte[]{9, 1})).isEmpty()
+        );
+    }
+    // endregion
+
     // region setWritePermissions
     @Test
     void shouldSwitchPermission() {
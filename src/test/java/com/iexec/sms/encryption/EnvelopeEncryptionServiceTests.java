@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.encryption;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@DataJpaTest
+class EnvelopeEncryptionServiceTests {
+
+    private static final String DATA = "data mock";
+
+    @TempDir
+    public File tempDir;
+
+    @Autowired
+    private DataKeyRepository dataKeyRepository;
+
+    private EncryptionConfiguration encryptionConfiguration;
+    private EncryptionService service;
+
+    @BeforeEach
+    void beforeEach() {
+        dataKeyRepository.deleteAll();
+        encryptionConfiguration = new EncryptionConfiguration(tempDir.getAbsolutePath() + "/aes.key");
+        service = new EncryptionService(encryptionConfiguration,
+                new EnvelopeEncryptionConfiguration(true, 2), dataKeyRepository);
+        service.checkAlgoAndPermissions();
+    }
+
+    @Test
+    void shouldEncryptWithActiveDataKey() {
+        final String encryptedData = service.encrypt(DATA);
+        assertThat(encryptedData).startsWith(EncryptionService.ENVELOPE_PREFIX + "1" + EncryptionService.ENVELOPE_SEPARATOR);
+        assertThat(service.decrypt(encryptedData)).isEqualTo(DATA);
+        assertThat(dataKeyRepository.findAll())
+                .extracting(DataKey::getVersion)
+                .containsExactlyInAnyOrder(EncryptionService.LEGACY_DATA_KEY_VERSION, 1);
+    }
+
+    @Test
+    void shouldDecryptLegacyValue() {
+        final String legacyEncryptedData = new EncryptionService(encryptionConfiguration).encrypt(DATA);
+        assertThat(legacyEncryptedData).doesNotStartWith(EncryptionService.ENVELOPE_PREFIX);
+        assertThat(service.decrypt(legacyEncryptedData)).isEqualTo(DATA);
+    }
+
+    @Test
+    void shouldDecryptBinaryValues() {
+        final byte[] binaryValue = service.encryptToBinary(DATA);
+        final String legacyEncryptedData = new EncryptionService(encryptionConfiguration).encrypt(DATA);
+
+        assertThat(binaryValue).startsWith(EncryptedValueConverter.FORMAT_DATA_KEY, 0, 0, 0, 1);
+        assertThat(service.decrypt(binaryValue)).isEqualTo(DATA);
+        assertThat(service.decrypt(EncryptedValueConverter.toBinary(service.encrypt(DATA)))).isEqualTo(DATA);
+        assertThat(service.decrypt(EncryptedValueConverter.toBinary(legacyEncryptedData))).isEqualTo(DATA);
+    }
+
+    @Test
+    void shouldReturnEmptyWhenDataKeyIsUnknownOrMalformed() {
+        assertThat(service.decrypt("$v42$abcd")).isEmpty();
+        assertThat(service.decrypt("$vX$abcd")).isEmpty();
+        assertThat(service.decrypt("$v1")).isEmpty();
+    }
+
+    @Test
+    void shouldRotateDataKey() {
+        final String encryptedData = service.encrypt(DATA);
+        assertThat(service.rotateDataKey()).contains(2);
+
+        final String newEncryptedData = service.encrypt(DATA);
+        assertThat(newEncryptedData).startsWith(EncryptionService.ENVELOPE_PREFIX + "2" + EncryptionService.ENVELOPE_SEPARATOR);
+        assertThat(service.decrypt(encryptedData)).isEqualTo(DATA);
+        assertThat(service.decrypt(newEncryptedData)).isEqualTo(DATA);
+    }
+
+    @Test
+    void shouldNotRotateWhenEnvelopeIsDisabled() {
+        final EncryptionService legacyService = new EncryptionService(encryptionConfiguration);
+        assertThat(legacyService.rotateDataKey()).isEmpty();
+        assertThat(legacyService.rotateAesKey()).isFalse();
+    }
+
+    @Test
+    void shouldRotateAesKeyWithoutReencryptingValues() throws IOException {
+        final String legacyEncryptedData = new EncryptionService(encryptionConfiguration).encrypt(DATA);
+        final String encryptedData = service.encrypt(DATA);
+        final byte[] previousAesKey = Files.readAllBytes(Path.of(service.getAesKeyPath()));
+        final String previousWrappedKey = dataKeyRepository.findById(1).orElseThrow().getWrappedKey();
+        final String previousAesKeyHash = service.getAesKeyHash();
+
+        assertThat(service.rotateAesKey()).isTrue();
+
+        assertThat(service.getAesKeyHash()).isNotEqualTo(previousAesKeyHash);
+
+        assertThat(Files.readAllBytes(Path.of(service.getAesKeyPath()))).isNotEqualTo(previousAesKey);
+        assertThat(new File(service.getAesKeyPath()).canWrite()).isFalse();
+        assertThat(dataKeyRepository.findById(1).orElseThrow().getWrappedKey()).isNotEqualTo(previousWrappedKey);
+        assertThat(service.getCachedDataKeysCount()).isZero();
+        assertThat(service.decrypt(encryptedData)).isEqualTo(DATA);
+        assertThat(service.decrypt(legacyEncryptedData)).isEqualTo(DATA);
+
+        // a restarted service reads the new key from disk
+        final EncryptionService restartedService = new EncryptionService(encryptionConfiguration,
+                new EnvelopeEncryptionConfiguration(true, 2), dataKeyRepository);
+        assertThat(restartedService.decrypt(encryptedData)).isEqualTo(DATA);
+        assertThat(restartedService.decrypt(legacyEncryptedData)).isEqualTo(DATA);
+    }
+
+    @Test
+    void shouldRestorePreviousAesKeyOfInterruptedRotation() throws IOException {
+        final String encryptedData = service.encrypt(DATA);
+        final Path aesKeyFile = Path.of(service.getAesKeyPath());
+        final Path previousAesKeyFile = Path.of(service.getAesKeyPath() + EncryptionService.PREVIOUS_AES_KEY_SUFFIX);
+        final byte[] previousAesKey = Files.readAllBytes(aesKeyFile);
+        // key file replaced but data keys not re-wrapped yet
+        Files.write(previousAesKeyFile, previousAesKey);
+        service.setWritePermissions();
+        Files.write(aesKeyFile, new byte[previousAesKey.length]);
+
+        final EncryptionService restartedService = new EncryptionService(encryptionConfiguration,
+                new EnvelopeEncryptionConfiguration(true, 2), dataKeyRepository);
+        restartedService.checkAlgoAndPermissions();
+
+        assertThat(Files.readAllBytes(aesKeyFile)).isEqualTo(previousAesKey);
+        assertThat(previousAesKeyFile).doesNotExist();
+        assertThat(restartedService.decrypt(encryptedData)).isEqualTo(DATA);
+    }
+
+    @Test
+    void shouldDeletePreviousAesKeyOfCompletedRotation() throws IOException {
+        final String encryptedData = service.encrypt(DATA);
+        final Path previousAesKeyFile = Path.of(service.getAesKeyPath() + EncryptionService.PREVIOUS_AES_KEY_SUFFIX);
+        final byte[] previousAesKey = Files.readAllBytes(Path.of(service.getAesKeyPath()));
+        assertThat(service.rotateAesKey()).isTrue();
+        assertThat(previousAesKeyFile).doesNotExist();
+        // data keys re-wrapped but previous key not deleted yet
+        Files.write(previousAesKeyFile, previousAesKey);
+
+        final EncryptionService restartedService = new EncryptionService(encryptionConfiguration,
+                new EnvelopeEncryptionConfiguration(true, 2), dataKeyRepository);
+        restartedService.checkAlgoAndPermissions();
+
+        assertThat(previousAesKeyFile).doesNotExist();
+        assertThat(Files.readAllBytes(Path.of(service.getAesKeyPath()))).isNotEqualTo(previousAesKey);
+        assertThat(restartedService.decrypt(encryptedData)).isEqualTo(DATA);
+    }
+
+    @Test
+    void shouldNotStartWithEnvelopeDisabledOnceDataKeysExist() {
+        final EncryptionService legacyService = new EncryptionService(encryptionConfiguration,
+                new EnvelopeEncryptionConfiguration(false, 2), dataKeyRepository);
+        assertThatExceptionOfType(ExceptionInInitializerError.class)
+                .isThrownBy(legacyService::checkAlgoAndPermissions);
+    }
+
+    @Test
+    void shouldClearCachedDataKeysOnReload() {
+        service.decrypt(service.encrypt(DATA));
+        assertThat(service.getCachedDataKeysCount()).isPositive();
+        service.reloadAESKey();
+        // integrity check unwraps the active data key again
+        assertThat(service.getCachedDataKeysCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.http;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledFeignClientTests {
+    private static final FeignClientConfiguration CONFIGURATION = new FeignClientConfiguration(
+            Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofMillis(200), 1, Logger.Level.BASIC);
+    private static final Request.Options OPTIONS =
+            new Request.Options(1, TimeUnit.SECONDS, 500, TimeUnit.MILLISECONDS, true);
+
+    private final List<Integer> remotePorts = new CopyOnWriteArrayList<>();
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private final List<String> receivedHeaders = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private PooledFeignClient client;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/echo", exchange -> {
+            remotePorts.add(exchange.getRemoteAddress().getPort());
+            receivedHeaders.add(exchange.getRequestHeaders().getFirst("X-Test"));
+            try (InputStream is = exchange.getRequestBody()) {
+                receivedBodies.add(new String(is.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            final byte[] response = "pong".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("X-Reply", "reply");
+            exchange.sendResponseHeaders(201, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        client = new PooledFeignClient(CONFIGURATION, null);
+    }
+
+    @AfterEach
+    void afterEach() {
+        client.close();
+        server.stop(0);
+    }
+
+    private Request createRequest(final String path, final String body) {
+        return Request.create(Request.HttpMethod.POST,
+                "http://localhost:" + server.getAddress().getPort() + path,
+                Map.of("Content-Type", List.of("text/plain"), "X-Test", List.of("value")),
+                body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, null);
+    }
+
+    @Test
+    void shouldSendRequestAndReadResponse() throws IOException {
+        try (Response response = client.execute(createRequest("/echo", "ping"), OPTIONS)) {
+            assertThat(response.status()).isEqualTo(201);
+            assertThat(response.headers()).containsEntry("x-reply", List.of("reply"));
+            try (InputStream is = response.body().asInputStream()) {
+                assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("pong");
+            }
+        }
+        assertThat(receivedBodies).containsExactly("ping");
+        assertThat(receivedHeaders).containsExactly("value");
+    }
+
+    @Test
+    void shouldReuseConnection() throws IOException {
+        client.execute(createRequest("/echo", "first"), OPTIONS).close();
+        client.execute(createRequest("/echo", "second"), OPTIONS).close();
+        assertThat(remotePorts).hasSize(2);
+        assertThat(remotePorts.get(1)).isEqualTo(remotePorts.get(0));
+    }
+
+    @Test
+    void shouldFailWhenResponseTimesOutWithRequestOptions() {
+        final Request request = createRequest("/slow", "ping");
+        assertThatThrownBy(() -> client.execute(request, OPTIONS))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldFailWhenNoPooledConnectionIsReleased() throws IOException {
+        final Response response = client.execute(createRequest("/echo", "first"), OPTIONS);
+        final Request request = createRequest("/echo", "second");
+        assertThatThrownBy(() -> client.execute(request, OPTIONS))
+                .isInstanceOf(IOException.class);
+        response.close();
+        client.execute(request, OPTIONS).close();
+        assertThat(receivedBodies).containsExactly("first", "second");
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import com.iexec.sms.encryption.DataKeyRepository;
+import com.iexec.sms.encryption.EncryptionService;
+import com.iexec.sms.replication.ReplicationBatch.*;
+import com.iexec.sms.secret.CacheSecretService;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretHeader;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretRepository;
+import com.iexec.sms.secret.web2.Web2SecretHeader;
+import com.iexec.sms.secret.web2.Web2SecretRepository;
+import com.iexec.sms.secret.web3.Web3SecretHeader;
+import com.iexec.sms.secret.web3.Web3SecretRepository;
+import com.iexec.sms.tee.challenge.TeeChallenge;
+import com.iexec.sms.tee.challenge.TeeChallengeRepository;
+import com.iexec.sms.tee.challenge.TeeChallengeService;
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+class ReplicationFollowerTests {
+    private static final String API_KEY = "apiKey";
+    private static final String EPOCH = "epoch";
+    private static final String AES_KEY_HASH = "0xaeskeyhash";
+    private static final String OWNER = "0xowner";
+    private static final String TASK_ID = "0xtask";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Web2SecretRepository web2SecretRepository;
+    @Autowired
+    private Web3SecretRepository web3SecretRepository;
+    @Autowired
+    private TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
+    @Autowired
+    private TeeChallengeRepository teeChallengeRepository;
+    @Autowired
+    private DataKeyRepository dataKeyRepository;
+
+    private final CacheSecretService<Web2SecretHeader> web2CacheSecretService = new CacheSecretService<>();
+    private PrimaryClient primaryClient;
+    private TeeChallengeService teeChallengeService;
+    private EncryptionService encryptionService;
+    private ReplicationFollower follower;
+
+    @BeforeEach
+    void beforeEach() {
+        web2SecretRepository.deleteAll();
+        teeChallengeRepository.deleteAll();
+        primaryClient = mock(PrimaryClient.class);
+        teeChallengeService = mock(TeeChallengeService.class);
+        encryptionService = mock(EncryptionService.class);
+        when(encryptionService.getAesKeyHash()).thenReturn(AES_KEY_HASH);
+        follower = new ReplicationFollower(
+                new ReplicationConfiguration(ReplicationConfiguration.Mode.FOLLOWER, "http://primary", API_KEY,
+                        Duration.ofSeconds(1), 2, 100),
+                primaryClient, jdbcTemplate, transactionManager,
+                web2SecretRepository, web3SecretRepository, teeTaskComputeSecretRepository,
+                teeChallengeRepository, dataKeyRepository,
+                web2CacheSecretService, new CacheSecretService<Web3SecretHeader>(),
+                new CacheSecretService<TeeTaskComputeSecretHeader>(), teeChallengeService, encryptionService);
+        follower.init();
+    }
+
+    private static ReplicationBatch batch(final long head, final long last, final boolean resyncRequired,
+                                          final List<Web2SecretRow> web2Secrets, final List<ChallengeRow> challenges) {
+        return new ReplicationBatch(EPOCH, AES_KEY_HASH, head, last, resyncRequired,
+                web2Secrets, List.of(), List.of(), challenges, List.of(new DataKeyRow(0, "wrapped", Instant.now().toString())));
+    }
+
+    private static ReplicationBatch emptySnapshot() {
+        return new ReplicationBatch(EPOCH, AES_KEY_HASH, 0, 0, false, List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+
+    private static ChallengeRow challengeRow(final Instant finalDeadline) {
+        return new ChallengeRow(TASK_ID, finalDeadline.toString(), "0xaddress", "encryptedKey", true);
+    }
+
+    @Test
+    void shouldRegisterAsRemoteChallengeProvider() {
+        verify(teeChallengeService).setRemoteChallengeProvider(any());
+    }
+
+    @Test
+    void shouldCopyWholePrimaryThenApplyMutations() {
+        when(primaryClient.getChanges(API_KEY, "", 0, 2))
+                .thenReturn(batch(1, 1, true, List.of(), List.of()));
+        when(primaryClient.getSnapshot(eq(API_KEY), any(), anyInt(), eq(2))).thenReturn(emptySnapshot());
+        when(primaryClient.getSnapshot(API_KEY, Table.WEB2_SECRETS, 0, 2)).thenReturn(new ReplicationBatch(
+                EPOCH, AES_KEY_HASH, 1, 0, false, List.of(new Web2SecretRow(OWNER, "0xsecret", "value")),
+                List.of(), List.of(), List.of(), List.of()));
+        when(primaryClient.getChanges(API_KEY, EPOCH, 1, 2))
+                .thenReturn(batch(2, 2, false, List.of(new Web2SecretRow(OWNER, "0xother", "other")), List.of()));
+
+        follower.poll();
+
+        assertThat(web2SecretRepository.findAll()).hasSize(2);
+        assertThat(web2CacheSecretService.lookSecretExistenceInCache(new Web2SecretHeader(OWNER, "0xother"))).isTrue();
+        assertThat(dataKeyRepository.findById(0)).isPresent();
+        assertThat(follower.getAppliedSequence()).isEqualTo(2);
+        assertThat(follower.getLagSeconds()).isZero();
+        verify(primaryClient, times(4)).getSnapshot(eq(API_KEY), any(), eq(0), eq(2));
+    }
+
+    @Test
+    void shouldKeepPositionWhenPrimaryIsUnreachable() {
+        when(primaryClient.getChanges(anyString(), anyString(), anyLong(), anyInt()))
+                .thenThrow(mock(FeignException.class));
+
+        follower.poll();
+
+        assertThat(follower.getAppliedSequence()).isZero();
+    }
+
+    @Test
+    void shouldReloadAesKeyWhenPrimaryAesKeyChanged() {
+        when(encryptionService.getAesKeyHash()).thenReturn("0xpreviousaeskeyhash", "0xpreviousaeskeyhash", AES_KEY_HASH);
+        when(primaryClient.getChanges(API_KEY, "", 0, 2))
+                .thenReturn(batch(0, 0, false, List.of(new Web2SecretRow(OWNER, "0xsecret", "value")), List.of()));
+
+        follower.poll();
+
+        verify(encryptionService).reloadAESKey();
+        assertThat(web2SecretRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void shouldNotApplyRowsWhenAesKeyDiffersFromPrimary() {
+        when(encryptionService.getAesKeyHash()).thenReturn("0xotheraeskeyhash");
+        when(primaryClient.getChanges(API_KEY, "", 0, 2))
+                .thenReturn(batch(1, 1, true, List.of(), List.of()));
+
+        follower.poll();
+
+        verify(encryptionService).reloadAESKey();
+        verify(primaryClient, never()).getSnapshot(anyString(), any(), anyInt(), anyInt());
+        assertThat(web2SecretRepository.findAll()).isEmpty();
+        assertThat(follower.getAppliedSequence()).isZero();
+    }
+
+    @Test
+    void shouldInsertThenUpdateReplicatedChallenge() {
+        final Instant finalDeadline = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        follower.apply(batch(1, 1, false, List.of(), List.of(challengeRow(finalDeadline))));
+        follower.apply(batch(1, 1, false, List.of(), List.of(challengeRow(finalDeadline.plusSeconds(60)))));
+
+        assertThat(teeChallengeRepository.count()).isOne();
+        final Optional<TeeChallenge> challenge = teeChallengeRepository.findByTaskId(TASK_ID);
+        assertThat(challenge).isPresent();
+        assertThat(challenge.get().getCredentials().getAddress()).isEqualTo("0xaddress");
+        assertThat(challenge.get().getFinalDeadline()).isEqualTo(finalDeadline.plusSeconds(60));
+        assertThat(challenge.get().getCredentials().getPrivateKey()).isEqualTo("encryptedKey");
+        assertThat(challenge.get().getCredentials().isEncrypted()).isTrue();
+    }
+
+    @Test
+    void shouldStoreChallengeCreatedOnPrimary() {
+        when(primaryClient.getOrCreateChallenge(API_KEY, TASK_ID)).thenReturn(challengeRow(Instant.now()));
+
+        final Optional<TeeChallenge> challenge = follower.fetchChallenge(TASK_ID);
+
+        assertThat(challenge).isPresent();
+        assertThat(challenge.get().getCredentials().getAddress()).isEqualTo("0xaddress");
+        assertThat(teeChallengeRepository.count()).isOne();
+    }
+
+    @Test
+    void shouldReturnEmptyWhenPrimaryFailsToCreateChallenge() {
+        when(primaryClient.getOrCreateChallenge(API_KEY, TASK_ID)).thenThrow(mock(FeignException.class));
+
+        assertThat(follower.fetchChallenge(TASK_ID)).isEmpty();
+        assertThat(teeChallengeRepository.count()).isZero();
+    }
+}
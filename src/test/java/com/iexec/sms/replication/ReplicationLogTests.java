@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.encryption.DataKey;
+import com.iexec.sms.encryption.DataKeyRepository;
+import com.iexec.sms.encryption.EncryptionService;
+import com.iexec.sms.replication.ReplicationBatch.Table;
+import com.iexec.sms.secret.CacheSecretService;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretHeader;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretRepository;
+import com.iexec.sms.secret.web2.Web2Secret;
+import com.iexec.sms.secret.web2.Web2SecretHeader;
+import com.iexec.sms.secret.web2.Web2SecretRepository;
+import com.iexec.sms.secret.web3.Web3SecretHeader;
+import com.iexec.sms.secret.web3.Web3SecretRepository;
+import com.iexec.sms.tee.challenge.TeeChallenge;
+import com.iexec.sms.tee.challenge.TeeChallengeRepository;
+import com.iexec.sms.tee.challenge.TeeChallengeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+class ReplicationLogTests {
+    private static final String OWNER = "0xowner";
+    private static final String AES_KEY_HASH = "0xaeskeyhash";
+
+    @Autowired
+    private Web2SecretRepository web2SecretRepository;
+    @Autowired
+    private Web3SecretRepository web3SecretRepository;
+    @Autowired
+    private TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
+    @Autowired
+    private TeeChallengeRepository teeChallengeRepository;
+    @Autowired
+    private DataKeyRepository dataKeyRepository;
+
+    private final CacheSecretService<Web2SecretHeader> web2CacheSecretService = new CacheSecretService<>();
+    private TeeChallengeService teeChallengeService;
+    private AdminService adminService;
+    private ReplicationLog replicationLog;
+
+    @BeforeEach
+    void beforeEach() {
+        web2SecretRepository.deleteAll();
+        teeChallengeRepository.deleteAll();
+        dataKeyRepository.deleteAll();
+        teeChallengeService = mock(TeeChallengeService.class);
+        adminService = mock(AdminService.class);
+        replicationLog = createLog(3);
+    }
+
+    private ReplicationLog createLog(final int logSize) {
+        final EncryptionService encryptionService = mock(EncryptionService.class);
+        when(encryptionService.getAesKeyHash()).thenReturn(AES_KEY_HASH);
+        final ReplicationLog newLog = new ReplicationLog(
+                new ReplicationConfiguration(ReplicationConfiguration.Mode.PRIMARY, "", "", Duration.ofSeconds(1), 10, logSize),
+                web2SecretRepository, web3SecretRepository, teeTaskComputeSecretRepository,
+                teeChallengeRepository, dataKeyRepository,
+                web2CacheSecretService, new CacheSecretService<Web3SecretHeader>(),
+                new CacheSecretService<TeeTaskComputeSecretHeader>(), teeChallengeService,
+                encryptionService, adminService);
+        newLog.init();
+        return newLog;
+    }
+
+    private void storeWeb2Secret(final String address, final String value) {
+        final Web2Secret secret = web2SecretRepository.save(new Web2Secret(OWNER, address, value));
+        web2CacheSecretService.secretStored(secret.getHeader());
+    }
+
+    // region getChanges
+    @Test
+    void shouldRequireResyncOnOtherEpoch() {
+        storeWeb2Secret("0xsecret", "value");
+
+        final ReplicationBatch batch = replicationLog.getChanges("", 0, 10);
+
+        assertThat(batch.resyncRequired()).isTrue();
+        assertThat(batch.epoch()).isEqualTo(replicationLog.getEpoch());
+        assertThat(batch.headSequence()).isOne();
+        assertThat(batch.web2Secrets()).isEmpty();
+    }
+
+    @Test
+    void shouldReturnLatestStateOfMutatedRowsOnce() {
+        storeWeb2Secret("0xsecret", "value");
+        storeWeb2Secret("0xsecret", "updated");
+        storeWeb2Secret("0xother", "other");
+
+        final ReplicationBatch batch = replicationLog.getChanges(replicationLog.getEpoch(), 0, 2);
+
+        assertThat(batch.resyncRequired()).isFalse();
+        assertThat(batch.aesKeyHash()).isEqualTo(AES_KEY_HASH);
+        assertThat(batch.headSequence()).isEqualTo(3);
+        assertThat(batch.lastSequence()).isEqualTo(2);
+        assertThat(batch.web2Secrets())
+                .containsExactly(new ReplicationBatch.Web2SecretRow(OWNER, "0xsecret", "updated"));
+    }
+
+    @Test
+    void shouldReturnEmptyBatchWhenUpToDate() {
+        storeWeb2Secret("0xsecret", "value");
+
+        final ReplicationBatch batch = replicationLog.getChanges(replicationLog.getEpoch(), 1, 10);
+
+        assertThat(batch.resyncRequired()).isFalse();
+        assertThat(batch.lastSequence()).isOne();
+        assertThat(batch.containsNoRows()).isTrue();
+    }
+
+    @Test
+    void shouldRequireResyncWhenMissedMutationsWereDropped() {
+        for (int i = 0; i < 5; i++) {
+            storeWeb2Secret("0xsecret" + i, "value");
+        }
+
+        assertThat(replicationLog.getChanges(replicationLog.getEpoch(), 1, 10).resyncRequired()).isTrue();
+        assertThat(replicationLog.getChanges(replicationLog.getEpoch(), 2, 10).web2Secrets()).hasSize(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReturnCreatedChallengesAndDataKeys() throws GeneralSecurityException {
+        final ArgumentCaptor<Consumer<TeeChallenge>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(teeChallengeService).addChallengeCreatedListener(captor.capture());
+        final TeeChallenge challenge = teeChallengeRepository.save(new TeeChallenge("0xtask", Instant.now()));
+        captor.getValue().accept(challenge);
+        dataKeyRepository.save(new DataKey(0, "wrapped", Instant.now()));
+
+        final ReplicationBatch batch = replicationLog.getChanges(replicationLog.getEpoch(), 0, 10);
+
+        assertThat(batch.challenges()).singleElement()
+                .satisfies(row -> {
+                    assertThat(row.taskId()).isEqualTo("0xtask");
+                    assertThat(row.address()).isEqualTo(challenge.getCredentials().getAddress());
+                });
+        assertThat(batch.dataKeys()).extracting(ReplicationBatch.DataKeyRow::wrappedKey).containsExactly("wrapped");
+    }
+
+    @Test
+    void shouldRequireResyncWhenDatabaseIsRestored() {
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(adminService).addDatabaseRestoredListener(captor.capture());
+        storeWeb2Secret("0xsecret", "value");
+        final String previousEpoch = replicationLog.getEpoch();
+
+        captor.getValue().run();
+
+        final ReplicationBatch batch = replicationLog.getChanges(previousEpoch, 1, 10);
+        assertThat(batch.resyncRequired()).isTrue();
+        assertThat(batch.epoch()).isNotEqualTo(previousEpoch);
+        assertThat(replicationLog.getChanges(batch.epoch(), 1, 10).resyncRequired()).isFalse();
+    }
+    // endregion
+
+    // region getSnapshot
+    @Test
+    void shouldPageWholeTable() {
+        for (int i = 0; i < 3; i++) {
+            web2SecretRepository.save(new Web2Secret(OWNER, "0xsecret" + i, "value"));
+        }
+
+        assertThat(replicationLog.getSnapshot(Table.WEB2_SECRETS, 0, 2).aesKeyHash()).isEqualTo(AES_KEY_HASH);
+        assertThat(replicationLog.getSnapshot(Table.WEB2_SECRETS, 0, 2).web2Secrets())
+                .extracting(ReplicationBatch.Web2SecretRow::address).containsExactly("0xsecret0", "0xsecret1");
+        assertThat(replicationLog.getSnapshot(Table.WEB2_SECRETS, 1, 2).web2Secrets())
+                .extracting(ReplicationBatch.Web2SecretRow::address).containsExactly("0xsecret2");
+        assertThat(replicationLog.getSnapshot(Table.WEB2_SECRETS, 2, 2).containsNoRows()).isTrue();
+        assertThat(replicationLog.getSnapshot(Table.WEB3_SECRETS, 0, 2).containsNoRows()).isTrue();
+    }
+    // endregion
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.replication;
+
+import com.iexec.sms.http.FeignClientConfiguration;
+import com.iexec.sms.http.PooledFeignClient;
+import com.sun.net.httpserver.HttpServer;
+import feign.Logger;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteForwardingRequestFilterTests {
+    private final AtomicReference<String> forwardedRequest = new AtomicReference<>();
+
+    private HttpServer primary;
+    private PooledFeignClient httpClient;
+    private WriteForwardingRequestFilter filter;
+    private MockHttpServletResponse res;
+    private MockFilterChain chain;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        primary = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        primary.createContext("/", exchange -> {
+            forwardedRequest.set(String.join(" ", exchange.getRequestMethod(), exchange.getRequestURI().toString(),
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+            final byte[] body = "Secret already exists".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(HttpServletResponse.SC_CONFLICT, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        primary.start();
+        httpClient = new PooledFeignClient(new FeignClientConfiguration(
+                Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(1), 1, Logger.Level.NONE), null);
+        filter = new WriteForwardingRequestFilter("http://localhost:" + primary.getAddress().getPort() + "/",
+                httpClient.getHttpClient());
+        res = new MockHttpServletResponse();
+        chain = new MockFilterChain();
+    }
+
+    @AfterEach
+    void afterEach() {
+        primary.stop(0);
+        httpClient.close();
+    }
+
+    @Test
+    void shouldForwardWriteToPrimary() throws Exception {
+        final MockHttpServletRequest req = new MockHttpServletRequest("POST", "/secrets/web2");
+        req.setQueryString("secretName=name");
+        req.addHeader("Authorization", "signature");
+        req.setContent("value".getBytes(StandardCharsets.UTF_8));
+
+        filter.doFilter(req, res, chain);
+
+        assertThat(forwardedRequest.get()).isEqualTo("POST /secrets/web2?secretName=name signature value");
+        assertThat(res.getStatus()).isEqualTo(HttpServletResponse.SC_CONFLICT);
+        assertThat(res.getContentType()).isEqualTo("text/plain");
+        assertThat(res.getContentAsString()).isEqualTo("Secret already exists");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void shouldStreamChunkedWriteToPrimary() throws Exception {
+        // unknown length, as for a chunked request
+        final MockHttpServletRequest chunkedReq = new MockHttpServletRequest("PUT", "/secrets/web2") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunkedReq.addHeader("Authorization", "signature");
+        chunkedReq.addHeader("Transfer-Encoding", "chunked");
+        chunkedReq.setContent("updated".getBytes(StandardCharsets.UTF_8));
+
+        filter.doFilter(chunkedReq, res, chain);
+
+        assertThat(forwardedRequest.get()).isEqualTo("PUT /secrets/web2 signature updated");
+        assertThat(res.getStatus()).isEqualTo(HttpServletResponse.SC_CONFLICT);
+        assertThat(res.getContentAsString()).isEqualTo("Secret already exists");
+    }
+
+    @Test
+    void shouldServeReadLocally() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("HEAD", "/secrets/web2"), res, chain);
+
+        assertThat(forwardedRequest.get()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void shouldServeExistenceCheckLocally() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("POST", "/secrets/exists"), res, chain);
+
+        assertThat(forwardedRequest.get()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void shouldReturnBadGatewayWhenPrimaryIsUnreachable() throws Exception {
+        primary.stop(0);
+
+        filter.doFilter(new MockHttpServletRequest("PUT", "/secrets/web2"), res, chain);
+
+        assertThat(res.getStatus()).isEqualTo(HttpServletResponse.SC_BAD_GATEWAY);
+        assertThat(chain.getRequest()).isNull();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AddressConverterTests {
+    private static final String ADDRESS = "0x1234567890abcdef1234567890abcdef12345678";
+
+    @Test
+    void shouldStoreAddressAs20Bytes() {
+        final byte[] bytes = AddressConverter.toBinary(ADDRESS);
+
+        assertThat(bytes).hasSize(AddressConverter.ADDRESS_LENGTH)
+                .startsWith(0x12, 0x34)
+                .endsWith(0x56, 0x78);
+        assertThat(AddressConverter.fromBinary(bytes)).isEqualTo(ADDRESS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "0xowner", "aws.amazon.com", "beneficiary.key.iex.ec",
+            "0x1234567890ABCDEF1234567890ABCDEF12345678", "0x1234567890abcdef1234567890abcdef1234567",
+            "1234567890abcdef1234567890abcdef12345678", "été"})
+    void shouldStoreOtherValuesAsText(final String value) {
+        final byte[] bytes = AddressConverter.toBinary(value);
+
+        assertThat(bytes).startsWith(AddressConverter.FORMAT_TEXT)
+                .hasSize(value.getBytes(StandardCharsets.UTF_8).length + 1);
+        assertThat(AddressConverter.fromBinary(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void shouldPadTextOf19Bytes() {
+        final String value = "0123456789abcdefghi";
+
+        final byte[] bytes = AddressConverter.toBinary(value);
+
+        assertThat(bytes).startsWith(AddressConverter.FORMAT_PADDED_TEXT)
+                .hasSize(AddressConverter.ADDRESS_LENGTH + 1);
+        assertThat(AddressConverter.fromBinary(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void shouldConvertNull() {
+        assertThat(AddressConverter.toBinary(null)).isNull();
+        assertThat(AddressConverter.fromBinary(null)).isNull();
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThatThrownBy(() -> AddressConverter.fromBinary(new byte[]{9, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AddressConverter.fromBinary(new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2024-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2024-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CacheSecretServiceTests {
@@ -90,4 +93,27 @@ class CacheSecretServiceTests {
                 () -> assertTrue(memoryLogAppender.contains("Secret existence was not found in cache"))
         );
     }
+
+    @Test
+    void shouldNotifyListenersWhenSecretStored() {
+        final List<String> notifications = new ArrayList<>();
+        cacheSecretService.addSecretStoredListener(notifications::add);
+        cacheSecretService.secretStored(KEY);
+        assertAll(
+                () -> assertTrue(cacheSecretService.lookSecretExistenceInCache(KEY)),
+                () -> assertEquals(List.of(KEY), notifications)
+        );
+    }
+
+    @Test
+    void shouldEvictOnlyMissingSecrets() {
+        cacheSecretService.putSecretExistenceInCache(KEY, true);
+        cacheSecretService.putSecretExistenceInCache("MISSING", false);
+        cacheSecretService.evictMissingSecrets();
+        assertAll(
+                () -> assertTrue(cacheSecretService.lookSecretExistenceInCache(KEY)),
+                () -> assertNull(cacheSecretService.lookSecretExistenceInCache("MISSING")),
+                () -> assertEquals(1, cacheSecretService.count())
+        );
+    }
 }
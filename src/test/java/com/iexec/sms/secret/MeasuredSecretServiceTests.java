@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,6 +67,7 @@ class MeasuredSecretServiceTests {
                 }, // Simulating a repo `count` method
                 cacheSecretService::count,
                 Executors.newSingleThreadScheduledExecutor(),
+                1,
                 1);
         measuredSecretService.init();
     }
@@ -79,7 +80,10 @@ class MeasuredSecretServiceTests {
 
     @Test
     void shouldGetInitialSecretsCount() {
-        assertThat(measuredSecretService.getInitialSecretsCount()).isEqualTo(INITIAL_COUNT);
+        // The initial count is run in background after startup
+        await()
+                .timeout(5, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertThat(measuredSecretService.getInitialSecretsCount()).isEqualTo(INITIAL_COUNT));
     }
 
     @Test
@@ -101,6 +105,7 @@ class MeasuredSecretServiceTests {
                 count::get,
                 () -> 0L,
                 Executors.newSingleThreadScheduledExecutor(),
+                1,
                 1);
         measuredSecretServiceWithNullCache.init();
 
@@ -126,6 +131,65 @@ class MeasuredSecretServiceTests {
                 .untilAsserted(() -> assertThat(measuredSecretService.getStoredSecretsCount()).isEqualTo(storedCount));
     }
 
+    @Test
+    void shouldMaintainStoredSecretsCountOnInsertionsAndDeletions() {
+        await()
+                .timeout(5, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertThat(measuredSecretService.getStoredSecretsCount()).isEqualTo(INITIAL_COUNT));
+
+        measuredSecretService.newlyAddedSecret();
+        measuredSecretService.newlyAddedSecret();
+        assertThat(measuredSecretService.getStoredSecretsCount()).isEqualTo(INITIAL_COUNT + 2);
+        measuredSecretService.removedSecrets(3);
+        assertThat(measuredSecretService.getStoredSecretsCount()).isEqualTo(INITIAL_COUNT - 1);
+        assertThat(meterRegistry.get(METRICS_PREFIX + "stored").gauge().value()).isEqualTo(INITIAL_COUNT - 1);
+    }
+
+    @Test
+    void shouldReconcileStoredSecretsCount() {
+        final MeasuredSecretService service = new MeasuredSecretService(
+                SECRETS_TYPE,
+                "iexec.sms.secrets.reconciled_secrets.",
+                count::get,
+                () -> 0L,
+                Executors.newSingleThreadScheduledExecutor(),
+                3600,
+                3600);
+        service.reconcileStoredSecretsCount();
+        service.newlyAddedSecret();
+        assertThat(service.getStoredSecretsCount()).isEqualTo(INITIAL_COUNT + 1);
+
+        // Insertion was not reported to the service
+        count.set(INITIAL_COUNT + 2);
+        service.reconcileStoredSecretsCount();
+        assertThat(service.getStoredSecretsCount()).isEqualTo(INITIAL_COUNT + 2);
+        assertThat(service.getInitialSecretsCount()).isEqualTo(INITIAL_COUNT);
+    }
+
+    @Test
+    void shouldApplySecretsChangedDuringCount() {
+        final MeasuredSecretService[] holder = new MeasuredSecretService[1];
+        final MeasuredSecretService service = new MeasuredSecretService(
+                SECRETS_TYPE,
+                "iexec.sms.secrets.reconciled_secrets.",
+                () -> {
+                    holder[0].newlyAddedSecret();
+                    return count.get();
+                },
+                () -> 0L,
+                Executors.newSingleThreadScheduledExecutor(),
+                3600,
+                3600);
+        holder[0] = service;
+        service.reconcileStoredSecretsCount();
+        assertThat(service.getStoredSecretsCount()).isEqualTo(INITIAL_COUNT + 1);
+
+        // Reconciliation is not skipped, the secret added during the count is applied on top of it
+        count.set(100L);
+        service.reconcileStoredSecretsCount();
+        assertThat(service.getStoredSecretsCount()).isEqualTo(101L);
+    }
+
     @Test
     void shouldNotGetStoredSecretsCount() {
         this.shouldThrowDatabaseAccessException = true;
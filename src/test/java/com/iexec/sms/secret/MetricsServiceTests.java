@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2023 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,6 +44,7 @@ class MetricsServiceTests {
             count::get, // Simulating a repo `count` method
             () -> 0,
             Executors.newSingleThreadScheduledExecutor(),
+            1,
             1
     ));
 
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SecretAddressMigrationTests {
+    private static final String OWNER = "0x1234567890abcdef1234567890abcdef12345678";
+    private static final String APP = "0xabcdef1234567890abcdef1234567890abcdef12";
+
+    private Connection connection;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:secret-address-migration");
+        try (Statement statement = connection.createStatement()) {
+            // Tables as created before binary addresses
+            statement.execute("CREATE TABLE \"web2secret\" (\"address\" varchar(255) NOT NULL, "
+                    + "\"owner_address\" varchar(255) NOT NULL, \"value\" varchar(8192), "
+                    + "PRIMARY KEY (\"address\", \"owner_address\"))");
+            statement.execute("CREATE TABLE \"web3secret\" (\"address\" varchar(255) NOT NULL, "
+                    + "\"value\" varchar(8192), PRIMARY KEY (\"address\"))");
+            statement.execute("CREATE TABLE \"tee_task_compute_secret\" (\"fixed_secret_owner\" varchar(255) NOT NULL, "
+                    + "\"key\" varchar(255) NOT NULL, \"on_chain_object_address\" varchar(255) NOT NULL, "
+                    + "\"on_chain_object_type\" tinyint NOT NULL, \"secret_owner_role\" tinyint NOT NULL, "
+                    + "\"value\" varchar(8192) NOT NULL, PRIMARY KEY (\"fixed_secret_owner\", \"key\", "
+                    + "\"on_chain_object_address\", \"on_chain_object_type\", \"secret_owner_role\"))");
+            for (int i = 0; i < 5; i++) {
+                statement.execute("INSERT INTO \"web2secret\" VALUES ('secret" + i + ".iex.ec', '" + OWNER + "', 'value')");
+            }
+            statement.execute("INSERT INTO \"web3secret\" VALUES ('" + APP + "', 'value')");
+            statement.execute("INSERT INTO \"tee_task_compute_secret\" VALUES ('', '1', '" + APP + "', 0, 0, 'value')");
+            statement.execute("INSERT INTO \"tee_task_compute_secret\" VALUES ('" + OWNER + "', 'key', '', 0, 1, 'value')");
+        }
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    private List<List<String>> readAddresses(final String table, final String... columns) throws SQLException {
+        final List<List<String>> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT * FROM \"" + table + "\"")) {
+            while (rs.next()) {
+                final List<String> row = new ArrayList<>();
+                for (final String column : columns) {
+                    row.add(AddressConverter.fromBinary(rs.getBytes(column)));
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private List<String> getPrimaryKeyColumns(final String table) throws SQLException {
+        final List<String> columns = new ArrayList<>();
+        try (ResultSet rs = connection.getMetaData().getPrimaryKeys(null, connection.getSchema(), table)) {
+            while (rs.next()) {
+                columns.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+        return columns;
+    }
+
+    @Test
+    void shouldConvertAddressesByChunks() throws SQLException {
+        SecretAddressMigration.migrate(connection, 2);
+
+        assertThat(readAddresses("web2secret", "owner_address", "address"))
+                .hasSize(5)
+                .allSatisfy(row -> assertThat(row.get(0)).isEqualTo(OWNER))
+                .extracting(row -> row.get(1))
+                .containsExactlyInAnyOrder("secret0.iex.ec", "secret1.iex.ec", "secret2.iex.ec",
+                        "secret3.iex.ec", "secret4.iex.ec");
+        assertThat(readAddresses("web3secret", "address")).containsExactly(List.of(APP));
+        assertThat(readAddresses("tee_task_compute_secret", "on_chain_object_address", "fixed_secret_owner"))
+                .containsExactlyInAnyOrder(List.of(APP, ""), List.of("", OWNER));
+        assertThat(getPrimaryKeyColumns("web2secret"))
+                .containsExactlyInAnyOrder("address", "owner_address");
+        assertThat(getPrimaryKeyColumns("tee_task_compute_secret"))
+                .containsExactlyInAnyOrder("fixed_secret_owner", "key", "on_chain_object_address",
+                        "on_chain_object_type", "secret_owner_role");
+    }
+
+    @Test
+    void shouldResumeInterruptedConversion() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE \"web3secret\" ADD COLUMN \"address_bin\" VARBINARY(1024)");
+        }
+        SecretAddressMigration.migrate(connection, 10);
+        // a converted table is left unchanged
+        SecretAddressMigration.migrate(connection, 10);
+
+        assertThat(readAddresses("web3secret", "address")).containsExactly(List.of(APP));
+        assertThat(getPrimaryKeyColumns("web3secret")).containsExactly("address");
+    }
+
+    @Test
+    void shouldRejectDuplicateAddressesOnceConverted() throws SQLException {
+        SecretAddressMigration.migrate(connection, 10);
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO \"web3secret\" (\"address\", \"value\") VALUES (?, 'value')")) {
+            statement.setBytes(1, AddressConverter.toBinary(APP));
+            assertThatThrownBy(statement::executeUpdate)
+                    .isInstanceOf(SQLIntegrityConstraintViolationException.class);
+        }
+    }
+}
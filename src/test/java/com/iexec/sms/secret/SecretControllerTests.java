@@ -30,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -54,6 +55,12 @@ class SecretControllerTests {
     @Mock
     private Web3SecretService web3SecretService;
 
+    @Mock
+    private SecretImportService secretImportService;
+
+    @Mock
+    private SecretExistenceService secretExistenceService;
+
     @InjectMocks
     private SecretController secretController;
 
@@ -79,6 +86,29 @@ class SecretControllerTests {
     }
     //endregion
 
+    //region addWeb3Secrets
+    @Test
+    void shouldRejectWeb3SecretsBatchWhenTooLarge() {
+        final SecretImportItem item = new SecretImportItem(AUTHORIZATION, WEB3_SECRET_ADDRESS, null, WEB3_SECRET_VALUE);
+        when(secretImportService.getMaxBatchSize()).thenReturn(1);
+        assertThat(secretController.addWeb3Secrets(List.of(item, item)))
+                .isEqualTo(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+        verify(secretImportService, never()).importSecrets(any(), any());
+    }
+
+    @Test
+    void shouldImportWeb3SecretsBatch() {
+        final List<SecretImportItem> items = List.of(
+                new SecretImportItem(AUTHORIZATION, WEB3_SECRET_ADDRESS, null, WEB3_SECRET_VALUE));
+        final List<SecretImportResult> results = List.of(
+                new SecretImportResult(WEB3_SECRET_ADDRESS, null, HttpStatus.NO_CONTENT.value()));
+        when(secretImportService.getMaxBatchSize()).thenReturn(10);
+        when(secretImportService.importSecrets(eq(items), any())).thenReturn(results);
+        assertThat(secretController.addWeb3Secrets(items))
+                .isEqualTo(ResponseEntity.ok(results));
+    }
+    //endregion
+
     //region addWeb3Secret
     @Test
     void failToAddWeb3SecretWhenBadAuthorization() {
@@ -250,6 +280,39 @@ class SecretControllerTests {
     }
     //endregion
 
+    //region areSecretsPresent
+    @Test
+    void shouldRejectExistenceCheckWhenTooLarge() {
+        when(secretExistenceService.getMaxBatchSize()).thenReturn(1);
+        final SecretReference reference = new SecretReference(SecretType.WEB3, WEB3_SECRET_ADDRESS, null);
+        assertThat(secretController.areSecretsPresent(List.of(reference, reference)))
+                .isEqualTo(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+        verify(secretExistenceService, never()).areSecretsPresent(any());
+        verifyNoInteractions(secretImportService);
+    }
+
+    @Test
+    void shouldRejectExistenceCheckWhenReferenceIsInvalid() {
+        when(secretExistenceService.getMaxBatchSize()).thenReturn(10);
+        final List<SecretReference> references = List.of(new SecretReference(null, WEB3_SECRET_ADDRESS, null));
+        when(secretExistenceService.areSecretsPresent(references)).thenThrow(IllegalArgumentException.class);
+        assertThat(secretController.areSecretsPresent(references))
+                .isEqualTo(ResponseEntity.badRequest().build());
+    }
+
+    @Test
+    void shouldCheckSecretsExistence() {
+        when(secretExistenceService.getMaxBatchSize()).thenReturn(10);
+        final List<SecretReference> references = List.of(
+                new SecretReference(SecretType.WEB3, WEB3_SECRET_ADDRESS, null),
+                new SecretReference(SecretType.WEB2, WEB2_OWNER_ADDRESS, WEB2_SECRET_NAME));
+        when(secretExistenceService.areSecretsPresent(references)).thenReturn(List.of(true, false));
+        assertThat(secretController.areSecretsPresent(references))
+                .isEqualTo(ResponseEntity.ok(List.of(true, false)));
+        verifyNoInteractions(authorizationService);
+    }
+    //endregion
+
     String getRandomString(int size) {
         byte[] bytes = new byte[size];
         seed.nextBytes(bytes);
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import com.iexec.sms.api.SmsClient;
+import com.iexec.sms.secret.compute.OnChainObjectType;
+import com.iexec.sms.secret.compute.SecretOwnerRole;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretHeader;
+import com.iexec.sms.secret.compute.TeeTaskComputeSecretService;
+import com.iexec.sms.secret.web2.Web2SecretHeader;
+import com.iexec.sms.secret.web2.Web2SecretService;
+import com.iexec.sms.secret.web3.Web3SecretService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecretExistenceServiceTests {
+
+    private static final String APP_ADDRESS = "0xapp";
+    private static final String OWNER_ADDRESS = "0xowner";
+    private static final String SECRET_KEY = "my-key";
+
+    @Mock
+    private Web2SecretService web2SecretService;
+
+    @Mock
+    private Web3SecretService web3SecretService;
+
+    @Mock
+    private TeeTaskComputeSecretService teeTaskComputeSecretService;
+
+    private SecretExistenceService secretExistenceService;
+
+    @BeforeEach
+    void beforeEach() {
+        secretExistenceService = new SecretExistenceService(web2SecretService, web3SecretService,
+                teeTaskComputeSecretService, new SecretExistenceConfiguration(5));
+    }
+
+    @Test
+    void shouldRejectTooManyReferences() {
+        final SecretReference reference = new SecretReference(SecretType.WEB3, "0x1", null);
+        final List<SecretReference> references = List.of(reference, reference, reference, reference, reference, reference);
+        assertThatThrownBy(() -> secretExistenceService.areSecretsPresent(references))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(web3SecretService);
+    }
+
+    @Test
+    void shouldResolveEachTypeOnceAndKeepInputOrder() {
+        when(web3SecretService.areSecretsPresent(List.of("0x1", "0x2")))
+                .thenReturn(List.of(true, false));
+        when(web2SecretService.areSecretsPresent(List.of(new Web2SecretHeader(OWNER_ADDRESS, SECRET_KEY))))
+                .thenReturn(List.of(true));
+        when(teeTaskComputeSecretService.areSecretsPresent(List.of(new TeeTaskComputeSecretHeader(
+                OnChainObjectType.APPLICATION, APP_ADDRESS, SecretOwnerRole.APPLICATION_DEVELOPER, "",
+                SmsClient.APP_DEVELOPER_SECRET_INDEX))))
+                .thenReturn(List.of(false));
+        when(teeTaskComputeSecretService.areSecretsPresent(List.of(new TeeTaskComputeSecretHeader(
+                OnChainObjectType.APPLICATION, "", SecretOwnerRole.REQUESTER, OWNER_ADDRESS, SECRET_KEY))))
+                .thenReturn(List.of(true));
+
+        final List<Boolean> presence = secretExistenceService.areSecretsPresent(List.of(
+                new SecretReference(SecretType.WEB3, "0x1", null),
+                new SecretReference(SecretType.REQUESTER, OWNER_ADDRESS, SECRET_KEY),
+                new SecretReference(SecretType.WEB2, OWNER_ADDRESS, SECRET_KEY),
+                new SecretReference(SecretType.APP_DEVELOPER, APP_ADDRESS, null),
+                new SecretReference(SecretType.WEB3, "0x2", null)));
+
+        assertThat(presence).containsExactly(true, true, true, false, false);
+        verify(web3SecretService).areSecretsPresent(anyList());
+        verify(web2SecretService).areSecretsPresent(anyList());
+        verify(teeTaskComputeSecretService, times(2)).areSecretsPresent(anyList());
+    }
+
+    @Test
+    void shouldRejectReferenceWithoutType() {
+        final List<SecretReference> references = List.of(new SecretReference(null, OWNER_ADDRESS, SECRET_KEY));
+        assertThatThrownBy(() -> secretExistenceService.areSecretsPresent(references))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(web2SecretService, web3SecretService, teeTaskComputeSecretService);
+    }
+
+    @Test
+    void shouldRejectWeb2ReferenceWithoutKey() {
+        final List<SecretReference> references = List.of(new SecretReference(SecretType.WEB2, OWNER_ADDRESS, null));
+        assertThatThrownBy(() -> secretExistenceService.areSecretsPresent(references))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(web2SecretService, web3SecretService, teeTaskComputeSecretService);
+    }
+
+    @Test
+    void shouldRejectRequesterReferenceWithInvalidKey() {
+        final List<SecretReference> references = List.of(new SecretReference(SecretType.REQUESTER, OWNER_ADDRESS, "invalid key!"));
+        assertThatThrownBy(() -> secretExistenceService.areSecretsPresent(references))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(web2SecretService, web3SecretService, teeTaskComputeSecretService);
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenNoReference() {
+        assertThat(secretExistenceService.areSecretsPresent(List.of())).isEmpty();
+        verifyNoInteractions(web2SecretService, web3SecretService, teeTaskComputeSecretService);
+    }
+}
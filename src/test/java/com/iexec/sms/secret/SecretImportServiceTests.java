@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret;
+
+import com.iexec.sms.encryption.EncryptionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecretImportServiceTests {
+
+    private static final String AUTHORIZATION = "0xsignature";
+    private static final String ENCRYPTED = "encrypted";
+
+    @Mock
+    private EncryptionService encryptionService;
+
+    private SecretImportService secretImportService;
+    private final List<String> storedSecrets = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        storedSecrets.clear();
+        secretImportService = new SecretImportService(encryptionService, 10, Executors.newFixedThreadPool(2));
+    }
+
+    @AfterEach
+    void afterEach() {
+        secretImportService.shutdown();
+    }
+
+    private SecretImportHandler<String> handler(List<Boolean> insertResults) {
+        return SecretImportHandler.<String>builder()
+                .validation(item -> "invalid".equals(item.getKey()) ? Optional.of(HttpStatus.BAD_REQUEST) : Optional.empty())
+                .authorization(item -> AUTHORIZATION.equals(item.getAuthorization()))
+                .secretFactory((item, encryptedValue) -> item.getAddress() + ":" + encryptedValue)
+                .batchInsert(secrets -> {
+                    storedSecrets.addAll(secrets);
+                    return insertResults;
+                })
+                .build();
+    }
+
+    private static SecretImportItem item(String authorization, String address, String key) {
+        return new SecretImportItem(authorization, address, key, "value");
+    }
+
+    @Test
+    void shouldImportSecretsAndReportEachOutcome() {
+        when(encryptionService.encrypt("value")).thenReturn(ENCRYPTED);
+        final List<SecretImportItem> items = List.of(
+                item(AUTHORIZATION, "0x1", null),
+                item("0xbad", "0x2", null),
+                item(AUTHORIZATION, "0x3", "invalid"),
+                item(AUTHORIZATION, "0x4", null),
+                item(AUTHORIZATION, "", null));
+
+        final List<SecretImportResult> results = secretImportService.importSecrets(items, handler(List.of(true, false)));
+
+        assertThat(results).extracting(SecretImportResult::getStatus).containsExactly(
+                HttpStatus.NO_CONTENT.value(),
+                HttpStatus.UNAUTHORIZED.value(),
+                HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.BAD_REQUEST.value());
+        assertThat(results).extracting(SecretImportResult::getAddress).containsExactly("0x1", "0x2", "0x3", "0x4", "");
+        assertThat(storedSecrets).containsExactly("0x1:" + ENCRYPTED, "0x4:" + ENCRYPTED);
+        verify(encryptionService, times(2)).encrypt("value");
+    }
+
+    @Test
+    void shouldCheckSignatureBeforeValidation() {
+        final List<SecretImportResult> results = secretImportService.importSecrets(
+                List.of(item("0xbad", "0x1", "invalid")), handler(List.of()));
+        assertThat(results).extracting(SecretImportResult::getStatus)
+                .containsExactly(HttpStatus.UNAUTHORIZED.value());
+        assertThat(storedSecrets).isEmpty();
+        verifyNoInteractions(encryptionService);
+    }
+
+    @Test
+    void shouldNotStoreSecretWhenEncryptionFails() {
+        when(encryptionService.encrypt("value")).thenReturn("");
+        final List<SecretImportResult> results = secretImportService.importSecrets(
+                List.of(item(AUTHORIZATION, "0x1", null)), handler(List.of()));
+        assertThat(results).extracting(SecretImportResult::getStatus)
+                .containsExactly(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        assertThat(storedSecrets).isEmpty();
+    }
+
+    @Test
+    void shouldReportInternalErrorWhenBatchInsertFails() {
+        when(encryptionService.encrypt("value")).thenReturn(ENCRYPTED);
+        final SecretImportHandler<String> failingHandler = SecretImportHandler.<String>builder()
+                .validation(item -> Optional.empty())
+                .authorization(item -> true)
+                .secretFactory((item, encryptedValue) -> encryptedValue)
+                .batchInsert(secrets -> {
+                    throw new IllegalStateException("database is down");
+                })
+                .build();
+        final List<SecretImportResult> results = secretImportService.importSecrets(
+                List.of(item(AUTHORIZATION, "0x1", null), item("", "0x2", null)), failingHandler);
+        assertThat(results).extracting(SecretImportResult::getStatus).containsExactly(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                HttpStatus.BAD_REQUEST.value());
+    }
+}
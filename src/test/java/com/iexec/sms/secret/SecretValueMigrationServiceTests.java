@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.secret.compute.*;
+import com.iexec.sms.secret.web2.Web2SecretHeader;
+import com.iexec.sms.secret.web2.Web2SecretRepository;
+import com.iexec.sms.secret.web3.Web3SecretRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Schema changes commit ongoing H2 transactions, rows are committed and deleted after each test.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecretValueMigrationServiceTests {
+    private static final String VALUE = "AAECAwQFBgcICQoLDA0ODw==";
+    private static final String ENVELOPE_VALUE = "$v1$" + VALUE;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Web2SecretRepository web2SecretRepository;
+    @Autowired
+    private Web3SecretRepository web3SecretRepository;
+    @Autowired
+    private TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
+
+    private AdminService adminService;
+    private SecretValueMigrationService service;
+
+    @BeforeEach
+    void beforeEach() {
+        adminService = mock(AdminService.class);
+        service = new SecretValueMigrationService(jdbcTemplate,
+                new SecretValueMigrationConfiguration(Duration.ofSeconds(1), 1), adminService);
+        service.init();
+        jdbcTemplate.update("INSERT INTO \"web2secret\" (\"owner_address\", \"address\", \"value\") VALUES (?, ?, ?)",
+                AddressConverter.toBinary("0xowner"), AddressConverter.toBinary("0xsecret1"), VALUE);
+        jdbcTemplate.update("INSERT INTO \"web2secret\" (\"owner_address\", \"address\", \"value\") VALUES (?, ?, ?)",
+                AddressConverter.toBinary("0xowner"), AddressConverter.toBinary("0xsecret2"), ENVELOPE_VALUE);
+        jdbcTemplate.update("INSERT INTO \"web3secret\" (\"address\", \"value\") VALUES (?, ?)",
+                AddressConverter.toBinary("0xsecret"), VALUE);
+        jdbcTemplate.update("INSERT INTO \"tee_task_compute_secret\" (\"on_chain_object_type\", \"on_chain_object_address\", "
+                        + "\"secret_owner_role\", \"fixed_secret_owner\", \"key\", \"value\") VALUES (?, ?, ?, ?, ?, ?)",
+                OnChainObjectType.APPLICATION.ordinal(), AddressConverter.toBinary("0xapp"),
+                SecretOwnerRole.APPLICATION_DEVELOPER.ordinal(), AddressConverter.toBinary(""), "1", ENVELOPE_VALUE);
+    }
+
+    @AfterEach
+    void afterEach() {
+        web2SecretRepository.deleteAll();
+        web3SecretRepository.deleteAll();
+        teeTaskComputeSecretRepository.deleteAll();
+    }
+
+    private int countLegacyValues(final String table) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"" + table + "\" WHERE \"value\" IS NOT NULL", Integer.class);
+    }
+
+    @Test
+    void shouldReadLegacyValues() {
+        assertThat(web2SecretRepository.findById(new Web2SecretHeader("0xowner", "0xsecret1")))
+                .hasValueSatisfying(secret -> assertThat(secret.getValue()).isEqualTo(VALUE));
+        assertThat(web3SecretRepository.findAll())
+                .singleElement()
+                .satisfies(secret -> assertThat(secret.getValue()).isEqualTo(VALUE));
+    }
+
+    @Test
+    void shouldMoveLegacyValuesByChunks() {
+        service.migrateChunk();
+        assertThat(countLegacyValues("web2secret")).isOne();
+        assertThat(countLegacyValues("web3secret")).isZero();
+        assertThat(countLegacyValues("tee_task_compute_secret")).isZero();
+
+        service.migrateChunk();
+        service.migrateChunk();
+        assertThat(countLegacyValues("web2secret")).isZero();
+        assertThat(web2SecretRepository.findById(new Web2SecretHeader("0xowner", "0xsecret1")))
+                .hasValueSatisfying(secret -> assertThat(secret.getValue()).isEqualTo(VALUE));
+        assertThat(web2SecretRepository.findById(new Web2SecretHeader("0xowner", "0xsecret2")))
+                .hasValueSatisfying(secret -> assertThat(secret.getValue()).isEqualTo(ENVELOPE_VALUE));
+        assertThat(web3SecretRepository.findAll())
+                .singleElement()
+                .satisfies(secret -> assertThat(secret.getValue()).isEqualTo(VALUE));
+        assertThat(teeTaskComputeSecretRepository.findAll())
+                .singleElement()
+                .satisfies(secret -> assertThat(secret.getValue()).isEqualTo(ENVELOPE_VALUE));
+    }
+
+    @Test
+    void shouldNotOverwriteUpdatedValue() {
+        final Web2SecretHeader header = new Web2SecretHeader("0xowner", "0xsecret1");
+        web2SecretRepository.findById(header)
+                .map(secret -> secret.withValue("$v2$" + VALUE))
+                .ifPresent(web2SecretRepository::save);
+
+        service.migrateChunk();
+        service.migrateChunk();
+
+        assertThat(countLegacyValues("web2secret")).isZero();
+        assertThat(web2SecretRepository.findById(header))
+                .hasValueSatisfying(secret -> assertThat(secret.getValue()).isEqualTo("$v2$" + VALUE));
+    }
+
+    @Test
+    void shouldMigrateAgainAfterRestore() {
+        for (int i = 0; i < 3; i++) {
+            service.migrateChunk();
+        }
+        jdbcTemplate.update("INSERT INTO \"web3secret\" (\"address\", \"value\") VALUES (?, ?)",
+                AddressConverter.toBinary("0xrestored"), VALUE);
+        service.migrateChunk();
+        assertThat(countLegacyValues("web3secret")).isOne();
+
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(adminService).addDatabaseRestoredListener(captor.capture());
+        captor.getValue().run();
+        service.migrateChunk();
+
+        assertThat(countLegacyValues("web3secret")).isZero();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.secret;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SecretWriteCombinerTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private SecretWriteCombiner<String> combiner;
+
+    @BeforeEach
+    void beforeEach() {
+        Metrics.globalRegistry.add(meterRegistry);
+    }
+
+    @AfterEach
+    void afterEach() throws InterruptedException {
+        if (combiner != null) {
+            combiner.close();
+        }
+        meterRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
+    }
+
+    /**
+     * Adds all secrets except those named {@code duplicate}.
+     */
+    private List<Boolean> writeBatch(final List<String> secrets) {
+        batches.add(secrets);
+        return secrets.stream().map(secret -> !secret.equals("duplicate")).toList();
+    }
+
+    @Test
+    void shouldCombineConcurrentWritesIntoSingleBatch() throws Exception {
+        combiner = new SecretWriteCombiner<>("web2", Duration.ofSeconds(10), 3, this::writeBatch);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<Future<Boolean>> results = List.of(
+                    executor.submit(() -> combiner.write("secret1")),
+                    executor.submit(() -> combiner.write("duplicate")),
+                    executor.submit(() -> combiner.write("secret2")));
+            assertThat(results.get(0).get()).isTrue();
+            assertThat(results.get(1).get()).isFalse();
+            assertThat(results.get(2).get()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder("secret1", "duplicate", "secret2");
+        final DistributionSummary batchFill = meterRegistry.find(SecretWriteCombiner.METRIC_BATCH_FILL)
+                .tag("table", "web2").summary();
+        assertThat(batchFill).isNotNull();
+        assertThat(batchFill.count()).isOne();
+        assertThat(batchFill.totalAmount()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldWriteAloneAfterLinger() {
+        combiner = new SecretWriteCombiner<>("web3", Duration.ofMillis(1), 100, this::writeBatch);
+        assertThat(combiner.write("secret")).isTrue();
+        assertThat(batches).containsExactly(List.of("secret"));
+        final DistributionSummary batchSize = meterRegistry.find(SecretWriteCombiner.METRIC_BATCH_SIZE)
+                .tag("table", "web3").summary();
+        assertThat(batchSize).isNotNull();
+        assertThat(batchSize.totalAmount()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldFailWritesOfFailedBatch() {
+        combiner = new SecretWriteCombiner<>("compute", Duration.ofMillis(1), 100, secrets -> {
+            throw new IllegalArgumentException("failure");
+        });
+        assertThatThrownBy(() -> combiner.write("secret"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectWritesOnceClosed() throws InterruptedException {
+        combiner = new SecretWriteCombiner<>("web2", Duration.ofMillis(1), 100, this::writeBatch);
+        combiner.close();
+        assertThatThrownBy(() -> combiner.write("secret"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Secret write combiner is closed");
+        assertThat(batches).isEmpty();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2021-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.iexec.sms.secret.compute;
 
 import ch.qos.logback.classic.Logger;
 import com.iexec.sms.MemoryLogAppender;
+import com.iexec.sms.encryption.EncryptedValueConverter;
 import com.iexec.sms.encryption.EncryptionService;
 import com.iexec.sms.secret.CacheSecretService;
 import com.iexec.sms.secret.MeasuredSecretService;
@@ -33,7 +34,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -59,6 +63,9 @@ class TeeTaskComputeSecretServiceTest {
     @Autowired
     JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     @Autowired
     TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
 
@@ -88,7 +95,7 @@ class TeeTaskComputeSecretServiceTest {
         teeTaskComputeSecretRepository.deleteAll();
         teeTaskComputeCacheSecretService.clear();
         teeTaskComputeSecretService = new TeeTaskComputeSecretService(
-                jdbcTemplate, teeTaskComputeSecretRepository, encryptionService, measuredSecretService, teeTaskComputeCacheSecretService);
+                jdbcTemplate, new TransactionTemplate(transactionManager), teeTaskComputeSecretRepository, encryptionService, measuredSecretService, teeTaskComputeCacheSecretService);
     }
 
     // region encryptAndSaveSecret
@@ -136,11 +143,32 @@ class TeeTaskComputeSecretServiceTest {
     }
     // endregion
 
+    // region addEncryptedSecrets
+    @Test
+    void shouldAddEncryptedSecretsInBatch() {
+        final TeeTaskComputeSecret requesterSecret = TeeTaskComputeSecret.builder()
+                .onChainObjectType(OnChainObjectType.APPLICATION)
+                .onChainObjectAddress("")
+                .secretOwnerRole(SecretOwnerRole.REQUESTER)
+                .fixedSecretOwner("0xrequester")
+                .key("my-key")
+                .value(ENCRYPTED_SECRET_VALUE)
+                .build();
+        final List<Boolean> results = teeTaskComputeSecretService.addEncryptedSecrets(List.of(COMPUTE_SECRET, requesterSecret));
+        assertAll(
+                () -> Assertions.assertThat(results).containsExactly(true, true),
+                () -> Assertions.assertThat(teeTaskComputeSecretRepository.findById(requesterSecret.getHeader())).contains(requesterSecret),
+                () -> verify(measuredSecretService, times(2)).newlyAddedSecret(),
+                () -> verifyNoInteractions(encryptionService)
+        );
+    }
+    // endregion
+
     // region getSecret
     @Test
     void shouldGetSecret() {
         teeTaskComputeSecretRepository.save(COMPUTE_SECRET);
-        when(encryptionService.decrypt(ENCRYPTED_SECRET_VALUE))
+        when(encryptionService.decrypt(EncryptedValueConverter.toBinary(ENCRYPTED_SECRET_VALUE)))
                 .thenReturn(DECRYPTED_SECRET_VALUE);
 
         Optional<TeeTaskComputeSecret> decryptedSecret = teeTaskComputeSecretService.getSecret(OnChainObjectType.APPLICATION, APP_ADDRESS, SecretOwnerRole.APPLICATION_DEVELOPER, "", "0");
@@ -148,7 +176,7 @@ class TeeTaskComputeSecretServiceTest {
         Assertions.assertThat(decryptedSecret.get().getHeader().getKey()).isEqualTo("0");
         Assertions.assertThat(decryptedSecret.get().getHeader().getOnChainObjectAddress()).isEqualTo(APP_ADDRESS.toLowerCase());
         Assertions.assertThat(decryptedSecret.get().getValue()).isEqualTo(DECRYPTED_SECRET_VALUE);
-        verify(encryptionService, Mockito.times(1)).decrypt(any());
+        verify(encryptionService, Mockito.times(1)).decrypt(any(byte[].class));
     }
     // endregion
 
@@ -161,6 +189,7 @@ class TeeTaskComputeSecretServiceTest {
 
         assertAll(
                 () -> assertTrue(isSecretPresent),
+                () -> verifyNoInteractions(encryptionService),
                 () -> assertTrue(memoryLogAppender.contains("Search secret existence in cache")),
                 () -> assertTrue(memoryLogAppender.contains("Secret existence was not found in cache")),
                 () -> assertTrue(memoryLogAppender.contains("Put secret existence in cache"))
@@ -205,4 +234,30 @@ class TeeTaskComputeSecretServiceTest {
         assertThat(isSecretPresent).isFalse();
     }
     // endregion
+
+    // region areSecretsPresent
+    @Test
+    void shouldCheckSecretsExistenceInOneQuery() {
+        teeTaskComputeSecretRepository.save(COMPUTE_SECRET);
+        final TeeTaskComputeSecretHeader missingHeader = new TeeTaskComputeSecretHeader(
+                OnChainObjectType.APPLICATION, "", SecretOwnerRole.REQUESTER, "0xrequester", "my-key");
+
+        final List<Boolean> presence = teeTaskComputeSecretService.areSecretsPresent(
+                List.of(COMPUTE_SECRET.getHeader(), missingHeader, COMPUTE_SECRET.getHeader()));
+
+        assertAll(
+                () -> Assertions.assertThat(presence).containsExactly(true, false, true),
+                () -> assertEquals(true, teeTaskComputeCacheSecretService.lookSecretExistenceInCache(COMPUTE_SECRET.getHeader())),
+                () -> assertEquals(false, teeTaskComputeCacheSecretService.lookSecretExistenceInCache(missingHeader)),
+                () -> verifyNoInteractions(encryptionService)
+        );
+    }
+
+    @Test
+    void shouldCheckSecretsExistenceFromCache() {
+        teeTaskComputeCacheSecretService.putSecretExistenceInCache(COMPUTE_SECRET.getHeader(), true);
+        Assertions.assertThat(teeTaskComputeSecretService.areSecretsPresent(List.of(COMPUTE_SECRET.getHeader())))
+                .containsExactly(true);
+    }
+    // endregion
 }
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret.store;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.secret.CacheSecretService;
+import com.iexec.sms.secret.compute.*;
+import com.iexec.sms.secret.web2.Web2Secret;
+import com.iexec.sms.secret.web2.Web2SecretHeader;
+import com.iexec.sms.secret.web2.Web2SecretRepository;
+import com.iexec.sms.secret.web2.Web2SecretService;
+import com.iexec.sms.secret.web3.Web3Secret;
+import com.iexec.sms.secret.web3.Web3SecretHeader;
+import com.iexec.sms.secret.web3.Web3SecretRepository;
+import com.iexec.sms.secret.web3.Web3SecretService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+class ResidentSecretStoreTests {
+    private static final String OWNER = "0xowner";
+    private static final String ADDRESS = "0xsecret";
+
+    @TempDir
+    private Path tempDir;
+
+    @Autowired
+    private Web2SecretRepository web2SecretRepository;
+    @Autowired
+    private Web3SecretRepository web3SecretRepository;
+    @Autowired
+    private TeeTaskComputeSecretRepository teeTaskComputeSecretRepository;
+
+    private final CacheSecretService<Web2SecretHeader> web2CacheSecretService = new CacheSecretService<>();
+    private Web2SecretService web2SecretService;
+    private AdminService adminService;
+    private ResidentSecretStore store;
+
+    @BeforeEach
+    void beforeEach() {
+        web2SecretRepository.deleteAll();
+        web3SecretRepository.deleteAll();
+        teeTaskComputeSecretRepository.deleteAll();
+        web2SecretRepository.save(new Web2Secret(OWNER, ADDRESS, "value"));
+        web3SecretRepository.save(new Web3Secret(ADDRESS, "value"));
+        teeTaskComputeSecretRepository.save(TeeTaskComputeSecret.builder()
+                .onChainObjectType(OnChainObjectType.APPLICATION)
+                .onChainObjectAddress("0xapp")
+                .secretOwnerRole(SecretOwnerRole.APPLICATION_DEVELOPER)
+                .key("1")
+                .value("value")
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private ResidentSecretTable<Web2SecretHeader, Web2Secret> start(final double compactionRatio) throws IOException {
+        web2SecretService = mock(Web2SecretService.class);
+        adminService = mock(AdminService.class);
+        store = new ResidentSecretStore(
+                new ResidentSecretStoreConfiguration(true, tempDir.resolve("secrets.log").toString(),
+                        DataSize.ofKilobytes(1), Duration.ofHours(1), compactionRatio),
+                web2SecretRepository, web3SecretRepository, teeTaskComputeSecretRepository,
+                web2SecretService, mock(Web3SecretService.class), mock(TeeTaskComputeSecretService.class),
+                web2CacheSecretService, new CacheSecretService<Web3SecretHeader>(),
+                new CacheSecretService<TeeTaskComputeSecretHeader>(), adminService);
+        store.init();
+        return getWeb2Table();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResidentSecretTable<Web2SecretHeader, Web2Secret> getWeb2Table() {
+        final ArgumentCaptor<ResidentSecretTable<Web2SecretHeader, Web2Secret>> captor =
+                ArgumentCaptor.forClass(ResidentSecretTable.class);
+        verify(web2SecretService).setResidentSecrets(captor.capture());
+        return captor.getValue();
+    }
+
+    private void restart() throws IOException {
+        store.close();
+        start(0.5);
+    }
+
+    private void updateWeb2SecretInDatabase(final String value) {
+        web2SecretRepository.save(web2SecretRepository.findAll().get(0).withValue(value));
+    }
+
+    private static Optional<Web2Secret> findWithoutDatabase(final ResidentSecretTable<Web2SecretHeader, Web2Secret> table) {
+        return table.find(new Web2SecretHeader(OWNER, ADDRESS), header -> {
+            throw new AssertionError("Secret should be read from memory");
+        });
+    }
+
+    @Test
+    void shouldLoadAllSecretsFromDatabaseOnFirstStart() throws IOException {
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> web2Table = start(0.5);
+
+        assertThat(findWithoutDatabase(web2Table)).get().extracting(Web2Secret::getValue).isEqualTo("value");
+        assertThat(web2Table.size()).isOne();
+    }
+
+    @Test
+    void shouldReplayLogOnRestart() throws IOException {
+        start(0.5);
+        // the log is the only source of the previous value
+        updateWeb2SecretInDatabase("updated");
+
+        restart();
+
+        assertThat(findWithoutDatabase(getWeb2Table())).get().extracting(Web2Secret::getValue).isEqualTo("value");
+    }
+
+    @Test
+    void shouldReloadWhenLogWasNotClosed() throws IOException {
+        start(0.5);
+        // the eviction of the stored secret is lost in a crash
+        updateWeb2SecretInDatabase("updated");
+        final ResidentSecretStore crashedStore = store;
+
+        start(0.5);
+        crashedStore.close();
+
+        assertThat(findWithoutDatabase(getWeb2Table())).get().extracting(Web2Secret::getValue).isEqualTo("updated");
+    }
+
+    @Test
+    void shouldReloadWhenLogDoesNotMatchDatabase() throws IOException {
+        start(0.5);
+        web2SecretRepository.save(new Web2Secret(OWNER, "0xother", "other"));
+
+        restart();
+
+        assertThat(getWeb2Table().size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReadStoredSecretFromDatabaseAndPersistItsNewValue() throws IOException {
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> web2Table = start(0.5);
+        updateWeb2SecretInDatabase("updated");
+        web2CacheSecretService.secretStored(new Web2SecretHeader(OWNER, ADDRESS));
+
+        final Optional<Web2Secret> secret = web2Table.find(new Web2SecretHeader(OWNER, ADDRESS),
+                web2SecretRepository::findById);
+        restart();
+
+        assertThat(secret).get().extracting(Web2Secret::getValue).isEqualTo("updated");
+        assertThat(findWithoutDatabase(getWeb2Table())).get().extracting(Web2Secret::getValue).isEqualTo("updated");
+    }
+
+    @Test
+    void shouldCompactLogWhenMostRecordsAreObsolete() throws IOException {
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> web2Table = start(0.5);
+        final int initialSize = store.getLogSize();
+        for (int i = 0; i < 3; i++) {
+            web2Table.evict(new Web2SecretHeader(OWNER, ADDRESS));
+            web2Table.find(new Web2SecretHeader(OWNER, ADDRESS), web2SecretRepository::findById);
+        }
+        assertThat(store.getLogSize()).isGreaterThan(initialSize);
+
+        store.compactIfNeeded();
+
+        assertThat(store.getLogSize()).isEqualTo(initialSize);
+    }
+
+    @Test
+    void shouldNotWaitForLogOnLookup() throws Exception {
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> web2Table = start(0.5);
+        final Web2SecretHeader header = new Web2SecretHeader(OWNER, ADDRESS);
+        final Web2Secret secret = web2SecretRepository.findById(header).orElseThrow();
+        web2Table.evict(header);
+
+        // the log is busy
+        synchronized (store) {
+            final CompletableFuture<Optional<Web2Secret>> lookup = CompletableFuture.supplyAsync(
+                    () -> web2Table.find(header, missingHeader -> Optional.of(secret)));
+            assertThat(lookup.get(5, TimeUnit.SECONDS)).isPresent();
+        }
+
+        assertThat(findWithoutDatabase(web2Table)).isPresent();
+        restart();
+        assertThat(findWithoutDatabase(getWeb2Table())).isPresent();
+    }
+
+    @Test
+    void shouldNotCompactLogBelowRatio() throws IOException {
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> web2Table = start(1);
+        web2Table.evict(new Web2SecretHeader(OWNER, ADDRESS));
+        final int size = store.getLogSize();
+
+        store.compactIfNeeded();
+
+        assertThat(store.getLogSize()).isEqualTo(size);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    // secrets are read by another thread, they are committed
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldReloadRestoredSecretsInBackgroundWhenPutOnline() throws IOException {
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> web2Table = start(0.5);
+        final ArgumentCaptor<Runnable> restoredCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(adminService).addDatabaseRestoredListener(restoredCaptor.capture());
+        final ArgumentCaptor<Consumer<Boolean>> onlineCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(adminService).addOnlineStateListener(onlineCaptor.capture());
+        updateWeb2SecretInDatabase("restored");
+
+        restoredCaptor.getValue().run();
+        assertThat(web2Table.size()).isZero();
+        onlineCaptor.getValue().accept(true);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> web2Table.size() == 1);
+        assertThat(findWithoutDatabase(web2Table)).get().extracting(Web2Secret::getValue).isEqualTo("restored");
+    }
+
+    @Test
+    void shouldNotReloadWithoutRestore() throws IOException {
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> web2Table = start(0.5);
+        updateWeb2SecretInDatabase("updated");
+
+        store.reloadRestoredSecrets();
+
+        assertThat(findWithoutDatabase(web2Table)).get().extracting(Web2Secret::getValue).isEqualTo("value");
+    }
+
+    @Test
+    void shouldNotKeepSecretEvictedWhileReadingIt() throws IOException {
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> web2Table = start(0.5);
+        final Web2SecretHeader header = new Web2SecretHeader(OWNER, ADDRESS);
+        web2Table.evict(header);
+
+        final List<Web2Secret> secrets = web2Table.findAll(List.of(header), headers -> {
+            final List<Web2Secret> loaded = web2SecretRepository.findAllById(headers);
+            web2Table.evict(header);
+            return loaded;
+        });
+
+        assertThat(secrets).hasSize(1);
+        assertThat(web2Table.size()).isZero();
+    }
+}
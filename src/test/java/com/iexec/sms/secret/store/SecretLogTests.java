@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.secret.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecretLogTests {
+    private static final int GROWTH_SIZE = 64;
+
+    @TempDir
+    private Path tempDir;
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> replay(final SecretLog secretLog) {
+        final List<String> payloads = new ArrayList<>();
+        secretLog.replay(payload -> {
+            final byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            payloads.add(new String(bytes, StandardCharsets.UTF_8));
+        });
+        return payloads;
+    }
+
+    @Test
+    void shouldReplayAppendedRecordsAfterReopening() throws IOException {
+        final Path path = tempDir.resolve("secrets.log");
+        try (SecretLog secretLog = new SecretLog(path, GROWTH_SIZE)) {
+            secretLog.append(bytes("first"));
+            secretLog.append(bytes("second"));
+        }
+
+        try (SecretLog secretLog = new SecretLog(path, GROWTH_SIZE)) {
+            assertThat(replay(secretLog)).containsExactly("first", "second");
+            assertThat(secretLog.size()).isEqualTo(2 * SecretLog.RECORD_HEADER_SIZE + 11);
+        }
+    }
+
+    @Test
+    void shouldExtendMappingWhenFull() throws IOException {
+        final Path path = tempDir.resolve("secrets.log");
+        final String largeRecord = "x".repeat(GROWTH_SIZE * 2);
+        try (SecretLog secretLog = new SecretLog(path, GROWTH_SIZE)) {
+            for (int i = 0; i < 3; i++) {
+                secretLog.append(bytes(largeRecord));
+            }
+        }
+
+        try (SecretLog secretLog = new SecretLog(path, GROWTH_SIZE)) {
+            assertThat(replay(secretLog)).containsExactly(largeRecord, largeRecord, largeRecord);
+        }
+    }
+
+    @Test
+    void shouldIgnoreCorruptedTailAndOverwriteIt() throws IOException {
+        final Path path = tempDir.resolve("secrets.log");
+        try (SecretLog secretLog = new SecretLog(path, GROWTH_SIZE)) {
+            secretLog.append(bytes("valid"));
+            secretLog.append(bytes("corrupted"));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(SecretLog.RECORD_HEADER_SIZE * 2L + 5 + 1);
+            file.write('X');
+        }
+
+        try (SecretLog secretLog = new SecretLog(path, GROWTH_SIZE)) {
+            assertThat(replay(secretLog)).containsExactly("valid");
+            secretLog.append(bytes("new"));
+        }
+        try (SecretLog secretLog = new SecretLog(path, GROWTH_SIZE)) {
+            assertThat(replay(secretLog)).containsExactly("valid", "new");
+        }
+    }
+
+    @Test
+    void shouldReplaceRecordsOnRewrite() throws IOException {
+        final Path path = tempDir.resolve("secrets.log");
+        try (SecretLog secretLog = new SecretLog(path, GROWTH_SIZE)) {
+            secretLog.append(bytes("obsolete"));
+            secretLog.append(bytes("live"));
+
+            secretLog.rewrite(List.of(bytes("live")));
+            secretLog.append(bytes("appended"));
+
+            assertThat(replay(secretLog)).containsExactly("live", "appended");
+        }
+        assertThat(tempDir.resolve("secrets.log.compacted")).doesNotExist();
+    }
+
+    @Test
+    void shouldReplayReadOnlyPayloads() throws IOException {
+        try (SecretLog secretLog = new SecretLog(tempDir.resolve("secrets.log"), GROWTH_SIZE)) {
+            secretLog.append(bytes("value"));
+            final List<ByteBuffer> payloads = new ArrayList<>();
+            secretLog.replay(payloads::add);
+
+            assertThat(payloads).singleElement().satisfies(payload -> assertThat(payload.isReadOnly()).isTrue());
+        }
+    }
+}
@@ -18,9 +18,12 @@ package com.iexec.sms.secret.web2;
 
 import ch.qos.logback.classic.Logger;
 import com.iexec.sms.MemoryLogAppender;
+import com.iexec.sms.encryption.EncryptedValueConverter;
 import com.iexec.sms.encryption.EncryptionService;
 import com.iexec.sms.secret.CacheSecretService;
 import com.iexec.sms.secret.MeasuredSecretService;
+import com.iexec.sms.secret.SecretWriteCombiner;
+import com.iexec.sms.secret.store.ResidentSecretTable;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,7 +35,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -51,6 +57,9 @@ class Web2SecretServiceTests {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private Web2SecretRepository web2SecretRepository;
 
@@ -79,7 +88,7 @@ class Web2SecretServiceTests {
         web2SecretRepository.deleteAll();
         web2CacheSecretService.clear();
         web2SecretService = new Web2SecretService(
-                jdbcTemplate, web2SecretRepository, encryptionService, measuredSecretService, web2CacheSecretService);
+                jdbcTemplate, new TransactionTemplate(transactionManager), web2SecretRepository, encryptionService, measuredSecretService, web2CacheSecretService);
     }
 
 
@@ -89,7 +98,7 @@ class Web2SecretServiceTests {
         final Web2Secret encryptedSecret = new Web2Secret(OWNER_ADDRESS, SECRET_ADDRESS, ENCRYPTED_SECRET_VALUE);
         web2SecretRepository.save(encryptedSecret);
 
-        when(encryptionService.decrypt(ENCRYPTED_SECRET_VALUE))
+        when(encryptionService.decrypt(EncryptedValueConverter.toBinary(ENCRYPTED_SECRET_VALUE)))
                 .thenReturn(PLAIN_SECRET_VALUE);
 
         final Optional<String> result = web2SecretService.getDecryptedValue(OWNER_ADDRESS, SECRET_ADDRESS);
@@ -112,6 +121,21 @@ class Web2SecretServiceTests {
         );
     }
 
+    @Test
+    void shouldGetEncryptedSecretFromResidentSecrets() {
+        web2SecretRepository.save(new Web2Secret(OWNER_ADDRESS, SECRET_ADDRESS, ENCRYPTED_SECRET_VALUE));
+        final ResidentSecretTable<Web2SecretHeader, Web2Secret> residentSecrets = new ResidentSecretTable<>("web2",
+                Web2Secret::getHeader, secret -> List.of(), fields -> null);
+        web2SecretService.setResidentSecrets(residentSecrets);
+
+        final Optional<Web2Secret> result = web2SecretService.getSecret(OWNER_ADDRESS, SECRET_ADDRESS);
+        web2SecretRepository.deleteAll();
+
+        assertThat(result).get().extracting(Web2Secret::getValue).isEqualTo(ENCRYPTED_SECRET_VALUE);
+        assertThat(residentSecrets.size()).isOne();
+        assertThat(web2SecretService.getSecret(OWNER_ADDRESS, SECRET_ADDRESS)).isEqualTo(result);
+    }
+
     @Test
     void shouldGetEmptySecretIfSecretNotPresent() {
         assertThat(web2SecretService.getSecret(OWNER_ADDRESS, SECRET_ADDRESS)).isEmpty();
@@ -206,6 +230,30 @@ class Web2SecretServiceTests {
         );
     }
 
+    @Test
+    void shouldAddSecretWithWriteCombiner() {
+        when(encryptionService.encrypt(PLAIN_SECRET_VALUE)).thenReturn(ENCRYPTED_SECRET_VALUE);
+        final SecretWriteCombiner<Web2Secret> writeCombiner = mock(SecretWriteCombiner.class);
+        when(writeCombiner.write(any())).thenReturn(true);
+        web2SecretService.setWriteCombiner(writeCombiner);
+        assertAll(
+                () -> assertThat(web2SecretService.addSecret(OWNER_ADDRESS, SECRET_ADDRESS, PLAIN_SECRET_VALUE)).isTrue(),
+                () -> verify(writeCombiner).write(argThat(secret -> ENCRYPTED_SECRET_VALUE.equals(secret.getValue()))),
+                // side effects are applied when the batch is stored
+                () -> verify(measuredSecretService, never()).newlyAddedSecret(),
+                () -> assertThat(web2SecretRepository.count()).isZero()
+        );
+    }
+
+    @Test
+    void shouldNotAddSecretWhenWriteCombinerFails() {
+        when(encryptionService.encrypt(PLAIN_SECRET_VALUE)).thenReturn(ENCRYPTED_SECRET_VALUE);
+        final SecretWriteCombiner<Web2Secret> writeCombiner = mock(SecretWriteCombiner.class);
+        when(writeCombiner.write(any())).thenThrow(new IllegalStateException("Secret write combiner is closed"));
+        web2SecretService.setWriteCombiner(writeCombiner);
+        assertThat(web2SecretService.addSecret(OWNER_ADDRESS, SECRET_ADDRESS, PLAIN_SECRET_VALUE)).isFalse();
+    }
+
     @Test
     void shouldNotAddSecretWhenNull() {
         when(encryptionService.encrypt(PLAIN_SECRET_VALUE)).thenReturn(ENCRYPTED_SECRET_VALUE);
@@ -214,6 +262,21 @@ class Web2SecretServiceTests {
     }
     // endregion
 
+    // region addEncryptedSecrets
+    @Test
+    void shouldAddEncryptedSecretsInBatch() {
+        final List<Boolean> results = web2SecretService.addEncryptedSecrets(List.of(
+                new Web2Secret(OWNER_ADDRESS, "secret1", ENCRYPTED_SECRET_VALUE),
+                new Web2Secret(OWNER_ADDRESS, "secret2", ENCRYPTED_SECRET_VALUE)));
+        assertAll(
+                () -> assertThat(results).containsExactly(true, true),
+                () -> assertThat(web2SecretRepository.count()).isEqualTo(2),
+                () -> verify(measuredSecretService, times(2)).newlyAddedSecret(),
+                () -> verifyNoInteractions(encryptionService)
+        );
+    }
+    // endregion
+
     // region updateSecret
     @Test
     void shouldUpdateSecret() throws NotAnExistingSecretException {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.iexec.sms.secret.web3;
 
 import ch.qos.logback.classic.Logger;
 import com.iexec.sms.MemoryLogAppender;
+import com.iexec.sms.encryption.EncryptedValueConverter;
 import com.iexec.sms.encryption.EncryptionService;
 import com.iexec.sms.secret.CacheSecretService;
 import com.iexec.sms.secret.MeasuredSecretService;
@@ -31,7 +32,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -49,6 +55,9 @@ class Web3SecretServiceTests {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private Web3SecretRepository web3SecretRepository;
 
@@ -78,7 +87,7 @@ class Web3SecretServiceTests {
         web3SecretRepository.deleteAll();
         web3CacheSecretService.clear();
         web3SecretService = new Web3SecretService(
-                jdbcTemplate, web3SecretRepository, encryptionService, measuredSecretService, web3CacheSecretService);
+                jdbcTemplate, new TransactionTemplate(transactionManager), web3SecretRepository, encryptionService, measuredSecretService, web3CacheSecretService);
     }
 
     // region addSecret
@@ -115,6 +124,42 @@ class Web3SecretServiceTests {
     }
     // endregion
 
+    // region addEncryptedSecrets
+    @Test
+    void shouldAddEncryptedSecretsInBatch() {
+        final List<Boolean> results = web3SecretService.addEncryptedSecrets(List.of(
+                new Web3Secret("0x1", encryptedSecretValue),
+                new Web3Secret("0x2", encryptedSecretValue)));
+        assertAll(
+                () -> assertThat(results).containsExactly(true, true),
+                () -> assertThat(web3SecretRepository.count()).isEqualTo(2),
+                () -> verify(measuredSecretService, times(2)).newlyAddedSecret(),
+                () -> verifyNoInteractions(encryptionService),
+                () -> assertThat(web3CacheSecretService.lookSecretExistenceInCache(new Web3SecretHeader("0x1"))).isTrue()
+        );
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldReportEachConflictInBatch() {
+        web3SecretRepository.saveAndFlush(new Web3Secret("0x1", encryptedSecretValue));
+        final List<Boolean> results = web3SecretService.addEncryptedSecrets(List.of(
+                new Web3Secret("0x1", encryptedSecretValue),
+                new Web3Secret("0x2", encryptedSecretValue),
+                new Web3Secret("0x2", encryptedSecretValue)));
+        assertAll(
+                () -> assertThat(results).containsExactly(false, true, false),
+                () -> assertThat(web3SecretRepository.count()).isEqualTo(2),
+                () -> verify(measuredSecretService, times(1)).newlyAddedSecret()
+        );
+    }
+
+    @Test
+    void shouldAcceptEmptyBatch() {
+        assertThat(web3SecretService.addEncryptedSecrets(List.of())).isEmpty();
+    }
+    // endregion
+
     // region isSecretPresent
     @Test
     void shouldGetSecretExistFromDBAndPutInCache() {
@@ -162,17 +207,33 @@ class Web3SecretServiceTests {
     }
     // endregion
 
+    // region areSecretsPresent
+    @Test
+    void shouldCheckSecretsExistence() {
+        web3SecretRepository.saveAndFlush(new Web3Secret(secretAddress, encryptedSecretValue));
+
+        final List<Boolean> presence = web3SecretService.areSecretsPresent(List.of("0xmissing", secretAddress));
+
+        assertAll(
+                () -> assertThat(presence).containsExactly(false, true),
+                () -> assertThat(web3CacheSecretService.lookSecretExistenceInCache(new Web3SecretHeader(secretAddress))).isTrue(),
+                () -> assertThat(web3CacheSecretService.lookSecretExistenceInCache(new Web3SecretHeader("0xmissing"))).isFalse(),
+                () -> verifyNoInteractions(encryptionService)
+        );
+    }
+    // endregion
+
     // region getDecryptedValue
     @Test
     void shouldGetDecryptedValue() {
         Web3Secret encryptedSecret = new Web3Secret(secretAddress, encryptedSecretValue);
         web3SecretRepository.save(encryptedSecret);
-        when(encryptionService.decrypt(encryptedSecretValue)).thenReturn(plainSecretValue);
+        when(encryptionService.decrypt(EncryptedValueConverter.toBinary(encryptedSecretValue))).thenReturn(plainSecretValue);
 
         Optional<String> result = web3SecretService.getDecryptedValue(secretAddress);
         assertThat(result).contains(plainSecretValue);
 
-        verify(encryptionService).decrypt(any());
+        verify(encryptionService).decrypt(any(byte[].class));
     }
 
     @Test
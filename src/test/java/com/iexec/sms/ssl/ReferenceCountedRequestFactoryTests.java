@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.ssl;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.io.CloseMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceCountedRequestFactoryTests {
+    private static final URI CAS_URI = URI.create("https://cas:8081/session");
+
+    @Mock
+    private ClientHttpRequestFactory delegate;
+    @Mock
+    private ClientHttpRequest request;
+    @Mock
+    private ClientHttpResponse response;
+    @Mock
+    private CloseableHttpClient httpClient;
+
+    private ReferenceCountedRequestFactory factory;
+
+    @BeforeEach
+    void beforeEach() {
+        factory = new ReferenceCountedRequestFactory(delegate, httpClient);
+    }
+
+    @Test
+    void shouldCloseClientOnReleaseWhenNoRequestIsInProgress() {
+        factory.release();
+        assertThat(factory.isClosed()).isTrue();
+        verify(httpClient).close(CloseMode.GRACEFUL);
+    }
+
+    @Test
+    void shouldCloseReleasedClientOnceResponseIsClosed() throws IOException {
+        when(delegate.createRequest(CAS_URI, HttpMethod.POST)).thenReturn(request);
+        when(request.execute()).thenReturn(response);
+
+        final ClientHttpResponse inFlightResponse = factory.createRequest(CAS_URI, HttpMethod.POST).execute();
+        factory.release();
+        assertThat(factory.isClosed()).isFalse();
+        verify(httpClient, never()).close(any(CloseMode.class));
+
+        inFlightResponse.close();
+        inFlightResponse.close();
+        assertThat(factory.isClosed()).isTrue();
+        verify(response, times(2)).close();
+        verify(httpClient).close(CloseMode.GRACEFUL);
+    }
+
+    @Test
+    void shouldReleaseReferenceWhenExecutionFails() throws IOException {
+        when(delegate.createRequest(CAS_URI, HttpMethod.POST)).thenReturn(request);
+        when(request.execute()).thenThrow(new IOException("connection refused"));
+
+        final ClientHttpRequest failingRequest = factory.createRequest(CAS_URI, HttpMethod.POST);
+        assertThatThrownBy(failingRequest::execute).isInstanceOf(IOException.class);
+        factory.release();
+        verify(httpClient).close(CloseMode.GRACEFUL);
+    }
+
+    @Test
+    void shouldDelegateStreamingBody() throws IOException {
+        final ClientHttpRequest streamingRequest = mock(ClientHttpRequest.class,
+                withSettings().extraInterfaces(StreamingHttpOutputMessage.class));
+        when(delegate.createRequest(CAS_URI, HttpMethod.POST)).thenReturn(streamingRequest);
+        final StreamingHttpOutputMessage.Body body = outputStream -> outputStream.write(1);
+
+        final ClientHttpRequest countedRequest = factory.createRequest(CAS_URI, HttpMethod.POST);
+        assertThat(countedRequest).isInstanceOf(StreamingHttpOutputMessage.class);
+        ((StreamingHttpOutputMessage) countedRequest).setBody(body);
+
+        verify((StreamingHttpOutputMessage) streamingRequest).setBody(body);
+        verify(streamingRequest, never()).getBody();
+    }
+
+    @Test
+    void shouldNotExecuteRequestOnClosedClient() throws IOException {
+        when(delegate.createRequest(CAS_URI, HttpMethod.POST)).thenReturn(request);
+        final ClientHttpRequest lateRequest = factory.createRequest(CAS_URI, HttpMethod.POST);
+        factory.release();
+
+        assertThatThrownBy(lateRequest::execute).isInstanceOf(IOException.class);
+        verify(request, never()).execute();
+    }
+}
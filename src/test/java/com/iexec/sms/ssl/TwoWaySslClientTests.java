@@ -1,5 +1,5 @@
 /*
- * Copyright 2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2025-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,38 +16,110 @@
 
 package com.iexec.sms.ssl;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.client.RestTemplate;
 
 import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TwoWaySslClientTests {
 
     @Mock
     private SslConfig sslConfig;
-    @InjectMocks
     private TwoWaySslClient twoWaySslClient;
+    private SimpleMeterRegistry meterRegistry;
 
-    @Test
-    void shouldReturnConfiguredRestTemplate() throws NoSuchAlgorithmException, KeyManagementException {
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void init() throws NoSuchAlgorithmException, KeyManagementException {
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.globalRegistry.add(meterRegistry);
         final SSLContext mockSslContext = SSLContext.getInstance("TLS");
         mockSslContext.init(null, null, null);
         when(sslConfig.getFreshSslContext()).thenReturn(mockSslContext);
+    }
 
-        twoWaySslClient = new TwoWaySslClient(sslConfig);
+    @AfterEach
+    void afterEach() {
+        if (twoWaySslClient != null) {
+            twoWaySslClient.close();
+        }
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
+    }
+
+    @Test
+    void shouldReturnConfiguredRestTemplate() {
+        twoWaySslClient = new TwoWaySslClient(sslConfig, new TwoWaySslClientConfiguration(false, 1));
         final RestTemplate restTemplate = twoWaySslClient.getRestTemplate();
 
         assertThat(restTemplate).isNotNull();
     }
 
+    @Test
+    void shouldBuildNewRestTemplateOnEachCallWhenNotPooled() {
+        twoWaySslClient = new TwoWaySslClient(sslConfig, new TwoWaySslClientConfiguration(false, 1));
+
+        assertThat(twoWaySslClient.getRestTemplate()).isNotSameAs(twoWaySslClient.getRestTemplate());
+        verify(sslConfig, times(2)).getFreshSslContext();
+    }
+
+    @Test
+    void shouldReuseRestTemplateWhenPooled() {
+        twoWaySslClient = new TwoWaySslClient(sslConfig, new TwoWaySslClientConfiguration(true, 5));
+
+        assertThat(twoWaySslClient.getRestTemplate()).isSameAs(twoWaySslClient.getRestTemplate());
+        verify(sslConfig, times(1)).getFreshSslContext();
+    }
+
+    @Test
+    void shouldReloadRestTemplateWhenKeystoreIsModified() throws IOException {
+        final Path keystore = Files.createFile(tempDir.resolve("keystore.p12"));
+        Files.setLastModifiedTime(keystore, FileTime.from(Instant.now().minusSeconds(60)));
+        when(sslConfig.getKeystore()).thenReturn(keystore.toString());
+        twoWaySslClient = new TwoWaySslClient(sslConfig, new TwoWaySslClientConfiguration(true, 5));
+
+        final RestTemplate first = twoWaySslClient.getRestTemplate();
+        assertThat(twoWaySslClient.getRestTemplate()).isSameAs(first);
+        Files.setLastModifiedTime(keystore, FileTime.from(Instant.now()));
+        final RestTemplate reloaded = twoWaySslClient.getRestTemplate();
+
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(twoWaySslClient.getRestTemplate()).isSameAs(reloaded);
+        verify(sslConfig, times(2)).getFreshSslContext();
+    }
+
+    @Test
+    void shouldExposePoolMetrics() {
+        twoWaySslClient = new TwoWaySslClient(sslConfig, new TwoWaySslClientConfiguration(true, 5));
+        twoWaySslClient.getRestTemplate();
+
+        final Gauge max = meterRegistry.find(TwoWaySslClient.METRIC_POOL_MAX).gauge();
+        assertThat(max).isNotNull();
+        assertThat(max.value()).isEqualTo(5);
+        assertThat(meterRegistry.find(TwoWaySslClient.METRIC_POOL_LEASED).gauge().value()).isZero();
+    }
+
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.sms.tee.challenge;
+
+import com.iexec.sms.admin.AdminService;
+import com.iexec.sms.tee.config.TeeChallengeMigrationConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Schema changes commit ongoing H2 transactions, rows are committed and deleted after each test.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TeeChallengeMigrationServiceTests {
+    private static final Instant FINAL_DEADLINE = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private TeeChallengeRepository teeChallengeRepository;
+
+    private AdminService adminService;
+    private TeeChallengeService teeChallengeService;
+    private TeeChallengeMigrationService service;
+
+    @BeforeEach
+    void beforeEach() {
+        jdbcTemplate.execute("CREATE TABLE \"ethereum_credentials\" (\"id\" VARCHAR(255) PRIMARY KEY, "
+                + "\"address\" VARCHAR(255), \"is_encrypted\" BOOLEAN NOT NULL, \"private_key\" VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE \"tee_challenge\" (\"id\" VARCHAR(255) PRIMARY KEY, "
+                + "\"final_deadline\" TIMESTAMP(6) WITH TIME ZONE, \"task_id\" VARCHAR(255) UNIQUE, "
+                + "\"credentials_id\" VARCHAR(255) UNIQUE REFERENCES \"ethereum_credentials\" (\"id\"))");
+        insertLegacyChallenge("0xtask1");
+        insertLegacyChallenge("0xtask2");
+        adminService = mock(AdminService.class);
+        teeChallengeService = mock(TeeChallengeService.class);
+        service = new TeeChallengeMigrationService(jdbcTemplate, transactionTemplate,
+                new TeeChallengeMigrationConfiguration(Duration.ofSeconds(1), 1), teeChallengeService, adminService);
+        service.init();
+    }
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS \"tee_challenge\"");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS \"ethereum_credentials\"");
+        teeChallengeRepository.deleteAll();
+    }
+
+    private void insertLegacyChallenge(final String taskId) {
+        jdbcTemplate.update("INSERT INTO \"ethereum_credentials\" (\"id\", \"address\", \"is_encrypted\", \"private_key\") "
+                + "VALUES (?, ?, ?, ?)", "credentials-" + taskId, "0xaddress-" + taskId, true, "encryptedKey");
+        jdbcTemplate.update("INSERT INTO \"tee_challenge\" (\"id\", \"final_deadline\", \"task_id\", \"credentials_id\") "
+                        + "VALUES (?, ?, ?, ?)",
+                "challenge-" + taskId, FINAL_DEADLINE.atOffset(ZoneOffset.UTC), taskId, "credentials-" + taskId);
+    }
+
+    private int countLegacyRows(final String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"" + table + "\"", Integer.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate<String> getLegacyChallengeMover() {
+        final ArgumentCaptor<Predicate<String>> captor = ArgumentCaptor.forClass(Predicate.class);
+        verify(teeChallengeService).setLegacyChallengeMover(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void shouldMoveLegacyChallengesByChunks() {
+        service.migrateChunk();
+        assertThat(countLegacyRows("tee_challenge")).isOne();
+        assertThat(countLegacyRows("ethereum_credentials")).isOne();
+        assertThat(teeChallengeRepository.count()).isOne();
+
+        service.migrateChunk();
+        service.migrateChunk();
+        assertThat(countLegacyRows("tee_challenge")).isZero();
+        assertThat(countLegacyRows("ethereum_credentials")).isZero();
+        assertThat(teeChallengeRepository.findById("0xtask1")).hasValueSatisfying(challenge -> {
+            assertThat(challenge.getFinalDeadline()).isEqualTo(FINAL_DEADLINE);
+            assertThat(challenge.getCredentials().getAddress()).isEqualTo("0xaddress-0xtask1");
+            assertThat(challenge.getCredentials().getPrivateKey()).isEqualTo("encryptedKey");
+            assertThat(challenge.getCredentials().isEncrypted()).isTrue();
+        });
+        assertThat(teeChallengeRepository.findById("0xtask2")).isPresent();
+    }
+
+    @Test
+    void shouldMoveLegacyChallengeOnLookup() {
+        final Predicate<String> mover = getLegacyChallengeMover();
+
+        assertThat(mover.test("0xtask2")).isTrue();
+        assertThat(mover.test("0xunknown")).isFalse();
+
+        assertThat(teeChallengeRepository.findById("0xtask2")).isPresent();
+        assertThat(countLegacyRows("tee_challenge")).isOne();
+        assertThat(countLegacyRows("ethereum_credentials")).isOne();
+    }
+
+    @Test
+    void shouldKeepChallengeKeyedByTaskId() throws GeneralSecurityException {
+        final TeeChallenge challenge = teeChallengeRepository.save(new TeeChallenge("0xtask1", FINAL_DEADLINE));
+
+        service.migrateChunk();
+        service.migrateChunk();
+
+        assertThat(countLegacyRows("tee_challenge")).isZero();
+        assertThat(teeChallengeRepository.count()).isEqualTo(2);
+        assertThat(teeChallengeRepository.findById("0xtask1")).hasValueSatisfying(storedChallenge ->
+                assertThat(storedChallenge.getCredentials().getAddress())
+                        .isEqualTo(challenge.getCredentials().getAddress()));
+    }
+
+    @Test
+    void shouldNotMoveAnythingWithoutLegacyTables() {
+        afterEach();
+        service.init();
+
+        service.migrateChunk();
+
+        assertThat(getLegacyChallengeMover().test("0xtask1")).isFalse();
+        assertThat(teeChallengeRepository.count()).isZero();
+    }
+
+    @Test
+    void shouldMigrateAgainAfterRestore() {
+        for (int i = 0; i < 3; i++) {
+            service.migrateChunk();
+        }
+        insertLegacyChallenge("0xrestored");
+        service.migrateChunk();
+        assertThat(countLegacyRows("tee_challenge")).isOne();
+
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(adminService).addDatabaseRestoredListener(captor.capture());
+        captor.getValue().run();
+        service.migrateChunk();
+
+        assertThat(countLegacyRows("tee_challenge")).isZero();
+        assertThat(teeChallengeRepository.findById("0xrestored")).isPresent();
+    }
+}
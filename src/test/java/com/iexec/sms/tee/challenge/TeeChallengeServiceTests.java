@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,14 +29,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.security.GeneralSecurityException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -55,8 +60,6 @@ class TeeChallengeServiceTests {
     @Autowired
     private JdbcTemplate jdbcTemplate;
     @Autowired
-    private EthereumCredentialsRepository ethereumCredentialsRepository;
-    @Autowired
     private TeeChallengeRepository teeChallengeRepository;
 
     @Mock
@@ -106,7 +109,6 @@ class TeeChallengeServiceTests {
         assertThat(oTeeChallenge).isPresent();
         assertThat(oTeeChallenge.get().getCredentials().getPrivateKey()).isEqualTo(ENC_PRIVATE);
         assertThat(teeChallengeRepository.count()).isOne();
-        assertThat(ethereumCredentialsRepository.count()).isOne();
         verify(encryptionService, never()).decrypt(anyString());
         verifyNoInteractions(teeChallengeMeasuredSecretService, ethereumCredentialsMeasuredSecretService);
     }
@@ -122,7 +124,6 @@ class TeeChallengeServiceTests {
         assertThat(oTeeChallenge).isPresent();
         assertThat(oTeeChallenge.get().getCredentials().getPrivateKey()).isEqualTo(PLAIN_PRIVATE);
         assertThat(teeChallengeRepository.count()).isOne();
-        assertThat(ethereumCredentialsRepository.count()).isOne();
         verify(encryptionService).decrypt(anyString());
         verifyNoInteractions(teeChallengeMeasuredSecretService, ethereumCredentialsMeasuredSecretService);
     }
@@ -138,7 +139,6 @@ class TeeChallengeServiceTests {
         assertThat(oTeeChallenge).isPresent();
         assertThat(oTeeChallenge.get().getCredentials().getPrivateKey()).isEqualTo(ENC_PRIVATE);
         assertThat(teeChallengeRepository.count()).isOne();
-        assertThat(ethereumCredentialsRepository.count()).isOne();
         verify(encryptionService, never()).decrypt(anyString());
         verify(teeChallengeMeasuredSecretService).newlyAddedSecret();
         verify(ethereumCredentialsMeasuredSecretService).newlyAddedSecret();
@@ -156,10 +156,105 @@ class TeeChallengeServiceTests {
         assertThat(oTeeChallenge).isPresent();
         assertThat(oTeeChallenge.get().getCredentials().getPrivateKey()).isEqualTo(PLAIN_PRIVATE);
         assertThat(teeChallengeRepository.count()).isOne();
-        assertThat(ethereumCredentialsRepository.count()).isOne();
         verify(teeChallengeMeasuredSecretService).newlyAddedSecret();
         verify(ethereumCredentialsMeasuredSecretService).newlyAddedSecret();
     }
+
+    @Test
+    void shouldReturnChallengeCreatedConcurrently() throws GeneralSecurityException {
+        final TeeChallenge concurrentTeeChallenge = getEncryptedTeeChallengeStub();
+        final TeeChallengeRepository racingRepository = mock(TeeChallengeRepository.class);
+        when(racingRepository.findByTaskId(TASK_ID))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(concurrentTeeChallenge));
+        when(racingRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate task ID"));
+        when(iexecHubService.getTaskDescription(TASK_ID))
+                .thenReturn(TaskDescription.builder().finalDeadline(finalDeadline.toEpochMilli()).build());
+        when(encryptionService.encrypt(anyString())).thenReturn(ENC_PRIVATE);
+        final TeeChallengeService racingService = new TeeChallengeService(
+                jdbcTemplate,
+                racingRepository,
+                encryptionService,
+                iexecHubService,
+                teeChallengeMeasuredSecretService,
+                ethereumCredentialsMeasuredSecretService,
+                new TeeChallengeCleanupConfiguration("@hourly", 1, Duration.ofMinutes(1))
+        );
+
+        final Optional<TeeChallenge> oTeeChallenge = racingService.getOrCreate(TASK_ID, false);
+
+        assertThat(oTeeChallenge).containsSame(concurrentTeeChallenge);
+        verifyNoInteractions(teeChallengeMeasuredSecretService, ethereumCredentialsMeasuredSecretService);
+    }
+
+    @Test
+    void shouldRejectSecondChallengeForSameTask() throws GeneralSecurityException {
+        teeChallengeRepository.saveAndFlush(getEncryptedTeeChallengeStub());
+        final TeeChallenge duplicate = getEncryptedTeeChallengeStub();
+
+        assertThatThrownBy(() -> teeChallengeRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void shouldNotifyListenersWhenChallengeCreated() {
+        when(iexecHubService.getTaskDescription(TASK_ID))
+                .thenReturn(TaskDescription.builder().finalDeadline(finalDeadline.toEpochMilli()).build());
+        when(encryptionService.encrypt(anyString())).thenReturn(ENC_PRIVATE);
+        final List<TeeChallenge> createdChallenges = new ArrayList<>();
+        teeChallengeService.addChallengeCreatedListener(createdChallenges::add);
+
+        final Optional<TeeChallenge> oTeeChallenge = teeChallengeService.getOrCreate(TASK_ID, false);
+        teeChallengeService.getOrCreate(TASK_ID, false);
+
+        assertThat(oTeeChallenge).isPresent();
+        assertThat(createdChallenges).containsExactly(oTeeChallenge.get());
+    }
+
+    @Test
+    void shouldGetChallengeMovedFromLegacyTablesOnLookup() throws GeneralSecurityException {
+        final TeeChallenge legacyTeeChallenge = getEncryptedTeeChallengeStub();
+        teeChallengeService.setLegacyChallengeMover(taskId -> {
+            teeChallengeRepository.save(legacyTeeChallenge);
+            return true;
+        });
+
+        final Optional<TeeChallenge> oTeeChallenge = teeChallengeService.getOrCreate(TASK_ID, false);
+
+        assertThat(oTeeChallenge).isPresent();
+        assertThat(oTeeChallenge.get().getCredentials().getAddress())
+                .isEqualTo(legacyTeeChallenge.getCredentials().getAddress());
+        assertThat(teeChallengeRepository.count()).isOne();
+        verifyNoInteractions(iexecHubService, teeChallengeMeasuredSecretService, ethereumCredentialsMeasuredSecretService);
+    }
+
+    @Test
+    void shouldCreateChallengeWhenNoLegacyChallengeMoved() {
+        when(iexecHubService.getTaskDescription(TASK_ID))
+                .thenReturn(TaskDescription.builder().finalDeadline(finalDeadline.toEpochMilli()).build());
+        when(encryptionService.encrypt(anyString())).thenReturn(ENC_PRIVATE);
+        teeChallengeService.setLegacyChallengeMover(taskId -> false);
+
+        final Optional<TeeChallenge> oTeeChallenge = teeChallengeService.getOrCreate(TASK_ID, false);
+
+        assertThat(oTeeChallenge).isPresent();
+        assertThat(teeChallengeRepository.count()).isOne();
+        verify(teeChallengeMeasuredSecretService).newlyAddedSecret();
+    }
+
+    @Test
+    void shouldGetMissingChallengeFromRemoteProviderAndDecryptKeys() throws GeneralSecurityException {
+        final TeeChallenge remoteTeeChallenge = getEncryptedTeeChallengeStub();
+        teeChallengeService.setRemoteChallengeProvider(taskId -> Optional.of(remoteTeeChallenge));
+        when(encryptionService.decrypt(ENC_PRIVATE)).thenReturn(PLAIN_PRIVATE);
+
+        final Optional<TeeChallenge> oTeeChallenge = teeChallengeService.getOrCreate(TASK_ID, true);
+
+        assertThat(oTeeChallenge).containsSame(remoteTeeChallenge);
+        assertThat(oTeeChallenge.get().getCredentials().getPrivateKey()).isEqualTo(PLAIN_PRIVATE);
+        assertThat(teeChallengeRepository.count()).isZero();
+        verifyNoInteractions(iexecHubService, teeChallengeMeasuredSecretService, ethereumCredentialsMeasuredSecretService);
+    }
     // endregion
 
     // region encryptChallengeKeys
@@ -178,7 +273,7 @@ class TeeChallengeServiceTests {
     void shouldDecryptChallengeKeys() {
         final TeeChallenge teeChallenge = TeeChallenge.builder()
                 .taskId(TASK_ID)
-                .credentials(new EthereumCredentials("id", "pk", true, "address"))
+                .credentials(new EthereumCredentials("pk", true, "address"))
                 .build();
         when(encryptionService.decrypt(anyString())).thenReturn(PLAIN_PRIVATE);
 
@@ -196,7 +291,8 @@ class TeeChallengeServiceTests {
         teeChallengeService.cleanExpiredTasksTeeChallenges();
 
         assertThat(teeChallengeRepository.count()).isZero();
-        assertThat(ethereumCredentialsRepository.count()).isZero();
+        verify(teeChallengeMeasuredSecretService).removedSecrets(1L);
+        verify(ethereumCredentialsMeasuredSecretService).removedSecrets(1L);
     }
 
     @Test
@@ -212,7 +308,6 @@ class TeeChallengeServiceTests {
         entityManager.refresh(savedChallenge);
 
         assertThat(teeChallengeRepository.count()).isOne();
-        assertThat(ethereumCredentialsRepository.count()).isOne();
 
         assertThat(teeChallengeRepository.countByFinalDeadlineIsNull()).isZero();
         final TeeChallenge currentChallenge = teeChallengeRepository.findByTaskId(TASK_ID).orElseThrow();
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session;
+
+import com.iexec.sms.api.config.TdxServicesProperties;
+import com.iexec.sms.api.config.TeeServicesProperties;
+import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.iexec.sms.api.TeeSessionGenerationError.SECURE_SESSION_STORAGE_CALL_FAILED;
+import static com.iexec.sms.tee.session.TeeSessionMetrics.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TeeSessionMetricsTests {
+    private static final String VERSION = "v1";
+    private static final TeeServicesProperties PROPERTIES = new TdxServicesProperties(VERSION, null, null);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.globalRegistry.add(meterRegistry);
+    }
+
+    @AfterEach
+    void afterEach() {
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
+    }
+
+    private Timer findTimer(final Stage stage, final String framework, final String version, final String outcome) {
+        return meterRegistry.find(STAGE_TIMER_NAME)
+                .tags(TAG_STAGE, stage.name(), TAG_FRAMEWORK, framework, TAG_VERSION, version, TAG_OUTCOME, outcome)
+                .timer();
+    }
+
+    @Test
+    void shouldRecordSuccessfulStage() throws TeeSessionGenerationException {
+        assertThat(TeeSessionMetrics.record(Stage.SESSION_BUILD, PROPERTIES, () -> "session")).isEqualTo("session");
+        final Timer timer = findTimer(Stage.SESSION_BUILD, "TDX", VERSION, OUTCOME_SUCCESS);
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isOne();
+    }
+
+    @Test
+    void shouldRecordFailedStageWithError() {
+        assertThatThrownBy(() -> TeeSessionMetrics.record(Stage.SESSION_STORAGE, PROPERTIES, () -> {
+            throw new TeeSessionGenerationException(SECURE_SESSION_STORAGE_CALL_FAILED, "error");
+        })).isInstanceOf(TeeSessionGenerationException.class);
+        assertThat(findTimer(Stage.SESSION_STORAGE, "TDX", VERSION, SECURE_SESSION_STORAGE_CALL_FAILED.name()).count())
+                .isOne();
+    }
+
+    @Test
+    void shouldRecordUnexpectedError() {
+        assertThatThrownBy(() -> TeeSessionMetrics.record(Stage.CHALLENGE, PROPERTIES, () -> {
+            throw new IllegalStateException("error");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(findTimer(Stage.CHALLENGE, "TDX", VERSION, OUTCOME_UNEXPECTED_ERROR).count()).isOne();
+    }
+
+    @Test
+    void shouldTagUnknownPipeline() {
+        TeeSessionMetrics.stop(TeeSessionMetrics.start(), Stage.AUTHORIZATION, null, OUTCOME_SUCCESS);
+        assertThat(findTimer(Stage.AUTHORIZATION, UNKNOWN, UNKNOWN, OUTCOME_SUCCESS).count()).isOne();
+    }
+}
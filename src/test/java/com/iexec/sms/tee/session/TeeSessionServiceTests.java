@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2020-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,14 +28,21 @@ import com.iexec.sms.chain.IexecHubService;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
 import com.iexec.sms.tee.session.generic.TeeSessionHandler;
 import com.iexec.sms.tee.session.generic.TeeSessionRequest;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static com.iexec.sms.api.TeeSessionGenerationError.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -69,13 +76,25 @@ class TeeSessionServiceTests {
             .build();
 
     private final TeeServicesProperties teeServicesProperties = new SconeServicesProperties(VERSION, preComputeProperties, postComputeProperties, LAS_IMAGE);
+    private final TeeSessionDeduplicationConfiguration deduplicationConfiguration =
+            new TeeSessionDeduplicationConfiguration(true, Duration.ofMinutes(5), 100);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private TeeSessionService teeSessionService;
     Map<String, TeeServicesProperties> teeServicesPropertiesMap;
 
     @BeforeEach
     void setUp() {
+        Metrics.globalRegistry.add(meterRegistry);
         teeServicesPropertiesMap = Map.of(VERSION, teeServicesProperties);
-        teeSessionService = new TeeSessionService(iexecHubService, teeSessionHandler, teeServicesPropertiesMap);
+        teeSessionService = new TeeSessionService(
+                iexecHubService, teeSessionHandler, teeServicesPropertiesMap, deduplicationConfiguration);
+    }
+
+    @AfterEach
+    void tearDown() {
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
     }
 
     @Test
@@ -213,4 +232,106 @@ class TeeSessionServiceTests {
         assertEquals(expectedMessagePart, exception.getMessage());
     }
 
+    // region deduplication
+    private TaskDescription mockSconeTaskDescription() {
+        final TaskDescription taskDescription = TaskDescription.builder()
+                .chainTaskId(TASK_ID)
+                .teeFramework(TeeFramework.SCONE)
+                .appEnclaveConfiguration(
+                        TeeEnclaveConfiguration.builder()
+                                .version(VERSION)
+                                .build()
+                )
+                .build();
+        when(iexecHubService.getTaskDescription(TASK_ID)).thenReturn(taskDescription);
+        return taskDescription;
+    }
+
+    private double getDeduplicatedCount(final String state) {
+        return meterRegistry.counter(TeeSessionService.METRIC_DEDUPLICATED,
+                TeeSessionService.METRIC_LABEL_STATE, state).count();
+    }
+
+    @Test
+    void shouldReturnSameSessionForIdenticalRequests() throws TeeSessionGenerationException {
+        mockSconeTaskDescription();
+        when(teeSessionHandler.buildAndPostSession(any(TeeSessionRequest.class))).thenReturn(SECRET_PROVISIONING_URL);
+
+        final TeeSessionGenerationResponse first = teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, TEE_CHALLENGE);
+        final TeeSessionGenerationResponse second = teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, TEE_CHALLENGE);
+
+        assertSame(first, second);
+        verify(teeSessionHandler, times(1)).buildAndPostSession(any());
+        assertEquals(1.0, getDeduplicatedCount(TeeSessionService.STATE_COMPLETED));
+    }
+
+    @Test
+    void shouldGenerateNewSessionWhenEnclaveChallengeDiffers() throws TeeSessionGenerationException {
+        mockSconeTaskDescription();
+        when(teeSessionHandler.buildAndPostSession(any(TeeSessionRequest.class))).thenReturn(SECRET_PROVISIONING_URL);
+
+        final TeeSessionGenerationResponse first = teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, TEE_CHALLENGE);
+        final TeeSessionGenerationResponse second = teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, "0x3");
+
+        assertNotEquals(first.getSessionId(), second.getSessionId());
+        verify(teeSessionHandler, times(2)).buildAndPostSession(any());
+        assertEquals(0.0, getDeduplicatedCount(TeeSessionService.STATE_COMPLETED));
+    }
+
+    @Test
+    void shouldGenerateNewSessionWhenDeduplicationDisabled() throws TeeSessionGenerationException {
+        teeSessionService = new TeeSessionService(iexecHubService, teeSessionHandler, teeServicesPropertiesMap,
+                new TeeSessionDeduplicationConfiguration(false, Duration.ofMinutes(5), 100));
+        mockSconeTaskDescription();
+        when(teeSessionHandler.buildAndPostSession(any(TeeSessionRequest.class))).thenReturn(SECRET_PROVISIONING_URL);
+
+        final TeeSessionGenerationResponse first = teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, TEE_CHALLENGE);
+        final TeeSessionGenerationResponse second = teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, TEE_CHALLENGE);
+
+        assertNotEquals(first.getSessionId(), second.getSessionId());
+        verify(teeSessionHandler, times(2)).buildAndPostSession(any());
+    }
+
+    @Test
+    void shouldNotKeepFailedGeneration() throws TeeSessionGenerationException {
+        mockSconeTaskDescription();
+        when(teeSessionHandler.buildAndPostSession(any(TeeSessionRequest.class)))
+                .thenThrow(new TeeSessionGenerationException(SECURE_SESSION_STORAGE_CALL_FAILED, "failed"))
+                .thenReturn(SECRET_PROVISIONING_URL);
+
+        assertThrows(TeeSessionGenerationException.class,
+                () -> teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, TEE_CHALLENGE));
+        final TeeSessionGenerationResponse response = teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, TEE_CHALLENGE);
+
+        assertEquals(SECRET_PROVISIONING_URL, response.getSecretProvisioningUrl());
+        verify(teeSessionHandler, times(2)).buildAndPostSession(any());
+        assertEquals(0.0, getDeduplicatedCount(TeeSessionService.STATE_COMPLETED));
+    }
+
+    @Test
+    void shouldCoalesceConcurrentIdenticalRequests() throws Exception {
+        mockSconeTaskDescription();
+        final CountDownLatch postStarted = new CountDownLatch(1);
+        final CountDownLatch releasePost = new CountDownLatch(1);
+        when(teeSessionHandler.buildAndPostSession(any(TeeSessionRequest.class))).thenAnswer(invocation -> {
+            postStarted.countDown();
+            assertTrue(releasePost.await(5, TimeUnit.SECONDS));
+            return SECRET_PROVISIONING_URL;
+        });
+
+        final CompletableFuture<TeeSessionGenerationResponse> first = CompletableFuture.supplyAsync(
+                () -> assertDoesNotThrow(() -> teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, TEE_CHALLENGE)));
+        assertTrue(postStarted.await(5, TimeUnit.SECONDS));
+        final CompletableFuture<TeeSessionGenerationResponse> second = CompletableFuture.supplyAsync(
+                () -> assertDoesNotThrow(() -> teeSessionService.generateTeeSession(TASK_ID, WORKER_ADDRESS, TEE_CHALLENGE)));
+        while (getDeduplicatedCount(TeeSessionService.STATE_IN_FLIGHT) == 0.0) {
+            Thread.onSpinWait();
+        }
+        releasePost.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        verify(teeSessionHandler, times(1)).buildAndPostSession(any());
+    }
+    // endregion
+
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iexec.sms.tee.session.tdx.storage.TdxSession;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static com.iexec.sms.tee.session.generic.CborSessionEncoder.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CborSessionEncoderTests {
+
+    static TdxSession createBulkSession(final int datasetCount) {
+        final Map<String, String> environment = new HashMap<>();
+        for (int i = 1; i <= datasetCount; i++) {
+            environment.put("IEXEC_DATASET_" + i + "_URL", "https://ipfs.iex.ec/ipfs/QmW2WQi7j6c7UgJTarActp7tDNikE4B2qXtFCfLPdsgaTQ" + i);
+            environment.put("IEXEC_DATASET_" + i + "_CHECKSUM", "0x" + "ab".repeat(32));
+            environment.put("IEXEC_DATASET_" + i + "_KEY", "ubP3TmVAT2ixzHrb5Lh+wZLrU/1n9MBEmSqpE3sWyYo=");
+            environment.put("IEXEC_DATASET_" + i + "_FILENAME", "0x" + "cd".repeat(20));
+        }
+        return new TdxSession("session", "v0.1", List.of(
+                new TdxSession.Service("pre-compute", "pre-compute-image", "fingerprint", environment),
+                new TdxSession.Service("app", "app-image", "fingerprint", Map.of("IEXEC_TASK_ID", "0x" + "12".repeat(32)))));
+    }
+
+    @Test
+    void shouldEncodeSessionAsCbor() throws IOException {
+        final TdxSession session = createBulkSession(1);
+        final RequestTemplate template = new RequestTemplate();
+        new CborSessionEncoder(Long.MAX_VALUE).encode(session, TdxSession.class, template);
+
+        assertThat(template.headers()).containsEntry(CONTENT_TYPE_HEADER, List.of(CBOR_CONTENT_TYPE));
+        assertThat(template.headers()).doesNotContainKey(CONTENT_ENCODING_HEADER);
+        assertThat(CBOR_MAPPER.readValue(template.body(), TdxSession.class)).isEqualTo(session);
+    }
+
+    @Test
+    void shouldCompressLargeSession() throws IOException {
+        final TdxSession session = createBulkSession(100);
+        final RequestTemplate template = new RequestTemplate();
+        new CborSessionEncoder(16 * 1024).encode(session, TdxSession.class, template);
+
+        assertThat(template.headers()).containsEntry(CONTENT_ENCODING_HEADER, List.of(GZIP_CONTENT_ENCODING));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(template.body()))) {
+            assertThat(CBOR_MAPPER.readValue(gzip.readAllBytes(), TdxSession.class)).isEqualTo(session);
+        }
+    }
+
+    @Test
+    void shouldProduceSmallerPayloadsThanJson() throws IOException {
+        final TdxSession session = createBulkSession(100);
+        final int jsonSize = new ObjectMapper().writeValueAsBytes(session).length;
+
+        final RequestTemplate cborTemplate = new RequestTemplate();
+        new CborSessionEncoder(Long.MAX_VALUE).encode(session, TdxSession.class, cborTemplate);
+        final RequestTemplate gzipTemplate = new RequestTemplate();
+        new CborSessionEncoder(0).encode(session, TdxSession.class, gzipTemplate);
+
+        assertThat(cborTemplate.body().length).isLessThan(jsonSize);
+        assertThat(gzipTemplate.body().length).isLessThan(jsonSize / 4);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import com.iexec.sms.tee.session.generic.SessionPoster.SessionStorageEndpoint;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.iexec.sms.tee.session.generic.SecretProvisionerBalancer.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SecretProvisionerBalancerTests {
+    private static final Duration EJECTION_DURATION = Duration.ofSeconds(30);
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final SessionStorageEndpoint<String> endpoint1 =
+            new SessionStorageEndpoint<>("https://provisioner1", "provisioner1:18765", session -> {
+            });
+    private final SessionStorageEndpoint<String> endpoint2 =
+            new SessionStorageEndpoint<>("https://provisioner2", "provisioner2:18765", session -> {
+            });
+    private final List<SessionStorageEndpoint<String>> endpoints = List.of(endpoint1, endpoint2);
+
+    @Mock
+    private Clock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private SecretProvisionerBalancer balancer;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.globalRegistry.add(meterRegistry);
+        lenient().when(clock.instant()).thenReturn(NOW);
+        balancer = new SecretProvisionerBalancer(
+                new SecretProvisionerBalancingConfiguration(2, EJECTION_DURATION), clock);
+    }
+
+    @AfterEach
+    void afterEach() {
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
+    }
+
+    private void fail(final SessionStorageEndpoint<String> endpoint) {
+        balancer.onPostStarted(endpoint.webUrl());
+        balancer.onPostCompleted(endpoint.webUrl(), false, 0);
+    }
+
+    // region selection
+    @Test
+    void shouldSelectFirstEndpointWhenIdle() {
+        assertThat(balancer.select(endpoints, null)).isEqualTo(endpoint1);
+    }
+
+    @Test
+    void shouldSelectEndpointWithLeastOutstandingPosts() {
+        balancer.onPostStarted(endpoint1.webUrl());
+        assertThat(balancer.select(endpoints, null)).isEqualTo(endpoint2);
+        assertThat(meterRegistry.find(METRIC_OUTSTANDING).tag(METRIC_LABEL_URL, endpoint1.webUrl()).gauge().value())
+                .isOne();
+    }
+
+    @Test
+    void shouldSelectFastestEndpointWhenSameOutstandingPosts() {
+        balancer.onPostStarted(endpoint1.webUrl());
+        balancer.onPostCompleted(endpoint1.webUrl(), true, Duration.ofMillis(500).toNanos());
+        balancer.onPostStarted(endpoint2.webUrl());
+        balancer.onPostCompleted(endpoint2.webUrl(), true, Duration.ofMillis(50).toNanos());
+        assertThat(balancer.select(endpoints, null)).isEqualTo(endpoint2);
+    }
+
+    @Test
+    void shouldNotSelectExcludedEndpoint() {
+        assertThat(balancer.select(endpoints, endpoint1)).isEqualTo(endpoint2);
+        assertThat(balancer.select(List.of(endpoint1), endpoint1)).isNull();
+    }
+    // endregion
+
+    // region health
+    @Test
+    void shouldEjectFailingEndpoint() {
+        fail(endpoint1);
+        assertThat(balancer.select(endpoints, null)).isEqualTo(endpoint1);
+        fail(endpoint1);
+        assertThat(balancer.select(endpoints, null)).isEqualTo(endpoint2);
+        assertThat(meterRegistry.find(METRIC_HEALTHY).tag(METRIC_LABEL_URL, endpoint1.webUrl()).gauge().value())
+                .isZero();
+    }
+
+    @Test
+    void shouldSelectEjectedEndpointAgainAfterEjectionDuration() {
+        fail(endpoint1);
+        fail(endpoint1);
+        when(clock.instant()).thenReturn(NOW.plus(EJECTION_DURATION));
+        assertThat(balancer.select(endpoints, null)).isEqualTo(endpoint1);
+    }
+
+    @Test
+    void shouldNotEjectEndpointAnsweringWithClientErrors() {
+        for (int i = 0; i < 5; i++) {
+            balancer.onPostStarted(endpoint1.webUrl());
+            balancer.onPostCompleted(endpoint1.webUrl(), true, 0);
+        }
+        assertThat(balancer.select(endpoints, null)).isEqualTo(endpoint1);
+    }
+
+    @Test
+    void shouldSelectAmongAllEndpointsWhenAllAreEjected() {
+        fail(endpoint1);
+        fail(endpoint1);
+        fail(endpoint2);
+        fail(endpoint2);
+        assertThat(balancer.select(endpoints, null)).isEqualTo(endpoint1);
+    }
+    // endregion
+}
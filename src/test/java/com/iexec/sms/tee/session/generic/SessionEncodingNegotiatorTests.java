@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import com.iexec.common.utils.FeignBuilder;
+import com.iexec.sms.http.FeignClientConfiguration;
+import com.iexec.sms.http.PooledFeignClient;
+import com.iexec.sms.tee.session.tdx.storage.TdxSession;
+import com.iexec.sms.tee.session.tdx.storage.TdxSessionStorageApiClient;
+import com.sun.net.httpserver.HttpServer;
+import feign.FeignException;
+import feign.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class SessionEncodingNegotiatorTests {
+    private static final String SESSION = "session";
+
+    private final List<String> receivedContentTypes = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private PooledFeignClient httpClient;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpClient = new PooledFeignClient(new FeignClientConfiguration(
+                Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(1), 2, Logger.Level.BASIC), null);
+    }
+
+    @AfterEach
+    void afterEach() {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    private void startStorage(final boolean acceptCbor) {
+        server.createContext("/session", exchange -> {
+            final String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            receivedContentTypes.add(contentType);
+            try (InputStream is = exchange.getRequestBody()) {
+                is.readAllBytes();
+            }
+            final boolean cbor = CborSessionEncoder.CBOR_CONTENT_TYPE.equals(contentType);
+            exchange.sendResponseHeaders(cbor && !acceptCbor ? 415 : 204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    private SessionEncodingNegotiator<TdxSession> createNegotiator() {
+        final String url = "http://localhost:" + server.getAddress().getPort();
+        final TdxSessionStorageApiClient jsonClient = FeignBuilder.createBuilder(Logger.Level.BASIC)
+                .client(httpClient)
+                .target(TdxSessionStorageApiClient.class, url);
+        final TdxSessionStorageApiClient compactClient = FeignBuilder.createBuilder(Logger.Level.BASIC)
+                .client(httpClient)
+                .encoder(new CborSessionEncoder(1024))
+                .target(TdxSessionStorageApiClient.class, url);
+        return new SessionEncodingNegotiator<>(url, compactClient::postSession, jsonClient::postSession);
+    }
+
+    // region stub storage
+    @Test
+    void shouldPostCompactSessionsWhenAccepted() {
+        startStorage(true);
+        final SessionEncodingNegotiator<TdxSession> negotiator = createNegotiator();
+
+        negotiator.postSession(CborSessionEncoderTests.createBulkSession(100));
+        negotiator.postSession(CborSessionEncoderTests.createBulkSession(1));
+
+        assertThat(negotiator.isCompactAccepted()).isTrue();
+        assertThat(receivedContentTypes).containsExactly(
+                CborSessionEncoder.CBOR_CONTENT_TYPE, CborSessionEncoder.CBOR_CONTENT_TYPE);
+    }
+
+    @Test
+    void shouldFallBackToJsonWhenCompactSessionsAreRejected() {
+        startStorage(false);
+        final SessionEncodingNegotiator<TdxSession> negotiator = createNegotiator();
+
+        negotiator.postSession(CborSessionEncoderTests.createBulkSession(1));
+        negotiator.postSession(CborSessionEncoderTests.createBulkSession(1));
+
+        assertThat(negotiator.isCompactAccepted()).isFalse();
+        assertThat(receivedContentTypes).hasSize(3);
+        assertThat(receivedContentTypes.get(0)).isEqualTo(CborSessionEncoder.CBOR_CONTENT_TYPE);
+        assertThat(receivedContentTypes.subList(1, 3)).noneMatch(CborSessionEncoder.CBOR_CONTENT_TYPE::equals);
+    }
+    // endregion
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotFallBackOnOtherErrors() {
+        final Function<String, String> compactPost = mock(Function.class);
+        final Function<String, String> jsonPost = mock(Function.class);
+        when(compactPost.apply(SESSION)).thenThrow(mock(FeignException.InternalServerError.class));
+        final SessionEncodingNegotiator<String> negotiator =
+                new SessionEncodingNegotiator<>("target", compactPost, jsonPost);
+
+        assertThatThrownBy(() -> negotiator.postSession(SESSION))
+                .isInstanceOf(FeignException.InternalServerError.class);
+        assertThat(negotiator.isCompactAccepted()).isTrue();
+        verifyNoInteractions(jsonPost);
+    }
+}
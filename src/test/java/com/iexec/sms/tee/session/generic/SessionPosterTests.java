@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.generic;
+
+import com.iexec.commons.poco.tee.TeeFramework;
+import com.iexec.sms.api.TeeSessionGenerationError;
+import com.iexec.sms.tee.session.generic.SessionPoster.SessionStorageEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.iexec.sms.tee.session.generic.SessionPoster.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionPosterTests {
+    private static final String SESSION = "session";
+    private static final String PRIMARY_URL = "https://primary";
+    private static final String PRIMARY_ENCLAVE_HOST = "primary:18765";
+    private static final String HEDGE_URL = "https://hedge";
+    private static final String HEDGE_ENCLAVE_HOST = "hedge:18765";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.globalRegistry.add(meterRegistry);
+    }
+
+    @AfterEach
+    void afterEach() {
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
+    }
+
+    private static SessionPoster createPoster(final boolean hedging) {
+        return new SessionPoster(
+                new SessionPostConfiguration(
+                        3, Duration.ofMillis(10), Duration.ofMillis(50), hedging, Duration.ofMillis(100)),
+                new SecretProvisionerBalancer(new SecretProvisionerBalancingConfiguration(
+                        3, Duration.ofSeconds(30))));
+    }
+
+    private static SessionStorageEndpoint<String> primary(final SessionPoster.SessionPost<String> post) {
+        return new SessionStorageEndpoint<>(PRIMARY_URL, PRIMARY_ENCLAVE_HOST, post);
+    }
+
+    private static SessionStorageEndpoint<String> hedge(final SessionPoster.SessionPost<String> post) {
+        return new SessionStorageEndpoint<>(HEDGE_URL, HEDGE_ENCLAVE_HOST, post);
+    }
+
+    private double getCount(final String name, final String... tags) {
+        final Counter counter = meterRegistry.find(name).tags(tags).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    // region retries
+    @Test
+    void shouldPostSession() throws TeeSessionGenerationException {
+        final AtomicInteger calls = new AtomicInteger();
+        final String enclaveHost = createPoster(false).postSession(TeeFramework.SCONE, SESSION,
+                List.of(primary(session -> calls.incrementAndGet())));
+        assertThat(enclaveHost).isEqualTo(PRIMARY_ENCLAVE_HOST);
+        assertThat(calls).hasValue(1);
+        assertThat(getCount(METRIC_RETRIES, METRIC_LABEL_FRAMEWORK, "SCONE")).isZero();
+    }
+
+    @Test
+    void shouldRetryTransientFailures() throws TeeSessionGenerationException {
+        final AtomicInteger calls = new AtomicInteger();
+        final String enclaveHost = createPoster(false).postSession(TeeFramework.SCONE, SESSION,
+                List.of(primary(session -> {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new ResourceAccessException("connection refused");
+                    } else if (calls.get() == 2) {
+                        throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+                    }
+                })));
+        assertThat(enclaveHost).isEqualTo(PRIMARY_ENCLAVE_HOST);
+        assertThat(calls).hasValue(3);
+        assertThat(getCount(METRIC_RETRIES, METRIC_LABEL_FRAMEWORK, "SCONE")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotRetryClientErrors() {
+        final AtomicInteger calls = new AtomicInteger();
+        final SessionPoster poster = createPoster(false);
+        final List<SessionStorageEndpoint<String>> endpoints = List.of(primary(session -> {
+            calls.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }));
+        assertThatThrownBy(() -> poster.postSession(TeeFramework.SCONE, SESSION, endpoints))
+                .isInstanceOf(TeeSessionGenerationException.class)
+                .hasFieldOrPropertyWithValue("error", TeeSessionGenerationError.SECURE_SESSION_STORAGE_CALL_FAILED);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void shouldFailAfterMaxAttempts() {
+        final AtomicInteger calls = new AtomicInteger();
+        final SessionPoster poster = createPoster(false);
+        final List<SessionStorageEndpoint<String>> endpoints = List.of(primary(session -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+        assertThatThrownBy(() -> poster.postSession(TeeFramework.GRAMINE, SESSION, endpoints))
+                .isInstanceOf(TeeSessionGenerationException.class)
+                .hasFieldOrPropertyWithValue("error", TeeSessionGenerationError.SECURE_SESSION_STORAGE_CALL_FAILED);
+        assertThat(calls).hasValue(3);
+        assertThat(getCount(METRIC_RETRIES, METRIC_LABEL_FRAMEWORK, "GRAMINE")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldConsiderConflictOnRetryAsSuccess() throws TeeSessionGenerationException {
+        final AtomicInteger calls = new AtomicInteger();
+        final String enclaveHost = createPoster(false).postSession(TeeFramework.TDX, SESSION,
+                List.of(primary(session -> {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new HttpServerErrorException(HttpStatus.GATEWAY_TIMEOUT);
+                    }
+                    throw new HttpClientErrorException(HttpStatus.CONFLICT);
+                })));
+        assertThat(enclaveHost).isEqualTo(PRIMARY_ENCLAVE_HOST);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void shouldNotConsiderConflictOnFirstAttemptAsSuccess() {
+        final SessionPoster poster = createPoster(false);
+        final List<SessionStorageEndpoint<String>> endpoints = List.of(primary(session -> {
+            throw new HttpClientErrorException(HttpStatus.CONFLICT);
+        }));
+        assertThatThrownBy(() -> poster.postSession(TeeFramework.TDX, SESSION, endpoints))
+                .isInstanceOf(TeeSessionGenerationException.class);
+    }
+
+    @Test
+    void shouldBoundBackoff() {
+        final SessionPoster poster = createPoster(false);
+        for (int retry = 1; retry < 100; retry++) {
+            assertThat(poster.getBackoff(retry)).isBetween(Duration.ZERO, Duration.ofMillis(50));
+        }
+        assertThat(poster.getBackoff(1)).isBetween(Duration.ZERO, Duration.ofMillis(10));
+    }
+    // endregion
+
+    // region hedging
+    @Test
+    void shouldHedgeSlowPost() throws TeeSessionGenerationException {
+        final String enclaveHost = createPoster(true).postSession(TeeFramework.SCONE, SESSION, List.of(
+                primary(session -> Thread.sleep(1000)),
+                hedge(session -> {
+                })));
+        assertThat(enclaveHost).isEqualTo(HEDGE_ENCLAVE_HOST);
+        assertThat(getCount(METRIC_HEDGES, METRIC_LABEL_FRAMEWORK, "SCONE", METRIC_LABEL_OUTCOME, HEDGE_LAUNCHED))
+                .isOne();
+        assertThat(getCount(METRIC_HEDGES, METRIC_LABEL_FRAMEWORK, "SCONE", METRIC_LABEL_OUTCOME, HEDGE_WON))
+                .isOne();
+    }
+
+    @Test
+    void shouldNotHedgeFastPost() throws TeeSessionGenerationException {
+        final AtomicInteger hedgeCalls = new AtomicInteger();
+        final String enclaveHost = createPoster(true).postSession(TeeFramework.SCONE, SESSION, List.of(
+                primary(session -> {
+                }),
+                hedge(session -> hedgeCalls.incrementAndGet())));
+        assertThat(enclaveHost).isEqualTo(PRIMARY_ENCLAVE_HOST);
+        assertThat(hedgeCalls).hasValue(0);
+        assertThat(getCount(METRIC_HEDGES, METRIC_LABEL_FRAMEWORK, "SCONE", METRIC_LABEL_OUTCOME, HEDGE_LAUNCHED))
+                .isZero();
+    }
+
+    @Test
+    void shouldNotHedgeWhenDisabled() throws TeeSessionGenerationException {
+        final AtomicInteger hedgeCalls = new AtomicInteger();
+        final String enclaveHost = createPoster(false).postSession(TeeFramework.SCONE, SESSION, List.of(
+                primary(session -> Thread.sleep(200)),
+                hedge(session -> hedgeCalls.incrementAndGet())));
+        assertThat(enclaveHost).isEqualTo(PRIMARY_ENCLAVE_HOST);
+        assertThat(hedgeCalls).hasValue(0);
+    }
+
+    @Test
+    void shouldKeepPrimaryResultWhenHedgeFails() throws TeeSessionGenerationException {
+        final String enclaveHost = createPoster(true).postSession(TeeFramework.SCONE, SESSION, List.of(
+                primary(session -> Thread.sleep(300)),
+                hedge(session -> {
+                    throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+                })));
+        assertThat(enclaveHost).isEqualTo(PRIMARY_ENCLAVE_HOST);
+        assertThat(getCount(METRIC_HEDGES, METRIC_LABEL_FRAMEWORK, "SCONE", METRIC_LABEL_OUTCOME, HEDGE_WON))
+                .isZero();
+    }
+
+    @Test
+    void shouldUseP99LatencyAsHedgeDelay() {
+        final SessionPoster poster = createPoster(true);
+        assertThat(poster.getHedgeDelay()).isEqualTo(Duration.ofMillis(100));
+        for (int i = 0; i < 99; i++) {
+            poster.recordLatency(Duration.ofMillis(10).toNanos());
+        }
+        poster.recordLatency(Duration.ofMillis(500).toNanos());
+        assertThat(poster.getHedgeDelay()).isEqualTo(Duration.ofMillis(100));
+        poster.recordLatency(Duration.ofMillis(400).toNanos());
+        assertThat(poster.getHedgeDelay()).isEqualTo(Duration.ofMillis(400));
+    }
+    // endregion
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,11 @@ package com.iexec.sms.tee.session.gramine;
 
 import com.iexec.commons.poco.task.TaskDescription;
 import com.iexec.sms.api.TeeSessionGenerationError;
+import com.iexec.sms.tee.session.generic.AdditionalSecretProvisionersConfiguration;
+import com.iexec.sms.tee.session.generic.SecretProvisionerBalancer;
+import com.iexec.sms.tee.session.generic.SecretProvisionerBalancingConfiguration;
+import com.iexec.sms.tee.session.generic.SessionPostConfiguration;
+import com.iexec.sms.tee.session.generic.SessionPoster;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
 import com.iexec.sms.tee.session.generic.TeeSessionRequest;
 import com.iexec.sms.tee.session.gramine.sps.GramineSession;
@@ -26,10 +31,12 @@ import com.iexec.sms.tee.session.gramine.sps.SpsConfiguration;
 import feign.FeignException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
+import java.util.List;
+
 import static com.iexec.sms.tee.session.TeeSessionTestUtils.createSessionRequest;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -43,13 +50,20 @@ class GramineSessionHandlerServiceTests {
     private GramineSessionMakerService sessionService;
     @Mock
     private SpsConfiguration spsConfiguration;
-    @InjectMocks
     private GramineSessionHandlerService sessionHandlerService;
 
     @BeforeEach
     void beforeEach() {
         MockitoAnnotations.openMocks(this);
+        sessionHandlerService = new GramineSessionHandlerService(sessionService, spsConfiguration,
+                new AdditionalSecretProvisionersConfiguration(List.of()),
+                new SessionPoster(
+                        new SessionPostConfiguration(
+                                3, Duration.ofMillis(10), Duration.ofMillis(100), false, Duration.ofSeconds(1)),
+                        new SecretProvisionerBalancer(new SecretProvisionerBalancingConfiguration(
+                                3, Duration.ofSeconds(30)))));
         when(spsConfiguration.getEnclaveHost()).thenReturn(SPS_URL);
+        when(spsConfiguration.getWebUrl()).thenReturn("http://sps");
     }
 
     @Test
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.scone;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.iexec.sms.tee.session.scone.AttestationServerHealthChecker.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttestationServerHealthCheckerTests {
+    private static final Duration INTERVAL = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private AzureAttestationServer server1;
+    @Mock
+    private AzureAttestationServer server2;
+    @Mock
+    private Clock clock;
+
+    private URL url1;
+    private URL url2;
+    private SimpleMeterRegistry meterRegistry;
+    private AttestationServerHealthChecker healthChecker;
+
+    @BeforeEach
+    void init() throws MalformedURLException {
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.globalRegistry.add(meterRegistry);
+        url1 = URI.create("https://server1.attest.azure.net").toURL();
+        url2 = URI.create("https://server2.attest.azure.net").toURL();
+        final Map<URL, AzureAttestationServer> clients = new LinkedHashMap<>();
+        clients.put(url1, server1);
+        clients.put(url2, server2);
+        healthChecker = new AttestationServerHealthChecker(clients, INTERVAL, MAX_BACKOFF, clock);
+        lenient().when(clock.instant()).thenReturn(NOW);
+    }
+
+    @AfterEach
+    void afterEach() {
+        meterRegistry.clear();
+        Metrics.globalRegistry.clear();
+        Metrics.globalRegistry.remove(meterRegistry);
+    }
+
+    @Test
+    void shouldNotProbeAtSessionTimeWhenNoServerIsKnown() {
+        assertThat(healthChecker.getBestServer()).isNull();
+        verifyNoInteractions(server1, server2);
+    }
+
+    @Test
+    void shouldNotProbeAtSessionTimeWhenHealthyServerIsKnown() {
+        healthChecker.probeServers();
+        clearInvocations(server1, server2);
+
+        final URL best = healthChecker.getBestServer();
+
+        assertThat(best).isIn(url1, url2);
+        verifyNoInteractions(server1, server2);
+    }
+
+    @Test
+    void shouldReturnNullWhenNoServerIsHealthy() {
+        when(server1.canFetchOpenIdMetadata()).thenThrow(FeignException.TooManyRequests.class);
+        when(server2.canFetchOpenIdMetadata()).thenThrow(FeignException.TooManyRequests.class);
+        healthChecker.probeServers();
+
+        assertThat(healthChecker.getBestServer()).isNull();
+    }
+
+    @Test
+    void shouldReturnLastKnownServerWhenNoServerIsHealthyAnymore() {
+        when(server2.canFetchOpenIdMetadata()).thenThrow(FeignException.TooManyRequests.class);
+        healthChecker.probeServers();
+        assertThat(healthChecker.getBestServer()).isEqualTo(url1);
+
+        when(server1.canFetchOpenIdMetadata()).thenThrow(FeignException.TooManyRequests.class);
+        when(clock.instant()).thenReturn(NOW.plus(MAX_BACKOFF));
+        healthChecker.probeServers();
+        clearInvocations(server1, server2);
+
+        assertThat(healthChecker.getBestServer()).isEqualTo(url1);
+        verifyNoInteractions(server1, server2);
+    }
+
+    @Test
+    void shouldBackOffFailingServer() {
+        when(server1.canFetchOpenIdMetadata()).thenThrow(FeignException.TooManyRequests.class);
+        healthChecker.probeServers();
+        verify(server1, times(1)).canFetchOpenIdMetadata();
+
+        // still in backoff
+        when(clock.instant()).thenReturn(NOW.plus(INTERVAL).minusSeconds(1));
+        healthChecker.probeServers();
+        verify(server1, times(1)).canFetchOpenIdMetadata();
+
+        // backoff elapsed, server recovered
+        doReturn("").when(server1).canFetchOpenIdMetadata();
+        when(clock.instant()).thenReturn(NOW.plus(INTERVAL));
+        healthChecker.probeServers();
+        verify(server1, times(2)).canFetchOpenIdMetadata();
+        assertThat(meterRegistry.find(METRIC_HEALTHY).tag(METRIC_LABEL_URL, url1.toString()).gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountProbeFailuresAndMarkServerUnhealthy() {
+        when(server1.canFetchOpenIdMetadata()).thenThrow(FeignException.TooManyRequests.class);
+        healthChecker.probeServers();
+
+        assertThat(meterRegistry.find(METRIC_PROBE_FAILURES).tag(METRIC_LABEL_URL, url1.toString()).counter().count())
+                .isOne();
+        assertThat(meterRegistry.find(METRIC_HEALTHY).tag(METRIC_LABEL_URL, url1.toString()).gauge().value())
+                .isZero();
+        assertThat(meterRegistry.find(METRIC_HEALTHY).tag(METRIC_LABEL_URL, url2.toString()).gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldDoubleBackoffUpToMax() {
+        assertThat(healthChecker.getBackoff(1)).isEqualTo(INTERVAL);
+        assertThat(healthChecker.getBackoff(2)).isEqualTo(INTERVAL.multipliedBy(2));
+        assertThat(healthChecker.getBackoff(3)).isEqualTo(INTERVAL.multipliedBy(4));
+        assertThat(healthChecker.getBackoff(10)).isEqualTo(MAX_BACKOFF);
+        assertThat(healthChecker.getBackoff(100)).isEqualTo(MAX_BACKOFF);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2024 IEXEC BLOCKCHAIN TECH
+ * Copyright 2022-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,21 +18,30 @@ package com.iexec.sms.tee.session.scone;
 
 import com.iexec.commons.poco.task.TaskDescription;
 import com.iexec.sms.api.TeeSessionGenerationError;
+import com.iexec.sms.tee.session.generic.AdditionalSecretProvisionersConfiguration;
+import com.iexec.sms.tee.session.generic.SecretProvisionerBalancer;
+import com.iexec.sms.tee.session.generic.SecretProvisionerBalancingConfiguration;
+import com.iexec.sms.tee.session.generic.SessionPostConfiguration;
+import com.iexec.sms.tee.session.generic.SessionPoster;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
 import com.iexec.sms.tee.session.generic.TeeSessionRequest;
 import com.iexec.sms.tee.session.scone.cas.CasClient;
 import com.iexec.sms.tee.session.scone.cas.CasConfiguration;
 import com.iexec.sms.tee.session.scone.cas.SconeSession;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Duration;
+import java.util.List;
+
 import static com.iexec.sms.tee.session.TeeSessionTestUtils.createSessionRequest;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -46,17 +55,27 @@ class SconeSessionHandlerServiceTests {
     private CasClient apiClient;
     @Mock
     private CasConfiguration casConfiguration;
-    @InjectMocks
     private SconeSessionHandlerService sessionHandlerService;
 
+    @BeforeEach
+    void beforeEach() {
+        lenient().when(casConfiguration.getUrl()).thenReturn("https://cas");
+        sessionHandlerService = new SconeSessionHandlerService(sessionService, apiClient, casConfiguration,
+                new AdditionalSecretProvisionersConfiguration(List.of()),
+                new SessionPoster(
+                        new SessionPostConfiguration(
+                                3, Duration.ofMillis(10), Duration.ofMillis(100), false, Duration.ofSeconds(1)),
+                        new SecretProvisionerBalancer(new SecretProvisionerBalancingConfiguration(
+                                3, Duration.ofSeconds(30)))));
+    }
+
     @Test
     void shouldBuildAndPostSession() throws TeeSessionGenerationException {
         TaskDescription taskDescription = TaskDescription.builder().build();
         TeeSessionRequest request = createSessionRequest(taskDescription);
         SconeSession casSession = mock(SconeSession.class);
-        when(casSession.toString()).thenReturn("sessionContent");
         when(sessionService.generateSession(request)).thenReturn(casSession);
-        when(apiClient.postSession(casSession.toString()))
+        when(apiClient.postSession(casSession))
                 .thenReturn(ResponseEntity.created(null).body("sessionId"));
         when(casConfiguration.getEnclaveHost()).thenReturn(CAS_URL);
 
@@ -83,7 +102,7 @@ class SconeSessionHandlerServiceTests {
         TeeSessionRequest request = createSessionRequest(taskDescription);
         SconeSession casSession = mock(SconeSession.class);
         when(sessionService.generateSession(request)).thenReturn(casSession);
-        when(apiClient.postSession(casSession.toString()))
+        when(apiClient.postSession(casSession))
                 .thenReturn(ResponseEntity.internalServerError().build());
 
         assertThrows(TeeSessionGenerationException.class,
@@ -96,7 +115,7 @@ class SconeSessionHandlerServiceTests {
         TeeSessionRequest request = createSessionRequest(taskDescription);
         SconeSession casSession = mock(SconeSession.class);
         when(sessionService.generateSession(request)).thenReturn(casSession);
-        when(apiClient.postSession(casSession.toString()))
+        when(apiClient.postSession(casSession))
                 .thenReturn(null);
 
         assertThrows(TeeSessionGenerationException.class,
@@ -41,6 +41,7 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -90,7 +91,10 @@ class SconeSessionMakerServiceTests {
                 toleratedInsecureOptions, ignoredSgxAdvisories, mode, url, urls);
         sconeSessionMakerService = new SconeSessionMakerService(
                 teeSecretsService,
-                attestationSecurityConfig
+                attestationSecurityConfig,
+                new AttestationServerHealthChecker(
+                        attestationSecurityConfig,
+                        new AttestationServerHealthCheckConfiguration(Duration.ofSeconds(30), Duration.ofMinutes(5)))
         );
 
         final TeeEnclaveConfiguration enclaveConfig = TeeEnclaveConfiguration.builder()
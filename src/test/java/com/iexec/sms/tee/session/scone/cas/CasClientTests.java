@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.scone.cas;
+
+import com.iexec.sms.ssl.TwoWaySslClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+@ExtendWith(MockitoExtension.class)
+class CasClientTests {
+
+    private static final SconeSession SESSION = SconeSession.builder()
+            .name("session")
+            .version("0.3")
+            .accessPolicy(new SconeSession.AccessPolicy(List.of("CREATOR"), List.of("CREATOR")))
+            .build();
+
+    @Mock
+    private TwoWaySslClient twoWaySslClient;
+
+    private CasClient casClient;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void init() {
+        final RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        when(twoWaySslClient.getRestTemplate()).thenReturn(restTemplate);
+        casClient = new CasClient(new CasConfiguration("cas", "8081", "enclave", "18765"), twoWaySslClient);
+    }
+
+    @Test
+    void shouldStreamSessionToCas() {
+        server.expect(requestTo("https://cas:8081/session"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(content().string(SESSION.toString()))
+                .andRespond(withStatus(HttpStatus.CREATED).body("session"));
+
+        final ResponseEntity<String> response = casClient.postSession(SESSION);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody()).isEqualTo("session");
+        server.verify();
+    }
+
+    @Test
+    void shouldSetStreamingBodyWhenRequestSupportsIt() throws IOException {
+        final ClientHttpRequest request = mock(ClientHttpRequest.class,
+                withSettings().extraInterfaces(StreamingHttpOutputMessage.class));
+        final ClientHttpResponse response = mock(ClientHttpResponse.class);
+        final HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setContentType(MediaType.TEXT_PLAIN);
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        when(request.execute()).thenReturn(response);
+        when(response.getStatusCode()).thenReturn(HttpStatus.CREATED);
+        when(response.getHeaders()).thenReturn(responseHeaders);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream("session".getBytes(StandardCharsets.UTF_8)));
+        when(twoWaySslClient.getRestTemplate())
+                .thenReturn(new RestTemplate((URI uri, HttpMethod httpMethod) -> request));
+
+        final ResponseEntity<String> casResponse = casClient.postSession(SESSION);
+
+        final ArgumentCaptor<StreamingHttpOutputMessage.Body> bodyCaptor =
+                ArgumentCaptor.forClass(StreamingHttpOutputMessage.Body.class);
+        verify((StreamingHttpOutputMessage) request).setBody(bodyCaptor.capture());
+        verify(request, never()).getBody();
+        final ByteArrayOutputStream sentBody = new ByteArrayOutputStream();
+        bodyCaptor.getValue().writeTo(sentBody);
+        assertThat(sentBody.toString(StandardCharsets.UTF_8)).isEqualTo(SESSION.toString());
+        assertThat(casResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(casResponse.getBody()).isEqualTo("session");
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iexec.sms.tee.session.scone.cas;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SconeSessionTests {
+
+    private static final SconeSession SESSION = SconeSession.builder()
+            .name("session")
+            .version("0.3")
+            .accessPolicy(new SconeSession.AccessPolicy(List.of("CREATOR"), List.of("CREATOR")))
+            .build();
+
+    @Test
+    void shouldSerializeSessionAsYaml() {
+        assertThat(SESSION.toString())
+                .contains("name: \"session\"")
+                .contains("access_policy:");
+    }
+
+    @Test
+    void shouldWriteSessionWithoutClosingStream() throws IOException {
+        final boolean[] closed = {false};
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final OutputStream outputStream = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes.write(b);
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        SESSION.writeTo(outputStream);
+
+        assertThat(bytes.toString(StandardCharsets.UTF_8)).isEqualTo(SESSION.toString());
+        assertThat(closed[0]).isFalse();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2025-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,14 @@ package com.iexec.sms.tee.session.tdx;
 
 import com.iexec.commons.poco.task.TaskDescription;
 import com.iexec.sms.api.TeeSessionGenerationError;
+import com.iexec.sms.http.FeignClientFactory;
 import com.iexec.sms.ssl.SslConfig;
+import com.iexec.sms.tee.session.generic.AdditionalSecretProvisionersConfiguration;
+import com.iexec.sms.tee.session.generic.SessionEncodingConfiguration;
+import com.iexec.sms.tee.session.generic.SecretProvisionerBalancer;
+import com.iexec.sms.tee.session.generic.SecretProvisionerBalancingConfiguration;
+import com.iexec.sms.tee.session.generic.SessionPostConfiguration;
+import com.iexec.sms.tee.session.generic.SessionPoster;
 import com.iexec.sms.tee.session.generic.TeeSessionGenerationException;
 import com.iexec.sms.tee.session.generic.TeeSessionRequest;
 import com.iexec.sms.tee.session.tdx.storage.TdxSession;
@@ -30,9 +37,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 
 import javax.net.ssl.SSLContext;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
 
 import static com.iexec.sms.tee.session.TeeSessionTestUtils.createSessionRequest;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,6 +55,8 @@ class TdxSessionHandlerServiceTests {
     @Mock
     private SslConfig sslConfig;
     @Mock
+    private FeignClientFactory feignClientFactory;
+    @Mock
     private TdxSessionMakerService sessionService;
     @Mock
     private TdxSessionStorageConfiguration storageConfiguration;
@@ -56,7 +68,14 @@ class TdxSessionHandlerServiceTests {
     private void setupMockService() throws NoSuchAlgorithmException {
         when(sslConfig.getFreshSslContext()).thenReturn(SSLContext.getDefault());
         when(storageConfiguration.getPostUrl()).thenReturn("http://session-storage");
-        sessionHandlerService = new TdxSessionHandlerService(sslConfig, sessionService, storageConfiguration);
+        sessionHandlerService = new TdxSessionHandlerService(sslConfig, feignClientFactory, sessionService, storageConfiguration,
+                new SessionEncodingConfiguration(false, DataSize.ofKilobytes(64)),
+                new AdditionalSecretProvisionersConfiguration(List.of()),
+                new SessionPoster(
+                        new SessionPostConfiguration(
+                                3, Duration.ofMillis(10), Duration.ofMillis(100), false, Duration.ofSeconds(1)),
+                        new SecretProvisionerBalancer(new SecretProvisionerBalancingConfiguration(
+                                3, Duration.ofSeconds(30)))));
         ReflectionTestUtils.setField(sessionHandlerService, "storageClient", storageClient);
     }
 